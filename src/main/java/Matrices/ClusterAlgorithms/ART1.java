@@ -1,66 +1,54 @@
 package Matrices.ClusterAlgorithms;
 
-import Matrices.Data.Entities.DSMItem;
-import Matrices.Data.Entities.Grouping;
-import Matrices.Data.SymmetricDSMData;
-import Util.RandomColorGenerator;
+import Matrices.Data.DSMSparseSnapshot;
 
 import java.util.ArrayList;
+import java.util.Collections;
 
 /**
- * Contains java implementation of the ART1 algorithm.
+ * Contains java implementation of the ART1 algorithm. Only reads a snapshot of the matrix, so it can run on a
+ * background thread while the matrix is being edited.
  *
  * @author: Aiden Carney
  */
 public class ART1 {
 
-    ArrayList<DSMItem> sortedItems;
-
-    SymmetricDSMData matrix;
     int numItems;
     ArrayList<ArrayList<Double>> adjacencyMatrix;
 
     ArrayList<Integer> itemMemberships;
     ArrayList<ArrayList<Double>> prototypes;
-    ArrayList<Grouping> prototypeGroups;
+    int[] itemGroups;  // row index -> the prototype whose grouping the item is in
 
 
-    public ART1(SymmetricDSMData inputMatrix) {
-        matrix = inputMatrix.createCopy();
-        sortedItems = new ArrayList<>(matrix.getRows());
+    /**
+     * @param snapshot  snapshot of the symmetric matrix to cluster
+     */
+    public ART1(DSMSparseSnapshot snapshot) {
+        numItems = snapshot.getNumRows();
 
-        numItems = matrix.getRows().size();
         adjacencyMatrix = new ArrayList<>();
         for(int row = 0; row < numItems; row++) {
-            ArrayList<Double> matrixRow = new ArrayList<>();
-            for(int col = 0; col < numItems; col++) {
-                // if connection exists between this row and this column add a 1 to the matrix, otherwise, add a 0
-                if (matrix.getConnection(sortedItems.get(row).getUid(), sortedItems.get(col).getAliasUid()) != null) {
-                    matrixRow.add(1.0);
-                } else {
-                    matrixRow.add(0.0);
+            ArrayList<Double> matrixRow = new ArrayList<>(Collections.nCopies(numItems, 0.0));
+            for(int entry = snapshot.getRowStart(row); entry < snapshot.getRowEnd(row); entry++) {
+                // if connection exists between this row and this column add a 1 to the matrix, otherwise, leave the 0
+                int col = snapshot.getColAlias(snapshot.getEntryCol(entry));
+                if(col != -1) {
+                    matrixRow.set(col, 1.0);
                 }
             }
             adjacencyMatrix.add(matrixRow);
         }
 
         // set all items to not having a group
-        matrix.clearGroupings();
         itemMemberships = new ArrayList<>();
         prototypes = new ArrayList<>();  // list of column UIDs where the prototype has a value
-        prototypeGroups = new ArrayList<>();
+        itemGroups = new int[numItems];
     }
 
 
     private void initPrototypes(int maxGroups) {
-        // create groupings with distinct colors
-        RandomColorGenerator rgc = new RandomColorGenerator(0.2423353);
         for(int i = 0; i < maxGroups; i++) {
-            Grouping group = new Grouping("G" + i, null);
-
-            group.setColor(rgc.next());
-            prototypeGroups.add(group);  // add the group
-
             prototypes.add(new ArrayList<>());  // add an empty list for the prototypes
         }
 
@@ -115,22 +103,15 @@ public class ART1 {
 
 
     private void createPrototype(int prototypeIndex, int itemIndex) {
-        ArrayList<Double> newPrototype = prototypes.get(prototypeIndex);
-        for(int col = 0; col < numItems; col++) {
-            // if connection exists between this row and this column add a 1 to the matrix, otherwise, add a 0
-            if (matrix.getConnection(sortedItems.get(itemIndex).getUid(), sortedItems.get(col).getAliasUid()) != null) {
-                newPrototype.add(1.0);
-            } else {
-                newPrototype.add(0.0);
-            }
-        }
+        // the prototype starts as the row of the item, which has a 1 for every column it is connected to
+        prototypes.get(prototypeIndex).addAll(adjacencyMatrix.get(itemIndex));
 
     }
 
 
     private void updatePrototype(int prototypeIndex) {
         ArrayList<Integer> memberIndices = new ArrayList<>();  // contains list of the items in this prototype
-        for(int i = 0; i < sortedItems.size(); i++) {
+        for(int i = 0; i < numItems; i++) {
             if(itemMemberships.get(i) == prototypeIndex) {
                 memberIndices.add(i);
             }
@@ -155,23 +136,25 @@ public class ART1 {
      * @param maxGroups - the max number of groups to allow
      * @param vigilance - algo parameter
      * @param beta - algo parameter
-     * @return the new clustered matrix
+     * @return the cluster of each row index. Cluster i is the grouping of prototype i
      */
-    public SymmetricDSMData art1Algorithm(int maxGroups, double vigilance, double beta) {
+    public int[] art1Algorithm(int maxGroups, double vigilance, double beta) {
+        if(numItems == 0) {
+            return itemGroups;
+        }
         initPrototypes(maxGroups);
 
         // create initial prototype to be the first element in the dsm item rows
         int numPrototypes = 1;
         createPrototype(0, 0);
-        matrix.addGrouping(prototypeGroups.get(0));  // add this grouping because it is now in use
-        matrix.setItemGroup(sortedItems.get(0), prototypeGroups.get(0));
+        itemGroups[0] = 0;
 
 
         boolean done = false;
         int iters = 0;
         while(!done) {
             done = true;  // done when no changes have been made
-            for(int itemIndex = 0; itemIndex < sortedItems.size(); itemIndex++) {
+            for(int itemIndex = 0; itemIndex < numItems; itemIndex++) {
                 boolean addedToGroup = false;  // used to determine when to end early if example was added to prototype
                 int prototypeIndex = 0;
                 while(prototypeIndex < numPrototypes && !addedToGroup) {  // check if this item matches
@@ -186,7 +169,7 @@ public class ART1 {
                         if(similarityMagnitude / vectorMagnitude(adjacencyMatrix.get(itemIndex)) > vigilance) {
                             // add item to this group
                             itemMemberships.set(itemIndex, prototypeIndex);
-                            matrix.setItemGroup(sortedItems.get(itemIndex), prototypeGroups.get(prototypeIndex));
+                            itemGroups[itemIndex] = prototypeIndex;
                             addedToGroup = true;
 
                             // update the prototype as the bitwise and of the current prototype and the example
@@ -203,8 +186,7 @@ public class ART1 {
                     if(numPrototypes < maxGroups) {
                         createPrototype(numPrototypes, itemIndex);
 
-                        matrix.addGrouping(prototypeGroups.get(numPrototypes));  // add this grouping because it is now in use
-                        matrix.setItemGroup(sortedItems.get(itemIndex), prototypeGroups.get(numPrototypes));
+                        itemGroups[itemIndex] = numPrototypes;
                         itemMemberships.set(itemIndex, numPrototypes);
 
                         numPrototypes++;
@@ -212,7 +194,7 @@ public class ART1 {
                     // if no new prototypes can be created then add it to this last prototype
                     else {
                         // add item to this group
-                        matrix.setItemGroup(sortedItems.get(itemIndex), prototypeGroups.get(maxGroups - 1));
+                        itemGroups[itemIndex] = maxGroups - 1;
                         itemMemberships.set(itemIndex, prototypeIndex);
 
                         // update the prototype as the bitwise and of the current prototype and the example
@@ -230,6 +212,6 @@ public class ART1 {
             }
         }
 
-        return matrix;
+        return itemGroups;
     }
 }
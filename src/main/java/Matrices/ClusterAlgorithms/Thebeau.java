@@ -1,18 +1,20 @@
 package Matrices.ClusterAlgorithms;
 
 
+import Matrices.Data.DSMSparseSnapshot;
 import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.SymmetricDSMData;
 import Util.RandomColorGenerator;
 
-import java.time.Duration;
-import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 /**
  * Contains all methods relating to java implementations of Ronnie Thebeau's research in DSM clustering
@@ -35,6 +37,38 @@ public class Thebeau {
         }
     }
 
+    public static class ChainResult {
+        public long randSeed;       // seed of the random number generator of the chain
+        public int[] clusters;      // cluster of each row index of the best solution the chain found
+        public double bestCost;     // coordination cost of the best solution, the same as getCoordinationScore gives
+        public int numMoves;        // number of times an item was moved to another cluster
+        public int numImprovements; // number of times a new best solution was found
+        public long elapsedMillis;  // time the chain took to run
+
+        public ChainResult(long randSeed, int[] clusters, double bestCost, int numMoves, int numImprovements, long elapsedMillis) {
+            this.randSeed = randSeed;
+            this.clusters = clusters;
+            this.bestCost = bestCost;
+            this.numMoves = numMoves;
+            this.numImprovements = numImprovements;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+
+    public static class MultiStartResult {
+        public SymmetricDSMData matrix;               // clustered matrix of the best solution of all the chains
+        public CoordinationScore coordinationScore;  // score of the clustered matrix
+        public int bestChain;                         // index of the chain that found the best solution
+        public List<ChainResult> chains;              // results of each chain in the order they were seeded
+
+        public MultiStartResult(SymmetricDSMData matrix, CoordinationScore coordinationScore, int bestChain, List<ChainResult> chains) {
+            this.matrix = matrix;
+            this.coordinationScore = coordinationScore;
+            this.bestChain = bestChain;
+            this.chains = chains;
+        }
+    }
+
     /**
      * Function to calculate the coordination score of a DSM using Fernandez's thesis (https://dsmweborg.files.wordpress.com/2019/05/msc_thebeau.pdf p28-29)
      *
@@ -110,12 +144,16 @@ public class Thebeau {
 
         double inout = 0.0;  // sum of DSM interactions of the item with each of the items in the cluster
 
-        for(DSMItem col : matrix.getCols()) {
+        // only the connections in the row can contribute. They are added up in column order because floating point
+        // sums depend on their order
+        List<DSMConnection> rowConnections = new ArrayList<>(matrix.getRowConnections(rowItem.getUid()));
+        rowConnections.sort(Comparator.comparingInt(conn -> matrix.getColPosition(conn.getColUid())));
+        for(DSMConnection conn : rowConnections) {
+            DSMItem col = matrix.getColItem(conn.getColUid());
             if(col.getGroup1().equals(group) && col.getAliasUid() != rowItem.getUid()) {  // make connection a part of inout score
-                DSMConnection conn = matrix.getConnection(rowItem.getUid(), col.getUid());
-                if(calculateByWeight && conn != null) {
+                if(calculateByWeight) {
                     inout += conn.getWeight();
-                } else if(conn != null) {
+                } else {
                     inout += 1;
                 }
             }
@@ -125,23 +163,6 @@ public class Thebeau {
     }
 
 
-    /**
-     * Deletes a grouping from a symmetric dsm if no items are contained in it
-     * @param matrix  the matrix the group is from
-     * @param group   the group to check if empty
-     */
-    private static void deleteClusterIfEmpty(SymmetricDSMData matrix, Grouping group) {
-        int clusterSize = 0;
-        for (DSMItem row : matrix.getRows()) {
-            if (row.getGroup1().equals(group)) clusterSize++;
-        }
-
-        if (clusterSize == 0) {
-            matrix.removeGrouping(group);
-        }
-    }
-
-
     /**
      * Runs Thebeau's matrix clustering algorithm based on his 2001 research paper (https://dsmweborg.files.wordpress.com/2019/05/msc_thebeau.pdf)
      *
@@ -173,108 +194,264 @@ public class Thebeau {
     public static SymmetricDSMData thebeauAlgorithm(SymmetricDSMData inputMatrix, Double optimalSizeCluster, Double powdep,
                 Double powbid, Double powcc, Integer randBid, Integer randAccept, ArrayList<Integer> exclusions,
                 Boolean calculateByWeight, int numLevels,long randSeed, boolean debug) {
-        Random generator = new Random(randSeed);
+        // place each element in the matrix in its own cluster. The clusters are tracked as primitive arrays and a copy
+        // of the matrix is only made for the best solution at the end
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(inputMatrix);
 
-        // place each element in the matrix in its own cluster
-        SymmetricDSMData matrix = inputMatrix.createCopy();
-        assert !matrix.equals(inputMatrix): "matrices are equal and they should not be";
-        matrix.clearGroupings();  // groups will be re-distributed so remove the default as well
+        StringBuilder debugString = debug ? new StringBuilder("iteration,start time, elapsed time,coordination score\n") : null;
+        ChainResult result = thebeauClusters(snapshot, optimalSizeCluster, powdep, powbid, powcc, randBid, randAccept,
+                getExcludedRows(snapshot, exclusions), calculateByWeight, numLevels, randSeed, debugString);
 
-        RandomColorGenerator rgc = new RandomColorGenerator(0.2423353);  // use "random" start value for color generation
-        for(int i = 0; i < matrix.getRows().size(); i++) {
-            Grouping group = new Grouping("G" + i, null);
-            matrix.setItemGroup(matrix.getRows().get(i), group);
+        if(debug) {
+            System.out.println(debugString);
+        }
+
+        return createClusteredMatrix(inputMatrix, snapshot, result.clusters);
+    }
 
-            matrix.updateGroupingColor(group, rgc.next());
+
+    /**
+     * Runs several independent chains of Thebeau's clustering algorithm in parallel and keeps the best solution. Each
+     * chain is the same as running thebeauAlgorithm with the seed of the chain, and the seed of each chain is split
+     * from the master seed so the whole run can be reproduced. When chains find solutions with the same cost the
+     * chain that was seeded first is kept.
+     *
+     * @param inputMatrix        matrix to run the algorithm on
+     * @param optimalSizeCluster a constant to penalize clusters not of this size
+     * @param powdep             constant to emphasize interactions
+     * @param powbid             constant to penalize cluster size when bidding
+     * @param powcc              constant to penalize size of cluster in cost calculation
+     * @param randBid            constant to determine how often to perform an action based on the second highest bid
+     * @param randAccept         constant to determine how often to perform a not necessarily optimal action
+     * @param exclusions         a list of UIDs to exclude from clustering
+     * @param calculateByWeight  calculate scores and bidding by weight or by number of occurrences
+     * @param numLevels          number of iterations of each chain
+     * @param numChains          number of chains to run, throws IllegalArgumentException if it is less than one
+     * @param randSeed           master seed the seed of each chain is derived from
+     * @return                   the clustered matrix of the best solution and the results of each chain
+     */
+    public static MultiStartResult multiStartThebeauAlgorithm(SymmetricDSMData inputMatrix, Double optimalSizeCluster,
+                Double powdep, Double powbid, Double powcc, Integer randBid, Integer randAccept,
+                ArrayList<Integer> exclusions, Boolean calculateByWeight, int numLevels, int numChains, long randSeed) {
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(inputMatrix);  // immutable, so the chains can share it
+        List<ChainResult> chains = multiStartThebeauClusters(snapshot, optimalSizeCluster, powdep, powbid, powcc, randBid,
+                randAccept, getExcludedRows(snapshot, exclusions), calculateByWeight, numLevels, numChains, randSeed);
+        int bestChain = getBestChain(chains);
+
+        SymmetricDSMData matrix = createClusteredMatrix(inputMatrix, snapshot, chains.get(bestChain).clusters);
+        CoordinationScore coordinationScore = getCoordinationScore(matrix, optimalSizeCluster, powcc, calculateByWeight);
+
+        return new MultiStartResult(matrix, coordinationScore, bestChain, chains);
+    }
+
+
+    /**
+     * Runs several independent chains of Thebeau's clustering algorithm on a sparse snapshot in parallel. Each chain
+     * is the same as running thebeauClusters with the seed of the chain, and the seed of each chain is split from the
+     * master seed so the whole run can be reproduced. Only reads the snapshot, so it can be called from any thread.
+     *
+     * @param snapshot           snapshot of the matrix to cluster
+     * @param optimalSizeCluster a constant to penalize clusters not of this size
+     * @param powdep             constant to emphasize interactions
+     * @param powbid             constant to penalize cluster size when bidding
+     * @param powcc              constant to penalize size of cluster in cost calculation
+     * @param randBid            constant to determine how often to perform an action based on the second highest bid
+     * @param randAccept         constant to determine how often to perform a not necessarily optimal action
+     * @param excluded           if each row index is excluded from clustering
+     * @param calculateByWeight  calculate scores and bidding by weight or by number of occurrences
+     * @param numLevels          number of iterations of each chain
+     * @param numChains          number of chains to run, throws IllegalArgumentException if it is less than one
+     * @param randSeed           master seed the seed of each chain is derived from
+     * @return                   the results of each chain in the order they were seeded
+     */
+    public static List<ChainResult> multiStartThebeauClusters(DSMSparseSnapshot snapshot, double optimalSizeCluster,
+                double powdep, double powbid, double powcc, int randBid, int randAccept, boolean[] excluded,
+                boolean calculateByWeight, int numLevels, int numChains, long randSeed) {
+        if(numChains <= 0) {
+            throw new IllegalArgumentException("at least one chain must be run, got " + numChains);
         }
 
-        // calculate initial coordination cost
-        double coordinationCost = getCoordinationScore(matrix, optimalSizeCluster, powcc, calculateByWeight).totalCost;
+        SplittableRandom masterGenerator = new SplittableRandom(randSeed);
+        long[] chainSeeds = new long[numChains];
+        for(int i = 0; i < numChains; i++) {
+            chainSeeds[i] = masterGenerator.split().nextLong();
+        }
 
-        // save the best solution
-        SymmetricDSMData bestSolution = matrix.createCopy();
-        double bestSolutionCost = coordinationCost;  // best solution is just a copy of matrix so this number is the same and
-                                                     // does not need to be calculated twice
+        // the chains run on the common fork join pool and the results are kept in the order of the seeds
+        return IntStream.range(0, numChains)
+                .parallel()
+                .mapToObj(i -> thebeauClusters(snapshot, optimalSizeCluster, powdep, powbid, powcc, randBid, randAccept,
+                        excluded, calculateByWeight, numLevels, chainSeeds[i], null))
+                .toList();
+    }
 
-        StringBuilder debugString = new StringBuilder("iteration,start time, elapsed time,coordination score\n");
-        Instant absStart = Instant.now();
+
+    /**
+     * Finds the chain with the lowest cost. When chains found solutions with the same cost the chain that was seeded
+     * first is picked
+     *
+     * @param chains  the results of each chain in the order they were seeded
+     * @return        the index of the best chain
+     */
+    public static int getBestChain(List<ChainResult> chains) {
+        int bestChain = 0;
+        for(int i = 1; i < chains.size(); i++) {
+            if(chains.get(i).bestCost < chains.get(bestChain).bestCost) {
+                bestChain = i;
+            }
+        }
+
+        return bestChain;
+    }
+
+
+    /**
+     * Runs the steps of Thebeau's clustering algorithm on a sparse snapshot of a symmetric matrix. The clusters are
+     * kept as an int array of the cluster of each row and nothing is allocated while iterating, so this can run
+     * millions of iterations without touching the matrix. Cluster i is the cluster that row i started in. Makes the
+     * same decisions as thebeauAlgorithm for the same seed. Only reads the snapshot, so several runs can share it.
+     *
+     * @param snapshot           snapshot of the matrix to cluster
+     * @param optimalSizeCluster a constant to penalize clusters not of this size
+     * @param powdep             constant to emphasize interactions
+     * @param powbid             constant to penalize cluster size when bidding
+     * @param powcc              constant to penalize size of cluster in cost calculation
+     * @param randBid            constant to determine how often to perform an action based on the second highest bid
+     * @param randAccept         constant to determine how often to perform a not necessarily optimal action
+     * @param excluded           if each row index is excluded from clustering
+     * @param calculateByWeight  calculate scores and bidding by weight or by number of occurrences
+     * @param numLevels          number of iterations
+     * @param randSeed           seed for random number generator
+     * @param debugString        csv of the time and coordination score of each iteration is appended to this if it
+     *                           is not null
+     * @return                   the best solution found and statistics of the run
+     */
+    public static ChainResult thebeauClusters(DSMSparseSnapshot snapshot, double optimalSizeCluster, double powdep,
+                double powbid, double powcc, int randBid, int randAccept, boolean[] excluded, boolean calculateByWeight,
+                int numLevels, long randSeed, StringBuilder debugString) {
+        long absStart = System.nanoTime();
+        Random generator = new Random(randSeed);
+
+        // calculate initial coordination cost. The engine keeps it up to date as items are moved
+        ThebeauCostEngine engine = new ThebeauCostEngine(snapshot, optimalSizeCluster, powcc, powdep, powbid, calculateByWeight);
+        int numItems = engine.getNumItems();
+
+        // save the best solution. Only the clusters are saved because they are the only thing the algorithm changes
+        int[] bestClusters = engine.getClusters();
+        double bestSolutionCost = engine.getCost();
+        double bestSolutionError = engine.getCostError();
+        int numMoves = 0;
+        int numImprovements = 0;
 
         for(int i=0; i < numLevels; i++) {  // iterate numLevels times
-            Instant start = Instant.now();
+            long start = debugString != null ? System.nanoTime() : 0;
 
             // Choose an element from the matrix. Keep choosing randomly until chosen item is not excluded
-            int n = generator.nextInt(matrix.getRows().size());
-            DSMItem item = matrix.getRows().get(n);
-            while (exclusions.contains(item.getUid())) {
-                n = generator.nextInt(matrix.getRows().size());
-                item = matrix.getRows().get(n);
-            }
-
-            // calculate bids
-            HashMap<Grouping, Double> bids = new HashMap<>();
-            for (Grouping group : matrix.getGroupings()) {
-                double bid = calculateClusterBid(matrix, group, item, optimalSizeCluster, powdep, powbid, calculateByWeight);
-                bids.put(group, bid);
+            int n = generator.nextInt(numItems);
+            while (excluded[n]) {
+                n = generator.nextInt(numItems);
             }
 
-
             // find first and second-highest bidders
-            Grouping highestBidder = null;
-            Grouping secondHighestBidder = null;
-            double highestBid = -1;
-            double secondHighestBid = -1;
-            for (Map.Entry<Grouping, Double> entry : bids.entrySet()) {
-                if (Double.compare(entry.getValue(), highestBid) > 0) {
-                    secondHighestBidder = highestBidder;
-                    secondHighestBid = highestBid;
-
-                    highestBidder = entry.getKey();
-                    highestBid = entry.getValue();
-                } else if (Double.compare(entry.getValue(), secondHighestBid) > 0) {
-                    secondHighestBidder = entry.getKey();
-                    secondHighestBid = entry.getValue();
-                }
-            }
+            engine.findBidders(n);
 
             // choose a number between 0 and randBid to determine if it should make a suboptimal change
-            SymmetricDSMData tempMatrix = matrix.createCopy();
-            item = tempMatrix.getRows().get(n);  // update item to the item from the new matrix so that it is not modifying a copy
             int nBid = generator.nextInt(randBid) + 1;  // add one to randBid because with truncation nBid will never be equal to randBid
-
-            Grouping oldGroup = item.getGroup1();
-            if (nBid == randBid) {  // assign item group to second-highest bidder
-                tempMatrix.setItemGroup(item, secondHighestBidder);
-
-            } else {  // assign to highest bidder
-                tempMatrix.setItemGroup(item, highestBidder);
+            int target = (nBid == randBid) ? engine.getSecondHighestBidder() : engine.getHighestBidder();
+            if(target == -1) {  // there is no second-highest bidder so leave the item where it is
+                target = engine.getCluster(n);
             }
-            deleteClusterIfEmpty(tempMatrix, oldGroup);
 
             // choose a number between 0 and randAccept to determine if change is permanent regardless of it being optimal
             int nAccept = generator.nextInt(randAccept) + 1;  // add one to randAccept because with truncation nAccept will never be equal to randAccept
-            Double newCoordinationScore = getCoordinationScore(tempMatrix, optimalSizeCluster, powcc, calculateByWeight).totalCost;
-
-            if (nAccept == randAccept || newCoordinationScore < coordinationCost) {  // make the change permanent
-                coordinationCost = newCoordinationScore;
-                matrix = tempMatrix;
-
-                if (coordinationCost < bestSolutionCost) {  // save the new solution as the best one
-                    bestSolution = matrix.createCopy();  // use copy so this is permanent
-                    bestSolutionCost = coordinationCost;
+            double newCoordinationScore = debugString != null ? engine.getCost() + engine.getMoveDelta(n, target) : 0.0;
+
+            boolean moved = target != engine.getCluster(n);  // moving an item to its own cluster changes nothing
+            if (moved && (nAccept == randAccept || engine.isImprovement(n, target))) {  // make the change permanent
+                engine.move(n, target);
+                numMoves++;
+
+                if (engine.isLowerThan(bestClusters, bestSolutionCost, bestSolutionError)) {  // save the new solution as the best one
+                    engine.copyClusters(bestClusters);
+                    bestSolutionCost = engine.getCost();
+                    bestSolutionError = engine.getCostError();
+                    numImprovements++;
                 }
             }
 
+            if(debugString != null) {
+                long startTime = (start - absStart) / 1_000_000;
+                long elapsedTime = (System.nanoTime() - start) / 1_000_000;
+                debugString.append(i).append(",").append(startTime).append(",").append(elapsedTime).append(",").append(newCoordinationScore).append("\n");
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - absStart) / 1_000_000;
+        return new ChainResult(randSeed, bestClusters, engine.getExactCost(bestClusters), numMoves, numImprovements, elapsedMillis);
+    }
+
 
-            String startTime = String.valueOf(Duration.between(absStart, start).toMillis());
-            String elapsedTime = String.valueOf(Duration.between(start, Instant.now()).toMillis());
-            debugString.append(i).append(",").append(startTime).append(",").append(elapsedTime).append(",").append(newCoordinationScore).append("\n");
+    /**
+     * Finds which rows of a snapshot are excluded from clustering
+     *
+     * @param snapshot    snapshot of the matrix being clustered
+     * @param exclusions  a list of UIDs to exclude from clustering
+     * @return            if each row index is excluded
+     */
+    public static boolean[] getExcludedRows(DSMSparseSnapshot snapshot, List<Integer> exclusions) {
+        boolean[] excluded = new boolean[snapshot.getNumRows()];
+        for(int uid : exclusions) {
+            int row = snapshot.getRowIndex(uid);
+            if(row != -1) {
+                excluded[row] = true;
+            }
         }
 
-        if(debug) {
-            System.out.println(debugString);
+        return excluded;
+    }
+
+
+    /**
+     * Copies a matrix and puts each row in the grouping of the cluster it was given by a clustering of a snapshot of
+     * the matrix. A grouping is created for each cluster that is used and cluster i is named "G" + i. The groupings
+     * are applied without being put on the undo stack of the copy
+     *
+     * @param inputMatrix  the matrix the snapshot was taken of. It must not have been changed since
+     * @param snapshot     the snapshot the clusters were found for
+     * @param clusters     the cluster of each row index of the snapshot
+     * @return             the clustered copy of the matrix
+     */
+    public static SymmetricDSMData createClusteredMatrix(SymmetricDSMData inputMatrix, DSMSparseSnapshot snapshot, int[] clusters) {
+        SymmetricDSMData matrix = inputMatrix.createCopy();
+        assert !matrix.equals(inputMatrix): "matrices are equal and they should not be";
+        matrix.clearGroupings();  // groups will be re-distributed so remove the default as well
+
+        int numGroups = 0;
+        for(int cluster : clusters) {
+            numGroups = Math.max(numGroups, cluster + 1);
         }
+        Grouping[] groups = new Grouping[numGroups];
+        boolean[] usedGroups = new boolean[numGroups];
+        RandomColorGenerator rgc = new RandomColorGenerator(0.2423353);  // use "random" start value for color generation
+        for(int i = 0; i < numGroups; i++) {
+            groups[i] = new Grouping(matrix.getUidAllocator().next(), "G" + i, rgc.next());
+        }
+        for(int cluster : clusters) {
+            usedGroups[cluster] = true;
+        }
+
+        matrix.runBatch(() -> {
+            for(int i = 0; i < groups.length; i++) {
+                if(usedGroups[i]) {
+                    matrix.addGrouping(groups[i]);
+                }
+            }
+            for(int row = 0; row < clusters.length; row++) {
+                matrix.setItemGroup(matrix.getRowItem(snapshot.getRowUid(row)), groups[clusters[row]]);
+            }
+        }, false);
 
-        return bestSolution;
+        return matrix;
     }
 
 
@@ -0,0 +1,749 @@
+package Matrices.ClusterAlgorithms;
+
+import Matrices.Data.DSMSparseSnapshot;
+
+import java.util.Arrays;
+
+
+/**
+ * Keeps the state of a Thebeau clustering run in arrays so that the bids for an item and the change in coordination
+ * cost of moving an item between clusters can be found in time proportional to the number of connections of the item
+ * instead of scanning the whole matrix. Clusters are numbered by the index of the row they started with, so cluster i
+ * is the grouping named "G" + i. The engine is built from a sparse snapshot of the matrix and only works with
+ * primitive arrays, so none of its methods allocate memory once it is created.
+ *
+ * The coordination cost is kept as a running sum that is updated by the cost change of each move. Floating point sums
+ * depend on their order, so the running sum can differ slightly from Thebeau.getCoordinationScore, which adds up the
+ * connections in the order of the matrix. To make exactly the same decisions as getCoordinationScore every comparison
+ * is made with a bound on that difference, and comparisons that are closer than the bound are decided by computing
+ * the cost in the same order as getCoordinationScore. The running sums are also recomputed after every few moves so
+ * that the bound stays small.
+ */
+final class ThebeauCostEngine {
+    private static final double EPS = Math.ulp(1.0);
+    private static final int MAX_BID_CLASSES = 64;  // more classes than this and bids are found by scanning every cluster
+
+    private final int numItems;
+    private final double extraCostFactor;  // coordination cost of a connection between clusters with weight 1
+    private final double[] sizePenalties;  // cluster size -> cost of a connection with weight 1 inside the cluster
+    private final double[] bidDenominators;  // cluster size -> size penalty of a bid
+    private final double[] emptyBids;  // cluster size -> bid of a cluster the item has no interactions with
+    private final double powdep;
+
+    // one entry per connection in the order of the snapshot's rows. Items are referred to by their row index and
+    // columns without a row are -1 so they are never in a cluster
+    private final int[] entryRows;
+    private final int[] entryCols;
+    private final double[] entryWeights;  // the weight, or 1 when not calculating by weight
+    private final int[] rowPointers;      // row index -> first entry of the row, entries of a row are contiguous
+    private final int[] colPointers;      // row index -> first position in colEntries of the entries whose column is the row's alias
+    private final int[] colEntries;
+    private final int[] connectionOrder;  // the entries in the order of the matrix's connections
+    private final int[] bidOrder;         // the entries of each row in the order of their columns in the matrix
+    private final int maxDegree;
+
+    private final int[] clusters;         // row index -> cluster
+    private final int[] clusterSizes;     // cluster -> number of rows in it
+    private final double[] intraWeights;  // cluster -> sum of the weights of the connections inside it
+    private final int[] intraCounts;      // cluster -> number of connections inside it
+    private final int[] scratchSizes;     // cluster -> number of rows in it for a saved solution
+
+    private double cost;         // running coordination cost of the current clusters
+    private final double maxCostTerm;  // bound on the sum of the absolute values of the terms of the coordination cost
+    private int movesSinceSync = 0;
+
+    private final double[] bidScratch;  // cluster -> sum of the interactions of the bidding item with it
+    private final int[] bidStamps;      // cluster -> the bid that its entry in bidScratch belongs to
+    private int currentBid = 0;
+    private final int[] touchedClusters;  // the clusters the bidding item has interactions with
+    private int numTouched = 0;
+    private int highestBidder = -1;
+    private int secondHighestBidder = -1;
+    private double highestBid;
+    private double secondHighestBid;
+
+    // a cluster the bidding item has no interactions with bids an amount that only depends on its size. Sizes with
+    // the same bid are put in the same class, and the non-empty clusters of each class are kept as a bit set ordered
+    // by cluster number so the best of them can be found without looking at every cluster. classMembers is null when
+    // there are too many classes for this to be worth it
+    private final int[] bidClasses;        // cluster size -> class, classes are ordered from highest to lowest bid
+    private final double[] classBids;      // class -> bid of its clusters
+    private final long[][] classMembers;   // class -> bit set of the numbers of the non-empty clusters in it
+
+
+    /**
+     * Creates the engine for a snapshot of a symmetric matrix with each row in its own cluster. Runs in
+     * O(E + N log N) time
+     *
+     * @param snapshot           snapshot of the matrix being clustered
+     * @param optimalSizeCluster optimal cluster size that will receive no penalty
+     * @param powcc              constant to penalize size of cluster in cost calculation
+     * @param powdep             constant to emphasize interactions when bidding
+     * @param powbid             constant to penalize cluster size when bidding
+     * @param calculateByWeight  calculate scores and bids by weight or by number of occurrences
+     */
+    ThebeauCostEngine(DSMSparseSnapshot snapshot, double optimalSizeCluster, double powcc, double powdep, double powbid, boolean calculateByWeight) {
+        this.powdep = powdep;
+        numItems = snapshot.getNumRows();
+        extraCostFactor = Math.pow(numItems, powcc);
+
+        // the pow calls only depend on the size of a cluster, so calculate them once for every size
+        sizePenalties = new double[numItems + 1];
+        bidDenominators = new double[numItems + 1];
+        emptyBids = new double[numItems + 1];
+        double emptyInteraction = Math.pow(0.0, powdep);
+        for(int size = 0; size <= numItems; size++) {
+            sizePenalties[size] = Math.pow(Math.abs(optimalSizeCluster - size), powcc);
+            bidDenominators[size] = Math.pow(Math.abs(optimalSizeCluster - size), powbid);
+            emptyBids[size] = emptyInteraction / bidDenominators[size];
+        }
+
+        int numEntries = snapshot.getNumEntries();
+        entryRows = new int[numEntries];
+        entryCols = new int[numEntries];
+        entryWeights = new double[numEntries];
+        rowPointers = new int[numItems + 1];
+        colPointers = new int[numItems + 1];
+        double totalWeight = 0.0;
+        for(int i = 0; i < numItems; i++) {
+            rowPointers[i + 1] = snapshot.getRowEnd(i);
+            for(int e = snapshot.getRowStart(i); e < snapshot.getRowEnd(i); e++) {
+                entryRows[e] = i;
+                entryCols[e] = snapshot.getColAlias(snapshot.getEntryCol(e));
+                if(entryCols[e] >= 0) {
+                    colPointers[entryCols[e] + 1]++;
+                }
+                entryWeights[e] = calculateByWeight ? snapshot.getEntryWeight(e) : 1.0;
+                totalWeight += Math.abs(entryWeights[e]);
+            }
+        }
+
+        int degree = 0;
+        for(int i = 0; i < numItems; i++) {
+            degree = Math.max(degree, rowPointers[i + 1] - rowPointers[i] + colPointers[i + 1]);
+            colPointers[i + 1] += colPointers[i];
+        }
+        maxDegree = degree;
+        colEntries = new int[colPointers[numItems]];
+        int[] filled = new int[numItems];
+        for(int e = 0; e < numEntries; e++) {
+            if(entryCols[e] >= 0) {
+                colEntries[colPointers[entryCols[e]] + filled[entryCols[e]]++] = e;
+            }
+        }
+
+        connectionOrder = new int[numEntries];
+        for(int p = 0; p < numEntries; p++) {
+            connectionOrder[p] = snapshot.getEntryInConnectionOrder(p);
+        }
+
+        // sort the entries of each row by column. Each key holds the column in its high bits and the entry in its low
+        // bits so that the entries can be sorted as primitives
+        long[] bidKeys = new long[numEntries];
+        for(int e = 0; e < numEntries; e++) {
+            bidKeys[e] = ((long) snapshot.getEntryCol(e) << 32) | e;
+        }
+        bidOrder = new int[numEntries];
+        for(int i = 0; i < numItems; i++) {
+            Arrays.sort(bidKeys, rowPointers[i], rowPointers[i + 1]);
+        }
+        for(int k = 0; k < numEntries; k++) {
+            bidOrder[k] = (int) bidKeys[k];
+        }
+
+        // the terms of the cost can not add up to more than the total weight times the largest penalty
+        double maxPenalty = extraCostFactor;
+        for(double penalty : sizePenalties) {
+            maxPenalty = Math.max(maxPenalty, penalty);
+        }
+        maxCostTerm = totalWeight * maxPenalty;
+
+        clusters = new int[numItems];
+        clusterSizes = new int[numItems];
+        intraWeights = new double[numItems];
+        intraCounts = new int[numItems];
+        scratchSizes = new int[numItems];
+        for(int i = 0; i < numItems; i++) {
+            clusters[i] = i;
+            clusterSizes[i] = 1;
+        }
+
+        bidScratch = new double[numItems];
+        bidStamps = new int[numItems];
+        touchedClusters = new int[numItems];
+
+        // Arrays.sort and Arrays.binarySearch order doubles the same way as Double.compare
+        double[] distinctBids = Arrays.copyOfRange(emptyBids, 1, numItems + 1);
+        Arrays.sort(distinctBids);
+        int numClasses = 0;
+        for(int i = 0; i < distinctBids.length; i++) {
+            if(i == 0 || Double.compare(distinctBids[i], distinctBids[numClasses - 1]) != 0) {
+                distinctBids[numClasses++] = distinctBids[i];
+            }
+        }
+        bidClasses = new int[numItems + 1];
+        classBids = new double[numClasses];
+        for(int c = 0; c < numClasses; c++) {
+            classBids[c] = distinctBids[numClasses - 1 - c];
+        }
+        bidClasses[0] = -1;  // empty clusters do not bid
+        for(int size = 1; size <= numItems; size++) {
+            bidClasses[size] = numClasses - 1 - Arrays.binarySearch(distinctBids, 0, numClasses, emptyBids[size]);
+        }
+        if(numClasses <= MAX_BID_CLASSES) {
+            classMembers = new long[numClasses][(numItems + 63) / 64];
+            for(int cluster = 0; cluster < numItems; cluster++) {
+                setClassMember(cluster, clusterSizes[cluster], true);
+            }
+        } else {
+            classMembers = null;
+        }
+
+        sync();
+    }
+
+
+    /**
+     * @return  the number of items being clustered
+     */
+    int getNumItems() {
+        return numItems;
+    }
+
+
+    /**
+     * @param item  the row index of an item
+     * @return      the cluster the item is in
+     */
+    int getCluster(int item) {
+        return clusters[item];
+    }
+
+
+    /**
+     * @return  a copy of the cluster of each row
+     */
+    int[] getClusters() {
+        return clusters.clone();
+    }
+
+
+    /**
+     * Copies the cluster of each row into an existing array
+     *
+     * @param destination  the array to copy into, must have a length of at least the number of items
+     */
+    void copyClusters(int[] destination) {
+        System.arraycopy(clusters, 0, destination, 0, numItems);
+    }
+
+
+    /**
+     * @return  the running coordination cost of the current clusters. May differ from Thebeau.getCoordinationScore
+     *          in the last few bits
+     */
+    double getCost() {
+        return cost;
+    }
+
+
+    /**
+     * Finds the cluster with the highest bid and the cluster with the second-highest bid for an item. Clusters bid in
+     * order of their number and ties go to the cluster with the lower number. Each bid is calculated
+     * exactly as Thebeau.calculateClusterBid calculates it. Runs in O(degree + N / 64) time for each class of
+     * bids that has to be looked at, which is usually one, or in O(degree + N) time when there are too many classes
+     *
+     * The results are read with getHighestBidder and getSecondHighestBidder
+     *
+     * @param item  the row index of the item
+     */
+    void findBidders(int item) {
+        // sum the interactions of the item with each cluster in the same order as calculateClusterBid
+        currentBid++;
+        numTouched = 0;
+        for(int k = rowPointers[item]; k < rowPointers[item + 1]; k++) {
+            int entry = bidOrder[k];
+            int col = entryCols[entry];
+            if(col < 0 || col == item) {  // connections to the item itself do not count
+                continue;
+            }
+            int cluster = clusters[col];
+            if(bidStamps[cluster] != currentBid) {
+                bidStamps[cluster] = currentBid;
+                bidScratch[cluster] = 0.0;
+                touchedClusters[numTouched++] = cluster;
+            }
+            bidScratch[cluster] += entryWeights[entry];
+        }
+
+        highestBidder = -1;
+        secondHighestBidder = -1;
+        highestBid = -1;
+        secondHighestBid = -1;
+        if(classMembers == null) {
+            for(int cluster = 0; cluster < numItems; cluster++) {
+                int size = clusterSizes[cluster];
+                if(size == 0) {  // empty clusters are removed from the matrix
+                    continue;
+                }
+                offerBid(cluster, bidStamps[cluster] == currentBid ? Math.pow(bidScratch[cluster], powdep) / bidDenominators[size] : emptyBids[size]);
+            }
+            return;
+        }
+
+        for(int t = 0; t < numTouched; t++) {
+            int cluster = touchedClusters[t];
+            offerBid(cluster, Math.pow(bidScratch[cluster], powdep) / bidDenominators[clusterSizes[cluster]]);
+        }
+
+        // only the two best clusters without interactions can be one of the two highest bidders. These are the
+        // lowest numbered ones in the classes with the highest bids
+        int numOffered = 0;
+        for(int c = 0; c < classBids.length && numOffered < 2; c++) {
+            if(secondHighestBidder != -1 && Double.compare(classBids[c], secondHighestBid) < 0) {
+                break;  // this class and every class after it bid less than both bidders
+            }
+            long[] members = classMembers[c];
+            for(int word = 0; word < members.length && numOffered < 2; word++) {
+                long bits = members[word];
+                while(bits != 0 && numOffered < 2) {
+                    int cluster = word * 64 + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if(bidStamps[cluster] != currentBid) {
+                        offerBid(cluster, classBids[c]);
+                        numOffered++;
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Updates the highest and second-highest bidders with a bid. Bids are ordered by Double.compare and ties go to
+     * the cluster with the lower number, so the result does not depend on the order bids are offered in and is
+     * the same as offering every bid in order of the cluster numbers
+     *
+     * @param cluster  the bidding cluster
+     * @param bid      the bid of the cluster
+     */
+    private void offerBid(int cluster, double bid) {
+        if(isHigherBid(cluster, bid, highestBidder, highestBid)) {
+            secondHighestBidder = highestBidder;
+            secondHighestBid = highestBid;
+
+            highestBidder = cluster;
+            highestBid = bid;
+        } else if(isHigherBid(cluster, bid, secondHighestBidder, secondHighestBid)) {
+            secondHighestBidder = cluster;
+            secondHighestBid = bid;
+        }
+    }
+
+
+    /**
+     * @param cluster       a bidding cluster
+     * @param bid           the bid of the cluster
+     * @param otherCluster  the cluster to compare against, or -1 if there is none
+     * @param otherBid      the bid of the cluster to compare against, -1 if there is none
+     * @return              if the bid wins against the other bid
+     */
+    private boolean isHigherBid(int cluster, double bid, int otherCluster, double otherBid) {
+        int compare = Double.compare(bid, otherBid);
+        return compare > 0 || (compare == 0 && otherCluster != -1 && cluster < otherCluster);
+    }
+
+
+    /**
+     * @return  the cluster with the highest bid found by the last call to findBidders, or -1 if there is none
+     */
+    int getHighestBidder() {
+        return highestBidder;
+    }
+
+
+    /**
+     * @return  the cluster with the second-highest bid found by the last call to findBidders, or -1 if there is none
+     */
+    int getSecondHighestBidder() {
+        return secondHighestBidder;
+    }
+
+
+    /**
+     * @return  the bid of the highest bidder found by the last call to findBidders
+     */
+    double getHighestBid() {
+        return highestBid;
+    }
+
+
+    /**
+     * Finds the change in coordination cost of moving an item to another cluster without moving it. Runs in
+     * O(degree) time
+     *
+     * @param item    the row index of the item
+     * @param target  the cluster to move the item to
+     * @return        the new cost minus the current cost
+     */
+    double getMoveDelta(int item, int target) {
+        int source = clusters[item];
+        if(source == target) {
+            return 0.0;
+        }
+
+        double sourceWeight = 0.0;  // weight of the connections of the item that are inside the source cluster
+        double targetWeight = 0.0;  // weight of the connections of the item that will be inside the target cluster
+        for(int k = rowPointers[item]; k < rowPointers[item + 1]; k++) {
+            int col = entryCols[k];
+            if(col == item) {  // a connection to itself is always inside the item's cluster
+                sourceWeight += entryWeights[k];
+                targetWeight += entryWeights[k];
+            } else if(col >= 0 && clusters[col] == source) {
+                sourceWeight += entryWeights[k];
+            } else if(col >= 0 && clusters[col] == target) {
+                targetWeight += entryWeights[k];
+            }
+        }
+        for(int position = colPointers[item]; position < colPointers[item + 1]; position++) {
+            int k = colEntries[position];
+            int row = entryRows[k];
+            if(row == item) {  // already counted with the row connections
+                continue;
+            }
+            if(clusters[row] == source) {
+                sourceWeight += entryWeights[k];
+            } else if(clusters[row] == target) {
+                targetWeight += entryWeights[k];
+            }
+        }
+
+        double newSourceWeight = intraWeights[source] - sourceWeight;
+        double newTargetWeight = intraWeights[target] + targetWeight;
+        return newSourceWeight * sizePenalties[clusterSizes[source] - 1] - intraWeights[source] * sizePenalties[clusterSizes[source]]
+                + newTargetWeight * sizePenalties[clusterSizes[target] + 1] - intraWeights[target] * sizePenalties[clusterSizes[target]]
+                + (sourceWeight - targetWeight) * extraCostFactor;
+    }
+
+
+    /**
+     * Determines if moving an item to another cluster lowers the coordination cost as calculated by
+     * Thebeau.getCoordinationScore. Usually runs in O(degree) time. When the costs are too close to compare with the
+     * running sums they are recomputed, which runs in O(E) time but keeps the next comparisons accurate
+     *
+     * @param item    the row index of the item
+     * @param target  the cluster to move the item to
+     * @return        if the cost after the move is lower than the cost before it
+     */
+    boolean isImprovement(int item, int target) {
+        if(clusters[item] == target) {
+            return false;
+        }
+
+        for(int attempt = 0; attempt < 2; attempt++) {
+            double delta = getMoveDelta(item, target);
+            double currentError = getCostError(movesSinceSync);
+            double newError = getCostError(movesSinceSync + 1);
+            if(cost + delta + newError < cost - currentError) {
+                return true;
+            } else if(cost + delta - newError >= cost + currentError) {
+                return false;
+            } else if(movesSinceSync == 0) {
+                break;
+            }
+            sync();  // too close to tell, so remove the errors built up since the last sync and try again
+        }
+
+        // still too close to tell. If no term of the cost changes the costs are exactly the same, otherwise compare
+        // the costs in the same order as getCoordinationScore. The running cost was just synced so it is exact
+        int source = clusters[item];
+        if(!changesCostTerms(item, target)) {
+            return false;
+        }
+        clusters[item] = target;
+        clusterSizes[source]--;
+        clusterSizes[target]++;
+        double newCost = getExactCost(clusters, clusterSizes);
+        clusters[item] = source;
+        clusterSizes[source]++;
+        clusterSizes[target]--;
+
+        return newCost < cost;
+    }
+
+
+    /**
+     * Moves an item to another cluster and updates the running sums. Runs in O(degree) time except for every
+     * numItems moves since the last sync, when the running sums are recomputed in O(E) time
+     *
+     * @param item    the row index of the item
+     * @param target  the cluster to move the item to
+     */
+    void move(int item, int target) {
+        int source = clusters[item];
+        if(source == target) {
+            return;
+        }
+        double delta = getMoveDelta(item, target);
+
+        for(int k = rowPointers[item]; k < rowPointers[item + 1]; k++) {
+            int col = entryCols[k];
+            if(col == item) {
+                removeIntraConnection(source, k);
+                addIntraConnection(target, k);
+            } else if(col >= 0 && clusters[col] == source) {
+                removeIntraConnection(source, k);
+            } else if(col >= 0 && clusters[col] == target) {
+                addIntraConnection(target, k);
+            }
+        }
+        for(int position = colPointers[item]; position < colPointers[item + 1]; position++) {
+            int k = colEntries[position];
+            int row = entryRows[k];
+            if(row == item) {
+                continue;
+            }
+            if(clusters[row] == source) {
+                removeIntraConnection(source, k);
+            } else if(clusters[row] == target) {
+                addIntraConnection(target, k);
+            }
+        }
+
+        clusters[item] = target;
+        resizeCluster(source, clusterSizes[source] - 1);
+        resizeCluster(target, clusterSizes[target] + 1);
+        cost += delta;
+        movesSinceSync++;
+        if(movesSinceSync >= numItems) {
+            sync();
+        }
+    }
+
+
+    /**
+     * Determines if the coordination cost of the current clusters is lower than the cost of a saved solution as
+     * calculated by Thebeau.getCoordinationScore. Usually runs in constant time, but runs in O(N + E) time when the
+     * costs are too close to compare with the running sums
+     *
+     * @param otherClusters  the cluster of each row of the saved solution
+     * @param otherCost      the running cost of the saved solution when it was saved
+     * @param otherError     the result of getCostError when the solution was saved
+     * @return               if the current cost is lower than the cost of the saved solution
+     */
+    boolean isLowerThan(int[] otherClusters, double otherCost, double otherError) {
+        double currentError = getCostError();
+        if(cost + currentError < otherCost - otherError) {
+            return true;
+        } else if(cost - currentError >= otherCost + otherError) {
+            return false;
+        }
+
+        if(movesSinceSync > 0) {  // remove the errors built up since the last sync and try again
+            sync();
+            currentError = getCostError();
+            if(cost + currentError < otherCost - otherError) {
+                return true;
+            } else if(cost - currentError >= otherCost + otherError) {
+                return false;
+            }
+        }
+
+        return cost < getExactCost(otherClusters);
+    }
+
+
+    /**
+     * Calculates the coordination cost of a set of clusters exactly as Thebeau.getCoordinationScore does. Runs in
+     * O(N + E) time
+     *
+     * @param otherClusters  the cluster of each row
+     * @return               the total coordination cost
+     */
+    double getExactCost(int[] otherClusters) {
+        Arrays.fill(scratchSizes, 0);
+        for(int cluster : otherClusters) {
+            scratchSizes[cluster]++;
+        }
+        return getExactCost(otherClusters, scratchSizes);
+    }
+
+
+    /**
+     * @return  a bound on the difference between the running cost and the cost calculated by getCoordinationScore
+     */
+    double getCostError() {
+        return getCostError(movesSinceSync);
+    }
+
+
+    /**
+     * Determines if moving an item to another cluster changes the value of any term of the coordination cost. If it
+     * does not, the cost after the move is exactly the same as the cost before it. Runs in O(degree) time
+     *
+     * @param item    the row index of the item
+     * @param target  the cluster to move the item to
+     * @return        if any term of the cost changes
+     */
+    private boolean changesCostTerms(int item, int target) {
+        int source = clusters[item];
+        int sourceSize = clusterSizes[source];
+        int targetSize = clusterSizes[target];
+
+        // the connections inside the clusters are penalized by the size of the cluster
+        if(intraCounts[source] > 0 && !isSamePenalty(sourceSize, sourceSize - 1)) {
+            return true;
+        } else if(intraCounts[target] > 0 && !isSamePenalty(targetSize, targetSize + 1)) {
+            return true;
+        }
+
+        // the connections of the item to either cluster move between the inside and the outside of a cluster
+        for(int k = rowPointers[item]; k < rowPointers[item + 1]; k++) {
+            int col = entryCols[k];
+            if(col == item && !isSamePenalty(sourceSize, targetSize + 1)) {
+                return true;
+            } else if(col >= 0 && col != item && (clusters[col] == source || clusters[col] == target)) {
+                return true;
+            }
+        }
+        for(int position = colPointers[item]; position < colPointers[item + 1]; position++) {
+            int row = entryRows[colEntries[position]];
+            if(row != item && (clusters[row] == source || clusters[row] == target)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * @param sizeA  the size of a cluster
+     * @param sizeB  the size of another cluster
+     * @return       if connections inside clusters of the two sizes have exactly the same cost
+     */
+    private boolean isSamePenalty(int sizeA, int sizeB) {
+        return Double.doubleToLongBits(sizePenalties[sizeA]) == Double.doubleToLongBits(sizePenalties[sizeB]);
+    }
+
+
+    /**
+     * Changes the size of a cluster and moves it to the bid class of its new size
+     *
+     * @param cluster  the cluster
+     * @param newSize  the new number of rows in the cluster
+     */
+    private void resizeCluster(int cluster, int newSize) {
+        if(classMembers != null && bidClasses[clusterSizes[cluster]] != bidClasses[newSize]) {
+            setClassMember(cluster, clusterSizes[cluster], false);
+            setClassMember(cluster, newSize, true);
+        }
+        clusterSizes[cluster] = newSize;
+    }
+
+
+    /**
+     * Adds a cluster to or removes it from the bid class of a size. Empty clusters are not in any class
+     *
+     * @param cluster  the cluster
+     * @param size     the size whose class to update
+     * @param member   if the cluster should be in the class
+     */
+    private void setClassMember(int cluster, int size, boolean member) {
+        if(bidClasses[size] == -1) {
+            return;
+        }
+        if(member) {
+            classMembers[bidClasses[size]][cluster >>> 6] |= 1L << cluster;
+        } else {
+            classMembers[bidClasses[size]][cluster >>> 6] &= ~(1L << cluster);
+        }
+    }
+
+
+    /**
+     * @param cluster  the cluster the connection is now inside
+     * @param entry    the entry of the connection
+     */
+    private void addIntraConnection(int cluster, int entry) {
+        intraWeights[cluster] += entryWeights[entry];
+        intraCounts[cluster]++;
+    }
+
+
+    /**
+     * @param cluster  the cluster the connection is no longer inside
+     * @param entry    the entry of the connection
+     */
+    private void removeIntraConnection(int cluster, int entry) {
+        intraWeights[cluster] -= entryWeights[entry];
+        intraCounts[cluster]--;
+    }
+
+
+    /**
+     * Calculates the coordination cost of a set of clusters exactly as Thebeau.getCoordinationScore does, adding up
+     * the connections in the order of the matrix. Runs in O(E) time
+     *
+     * @param clusters      the cluster of each row
+     * @param clusterSizes  the number of rows in each cluster
+     * @return              the total coordination cost
+     */
+    private double getExactCost(int[] clusters, int[] clusterSizes) {
+        double totalIntraCost = 0.0;
+        double totalExtraCost = 0.0;
+        for(int k : connectionOrder) {
+            int row = entryRows[k];
+            int col = entryCols[k];
+            if(col >= 0 && clusters[row] == clusters[col]) {
+                totalIntraCost += entryWeights[k] * sizePenalties[clusterSizes[clusters[row]]];
+            } else {
+                totalExtraCost += entryWeights[k] * extraCostFactor;
+            }
+        }
+
+        return totalIntraCost + totalExtraCost;
+    }
+
+
+    /**
+     * Recomputes the running sums from the current clusters so that the errors of the incremental updates do not
+     * build up. The running cost is set to exactly the cost calculated by getCoordinationScore. Runs in O(E) time
+     */
+    private void sync() {
+        Arrays.fill(intraWeights, 0.0);
+        Arrays.fill(intraCounts, 0);
+        double totalIntraCost = 0.0;
+        double totalExtraCost = 0.0;
+        for(int k : connectionOrder) {  // same as getExactCost, but also adds up the weights inside each cluster
+            int row = entryRows[k];
+            int col = entryCols[k];
+            if(col >= 0 && clusters[row] == clusters[col]) {
+                addIntraConnection(clusters[row], k);
+                totalIntraCost += entryWeights[k] * sizePenalties[clusterSizes[clusters[row]]];
+            } else {
+                totalExtraCost += entryWeights[k] * extraCostFactor;
+            }
+        }
+        cost = totalIntraCost + totalExtraCost;
+        movesSinceSync = 0;
+    }
+
+
+    /**
+     * Bounds the difference between the running cost and the cost calculated by getCoordinationScore after a number
+     * of moves since the last sync. Each move adds rounding errors proportional to the degree of the item, the errors
+     * in the running cluster weights are multiplied into every later move, and getCoordinationScore has its own
+     * rounding error proportional to the number of connections. If any term of the cost is not finite the bound is
+     * not finite and every comparison is made with the exact cost
+     *
+     * @param moves  the number of moves since the last sync
+     * @return       the bound
+     */
+    private double getCostError(int moves) {
+        double m = moves + 1.0;
+        double numConnections = entryRows.length;
+        return (4.0 * m * m * (maxDegree + 11) + 4.0 * m * (numConnections + 1) + numConnections + 2) * EPS * maxCostTerm;
+    }
+
+}
@@ -3,13 +3,17 @@ package Matrices.Data;
 import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMInterfaceType;
 import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.Grouping;
+import Matrices.Data.Entities.InterfaceTypeTable;
 import Matrices.Data.Entities.RenderMode;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.scene.paint.Color;
 import javafx.util.Pair;
 
+import java.io.Serializable;
 import java.util.*;
 
 
@@ -21,49 +25,578 @@ import java.util.*;
  * @author: Aiden Carney
  */
 public abstract class AbstractDSMData {
-    protected static class MatrixChange {
+    /**
+     * Base class for a change that can be put on the undo stack. A change knows how to apply and revert itself to a
+     * matrix and can be marked as a checkpoint
+     */
+    protected abstract static class AbstractMatrixChange {
+        protected static final long BASE_SIZE = 64;       // approximate bytes for a change and its two functions
+        protected static final long REFERENCE_SIZE = 48;  // approximate bytes for each object or list slot a change holds on to
+        protected static final long RECORD_SIZE = 40;     // approximate bytes for a change record with a few primitive fields
+
+        private boolean checkpoint = false;
+
+        /**
+         * @param numReferences  the number of objects the functions of a change hold on to
+         * @return               the approximate size of the change
+         */
+        public static long estimateSize(int numReferences) {
+            return BASE_SIZE + numReferences * REFERENCE_SIZE;
+        }
+
+        public abstract void runFunction(AbstractDSMData matrix);
+
+        public abstract void runUndoFunction(AbstractDSMData matrix);
+
+        /**
+         * @return  approximate number of bytes that are kept alive by the change. Used to budget the undo history
+         */
+        public abstract long getSizeEstimate();
+
+        /**
+         * Adds the uids of the interfaces and the handles of the groupings that the change refers to. Used to forget
+         * recorded interfaces and groupings once no change on the stacks refers to them
+         *
+         * @param interfaceUids    the set to add the interface uids to
+         * @param groupingHandles  the set to add the grouping handles to
+         */
+        public void collectReferences(Set<Integer> interfaceUids, Set<Integer> groupingHandles) {}
+
+        public void setCheckpoint(boolean isCheckpoint) {
+            checkpoint = isCheckpoint;
+        }
+
+        public boolean isCheckpoint() {
+            return checkpoint;
+        }
+
+    }
+
+
+    /**
+     * A change made up of a do and undo function. Used for changes that do not have a change record. Because the
+     * matrix can not tell what the functions changed, running either one reports a STRUCTURE_CHANGED event and
+     * invalidates the order of the items
+     */
+    protected static class MatrixChange extends AbstractMatrixChange {
         private final Runnable doFunction;
         private final Runnable undoFunction;
-        private boolean checkpoint;
+        private final long sizeEstimate;
 
         public MatrixChange(Runnable doFunction, Runnable undoFunction, boolean checkpoint) {
+            this(doFunction, undoFunction, checkpoint, BASE_SIZE);
+        }
+
+        /**
+         * @param sizeEstimate  approximate number of bytes that are kept alive by the change. Used to budget the
+         *                      undo history
+         */
+        public MatrixChange(Runnable doFunction, Runnable undoFunction, boolean checkpoint, long sizeEstimate) {
             this.doFunction = doFunction;
             this.undoFunction = undoFunction;
-            this.checkpoint = checkpoint;
+            this.sizeEstimate = sizeEstimate;
+            setCheckpoint(checkpoint);
         }
 
-        public void runFunction() {
+        @Override
+        public void runFunction(AbstractDSMData matrix) {
             doFunction.run();
+            matrix.invalidateItemOrder();
+            matrix.postChangeEvent(MatrixChangeEvent.structureChanged());
         }
 
-        public void runUndoFunction() {
+        @Override
+        public void runUndoFunction(AbstractDSMData matrix) {
             undoFunction.run();
+            matrix.invalidateItemOrder();
+            matrix.postChangeEvent(MatrixChangeEvent.structureChanged());
         }
 
-        public void setCheckpoint(boolean isCheckpoint) {
-            checkpoint = isCheckpoint;
+        @Override
+        public long getSizeEstimate() {
+            return sizeEstimate;
         }
 
-        public boolean isCheckpoint() {
-            return checkpoint;
+    }
+
+
+    /**
+     * A group of changes that were made during a batch and are undone and redone together. The changes report their
+     * own events when they are replayed
+     */
+    private static final class BatchChange extends AbstractMatrixChange {
+        private final AbstractMatrixChange[] changes;
+        private final long sizeEstimate;
+
+        public BatchChange(AbstractMatrixChange[] changes) {
+            this.changes = changes;
+            long size = estimateSize(changes.length);
+            for(AbstractMatrixChange change : changes) {
+                size += change.getSizeEstimate();
+            }
+            this.sizeEstimate = size;
+        }
+
+        @Override
+        public void runFunction(AbstractDSMData matrix) {
+            matrix.replayDepth += 1;  // changes made as a side effect of these changes were recorded in the batch already
+            try {
+                for(AbstractMatrixChange change : changes) {
+                    change.runFunction(matrix);
+                }
+            } finally {
+                matrix.replayDepth -= 1;
+            }
+        }
+
+        @Override
+        public void runUndoFunction(AbstractDSMData matrix) {
+            matrix.replayDepth += 1;
+            try {
+                for(int i = changes.length - 1; i >= 0; i--) {
+                    changes[i].runUndoFunction(matrix);
+                }
+            } finally {
+                matrix.replayDepth -= 1;
+            }
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            return sizeEstimate;
+        }
+
+        @Override
+        public void collectReferences(Set<Integer> interfaceUids, Set<Integer> groupingHandles) {
+            for(AbstractMatrixChange change : changes) {
+                change.collectReferences(interfaceUids, groupingHandles);
+            }
+        }
+    }
+
+
+//region Change Records
+    /**
+     * Change record for adding a connection. Only stores uids and values so that it does not keep any matrix objects
+     * alive and can be serialized
+     */
+    protected static final class AddConnection extends AbstractMatrixChange implements Serializable {
+        private final int rowUid;
+        private final int colUid;
+        private final String connectionName;
+        private final double weight;
+        private final int[] interfaceUids;
+
+        public AddConnection(int rowUid, int colUid, String connectionName, double weight, int[] interfaceUids) {
+            this.rowUid = rowUid;
+            this.colUid = colUid;
+            this.connectionName = connectionName;
+            this.weight = weight;
+            this.interfaceUids = interfaceUids;
+        }
+
+        @Override
+        public void runFunction(AbstractDSMData matrix) {
+            matrix.createConnection(rowUid, colUid, connectionName, weight, matrix.resolveInterfaces(interfaceUids));
+            matrix.postChangeEvent(MatrixChangeEvent.connectionAdded(rowUid, colUid));
+        }
+
+        @Override
+        public void runUndoFunction(AbstractDSMData matrix) {
+            matrix.removeConnection(rowUid, colUid);
+            matrix.postChangeEvent(MatrixChangeEvent.connectionRemoved(rowUid, colUid));
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            return RECORD_SIZE + (long) Integer.BYTES * interfaceUids.length;
+        }
+
+        @Override
+        public void collectReferences(Set<Integer> interfaceUids, Set<Integer> groupingHandles) {
+            for(int uid : this.interfaceUids) {
+                interfaceUids.add(uid);
+            }
+        }
+    }
+
+
+    /**
+     * Change record for removing a connection. Stores the values of the connection so that it can be created again
+     */
+    protected static final class RemoveConnection extends AbstractMatrixChange implements Serializable {
+        private final AddConnection inverse;
+
+        public RemoveConnection(int rowUid, int colUid, String connectionName, double weight, int[] interfaceUids) {
+            inverse = new AddConnection(rowUid, colUid, connectionName, weight, interfaceUids);
+        }
+
+        @Override
+        public void runFunction(AbstractDSMData matrix) {
+            inverse.runUndoFunction(matrix);
+        }
+
+        @Override
+        public void runUndoFunction(AbstractDSMData matrix) {
+            inverse.runFunction(matrix);
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            return RECORD_SIZE + inverse.getSizeEstimate();
+        }
+
+        @Override
+        public void collectReferences(Set<Integer> interfaceUids, Set<Integer> groupingHandles) {
+            inverse.collectReferences(interfaceUids, groupingHandles);
+        }
+    }
+
+
+    /**
+     * Change record for changing the name, weight, and interfaces of an existing connection
+     */
+    protected static final class SetConnection extends AbstractMatrixChange implements Serializable {
+        private final int rowUid;
+        private final int colUid;
+        private final String oldName;
+        private final double oldWeight;
+        private final int[] oldInterfaceUids;
+        private final String newName;
+        private final double newWeight;
+        private final int[] newInterfaceUids;
+
+        public SetConnection(int rowUid, int colUid, String oldName, double oldWeight, int[] oldInterfaceUids, String newName, double newWeight, int[] newInterfaceUids) {
+            this.rowUid = rowUid;
+            this.colUid = colUid;
+            this.oldName = oldName;
+            this.oldWeight = oldWeight;
+            this.oldInterfaceUids = oldInterfaceUids;
+            this.newName = newName;
+            this.newWeight = newWeight;
+            this.newInterfaceUids = newInterfaceUids;
+        }
+
+        @Override
+        public void runFunction(AbstractDSMData matrix) {
+            DSMConnection connection = matrix.getConnection(rowUid, colUid);
+            matrix.statistics.weightChanged(rowUid, colUid, connection.getWeight(), newWeight);
+            connection.setConnectionName(newName);
+            connection.setWeight(newWeight);
+            connection.setInterfaces(matrix.resolveInterfaces(newInterfaceUids));
+            matrix.connectionModified(connection);
+            matrix.postChangeEvent(MatrixChangeEvent.connectionModified(rowUid, colUid));
+        }
+
+        @Override
+        public void runUndoFunction(AbstractDSMData matrix) {
+            DSMConnection connection = matrix.getConnection(rowUid, colUid);
+            matrix.statistics.weightChanged(rowUid, colUid, connection.getWeight(), oldWeight);
+            connection.setConnectionName(oldName);
+            connection.setWeight(oldWeight);
+            connection.setInterfaces(matrix.resolveInterfaces(oldInterfaceUids));
+            matrix.connectionModified(connection);
+            matrix.postChangeEvent(MatrixChangeEvent.connectionModified(rowUid, colUid));
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            return RECORD_SIZE + (long) Integer.BYTES * (oldInterfaceUids.length + newInterfaceUids.length);
+        }
+
+        @Override
+        public void collectReferences(Set<Integer> interfaceUids, Set<Integer> groupingHandles) {
+            for(int uid : oldInterfaceUids) {
+                interfaceUids.add(uid);
+            }
+            for(int uid : newInterfaceUids) {
+                interfaceUids.add(uid);
+            }
+        }
+    }
+
+
+    /**
+     * Change record for changing the sort index of an item. If withAlias is true the item aliased to the item is
+     * changed as well
+     */
+    protected static final class MoveItem extends AbstractMatrixChange implements Serializable {
+        private final int uid;
+        private final boolean withAlias;
+        private final double oldSortIndex;
+        private final double newSortIndex;
+
+        public MoveItem(int uid, boolean withAlias, double oldSortIndex, double newSortIndex) {
+            this.uid = uid;
+            this.withAlias = withAlias;
+            this.oldSortIndex = oldSortIndex;
+            this.newSortIndex = newSortIndex;
+        }
+
+        @Override
+        public void runFunction(AbstractDSMData matrix) {
+            matrix.moveItem(matrix.getItem(uid), newSortIndex);
+            matrix.postChangeEvent(MatrixChangeEvent.itemMoved(uid));
+            if(withAlias) {
+                DSMItem alias = matrix.getItemByAlias(uid);
+                matrix.moveItem(alias, newSortIndex);
+                matrix.postChangeEvent(MatrixChangeEvent.itemMoved(alias.getUid()));
+            }
+        }
+
+        @Override
+        public void runUndoFunction(AbstractDSMData matrix) {
+            matrix.moveItem(matrix.getItem(uid), oldSortIndex);
+            matrix.postChangeEvent(MatrixChangeEvent.itemMoved(uid));
+            if(withAlias) {
+                DSMItem alias = matrix.getItemByAlias(uid);
+                matrix.moveItem(alias, oldSortIndex);
+                matrix.postChangeEvent(MatrixChangeEvent.itemMoved(alias.getUid()));
+            }
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            return RECORD_SIZE;
+        }
+    }
+
+
+    /**
+     * Change record for renaming an item. If withAlias is true the item aliased to the item is renamed as well
+     */
+    protected static final class RenameItem extends AbstractMatrixChange implements Serializable {
+        private final int uid;
+        private final boolean withAlias;
+        private final String oldName;
+        private final String newName;
+
+        public RenameItem(int uid, boolean withAlias, String oldName, String newName) {
+            this.uid = uid;
+            this.withAlias = withAlias;
+            this.oldName = oldName;
+            this.newName = newName;
+        }
+
+        @Override
+        public void runFunction(AbstractDSMData matrix) {
+            matrix.getItem(uid).setName(newName);
+            matrix.postChangeEvent(MatrixChangeEvent.itemRenamed(uid));
+            if(withAlias) {
+                DSMItem alias = matrix.getItemByAlias(uid);
+                alias.setName(newName);
+                matrix.postChangeEvent(MatrixChangeEvent.itemRenamed(alias.getUid()));
+            }
+        }
+
+        @Override
+        public void runUndoFunction(AbstractDSMData matrix) {
+            matrix.getItem(uid).setName(oldName);
+            matrix.postChangeEvent(MatrixChangeEvent.itemRenamed(uid));
+            if(withAlias) {
+                DSMItem alias = matrix.getItemByAlias(uid);
+                alias.setName(oldName);
+                matrix.postChangeEvent(MatrixChangeEvent.itemRenamed(alias.getUid()));
+            }
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            return RECORD_SIZE;
+        }
+    }
+
+
+    /**
+     * Change record for changing the group of an item. Groups are stored by the handle recordGrouping gave them (null
+     * for no group) and looked up when the record is applied. Handles are used instead of uids because different
+     * groupings can share a uid (ex. the default groupings). If withAlias is true the item aliased to the item is
+     * changed as well
+     */
+    protected static final class SetGroup extends AbstractMatrixChange implements Serializable {
+        private final int uid;
+        private final boolean withAlias;
+        private final Integer oldGroupHandle;  // boxed handles are shared with the handle table so these do not allocate
+        private final Integer newGroupHandle;
+
+        public SetGroup(int uid, boolean withAlias, Integer oldGroupHandle, Integer newGroupHandle) {
+            this.uid = uid;
+            this.withAlias = withAlias;
+            this.oldGroupHandle = oldGroupHandle;
+            this.newGroupHandle = newGroupHandle;
+        }
+
+        @Override
+        public void runFunction(AbstractDSMData matrix) {
+            Grouping group = matrix.resolveGrouping(newGroupHandle);
+            matrix.regroupItem(matrix.getItem(uid), group);
+            matrix.postChangeEvent(MatrixChangeEvent.itemRegrouped(uid));
+            if(withAlias) {
+                DSMItem alias = matrix.getItemByAlias(uid);
+                matrix.regroupItem(alias, group);
+                matrix.postChangeEvent(MatrixChangeEvent.itemRegrouped(alias.getUid()));
+            }
+        }
+
+        @Override
+        public void runUndoFunction(AbstractDSMData matrix) {
+            Grouping group = matrix.resolveGrouping(oldGroupHandle);
+            matrix.regroupItem(matrix.getItem(uid), group);
+            matrix.postChangeEvent(MatrixChangeEvent.itemRegrouped(uid));
+            if(withAlias) {
+                DSMItem alias = matrix.getItemByAlias(uid);
+                matrix.regroupItem(alias, group);
+                matrix.postChangeEvent(MatrixChangeEvent.itemRegrouped(alias.getUid()));
+            }
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            return RECORD_SIZE;
+        }
+
+        @Override
+        public void collectReferences(Set<Integer> interfaceUids, Set<Integer> groupingHandles) {
+            if(oldGroupHandle != null) {
+                groupingHandles.add(oldGroupHandle);
+            }
+            if(newGroupHandle != null) {
+                groupingHandles.add(newGroupHandle);
+            }
+        }
+    }
+
+
+    /**
+     * Change record for changing the color or the font color of a grouping. Colors are stored as their components so
+     * that the record can be serialized. A grouping without a color is stored as null
+     */
+    protected static final class RecolorGrouping extends AbstractMatrixChange implements Serializable {
+        private final int groupHandle;  // see SetGroup for why groupings are not stored by uid
+        private final boolean isFontColor;
+        private final double[] oldColor;  // red, green, blue, opacity or null if there is no color
+        private final double[] newColor;
+
+        public RecolorGrouping(int groupHandle, boolean isFontColor, Color oldColor, Color newColor) {
+            this.groupHandle = groupHandle;
+            this.isFontColor = isFontColor;
+            this.oldColor = toComponents(oldColor);
+            this.newColor = toComponents(newColor);
         }
 
+        /**
+         * @param color  the color to store
+         * @return       the components of the color or null if the color is null
+         */
+        private static double[] toComponents(Color color) {
+            return color == null ? null : new double[]{color.getRed(), color.getGreen(), color.getBlue(), color.getOpacity()};
+        }
+
+        /**
+         * Sets the color of the grouping and reports the change
+         *
+         * @param matrix  the matrix the grouping is in
+         * @param color   the components of the color to set
+         */
+        private void setColor(AbstractDSMData matrix, double[] color) {
+            Grouping group = matrix.resolveGrouping(groupHandle);
+            Color c = color == null ? null : Color.color(color[0], color[1], color[2], color[3]);
+            if(isFontColor) {
+                group.setFontColor(c);
+            } else {
+                group.setColor(c);
+            }
+            matrix.postChangeEvent(MatrixChangeEvent.groupingRecolored(group.getUid()));
+        }
+
+        @Override
+        public void runFunction(AbstractDSMData matrix) {
+            setColor(matrix, newColor);
+        }
+
+        @Override
+        public void runUndoFunction(AbstractDSMData matrix) {
+            setColor(matrix, oldColor);
+        }
+
+        @Override
+        public long getSizeEstimate() {
+            return RECORD_SIZE + 2L * REFERENCE_SIZE;
+        }
+
+        @Override
+        public void collectReferences(Set<Integer> interfaceUids, Set<Integer> groupingHandles) {
+            groupingHandles.add(groupHandle);
+        }
     }
+//endregion
 
     protected List<DSMItem> rows;
     protected List<DSMItem> cols;
     protected List<DSMConnection> connections;
     protected HashMap<String, List<DSMInterfaceType>> interfaceTypes;
 
+    // indices to allow constant time lookups of items. These are kept in sync with the rows and cols lists by the
+    // protected helper functions, so items should never be added or removed from the lists directly
+    private final HashMap<Integer, DSMItem> rowIndex = new HashMap<>();       // uid -> row item
+    private final HashMap<Integer, DSMItem> colIndex = new HashMap<>();       // uid -> column item
+    private final HashMap<Integer, DSMItem> rowAliasIndex = new HashMap<>();  // alias uid -> row item
+    private final HashMap<Integer, DSMItem> colAliasIndex = new HashMap<>();  // alias uid -> column item
+    private final HashMap<Long, DSMConnection> connectionIndex = new HashMap<>();  // (row uid, col uid) -> connection
+    private final HashMap<Integer, List<DSMConnection>> rowAdjacency = new HashMap<>();  // row uid -> connections in the row
+    private final HashMap<Integer, List<DSMConnection>> colAdjacency = new HashMap<>();  // col uid -> connections in the column
+    private final IdentityHashMap<DSMConnection, Integer> connectionPositions = new IdentityHashMap<>();  // connection -> index in connections
+    private int removedConnections = 0;  // number of null slots left in connections by removeConnection
+
+    // every connection in the matrix stores its interfaces as a mask of ordinals from this table
+    private final InterfaceTypeTable interfaceTable = new InterfaceTypeTable();
+
+    // gives out uids for new items and groupings that do not collide with the ones already in the matrix
+    private final UidAllocator uidAllocator = new UidAllocator();
+
+    // kept up to date by the protected helper functions that add and remove items and connections
+    private final MatrixStatistics statistics = new MatrixStatistics(this);
+
+    // rows and cols are kept sorted by getItemComparator. Changes that can not keep the order up to date (ex. replacing
+    // the lists) mark it as invalid and the lists are sorted again the next time the order is needed
+    protected static final Comparator<DSMItem> SORT_INDEX_ORDER = Comparator.comparingDouble(DSMItem::getSortIndex);
+    private boolean itemOrderValid = true;
+
+    // interfaces and groupings referenced by change records so that the records only need to store ints. Groupings
+    // are given a handle per object because different groupings can have the same uid. Entries that no change on the
+    // stacks refers to are pruned when changes are dropped from the history
+    private static final int[] NO_INTERFACES = new int[0];
+    private final HashMap<Integer, DSMInterfaceType> recordedInterfaces = new HashMap<>();  // uid -> interface
+    private final HashMap<Integer, Grouping> recordedGroupings = new HashMap<>();           // handle -> grouping
+    private final IdentityHashMap<Grouping, Integer> groupingHandles = new IdentityHashMap<>();  // grouping -> handle
+    private int nextGroupingHandle = 0;
+    private int numRecordedAtLastPrune = 0;  // number of entries in the tables after they were last pruned
+    private static final int MIN_RECORDED_BEFORE_PRUNE = 64;
+
     protected StringProperty title = new SimpleStringProperty("");
     protected StringProperty projectName = new SimpleStringProperty("");
     protected StringProperty customer = new SimpleStringProperty("");
     protected StringProperty versionNumber = new SimpleStringProperty("");
 
     private final BooleanProperty wasModified = new SimpleBooleanProperty(false);
-    protected Stack<MatrixChange> undoStack;
-    protected Stack<MatrixChange> redoStack;
-    protected static final int MAX_UNDO_HISTORY = Integer.MAX_VALUE;  // TODO: undo history should be based on checkpoints and not this big
+    protected UndoHistory undoStack;
+    protected UndoHistory redoStack;
+    public static final int DEFAULT_MAX_UNDO_ENTRIES = 100_000;
+    public static final long DEFAULT_MAX_UNDO_BYTES = 64L * 1024 * 1024;
+
+    private int batchDepth = 0;                    // number of nested batches that are currently open
+    private boolean batchRecordsUndo = true;       // whether the open batch should be put on the undo stack
+    private List<AbstractMatrixChange> batchChanges = new ArrayList<>();  // changes made during the open batch
+    private int replayDepth = 0;                   // greater than zero while a batch is being undone or redone
+
+    private final List<MatrixChangeListener> changeListeners = new ArrayList<>();
+    private final LinkedHashMap<MatrixChangeEvent, MatrixChangeEvent> pendingEvents = new LinkedHashMap<>();  // key -> coalesced event
+    private boolean pendingStructureChange = false;
+
+    // incremented by every change so other threads can tell when their snapshot is out of date. Only written by the
+    // thread that modifies the matrix so volatile is enough
+    private volatile long version = 0;
+    private volatile MatrixSnapshot latestSnapshot = null;
 
 
 //region Constructors
@@ -72,8 +605,8 @@ public abstract class AbstractDSMData {
      * There is one grouping, which is the default: "(None)"
      */
     public AbstractDSMData() {
-        undoStack = new Stack<>();
-        redoStack = new Stack<>();
+        undoStack = new UndoHistory(DEFAULT_MAX_UNDO_ENTRIES, DEFAULT_MAX_UNDO_BYTES, this::pruneRecordedReferences);
+        redoStack = new UndoHistory(Integer.MAX_VALUE, Long.MAX_VALUE, this::pruneRecordedReferences);  // redo stack can never be bigger than the undo stack was
 
         rows = new ArrayList<>();
         cols = new ArrayList<>();
@@ -92,32 +625,14 @@ public abstract class AbstractDSMData {
      * @param copy AbstractDSMData object to copy
      */
     public AbstractDSMData(AbstractDSMData copy) {
-        undoStack = new Stack<>();
-        redoStack = new Stack<>();
+        undoStack = new UndoHistory(DEFAULT_MAX_UNDO_ENTRIES, DEFAULT_MAX_UNDO_BYTES, this::pruneRecordedReferences);
+        redoStack = new UndoHistory(Integer.MAX_VALUE, Long.MAX_VALUE, this::pruneRecordedReferences);  // redo stack can never be bigger than the undo stack was
 
         rows = new ArrayList<>();
-        for(DSMItem row : copy.getRows()) {
-            rows.add(new DSMItem(row));
-        }
-
         cols = new ArrayList<>();
-        for(DSMItem col : copy.getCols()) {
-            cols.add(new DSMItem(col));
-        }
-
-        interfaceTypes = new HashMap<>();
-        for(Map.Entry<String, List<DSMInterfaceType>> interfaces : copy.getInterfaceTypes().entrySet()) {
-            List<DSMInterfaceType> newInterfaceTypes = new ArrayList<>();
-            for(DSMInterfaceType i : interfaces.getValue()) {
-                newInterfaceTypes.add(new DSMInterfaceType(i));
-            }
-            interfaceTypes.put(interfaces.getKey(), newInterfaceTypes);
-        }
-
         connections = new ArrayList<>();
-        for(DSMConnection conn : copy.getConnections()) {
-            connections.add(new DSMConnection(conn));
-        }
+        interfaceTypes = new HashMap<>();
+        copy.copyContentsInto(this);
 
         title = copy.getTitleProperty();
         projectName = copy.getProjectNameProperty();
@@ -136,7 +651,45 @@ public abstract class AbstractDSMData {
      * @return  the deep copy of the object
      */
     public abstract AbstractDSMData createCopy();
-//endregion
+
+
+    /**
+     * Copies the items, connections, and interface types of this matrix into another matrix. Each interface type is
+     * only copied once and the copied connections refer to those copies instead of each connection holding its own
+     * copies of its interfaces. Does not put any changes on the stack
+     *
+     * @param copy  the matrix to copy into
+     */
+    protected final void copyContentsInto(AbstractDSMData copy) {
+        copy.uidAllocator.reserveAll(uidAllocator);
+        for(DSMItem row : getRows()) {
+            copy.insertItem(new DSMItem(row), true);
+        }
+
+        for(DSMItem col : getCols()) {
+            copy.insertItem(new DSMItem(col), false);
+        }
+
+        HashMap<Integer, DSMInterfaceType> interfaceCopies = new HashMap<>();  // uid -> copy of the interface
+        for(Map.Entry<String, List<DSMInterfaceType>> interfaceGroup : getInterfaceTypes().entrySet()) {
+            List<DSMInterfaceType> interfaces = new ArrayList<>();
+            for(DSMInterfaceType i : interfaceGroup.getValue()) {
+                DSMInterfaceType interfaceCopy = new DSMInterfaceType(i);
+                interfaceCopies.put(interfaceCopy.getUid(), interfaceCopy);
+                interfaces.add(interfaceCopy);
+                copy.interfaceTable.register(interfaceCopy);
+            }
+            copy.interfaceTypes.put(interfaceGroup.getKey(), interfaces);
+        }
+
+        for(DSMConnection conn : getConnections()) {
+            ArrayList<DSMInterfaceType> interfaces = new ArrayList<>(conn.getInterfaces().size());
+            for(DSMInterfaceType i : conn.getInterfaces()) {  // interfaces that are not in the matrix are still only copied once
+                interfaces.add(interfaceCopies.computeIfAbsent(i.getUid(), uid -> new DSMInterfaceType(i)));
+            }
+            copy.insertConnection(new DSMConnection(conn.getConnectionName(), conn.getWeight(), conn.getRowUid(), conn.getColUid(), interfaces, copy.interfaceTable));
+        }
+    }//endregion
 
 
 //region Undo Functionality Methods
@@ -145,233 +698,1055 @@ public abstract class AbstractDSMData {
      *
      * @param change the change object to handle
      */
-    protected final void addChangeToStack(MatrixChange change) {
-        change.runFunction();
-        undoStack.push(change);
-
-        if(undoStack.size() > MAX_UNDO_HISTORY) {  // remove bottom item from stack
-            undoStack.remove(0);
+    protected final void addChangeToStack(AbstractMatrixChange change) {
+        change.runFunction(this);
+        if(replayDepth > 0 || (batchDepth > 0 && !batchRecordsUndo)) {  // change is already recorded or should not be recorded
+            setWasModified();
+            return;
+        } else if(batchDepth > 0) {  // change will be added to the stack as part of the batch
+            batchChanges.add(change);
+            setWasModified();
+            return;
         }
 
+        undoStack.push(change);  // history evicts the oldest checkpoint groups if it is over budget
+
         setWasModified();
     }
 
 
     /**
-     * Undoes changes until the last checkpoint (checkpoint is not included). Pops changes from the undo stack and pushes them
-     * to the redo stack
+     * Remembers a list of interfaces so that a change record can refer to them by uid
+     *
+     * @param interfaces  the interfaces to remember
+     * @return            the uids of the interfaces
      */
-    public final void undoToCheckpoint() {
-        int iter = 0;
-        while(true) {  // undo state until the last checkpoint
-            if(!undoStack.isEmpty()) {  // make sure stack is not empty
-                MatrixChange change = undoStack.peek();
-                if(change.isCheckpoint() && iter > 0) {  // stop before the checkpoint unless it is the first item
-                    break;
-                }
-                undoStack.pop();  // add change to the redo stack
+    protected final int[] recordInterfaces(List<DSMInterfaceType> interfaces) {
+        if(interfaces == null || interfaces.isEmpty()) {
+            return NO_INTERFACES;
+        }
 
-                change.runUndoFunction();
-                redoStack.push(change);
+        int[] interfaceUids = new int[interfaces.size()];
+        for(int i = 0; i < interfaces.size(); i++) {
+            interfaceUids[i] = interfaces.get(i).getUid();
+            recordedInterfaces.put(interfaceUids[i], interfaces.get(i));
+        }
+        return interfaceUids;
+    }
 
-                iter += 1;
-            } else {
-                break;
-            }
+
+    /**
+     * Finds the interfaces a change record refers to
+     *
+     * @param interfaceUids  the uids returned by recordInterfaces
+     * @return               a new list of the interfaces
+     */
+    protected final ArrayList<DSMInterfaceType> resolveInterfaces(int[] interfaceUids) {
+        ArrayList<DSMInterfaceType> interfaces = new ArrayList<>(interfaceUids.length);
+        for(int uid : interfaceUids) {
+            interfaces.add(recordedInterfaces.get(uid));
         }
+        return interfaces;
+    }
 
-        setWasModified();
+
+    /**
+     * Remembers a grouping so that a change record can refer to it by a handle. Each grouping object gets its own
+     * handle, so groupings that share a uid are never mixed up
+     *
+     * @param group  the grouping to remember, can be null
+     * @return       the handle of the grouping or null if there is no grouping
+     */
+    protected final Integer recordGrouping(Grouping group) {
+        if(group == null) {
+            return null;
+        }
+
+        Integer handle = groupingHandles.get(group);
+        if(handle == null) {
+            handle = nextGroupingHandle++;
+            groupingHandles.put(group, handle);
+            recordedGroupings.put(handle, group);
+        }
+        return handle;
     }
 
 
     /**
-     * Redoes changes that are on the redo stack to the next checkpoint (checkpoint is included).
+     * Finds the grouping a change record refers to
+     *
+     * @param groupHandle  the handle returned by recordGrouping
+     * @return             the grouping or null if there is no grouping
      */
-    public final void redoToCheckpoint() {
-        while(true) {
-            if(!redoStack.isEmpty()) {  // make sure stack is not empty
-                MatrixChange change = redoStack.peek();
-                redoStack.pop();  // add change to the redo stack
+    protected final Grouping resolveGrouping(Integer groupHandle) {
+        return groupHandle != null ? recordedGroupings.get(groupHandle) : null;
+    }
 
-                change.runFunction();
-                undoStack.push(change);
 
-                if(change.isCheckpoint()) {  // stop after the checkpoint
-                    break;
-                }
-            } else {
-                break;
-            }
+    /**
+     * Forgets the recorded interfaces and groupings that no change on the stacks or in the open batch refers to.
+     * Called when changes are dropped from the history. The stacks are only walked once the tables have doubled in
+     * size since they were last pruned so that dropping changes stays amortized constant time
+     */
+    private void pruneRecordedReferences() {
+        int numRecorded = recordedInterfaces.size() + recordedGroupings.size();
+        if(numRecorded > Math.max(2 * numRecordedAtLastPrune, MIN_RECORDED_BEFORE_PRUNE)) {
+            forgetUnreferencedRecords();
+        }
+    }
+
+
+    /**
+     * Forgets the recorded interfaces and groupings that no change on the stacks or in the open batch refers to
+     */
+    private void forgetUnreferencedRecords() {
+        Set<Integer> liveInterfaces = new HashSet<>();
+        Set<Integer> liveGroupings = new HashSet<>();
+        undoStack.forEach(change -> change.collectReferences(liveInterfaces, liveGroupings));
+        redoStack.forEach(change -> change.collectReferences(liveInterfaces, liveGroupings));
+        for(AbstractMatrixChange change : batchChanges) {
+            change.collectReferences(liveInterfaces, liveGroupings);
+        }
+
+        recordedInterfaces.keySet().retainAll(liveInterfaces);
+        recordedGroupings.keySet().retainAll(liveGroupings);
+        groupingHandles.values().retainAll(liveGroupings);
+        numRecordedAtLastPrune = recordedInterfaces.size() + recordedGroupings.size();
+    }
+
+
+    /**
+     * @return  the number of interfaces and groupings remembered for change records
+     */
+    final int getNumRecordedReferences() {
+        return recordedInterfaces.size() + recordedGroupings.size();
+    }
+
+
+    /**
+     * Starts a batch of changes. All changes made until the matching call to endBatch are applied to the matrix
+     * immediately, but are put on the undo stack as a single change when the batch ends. If recordUndo is false the
+     * changes are not put on the stack at all, which should be used when initially populating a matrix (ex. when
+     * reading a file). Batches can be nested, in which case the outermost batch determines if changes are recorded.
+     * Every call to this function must be matched by a call to endBatch
+     *
+     * @param recordUndo  if the batch should be put on the undo stack
+     */
+    public final void beginBatch(boolean recordUndo) {
+        if(batchDepth == 0) {
+            batchRecordsUndo = recordUndo;
+            batchChanges = new ArrayList<>();
+        }
+        batchDepth += 1;
+    }
+
+
+    /**
+     * Ends a batch of changes started with beginBatch. When the outermost batch ends the changes made during the batch
+     * are put on the undo stack as a single change that does not set a checkpoint
+     */
+    public final void endBatch() {
+        assert batchDepth > 0 : "endBatch called without a matching call to beginBatch";
+        batchDepth -= 1;
+        if(batchDepth > 0) {
+            return;
+        }
+
+        List<AbstractMatrixChange> changes = batchChanges;
+        batchChanges = new ArrayList<>();
+        if(!batchRecordsUndo || changes.isEmpty()) {
+            return;
+        }
+
+        undoStack.push(new BatchChange(changes.toArray(new AbstractMatrixChange[0])));
+    }
+
+
+    /**
+     * Runs a function that modifies the matrix as a single batch. See beginBatch
+     *
+     * @param edits       the function that modifies the matrix
+     * @param recordUndo  if the batch should be put on the undo stack
+     */
+    public final void runBatch(Runnable edits, boolean recordUndo) {
+        beginBatch(recordUndo);
+        try {
+            edits.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+
+    /**
+     * Undoes changes until the last checkpoint (checkpoint is not included). Pops changes from the undo stack and pushes them
+     * to the redo stack
+     */
+    public final void undoToCheckpoint() {
+        int iter = 0;
+        while(true) {  // undo state until the last checkpoint
+            if(!undoStack.isEmpty()) {  // make sure stack is not empty
+                AbstractMatrixChange change = undoStack.peek();
+                if(change.isCheckpoint() && iter > 0) {  // stop before the checkpoint unless it is the first item
+                    break;
+                }
+                undoStack.pop();  // add change to the redo stack
+
+                change.runUndoFunction(this);
+                redoStack.push(change);
+
+                iter += 1;
+            } else {
+                break;
+            }
+        }
+
+        setWasModified();
+        fireChangeEvents();
+    }
+
+
+    /**
+     * Redoes changes that are on the redo stack to the next checkpoint (checkpoint is included).
+     */
+    public final void redoToCheckpoint() {
+        while(true) {
+            if(!redoStack.isEmpty()) {  // make sure stack is not empty
+                AbstractMatrixChange change = redoStack.peek();
+                redoStack.pop();  // add change to the redo stack
+
+                change.runFunction(this);
+                undoStack.push(change);
+
+                if(change.isCheckpoint()) {  // stop after the checkpoint
+                    break;
+                }
+            } else {
+                break;
+            }
+        }
+
+        setWasModified();
+        fireChangeEvents();
+    }
+
+
+    /**
+     * Sets the top of the undo stack as a checkpoint and clears the redo stack because redoing after an operation
+     * could go horribly wrong. Notifies the change listeners of the changes made since the last checkpoint
+     */
+    public final void setCurrentStateAsCheckpoint() {
+        undoStack.setTopCheckpoint();
+        redoStack.clear();
+        fireChangeEvents();
+    }
+
+
+    /**
+     * Returns whether there are changes to be undone
+     *
+     * @return if changes are on the undo stack
+     */
+    public final boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+
+    /**
+     * Returns whether there are changes to be redone
+     *
+     * @return if changes are on the redo stack
+     */
+    public final boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+
+    /**
+     * Sets the budget of the undo history. Once either limit is exceeded the oldest checkpoints are forgotten, although
+     * the most recent checkpoint is always kept
+     *
+     * @param maxEntries  the maximum number of changes to keep on the undo stack
+     * @param maxBytes    the maximum approximate number of bytes the undo stack should retain
+     */
+    public final void setUndoHistoryLimits(int maxEntries, long maxBytes) {
+        undoStack.setLimits(maxEntries, maxBytes);
+    }
+
+
+    /**
+     * Returns the approximate number of bytes retained by the undo and redo stacks
+     *
+     * @return  the approximate size of the undo history in bytes
+     */
+    public final long getUndoHistorySize() {
+        return undoStack.getRetainedBytes() + redoStack.getRetainedBytes();
+    }
+
+
+    /**
+     * clears both undo and redo stacks (useful for instantiation of the class)
+     */
+    public final void clearStacks() {
+        undoStack.clear();
+        redoStack.clear();
+        forgetUnreferencedRecords();
+    }
+
+
+    /**
+     * Clears the wasModified flag. Used for when matrix has been saved to a file. Does not add changes to the stack
+     */
+    public final void clearWasModifiedFlag() {
+        this.wasModified.set(false);
+    }
+
+
+    /**
+     * Sets the was modified flag. Does not add changes to the stack
+     */
+    public final void setWasModified() {
+        wasModified.set(true);
+    }
+
+
+    /**
+     * Returns whether the wasModified flag is set or not. Used to check if matrix has been
+     * saved
+     *
+     * @return if the matrix has been modified, true if it has, false if not
+     */
+    public final boolean getWasModified() {
+        return wasModified.getValue();
+    }
+
+
+    /**
+     * @return  the BooleanProperty of the wasModified flag so that things can be bound to it
+     */
+    public final BooleanProperty getWasModifiedProperty() {
+        return wasModified;
+    }
+//endregion
+
+
+//region Change Events
+    /**
+     * Adds a listener that is notified of the changes made to the matrix. Changes are collected and delivered once
+     * per checkpoint (when a checkpoint is set, or after undoing or redoing to a checkpoint)
+     *
+     * @param listener  the listener to add
+     */
+    public final void addChangeListener(MatrixChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+
+    /**
+     * Removes a listener added with addChangeListener
+     *
+     * @param listener  the listener to remove
+     */
+    public final void removeChangeListener(MatrixChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+
+    /**
+     * Reports a change to the matrix. The event is coalesced with the other events since the last checkpoint: repeated
+     * events about the same item or grouping are only reported once, and the events about a connection are merged
+     * into a single event describing the net change (ex. adding then removing a connection reports nothing). Events
+     * are discarded if there are no listeners
+     *
+     * @param event  the change that was made
+     */
+    protected final void postChangeEvent(MatrixChangeEvent event) {
+        version++;  // every change posts an event so this is where the version is kept up to date
+        if(changeListeners.isEmpty() || pendingStructureChange) {  // a structure change already covers everything
+            return;
+        }
+        if(event.type() == MatrixChangeEvent.Type.STRUCTURE_CHANGED) {
+            pendingStructureChange = true;
+            pendingEvents.clear();
+            return;
+        }
+        if(!event.isConnectionEvent()) {
+            pendingEvents.putIfAbsent(event, event);
+            return;
+        }
+
+        MatrixChangeEvent key = MatrixChangeEvent.connectionModified(event.uid(), event.otherUid());
+        MatrixChangeEvent previous = pendingEvents.get(key);
+        if(previous == null) {
+            pendingEvents.put(key, event);
+            return;
+        }
+
+        MatrixChangeEvent.Type previousType = previous.type();
+        MatrixChangeEvent.Type type = event.type();
+        if(previousType == MatrixChangeEvent.Type.CONNECTION_ADDED && type == MatrixChangeEvent.Type.CONNECTION_REMOVED) {
+            pendingEvents.remove(key);  // connection did not exist before and does not exist now
+        } else if(previousType == MatrixChangeEvent.Type.CONNECTION_REMOVED && type == MatrixChangeEvent.Type.CONNECTION_ADDED) {
+            pendingEvents.put(key, key);  // connection existed before and still exists but may be different
+        } else if(previousType != MatrixChangeEvent.Type.CONNECTION_ADDED) {  // an added connection stays added when it is modified
+            pendingEvents.put(key, event);
+        }
+    }
+
+
+    /**
+     * Notifies the change listeners of the changes reported since the last notification. Called automatically at each
+     * checkpoint, but can be called directly when changes are made without setting a checkpoint. Does nothing if there
+     * are no changes
+     */
+    public final void fireChangeEvents() {
+        List<MatrixChangeEvent> events;
+        if(pendingStructureChange) {
+            events = List.of(MatrixChangeEvent.structureChanged());
+        } else if(!pendingEvents.isEmpty()) {
+            events = List.copyOf(pendingEvents.values());
+        } else {
+            return;
+        }
+        pendingEvents.clear();
+        pendingStructureChange = false;
+
+        for(MatrixChangeListener listener : new ArrayList<>(changeListeners)) {  // copy so listeners can remove themselves
+            listener.onMatrixChanged(events);
+        }
+    }
+//endregion
+
+
+//region Snapshots
+    /**
+     * Returns the version of the matrix. The version changes every time the matrix is changed. Can be called from any
+     * thread
+     *
+     * @return  the current version
+     */
+    public final long getVersion() {
+        return version;
+    }
+
+
+    /**
+     * Returns an immutable snapshot of the connections at the current version. The snapshot is reused until the
+     * matrix changes. Must be called on the thread that modifies the matrix (the javafx thread for open matrices)
+     *
+     * @return  the snapshot of the current version
+     */
+    public final MatrixSnapshot getSnapshot() {
+        MatrixSnapshot snapshot = latestSnapshot;
+        if(snapshot == null || snapshot.getVersion() != version) {
+            snapshot = new MatrixSnapshot(this, version);
+            latestSnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+
+    /**
+     * Returns the last snapshot that was taken without taking a new one. Can be called from any thread. Compare
+     * its version to getVersion to know if it is still current
+     *
+     * @return  the last snapshot taken or null if no snapshot has been taken
+     */
+    public final MatrixSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+//endregion
+
+
+//region Statistics
+    /**
+     * Returns the statistics of the matrix. The same object is returned every time and it is updated as the matrix
+     * changes, so it can be held on to and read in constant time. Should only be read on the thread that modifies
+     * the matrix
+     *
+     * @return  the live statistics of the matrix
+     */
+    public final MatrixStatistics getStatistics() {
+        return statistics;
+    }
+//endregion
+
+
+//region Protected Helper functions (makes changes but do not add them to the change stack)
+    /**
+     * Removes an item from the matrix and clears its connections. This change is not added to the stack, however the call
+     * to clear connections does make a change to the stack
+     *
+     * @param item the item to delete
+     */
+    protected final void removeItem(DSMItem item) {
+        DSMItem row = rowIndex.remove(item.getUid());
+        if (row != null) {
+            removeFromOrder(rows, row);
+            if(row.getAliasUid() != null) {
+                rowAliasIndex.remove(row.getAliasUid(), row);
+            }
+            statistics.itemRemoved(row.getUid());
+        } else {                                   // uid was not in a row, must be in a column
+            DSMItem col = colIndex.remove(item.getUid());
+            if (col != null) {
+                removeFromOrder(cols, col);
+                if(col.getAliasUid() != null) {
+                    colAliasIndex.remove(col.getAliasUid(), col);
+                }
+                statistics.itemRemoved(col.getUid());
+            }
+        }
+        clearItemConnections(item.getUid());
+    }
+
+
+    /**
+     * Removes a group of items from the matrix in one pass over the rows and one pass over the columns. Does not
+     * remove the connections of the items and does not add any change to the stack
+     *
+     * @param items  the items to remove
+     */
+    protected final void removeItems(Collection<DSMItem> items) {
+        Set<DSMItem> removedRows = new HashSet<>();
+        Set<DSMItem> removedCols = new HashSet<>();
+        for(DSMItem item : items) {
+            DSMItem row = rowIndex.remove(item.getUid());
+            if(row != null) {
+                removedRows.add(row);
+                if(row.getAliasUid() != null) {
+                    rowAliasIndex.remove(row.getAliasUid(), row);
+                }
+                statistics.itemRemoved(row.getUid());
+                continue;
+            }
+            DSMItem col = colIndex.remove(item.getUid());
+            if(col != null) {
+                removedCols.add(col);
+                if(col.getAliasUid() != null) {
+                    colAliasIndex.remove(col.getAliasUid(), col);
+                }
+                statistics.itemRemoved(col.getUid());
+            }
+        }
+        if(!removedRows.isEmpty()) {
+            rows.removeIf(removedRows::contains);
+        }
+        if(!removedCols.isEmpty()) {
+            cols.removeIf(removedCols::contains);
+        }
+    }
+
+
+    /**
+     * Adds an item to either the rows or the columns in its sorted position and adds it to the lookup indices. This
+     * change is not added to the stack. All code that adds items to the matrix should go through this function
+     *
+     * @param item  the item to add
+     * @param isRow if the item should be added as a row or a column
+     */
+    protected final void insertItem(DSMItem item, boolean isRow) {
+        if(isRow) {
+            insertInOrder(rows, item);
+        } else {
+            insertInOrder(cols, item);
+        }
+        indexItem(item, isRow);
+    }
+
+
+    /**
+     * Changes the sort index of an item and moves it to its new position in the rows or columns. This change is not
+     * added to the stack. All code that changes the sort index of an item in the matrix should go through this function
+     *
+     * @param item          the item to move
+     * @param newSortIndex  the new sort index of the item
+     */
+    protected final void moveItem(DSMItem item, double newSortIndex) {
+        List<DSMItem> items = rowIndex.get(item.getUid()) == item ? rows : cols;
+        if(!itemOrderValid) {
+            item.setSortIndex(newSortIndex);
+            return;
+        }
+
+        int position = findPosition(items, item);
+        if(position >= 0) {
+            items.remove(position);
+            item.setSortIndex(newSortIndex);
+            insertInOrder(items, item);
+            return;
+        }
+
+        // the item is not where its sort key says it should be, so the key was changed without going through this
+        // function. Move it by reference and sort the lists again the next time the order is needed
+        boolean found = items.removeIf(other -> other == item);
+        item.setSortIndex(newSortIndex);
+        if(found) {
+            items.add(item);
+        }
+        invalidateItemOrder();
+    }
+
+
+    /**
+     * Returns the comparator that determines the order the rows and columns are displayed in. Items with equal
+     * keys keep the order they were added in. Subclasses that order by something other than the sort index need to
+     * call invalidateItemOrder when that changes outside a MatrixChange
+     *
+     * @return  the comparator for the items of the matrix
+     */
+    protected Comparator<DSMItem> getItemComparator() {
+        return SORT_INDEX_ORDER;
+    }
+
+
+    /**
+     * Marks the order of the rows and columns as out of date so that they are sorted again the next time they are
+     * needed. Used when the lists are replaced or something the comparator depends on changes
+     */
+    protected final void invalidateItemOrder() {
+        itemOrderValid = false;
+    }
+
+
+    /**
+     * Sorts the rows and columns if their order was invalidated. Does nothing if they are already in order
+     */
+    protected final void ensureItemOrder() {
+        if(itemOrderValid) {
+            return;
+        }
+        rows.sort(getItemComparator());  // sort is stable so items with equal keys keep their relative order
+        cols.sort(getItemComparator());
+        itemOrderValid = true;
+    }
+
+
+    /**
+     * Inserts an item after all the items that do not sort after it, which is the same place a stable sort would put
+     * an item appended to the end of the list. Appends the item if the order is invalid
+     *
+     * @param items  the sorted rows or columns
+     * @param item   the item to insert
+     */
+    private void insertInOrder(List<DSMItem> items, DSMItem item) {
+        if(!itemOrderValid) {
+            items.add(item);
+            return;
+        }
+
+        Comparator<DSMItem> comparator = getItemComparator();
+        int low = 0;
+        int high = items.size();
+        while(low < high) {  // find the first item that sorts after the new item
+            int mid = (low + high) >>> 1;
+            if(comparator.compare(items.get(mid), item) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        items.add(low, item);
+    }
+
+
+    /**
+     * Removes an item from the rows or columns
+     *
+     * @param items  the rows or columns
+     * @param item   the item to remove
+     */
+    private void removeFromOrder(List<DSMItem> items, DSMItem item) {
+        int position = itemOrderValid ? findPosition(items, item) : -1;
+        if(position >= 0) {
+            items.remove(position);
+        } else {
+            items.remove(item);
+        }
+    }
+
+
+    /**
+     * Finds the position of an item in the sorted rows or columns with a binary search. The order must be valid
+     *
+     * @param items  the rows or columns
+     * @param item   the item to find
+     * @return       the index of the item or -1 if it is not in the list
+     */
+    private int findPosition(List<DSMItem> items, DSMItem item) {
+        Comparator<DSMItem> comparator = getItemComparator();
+        int low = 0;
+        int high = items.size();
+        while(low < high) {  // find the first item that does not sort before the item
+            int mid = (low + high) >>> 1;
+            if(comparator.compare(items.get(mid), item) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for(int i = low; i < items.size() && comparator.compare(items.get(i), item) == 0; i++) {  // check items with equal keys
+            if(items.get(i) == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+
+    /**
+     * Changes the primary grouping of an item and moves its connections between groupings in the statistics. This
+     * change is not added to the stack. All code that changes the group1 of an item in the matrix should go through
+     * this function
+     *
+     * @param item   the item to regroup
+     * @param group  the new grouping of the item
+     */
+    protected final void regroupItem(DSMItem item, Grouping group) {
+        item.setGroup1(group);
+        if(rowIndex.get(item.getUid()) == item || colIndex.get(item.getUid()) == item) {
+            statistics.itemGrouped(item.getUid(), group);
+            itemRegrouped(item);
+        }
+    }
+
+
+    /**
+     * Rebuilds the item lookup indices from the rows and columns lists. Needs to be called whenever the rows or cols
+     * lists are replaced (ex. when transposing) instead of being modified through insertItem and removeItem. Does
+     * not add changes to the stack
+     */
+    protected final void rebuildItemIndex() {
+        invalidateItemOrder();
+        rowIndex.clear();
+        colIndex.clear();
+        rowAliasIndex.clear();
+        colAliasIndex.clear();
+
+        for(DSMItem row : rows) {
+            indexItem(row, true);
+        }
+        for(DSMItem col : cols) {
+            indexItem(col, false);
+        }
+    }
+
+
+    /**
+     * Adds an item to the uid and alias uid lookup indices
+     *
+     * @param item  the item to add to the indices
+     * @param isRow if the item is a row or a column
+     */
+    private void indexItem(DSMItem item, boolean isRow) {
+        uidAllocator.reserve(item.getUid());
+        statistics.itemGrouped(item.getUid(), item.getGroup1());
+        if(isRow) {
+            rowIndex.put(item.getUid(), item);
+            if(item.getAliasUid() != null) {
+                rowAliasIndex.putIfAbsent(item.getAliasUid(), item);
+            }
+        } else {
+            colIndex.put(item.getUid(), item);
+            if(item.getAliasUid() != null) {
+                colAliasIndex.putIfAbsent(item.getAliasUid(), item);
+            }
+        }
+        itemIndexed(item);
+    }
+
+
+    /**
+     * Creates a connection and adds it to the matrix, but does not add the change to the stack
+     *
+     * @param rowUid         the row item uid
+     * @param colUid         the column item uid
+     * @param connectionName the name of the connection
+     * @param weight         the weight of the connection
+     * @param interfaces     the interfaces for the connection
+     */
+    protected void createConnection(int rowUid, int colUid, String connectionName, double weight, ArrayList<DSMInterfaceType> interfaces) {
+        if(isRow(rowUid) && isCol(colUid)) {
+            DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces, interfaceTable);
+            insertConnection(connection);
+        }
+    }
+
+
+    /**
+     * Adds an existing connection object to the connections list and the connection lookup index, but does not
+     * add the change to the stack. All code that adds connections to the matrix should go through this function
+     *
+     * @param connection  the connection to add
+     */
+    protected final void insertConnection(DSMConnection connection) {
+        connectionPositions.put(connection, connections.size());
+        connections.add(connection);
+        indexConnection(connection);
+    }
+
+
+    /**
+     * Removes a connection element from the connections list, but does not add the change to the stack. The
+     * connection's slot in the list is set to null so that the removal takes constant time and the other connections
+     * keep their insertion order. The null slots are dropped the next time the list is read through getConnections or
+     * when they make up half of the list
+     *
+     * @param rowUid        the row item uid
+     * @param colUid        the col item uid
+     */
+    protected final void removeConnection(int rowUid, int colUid) {
+        DSMConnection connection = connectionIndex.get(connectionKey(rowUid, colUid));
+        if(connection != null) {
+            unindexConnection(connection);
+            connections.set(connectionPositions.remove(connection), null);
+            removedConnections++;
+            if(2 * removedConnections > connections.size()) {
+                compactConnections();
+            }
+        }
+    }
+
+
+    /**
+     * Drops the null slots left in the connections list by removeConnection without changing the order of the
+     * remaining connections
+     */
+    private void compactConnections() {
+        if(removedConnections == 0) {
+            return;
         }
-
-        setWasModified();
+        connections.removeIf(Objects::isNull);
+        removedConnections = 0;
+        rebuildConnectionPositions();
     }
 
 
     /**
-     * Sets the top of the undo stack as a checkpoint and clears the redo stack because redoing after an operation
-     * could go horribly wrong
+     * Removes multiple connections from the connections list and the lookup index in one pass over the list, but
+     * does not add the change to the stack
+     *
+     * @param toRemove  the connections to remove
      */
-    public final void setCurrentStateAsCheckpoint() {
-        if (!undoStack.isEmpty()) {
-            undoStack.peek().setCheckpoint(true);
+    protected final void removeConnections(Set<DSMConnection> toRemove) {
+        if(toRemove.isEmpty()) {
+            return;
         }
-        redoStack.clear();
+        for(DSMConnection connection : toRemove) {
+            unindexConnection(connection);
+        }
+        connections.removeIf(connection -> connection == null || toRemove.contains(connection));
+        removedConnections = 0;
+        rebuildConnectionPositions();
     }
 
 
     /**
-     * Returns whether there are changes to be undone
-     *
-     * @return if changes are on the undo stack
+     * Rebuilds the connection lookup index from the connections list. Needs to be called whenever the connections
+     * list is replaced instead of being modified through insertConnection and removeConnection. Does not add changes
+     * to the stack
      */
-    public final boolean canUndo() {
-        return !undoStack.isEmpty();
+    protected final void rebuildConnectionIndex() {
+        connections.removeIf(Objects::isNull);
+        removedConnections = 0;
+        statistics.clearConnections();
+        connectionIndex.clear();
+        rowAdjacency.clear();
+        colAdjacency.clear();
+        connectionIndexCleared();
+        for(DSMConnection connection : connections) {
+            indexConnection(connection);
+        }
+        rebuildConnectionPositions();
     }
 
 
     /**
-     * Returns whether there are changes to be redone
-     *
-     * @return if changes are on the redo stack
+     * Recomputes the position of every connection in the connections list. Needs to be called whenever connections
+     * are removed from the list other than through removeConnection
      */
-    public final boolean canRedo() {
-        return !redoStack.isEmpty();
+    private void rebuildConnectionPositions() {
+        connectionPositions.clear();
+        for(int i = 0; i < connections.size(); i++) {
+            connectionPositions.put(connections.get(i), i);
+        }
     }
 
 
     /**
-     * clears both undo and redo stacks (useful for instantiation of the class)
+     * Adds a connection to the connection lookup index and the row and column adjacency lists
+     *
+     * @param connection  the connection to add
      */
-    public final void clearStacks() {
-        undoStack.clear();
-        redoStack.clear();
+    private void indexConnection(DSMConnection connection) {
+        statistics.connectionAdded(connection.getRowUid(), connection.getColUid(), connection.getWeight());
+        connectionIndex.put(connectionKey(connection.getRowUid(), connection.getColUid()), connection);
+        rowAdjacency.computeIfAbsent(connection.getRowUid(), k -> new ArrayList<>()).add(connection);
+        colAdjacency.computeIfAbsent(connection.getColUid(), k -> new ArrayList<>()).add(connection);
+        connectionIndexed(connection);
     }
 
 
     /**
-     * Clears the wasModified flag. Used for when matrix has been saved to a file. Does not add changes to the stack
+     * Removes a connection from the connection lookup index and the row and column adjacency lists
+     *
+     * @param connection  the connection to remove
      */
-    public final void clearWasModifiedFlag() {
-        this.wasModified.set(false);
+    private void unindexConnection(DSMConnection connection) {
+        statistics.connectionRemoved(connection.getRowUid(), connection.getColUid(), connection.getWeight());
+        connectionIndex.remove(connectionKey(connection.getRowUid(), connection.getColUid()), connection);
+        removeAdjacentConnection(rowAdjacency, connection.getRowUid(), connection);
+        removeAdjacentConnection(colAdjacency, connection.getColUid(), connection);
+        connectionUnindexed(connection);
     }
 
 
     /**
-     * Sets the was modified flag. Does not add changes to the stack
+     * Called after an item is added to the lookup indices so that subclasses can keep their own indices up to date.
+     * The item's connections may already be in the matrix (ex. when a deletion is undone). Does nothing by default
+     *
+     * @param item  the item that was added
      */
-    public final void setWasModified() {
-        wasModified.set(true);
-    }
+    protected void itemIndexed(DSMItem item) {}
 
 
     /**
-     * Returns whether the wasModified flag is set or not. Used to check if matrix has been
-     * saved
+     * Called after a connection is added to the lookup indices so that subclasses can keep their own indices up to
+     * date. Does nothing by default
      *
-     * @return if the matrix has been modified, true if it has, false if not
+     * @param connection  the connection that was added
      */
-    public final boolean getWasModified() {
-        return wasModified.getValue();
-    }
+    protected void connectionIndexed(DSMConnection connection) {}
 
 
     /**
-     * @return  the BooleanProperty of the wasModified flag so that things can be bound to it
+     * Called after a connection is removed from the lookup indices so that subclasses can keep their own indices up
+     * to date. Does nothing by default
+     *
+     * @param connection  the connection that was removed
      */
-    public final BooleanProperty getWasModifiedProperty() {
-        return wasModified;
-    }
-//endregion
+    protected void connectionUnindexed(DSMConnection connection) {}
 
 
-//region Protected Helper functions (makes changes but do not add them to the change stack)
     /**
-     * Removes an item from the matrix and clears its connections. This change is not added to the stack, however the call
-     * to clear connections does make a change to the stack
+     * Called after the name, weight, or interfaces of a connection in the matrix change so that subclasses can keep
+     * their own indices up to date. Does nothing by default
      *
-     * @param item the item to delete
+     * @param connection  the connection that was modified
      */
-    protected final void removeItem(DSMItem item) {
-        int index = -1;
-        for(int i=0; i<this.rows.size(); i++) {     // check to see if uid is in the rows
-            if(rows.get(i).getUid() == item.getUid()) {
-                index = i;
-                break;
-            }
-        }
-        if (index != -1) {
-            rows.remove(index);
-        } else {                                   // uid was not in a row, must be in a column
-            for(int i=0; i<this.cols.size(); i++) {
-                if(cols.get(i).getUid() == item.getUid()) {
-                    index = i;
-                    break;
-                }
-            }
-            if (index != -1) {
-                cols.remove(index);
-            }
-        }
-        clearItemConnections(item.getUid());
-    }
+    protected void connectionModified(DSMConnection connection) {}
 
 
     /**
-     * Creates a connection and adds it to the matrix, but does not add the change to the stack
+     * Called after the primary grouping of an item in the matrix changes so that subclasses can keep their own
+     * indices up to date. Does nothing by default
      *
-     * @param rowUid         the row item uid
-     * @param colUid         the column item uid
-     * @param connectionName the name of the connection
-     * @param weight         the weight of the connection
-     * @param interfaces     the interfaces for the connection
+     * @param item  the item that was regrouped
      */
-    protected void createConnection(int rowUid, int colUid, String connectionName, double weight, ArrayList<DSMInterfaceType> interfaces) {
-        if(isRow(rowUid) && isCol(colUid)) {
-            DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces);
-            connections.add(connection);
-        }
-    }
+    protected void itemRegrouped(DSMItem item) {}
 
 
     /**
-     * Removes a connection element from the connections list, but does not add the change to the stack
+     * Called when the connection lookup indices are cleared before being rebuilt. Every connection is passed to
+     * connectionIndexed again afterwards. Does nothing by default
+     */
+    protected void connectionIndexCleared() {}
+
+
+    /**
+     * Removes a connection from an item's adjacency list by reference. Removes the list entirely once it is empty
      *
-     * @param rowUid        the row item uid
-     * @param colUid        the col item uid
+     * @param adjacency   the adjacency lists to remove the connection from
+     * @param uid         the uid of the item the connection is adjacent to
+     * @param connection  the connection to remove
      */
-    protected final void removeConnection(int rowUid, int colUid) {
-        for(DSMConnection connection : connections) {     // check to see if uid is in the rows
-            if(connection.getRowUid() == rowUid && connection.getColUid() == colUid) {
-                connections.remove(connection);
+    private static void removeAdjacentConnection(HashMap<Integer, List<DSMConnection>> adjacency, int uid, DSMConnection connection) {
+        List<DSMConnection> adjacent = adjacency.get(uid);
+        if(adjacent == null) {
+            return;
+        }
+        for(int i = adjacent.size() - 1; i >= 0; i--) {
+            if(adjacent.get(i) == connection) {
+                adjacent.remove(i);
                 break;
             }
         }
+        if(adjacent.isEmpty()) {
+            adjacency.remove(uid);
+        }
+    }
+
+
+    /**
+     * Packs a row uid and a column uid into a single key for the connection index
+     *
+     * @param rowUid  the row item uid
+     * @param colUid  the column item uid
+     * @return        the key for the connection
+     */
+    protected static long connectionKey(int rowUid, int colUid) {
+        return ((long) rowUid << 32) | (colUid & 0xFFFFFFFFL);
     }
 //endregion
 
 
 //region Getters for matrix data (rows, cols, items)
     /**
-     * Returns the rows in a mutable way
+     * Returns the rows in the order they are displayed (see getItemComparator). The list should not be modified
+     * directly, use the modifier functions instead
      *
      * @return a list of the items declared as rows
      */
     public final List<DSMItem> getRows() {
+        ensureItemOrder();
         return rows;
     }
 
 
     /**
-     * Returns the columns in a mutable way
+     * Returns the columns in the order they are displayed (see getItemComparator). The list should not be modified
+     * directly, use the modifier functions instead
      *
      * @return a list of the items declared as columns
      */
     public final List<DSMItem> getCols() {
+        ensureItemOrder();
         return cols;
     }
 
 
+    /**
+     * Finds the position of a row in the display order. Runs in O(log n) time
+     *
+     * @param rowUid  the uid of the row item
+     * @return        the index of the row in getRows() or -1 if there is no row with that uid
+     */
+    public final int getRowPosition(int rowUid) {
+        DSMItem row = rowIndex.get(rowUid);
+        if(row == null) {
+            return -1;
+        }
+        ensureItemOrder();
+        return findPosition(rows, row);
+    }
+
+
+    /**
+     * Finds the position of a column in the display order. Runs in O(log n) time
+     *
+     * @param colUid  the uid of the column item
+     * @return        the index of the column in getCols() or -1 if there is no column with that uid
+     */
+    public final int getColPosition(int colUid) {
+        DSMItem col = colIndex.get(colUid);
+        if(col == null) {
+            return -1;
+        }
+        ensureItemOrder();
+        return findPosition(cols, col);
+    }
+
+
     /**
      * Finds an item by uid and returns it. It can be either a row item or a column item
      *
@@ -379,17 +1754,14 @@ public abstract class AbstractDSMData {
      * @return    DSMItem of the item with uid
      */
     public final DSMItem getItem(int uid) {
-        for(DSMItem row : rows) {
-            if(row.getUid() == uid) {
-                return row;
-            }
+        DSMItem item = rowIndex.get(uid);
+        if(item == null) {
+            item = colIndex.get(uid);
         }
-        for(DSMItem col : cols) {
-            if(col.getUid() == uid) {
-                return col;
-            }
+        if(item == null) {
+            throw new NoSuchElementException();
         }
-        throw new NoSuchElementException();
+        return item;
     }
 
 
@@ -400,12 +1772,11 @@ public abstract class AbstractDSMData {
      * @return        the row item
      */
     public final DSMItem getRowItem(int rowUid) {
-        for(DSMItem row : rows) {
-            if(row.getUid() == rowUid) {
-                return row;
-            }
+        DSMItem row = rowIndex.get(rowUid);
+        if(row == null) {
+            throw new NoSuchElementException();
         }
-        throw new NoSuchElementException();
+        return row;
     }
 
 
@@ -416,12 +1787,11 @@ public abstract class AbstractDSMData {
      * @return        the col item
      */
     public final DSMItem getColItem(int colUid) {
-        for(DSMItem col : cols) {
-            if(col.getUid() == colUid) {
-                return col;
-            }
+        DSMItem col = colIndex.get(colUid);
+        if(col == null) {
+            throw new NoSuchElementException();
         }
-        throw new NoSuchElementException();
+        return col;
     }
 
 
@@ -432,17 +1802,36 @@ public abstract class AbstractDSMData {
      * @return    DSMItem of the item with uid
      */
     public final DSMItem getItemByAlias(int uid) {
-        for(DSMItem row : rows) {
-            if(row.getAliasUid() == uid) {
-                return row;
-            }
+        DSMItem item = rowAliasIndex.get(uid);
+        if(item == null) {
+            item = colAliasIndex.get(uid);
         }
-        for(DSMItem col : cols) {
-            if(col.getAliasUid() == uid) {
-                return col;
-            }
+        if(item == null) {
+            throw new NoSuchElementException();
         }
-        throw new NoSuchElementException();
+        return item;
+    }
+
+
+    /**
+     * Finds the row item with an alias uid in constant time
+     *
+     * @param aliasUid  the alias uid of the row (the uid of its column for symmetric matrices)
+     * @return          the row item or null if no row has that alias
+     */
+    public final DSMItem getRowByAlias(int aliasUid) {
+        return rowAliasIndex.get(aliasUid);
+    }
+
+
+    /**
+     * Finds the column item with an alias uid in constant time
+     *
+     * @param aliasUid  the alias uid of the column (the uid of its row for symmetric matrices)
+     * @return          the column item or null if no column has that alias
+     */
+    public final DSMItem getColByAlias(int aliasUid) {
+        return colAliasIndex.get(aliasUid);
     }
 
 
@@ -452,6 +1841,7 @@ public abstract class AbstractDSMData {
      * @return a list of the connections in the matrix
      */
     public final List<DSMConnection> getConnections() {
+        compactConnections();
         return connections;
     }
 
@@ -472,6 +1862,23 @@ public abstract class AbstractDSMData {
     }
 
 
+    /**
+     * @return  the table the interfaces of the matrix's connections are interned in. Masks of interfaces made from
+     *          this table can be compared directly with the masks of the connections
+     */
+    public final InterfaceTypeTable getInterfaceTable() {
+        return interfaceTable;
+    }
+
+
+    /**
+     * @return  the allocator to get uids from when creating new items or groupings for this matrix
+     */
+    public final UidAllocator getUidAllocator() {
+        return uidAllocator;
+    }
+
+
     /**
      * Returns a connection from row item with rowUid to column item with colUid
      *
@@ -480,15 +1887,33 @@ public abstract class AbstractDSMData {
      * @return       DSMConnection object of the connection
      */
     public final DSMConnection getConnection(int rowUid, int colUid) {
-        DSMConnection connection = null;
-        for(DSMConnection conn : connections) {
-            if(conn.getRowUid() == rowUid && conn.getColUid() == colUid) {
-                connection = conn;
-                break;
-            }
-        }
+        return connectionIndex.get(connectionKey(rowUid, colUid));
+    }
+
+
+    /**
+     * Returns all the connections in the row of a row item. The returned list is a read-only view, so it should not
+     * be held on to while the matrix is being modified
+     *
+     * @param rowUid the uid of the row item
+     * @return       the connections with rowUid as their row item
+     */
+    public final List<DSMConnection> getRowConnections(int rowUid) {
+        List<DSMConnection> adjacent = rowAdjacency.get(rowUid);
+        return adjacent == null ? Collections.emptyList() : Collections.unmodifiableList(adjacent);
+    }
 
-        return connection;
+
+    /**
+     * Returns all the connections in the column of a column item. The returned list is a read-only view, so it should
+     * not be held on to while the matrix is being modified
+     *
+     * @param colUid the uid of the column item
+     * @return       the connections with colUid as their column item
+     */
+    public final List<DSMConnection> getColConnections(int colUid) {
+        List<DSMConnection> adjacent = colAdjacency.get(colUid);
+        return adjacent == null ? Collections.emptyList() : Collections.unmodifiableList(adjacent);
     }
 //endregion
 
@@ -501,13 +1926,7 @@ public abstract class AbstractDSMData {
      * @return    true or false if it is a row or not
      */
     public final boolean isRow(int uid) {
-        for(DSMItem row : rows) {
-            if(row.getUid() == uid) {
-                return true;
-            }
-        }
-
-        return false;
+        return rowIndex.containsKey(uid);
     }
 
 
@@ -518,13 +1937,7 @@ public abstract class AbstractDSMData {
      * @return    true or false if it is a column or not
      */
     public final boolean isCol(int uid) {
-        for(DSMItem col : cols) {
-            if(col.getUid() == uid) {
-                return true;
-            }
-        }
-
-        return false;
+        return colIndex.containsKey(uid);
     }
 
 
@@ -572,11 +1985,7 @@ public abstract class AbstractDSMData {
     public void addItem(DSMItem item, boolean isRow) {
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    if (isRow) {
-                        this.rows.add(item);
-                    } else {
-                        this.cols.add(item);
-                    }
+                    insertItem(item, isRow);
                 },
                 () -> {  // undo function
                     removeItem(item);
@@ -599,7 +2008,7 @@ public abstract class AbstractDSMData {
         } else {
             index = (int) getColMaxSortIndex() + 1;  // cast to int to remove the decimal place so that the index will be a whole number
         }
-        DSMItem item = new DSMItem(index, name);
+        DSMItem item = new DSMItem(uidAllocator.next(), null, index, name, null, null);
 
         addItem(item, isRow);
     }
@@ -611,18 +2020,14 @@ public abstract class AbstractDSMData {
      * @param item the item to delete
      */
     public void deleteItem(DSMItem item) {
-        boolean isRow = rows.contains(item);  // check if the item was a row in case it needs to be added again
+        boolean isRow = isRow(item.getUid());  // check if the item was a row in case it needs to be added again
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     removeItem(item);
                 },
                 () -> {  // undo function
-                    if (isRow) {
-                        this.rows.add(item);
-                    } else {
-                        this.cols.add(item);
-                    }
+                    insertItem(item, isRow);
                 },
                 false
         ));
@@ -630,27 +2035,81 @@ public abstract class AbstractDSMData {
 
 
     /**
-     * Sets the name of an item in the matrix. This method should be called instead of directly modifying the item name
-     * because this method puts the change on the stack but does not set a checkpoint. This method can be overridden
+     * Deletes a group of items and all of their connections from the matrix. The items are removed in one pass over
+     * the rows and columns and the connections in one pass over the connections, and the whole deletion is put on the
+     * stack as a single change. Does not set a checkpoint
      *
-     * @param item    the item to change the name of
-     * @param newName the new name for the item
+     * @param items  the items to delete
      */
-    public void setItemName(DSMItem item, String newName) {
-        String oldName = item.getName().getValue();
+    public final void deleteItems(Collection<DSMItem> items) {
+        Set<DSMItem> toDelete = new LinkedHashSet<>();
+        for(DSMItem item : items) {
+            toDelete.addAll(getItemsDeletedWith(item));
+        }
+        toDelete.removeIf(item -> rowIndex.get(item.getUid()) != item && colIndex.get(item.getUid()) != item);  // ignore items that are not in the matrix
+        if(toDelete.isEmpty()) {
+            return;
+        }
+
+        List<DSMItem> deletedRows = new ArrayList<>();
+        List<DSMItem> deletedCols = new ArrayList<>();
+        Set<DSMConnection> toRemove = new LinkedHashSet<>();
+        for(DSMItem item : toDelete) {
+            if(isRow(item.getUid())) {
+                deletedRows.add(item);
+            } else {
+                deletedCols.add(item);
+            }
+            toRemove.addAll(getRowConnections(item.getUid()));
+            toRemove.addAll(getColConnections(item.getUid()));
+        }
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    item.setName(newName);
+                    removeItems(toDelete);
+                    removeConnections(toRemove);
                 },
                 () -> {  // undo function
-                    item.setName(oldName);
+                    for(DSMItem row : deletedRows) {
+                        insertItem(row, true);
+                    }
+                    for(DSMItem col : deletedCols) {
+                        insertItem(col, false);
+                    }
+                    for(DSMConnection connection : toRemove) {
+                        insertConnection(connection);
+                    }
                 },
-                false
+                false,
+                MatrixChange.estimateSize(toDelete.size() + toRemove.size())
         ));
     }
 
 
+    /**
+     * Returns the items that must be deleted along with an item so that the matrix stays valid. For asymmetric
+     * matrices this is only the item itself. Used by deleteItems
+     *
+     * @param item  the item being deleted
+     * @return      the item and any items linked to it
+     */
+    protected List<DSMItem> getItemsDeletedWith(DSMItem item) {
+        return List.of(item);
+    }
+
+
+    /**
+     * Sets the name of an item in the matrix. This method should be called instead of directly modifying the item name
+     * because this method puts the change on the stack but does not set a checkpoint. This method can be overridden
+     *
+     * @param item    the item to change the name of
+     * @param newName the new name for the item
+     */
+    public void setItemName(DSMItem item, String newName) {
+        addChangeToStack(new RenameItem(item.getUid(), false, item.getNameValue(), newName));
+    }
+
+
     /**
      * Sets the sort index of an item in the matrix. This method should be called instead of directly modifying the item
      * because this method puts the change on the stack but does not set a checkpoint. This method can be overridden
@@ -659,17 +2118,7 @@ public abstract class AbstractDSMData {
      * @param newIndex the new index for the item
      */
     public void setItemSortIndex(DSMItem item, double newIndex) {
-        double oldIndex = item.getSortIndex();
-
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    item.setSortIndex(newIndex);
-                },
-                () -> {  // undo function
-                    item.setSortIndex(oldIndex);
-                },
-                false
-        ));
+        addChangeToStack(new MoveItem(item.getUid(), false, item.getSortIndex(), newIndex));
     }
 
 
@@ -706,12 +2155,16 @@ public abstract class AbstractDSMData {
         }
 
         if(!interfaceTypes.get(interfaceTypeGrouping).contains(interfaceType)) {
+            int ordinal = interfaceTable.getOrdinal(interfaceType);
+            DSMInterfaceType previous = ordinal == -1 ? null : interfaceTable.get(ordinal);  // restored on undo
             addChangeToStack(new MatrixChange(
                     () -> {  // do function
                         interfaceTypes.get(interfaceTypeGrouping).add(interfaceType);
+                        interfaceTable.register(interfaceType);
                     },
                     () -> {  // undo function
                         interfaceTypes.get(interfaceTypeGrouping).remove(interfaceType);
+                        interfaceTable.unregister(interfaceType, previous);
                     },
                     false
             ));
@@ -843,46 +2296,16 @@ public abstract class AbstractDSMData {
      * @param interfaces     the interfaces for the connection
      */
     public final void modifyConnection(int rowUid, int colUid, String connectionName, double weight, ArrayList<DSMInterfaceType> interfaces) {
-        DSMConnection connection = null;
-        String oldName = "";
-        double oldWeight = 0.0;
-        ArrayList<DSMInterfaceType> oldInterfaces = new ArrayList<>();
-        for(DSMConnection conn : this.connections) {
-            if(rowUid == conn.getRowUid() && colUid == conn.getColUid()) {
-                connection = conn;
-                oldName = conn.getConnectionName();
-                oldWeight = conn.getWeight();
-                oldInterfaces = conn.getInterfaces();
-
-                break;
-            }
+        DSMConnection connection = getConnection(rowUid, colUid);
+        if(connection == null) {
+            addChangeToStack(new AddConnection(rowUid, colUid, connectionName, weight, recordInterfaces(interfaces)));
+        } else {
+            addChangeToStack(new SetConnection(
+                    rowUid, colUid,
+                    connection.getConnectionName(), connection.getWeight(), recordInterfaces(connection.getInterfaces()),
+                    connectionName, weight, recordInterfaces(interfaces)
+            ));
         }
-
-        DSMConnection finalConnection = connection;
-        String finalOldName = oldName;
-        double finalOldWeight = oldWeight;
-        ArrayList<DSMInterfaceType> finalOldInterfaces = oldInterfaces;
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    if (finalConnection == null) {
-                        createConnection(rowUid, colUid, connectionName, weight, interfaces);
-                    } else {
-                        finalConnection.setConnectionName(connectionName);
-                        finalConnection.setWeight(weight);
-                        finalConnection.setInterfaces(interfaces);
-                    }
-                },
-                () -> {  // undo function
-                    if (finalConnection == null) {
-                        removeConnection(rowUid, colUid);
-                    } else {
-                        finalConnection.setConnectionName(finalOldName);
-                        finalConnection.setWeight(finalOldWeight);
-                        finalConnection.setInterfaces(finalOldInterfaces);
-                    }
-                },
-                false
-        ));
     }
 
 
@@ -893,21 +2316,21 @@ public abstract class AbstractDSMData {
      * @param uid the uid of the item that will be looked for when removing connections
      */
     public final void clearItemConnections(int uid) {
-        Set<DSMConnection> toRemove = new HashSet<>();  // this will not allow duplicates, although there should never be duplicates
-        for(DSMConnection connection : connections) {     // check to see if uid is in the rows
-            if(connection.getRowUid() == uid || connection.getColUid() == uid) {
-                toRemove.add(connection);
-            }
-        }
+        Set<DSMConnection> toRemove = new LinkedHashSet<>();  // this will not allow duplicates, although there should never be duplicates
+        toRemove.addAll(getRowConnections(uid));
+        toRemove.addAll(getColConnections(uid));
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    connections.removeAll(toRemove);
+                    removeConnections(toRemove);
                 },
                 () -> {  // undo function
-                    connections.addAll(toRemove);
+                    for(DSMConnection connection : toRemove) {
+                        insertConnection(connection);
+                    }
                 },
-                false
+                false,
+                MatrixChange.estimateSize(toRemove.size())
         ));
     }
 
@@ -920,76 +2343,81 @@ public abstract class AbstractDSMData {
      * @param colUid the connection column item uid
      */
     public final void deleteConnection(int rowUid, int colUid) {
-        for(DSMConnection connection : connections) {     // check to see if uid is in the rows
-            if(connection.getRowUid() == rowUid && connection.getColUid() == colUid) {
-                addChangeToStack(new MatrixChange(
-                        () -> {  // do function
-                            removeConnection(rowUid, colUid);
-                        },
-                        () -> {  // undo function
-                            createConnection(rowUid, colUid, connection.getConnectionName(), connection.getWeight(), connection.getInterfaces());
-                        },
-                        false
-                ));
-                break;
-            }
+        DSMConnection connection = getConnection(rowUid, colUid);
+        if(connection != null) {
+            addChangeToStack(new RemoveConnection(rowUid, colUid, connection.getConnectionName(), connection.getWeight(), recordInterfaces(connection.getInterfaces())));
         }
     }
 
 
     /**
-     * deletes all connections in the matrix. Adds changes to the stack, but does not set a checkpoint
+     * deletes all connections in the matrix. Adds a single change to the stack, but does not set a checkpoint
      */
     public final void deleteAllConnections() {
-        List<DSMConnection> connectionsClone = new ArrayList<>(connections);
-        for(DSMConnection connection : connectionsClone) {     // check to see if uid is in the rows
-            deleteConnection(connection.getRowUid(), connection.getColUid());
+        List<DSMConnection> connectionsClone = new ArrayList<>(getConnections());
+        beginBatch(true);
+        try {
+            for(DSMConnection connection : connectionsClone) {     // check to see if uid is in the rows
+                deleteConnection(connection.getRowUid(), connection.getColUid());
+            }
+        } finally {
+            endBatch();
         }
     }
 
 
     /**
-     * Inverts a matrix by flipping its rows and columns and switching the connection rows and columns. Adds changes to
-     * the stack to be handled, but does not set a checkpoint
+     * Inverts a matrix by flipping its rows and columns and switching the connection rows and columns. Adds a single
+     * change to the stack to be handled, but does not set a checkpoint
      */
     public void transposeMatrix() {
         List<DSMItem> oldRows = new ArrayList<>(rows);
         List<DSMItem> oldCols = new ArrayList<>(cols);
-        List<DSMConnection> oldConnections = new ArrayList<>(connections);
-
-        for(DSMConnection conn : oldConnections) {  // these function calls already put a change on the stack, so they don't need to be wrapped
-            deleteConnection(conn.getRowUid(), conn.getColUid());
-            modifyConnection(conn.getColUid(), conn.getRowUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
+        List<DSMConnection> oldConnections = new ArrayList<>(getConnections());
+        List<DSMConnection> newConnections = new ArrayList<>(oldConnections.size());
+        for(DSMConnection conn : oldConnections) {  // create the transposed connections once so that redoing uses the same objects
+            newConnections.add(conn.transposed());
         }
 
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
-                    cols = oldRows;
-                    rows = oldCols;
+                    cols = new ArrayList<>(oldRows);
+                    rows = new ArrayList<>(oldCols);
+                    rebuildItemIndex();
+                    connections = new ArrayList<>(newConnections);
+                    rebuildConnectionIndex();
                 },
                 () -> {  // undo function
-                    cols = oldCols;
-                    rows = oldRows;
+                    cols = new ArrayList<>(oldCols);
+                    rows = new ArrayList<>(oldRows);
+                    rebuildItemIndex();
+                    connections = new ArrayList<>(oldConnections);
+                    rebuildConnectionIndex();
                 },
-                false
+                false,
+                MatrixChange.estimateSize(2 * (oldRows.size() + oldCols.size() + oldConnections.size()))
         ));
     }
 
 
     /**
      * Sorts the current matrix rows and columns by sort index and modifies all the sort Indices
-     * such that they are now 1 to n. Used to make the sort Indices "clean" numbers. Puts multiple changes on the
+     * such that they are now 1 to n. Used to make the sort Indices "clean" numbers. Puts a single change on the
      * stack but does not set any checkpoint.
      */
     public void reDistributeSortIndices() {
-        // sort row and columns by sortIndex
-        rows.sort(Comparator.comparing(DSMItem::getSortIndex));
-        cols.sort(Comparator.comparing(DSMItem::getSortIndex));
-        for(int i=0; i<rows.size(); i++) {  // reset row sort Indices 1 -> n
-            setItemSortIndex(rows.get(i), i + 1);
-        }
-        for(int i=0; i<cols.size(); i++) {  // reset col sort Indices 1 -> n
-            setItemSortIndex(cols.get(i), i + 1);
+        List<DSMItem> sortedRows = new ArrayList<>(getRows());  // copy because items move in the lists as they are changed
+        List<DSMItem> sortedCols = new ArrayList<>(getCols());
+        beginBatch(true);
+        try {
+            for(int i=0; i<sortedRows.size(); i++) {  // reset row sort Indices 1 -> n
+                setItemSortIndex(sortedRows.get(i), i + 1);
+            }
+            for(int i=0; i<sortedCols.size(); i++) {  // reset col sort Indices 1 -> n
+                setItemSortIndex(sortedCols.get(i), i + 1);
+            }
+        } finally {
+            endBatch();
         }
     }
 //endregion
@@ -1138,11 +2566,98 @@ public abstract class AbstractDSMData {
 //endregion
 
 
+    /**
+     * Returns the layout of the matrix for displaying or exporting it. Cells are computed when they are requested
+     * instead of being stored, see GridModel
+     *
+     * @return  the grid model of the matrix
+     */
+    public abstract GridModel getGridModel();
+
+
     /**
      * Creates a 2d ArrayList of the matrix so that it can be displayed. Each cell in the grid is made
-     * up of a RenderMode, which is the key, and an Object that is different based on the key.
+     * up of a RenderMode, which is the key, and an Object that is different based on the key. The value of
+     * EDITABLE_CONNECTION cells is a Pair of the row item and the column item. This allocates every cell of the grid,
+     * so getGridModel should be used instead where possible
      *
      * @return 2d ArrayList of matrix
      */
-    public abstract ArrayList<ArrayList<Pair<RenderMode, Object>>> getGridArray();
+    public final ArrayList<ArrayList<Pair<RenderMode, Object>>> getGridArray() {
+        GridModel model = getGridModel();
+        ArrayList<ArrayList<Pair<RenderMode, Object>>> grid = new ArrayList<>(model.getNumRows());
+        for(int r = 0; r < model.getNumRows(); r++) {
+            ArrayList<Pair<RenderMode, Object>> row = new ArrayList<>(model.getNumCols());
+            for(int c = 0; c < model.getNumCols(); c++) {
+                RenderMode renderMode = model.renderModeAt(r, c);
+                if(renderMode == RenderMode.EDITABLE_CONNECTION) {
+                    row.add(new Pair<>(renderMode, new Pair<>(model.getRowItem(r), model.getColItem(c))));
+                } else {
+                    row.add(new Pair<>(renderMode, model.valueAt(r, c)));
+                }
+            }
+            grid.add(row);
+        }
+
+        return grid;
+    }
+
+
+    /**
+     * Base class for the grid models of the matrix types. The grid is a number of header rows and columns followed by
+     * the rows and columns of the matrix in order. Subclasses describe the header cells and the cells of the items
+     */
+    protected abstract class ItemGridModel implements GridModel {
+        protected final int numHeaderRows;
+        protected final int numHeaderCols;
+
+        /**
+         * @param numHeaderRows  the number of grid rows before the first matrix row
+         * @param numHeaderCols  the number of grid columns before the first matrix column
+         */
+        protected ItemGridModel(int numHeaderRows, int numHeaderCols) {
+            this.numHeaderRows = numHeaderRows;
+            this.numHeaderCols = numHeaderCols;
+            ensureItemOrder();
+        }
+
+        @Override
+        public int getNumRows() {
+            return numHeaderRows + rows.size();
+        }
+
+        @Override
+        public int getNumCols() {
+            return numHeaderCols + cols.size();
+        }
+
+        @Override
+        public DSMItem getRowItem(int r) {
+            return r >= numHeaderRows ? rows.get(r - numHeaderRows) : null;
+        }
+
+        @Override
+        public DSMItem getColItem(int c) {
+            return c >= numHeaderCols ? cols.get(c - numHeaderCols) : null;
+        }
+
+        /**
+         * @param r  the grid row of a connection cell
+         * @param c  the grid column of a connection cell
+         * @return   if the column of the cell is aliased to the row of the cell (ex. the diagonal of a symmetric matrix)
+         */
+        protected boolean isAliasCell(int r, int c) {
+            Integer aliasUid = getColItem(c).getAliasUid();
+            return aliasUid != null && aliasUid == getRowItem(r).getUid();
+        }
+
+        /**
+         * @param r  the grid row of a connection cell
+         * @param c  the grid column of a connection cell
+         * @return   the connection at the cell or null if there is none
+         */
+        protected DSMConnection connectionAt(int r, int c) {
+            return getConnection(getRowItem(r).getUid(), getColItem(c).getUid());
+        }
+    }
 }
@@ -5,7 +5,6 @@ import Matrices.Data.Flags.IPropagationAnalysis;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.paint.Color;
-import javafx.util.Pair;
 
 import java.util.*;
 
@@ -71,17 +70,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
     public AsymmetricDSMData createCopy() {
         AsymmetricDSMData copy = new AsymmetricDSMData();
 
-        for(DSMItem row : getRows()) {
-            copy.rows.add(new DSMItem(row));
-        }
-
-        for(DSMItem col : getCols()) {
-            copy.cols.add(new DSMItem(col));
-        }
-
-        for(DSMConnection conn : getConnections()) {
-            copy.connections.add(new DSMConnection(conn));
-        }
+        copyContentsInto(copy);
 
         for(Grouping group : getGroupings(true)) {
             copy.rowGroupings.add(new Grouping(group));
@@ -90,14 +79,6 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
             copy.colGroupings.add(new Grouping(group));
         }
 
-        for(Map.Entry<String, List<DSMInterfaceType>> interfaceGroup : getInterfaceTypes().entrySet()) {
-            List<DSMInterfaceType> interfaces = new ArrayList<>();
-            for(DSMInterfaceType i : interfaceGroup.getValue()) {
-                interfaces.add(new DSMInterfaceType(i));
-            }
-            copy.interfaceTypes.put(interfaceGroup.getKey(), interfaces);
-        }
-
         copy.setTitle(getTitle());
         copy.setProjectName(getProjectName());
         copy.setCustomer(getCustomer());
@@ -145,6 +126,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
         if(isRow && rowGroupings.contains(group)) return;
         if(!isRow && colGroupings.contains(group)) return;
 
+        getUidAllocator().reserve(group.getUid());
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     if(isRow) {
@@ -297,16 +279,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
      * @param newColor  the new color of the grouping
      */
     public void updateGroupingColor(Grouping grouping, Color newColor) {
-        Color oldColor = grouping.getColor();
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    grouping.setColor(newColor);
-                },
-                () -> {  // undo function
-                    grouping.setColor(oldColor);
-                },
-                false
-        ));
+        addChangeToStack(new RecolorGrouping(recordGrouping(grouping), false, grouping.getColor(), newColor));
     }
 
 
@@ -317,16 +290,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
      * @param newColor  the new color of the grouping
      */
     public void updateGroupingFontColor(Grouping grouping, Color newColor) {
-        Color oldColor = grouping.getFontColor();
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    grouping.setFontColor(newColor);
-                },
-                () -> {  // undo function
-                    grouping.setFontColor(oldColor);
-                },
-                false
-        ));
+        addChangeToStack(new RecolorGrouping(recordGrouping(grouping), true, grouping.getFontColor(), newColor));
     }
 
 
@@ -340,20 +304,8 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
     public void setItemGroup(DSMItem item, Grouping newGroup) {
         Grouping oldGroup = item.getGroup1();
 
-        boolean addNewGroup = (isRow(item.getUid()) && !rowGroupings.contains(newGroup)) || (!isRow(item.getUid()) && !colGroupings.contains(newGroup));
-
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    if (addNewGroup) {
-                        addGrouping(isRow(item.getUid()), newGroup);
-                    }
-                    item.setGroup1(newGroup);
-                },
-                () -> {  // undo function
-                    item.setGroup1(oldGroup);
-                },
-                false
-        ));
+        addGrouping(isRow(item.getUid()), newGroup);  // puts its own change on the stack if the group is new
+        addChangeToStack(new SetGroup(item.getUid(), false, recordGrouping(oldGroup), recordGrouping(newGroup)));
     }
 
 
@@ -374,109 +326,91 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
         } else {
             index = (int) getColMaxSortIndex() + 1;  // cast to int to remove the decimal place so that the index will be a whole number
         }
-        DSMItem item = new DSMItem(index, name);
-        item.setGroup1(getDefaultGroup(isRow));
-        item.setAliasUid(null);
+        DSMItem item = new DSMItem(getUidAllocator().next(), null, index, name, getDefaultGroup(isRow), null);
 
         addItem(item, isRow);
     }
 
 
     /**
-     * Inverts a matrix by flipping its rows and columns and switching the connection rows and columns. Adds changes to
-     * the stack to be handled, but does not set a checkpoint
+     * Inverts a matrix by flipping its rows and columns and switching the connection rows and columns. Adds a single change
+     * to the stack to be handled, but does not set a checkpoint
      */
     @Override
     public final void transposeMatrix() {
-        List<DSMItem> oldRows = new ArrayList<>(rows);
-        List<DSMItem> oldCols = new ArrayList<>(cols);
-        List<DSMConnection> oldConnections = new ArrayList<>(connections);
         ObservableList<Grouping> oldRowGroupings = FXCollections.observableArrayList(rowGroupings);
         ObservableList<Grouping> oldColGroupings = FXCollections.observableArrayList(colGroupings);
 
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    cols = oldRows;
-                    rows = oldCols;
-                    colGroupings = oldRowGroupings;
-                    rowGroupings = oldColGroupings;
-
-                    connections.clear();
-                    for(DSMConnection conn : oldConnections) {
-                        createConnection(conn.getColUid(), conn.getRowUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
-                    }
-                },
-                () -> {  // undo function
-                    cols = new ArrayList<>(oldCols);
-                    rows = new ArrayList<>(oldRows);
-                    colGroupings = FXCollections.observableArrayList(oldColGroupings);
-                    rowGroupings = FXCollections.observableArrayList(oldRowGroupings);
-                    connections = new ArrayList<>(oldConnections);
-                },
-                false
-        ));
-
+        beginBatch(true);
+        try {
+            super.transposeMatrix();  // switches the items and connections
+
+            addChangeToStack(new MatrixChange(
+                    () -> {  // do function
+                        colGroupings = FXCollections.observableArrayList(oldRowGroupings);
+                        rowGroupings = FXCollections.observableArrayList(oldColGroupings);
+                    },
+                    () -> {  // undo function
+                        colGroupings = FXCollections.observableArrayList(oldColGroupings);
+                        rowGroupings = FXCollections.observableArrayList(oldRowGroupings);
+                    },
+                    false,
+                    MatrixChange.estimateSize(oldRowGroupings.size() + oldColGroupings.size())
+            ));
+        } finally {
+            endBatch();
+        }
     }
 
 
     /**
-     * Creates a 2d ArrayList of the matrix so that it can be displayed. Each cell in the grid is made
-     * up of a RenderMode, which is the key, and an Object that is different based on the key.
+     * Returns the layout of the matrix for displaying or exporting it. There are three header rows (grouping, name, and
+     * sort index of the columns) and three header columns (grouping, name, and sort index of the rows)
      *
-     * @return 2d ArrayList of matrix
+     * @return  the grid model of the matrix
      */
     @Override
-    public ArrayList<ArrayList<Pair<RenderMode, Object>>> getGridArray() {
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> grid = new ArrayList<>();
-
-        // sort row and columns by sortIndex
-        rows.sort(Comparator.comparing(DSMItem::getSortIndex));
-        cols.sort(Comparator.comparing(DSMItem::getSortIndex));
-
-        // create header row
-        ArrayList<Pair<RenderMode, Object>> row0 = new ArrayList<>();
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, "Grouping"));
-        for (DSMItem c : cols) {
-            row0.add(new Pair<>(RenderMode.GROUPING_ITEM_V, c));
-        }
-        grid.add(row0);
-
-
-        ArrayList<Pair<RenderMode, Object>> row1 = new ArrayList<>();
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT_V, "Column Items"));
-        for(DSMItem c : cols) {
-            row1.add(new Pair<>(RenderMode.ITEM_NAME_V, c));
-        }
-        grid.add(row1);
-
-        // create third header row
-        ArrayList<Pair<RenderMode, Object>> row2 = new ArrayList<>();
-        row2.add(new Pair<>(RenderMode.PLAIN_TEXT, "Grouping"));
-        row2.add(new Pair<>(RenderMode.PLAIN_TEXT, "Row Items"));
-        row2.add(new Pair<>(RenderMode.PLAIN_TEXT, "Re-Sort Index"));
-        for(DSMItem c : cols) {
-            row2.add(new Pair<>(RenderMode.INDEX_ITEM, c));
-        }
-
-        grid.add(row2);
-
-        // create rows
-        for(DSMItem r : rows) {
-            ArrayList<Pair<RenderMode, Object>> row = new ArrayList<>();
-            row.add(new Pair<>(RenderMode.GROUPING_ITEM, r));
-            row.add(new Pair<>(RenderMode.ITEM_NAME, r));
-            row.add(new Pair<>(RenderMode.INDEX_ITEM, r));
-            for(DSMItem c : cols) {  // create connection items for all columns
-                row.add(new Pair<>(RenderMode.EDITABLE_CONNECTION, new Pair<>(r, c)));
+    public GridModel getGridModel() {
+        return new ItemGridModel(3, 3) {
+            @Override
+            public RenderMode renderModeAt(int r, int c) {
+                if(r < numHeaderRows) {
+                    if(c < numHeaderCols) {
+                        return r == 2 ? RenderMode.PLAIN_TEXT : RenderMode.PLAIN_TEXT_V;
+                    }
+                    return switch(r) {
+                        case 0 -> RenderMode.GROUPING_ITEM_V;
+                        case 1 -> RenderMode.ITEM_NAME_V;
+                        default -> RenderMode.INDEX_ITEM;
+                    };
+                }
+                return switch(c) {
+                    case 0 -> RenderMode.GROUPING_ITEM;
+                    case 1 -> RenderMode.ITEM_NAME;
+                    case 2 -> RenderMode.INDEX_ITEM;
+                    default -> RenderMode.EDITABLE_CONNECTION;
+                };
             }
-            grid.add(row);
-        }
 
-        return grid;
+            @Override
+            public Object valueAt(int r, int c) {
+                if(r < numHeaderRows && c < numHeaderCols) {
+                    if(r == 2) {
+                        return switch(c) {
+                            case 0 -> "Grouping";
+                            case 1 -> "Row Items";
+                            default -> "Re-Sort Index";
+                        };
+                    }
+                    return c == 2 ? (r == 0 ? "Grouping" : "Column Items") : "";
+                } else if(r < numHeaderRows) {
+                    return getColItem(c);
+                } else if(c < numHeaderCols) {
+                    return getRowItem(r);
+                }
+                return connectionAt(r, c);
+            }
+        };
     }
 
 
@@ -500,7 +434,7 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
         exclusions.add(startItem);
 
         // check if start item is a row or column item
-        boolean startIsRow = rows.contains(getItem(startItem));
+        boolean startIsRow = isRow(startItem);
 
         while(currentLevel <= numLevels) {
             ArrayList<Integer> newDependentConnections = new ArrayList<>();
@@ -510,14 +444,11 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                 for(Integer uid : dependentConnections) {  // find dependent connections of each item from the previous level
 
                     // find connections with uid as the row item
-                    for(DSMItem col : cols) {  // iterate over column items finding the ones that match the row
-                        DSMConnection conn = getConnection(uid, col.getUid());
-
+                    for(DSMConnection conn : getRowConnections(uid)) {  // iterate over the connections in the row
                         // define exit conditions
-                        if(conn == null) continue;
                         if(conn.getWeight() < minWeight) continue;
 
-                        Integer resultEntryUid = col.getUid();
+                        Integer resultEntryUid = conn.getColUid();
                         results.get(currentLevel).putIfAbsent(resultEntryUid, 0.0);
 
                         if(countByWeight) {
@@ -535,14 +466,11 @@ public class AsymmetricDSMData extends AbstractDSMData implements IPropagationAn
                 for(Integer uid : dependentConnections) {  // find dependent connections of each item from the previous level
 
                     // find connections with uid as the row item
-                    for(DSMItem row : rows) {  // iterate over row items finding the ones that match the column
-                        DSMConnection conn = getConnection(row.getUid(), uid);
-
+                    for(DSMConnection conn : getColConnections(uid)) {  // iterate over the connections in the column
                         // define exit conditions
-                        if(conn == null) continue;
                         if(conn.getWeight() < minWeight) continue;
 
-                        Integer itemUid = row.getUid();
+                        Integer itemUid = conn.getRowUid();
                         results.get(currentLevel).putIfAbsent(itemUid, 0.0);
 
                         if(countByWeight) {
@@ -0,0 +1,387 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.DSMInterfaceType;
+import Matrices.Data.Entities.DSMItem;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+
+/**
+ * An immutable, compressed sparse row (CSR) and compressed sparse column (CSC) representation of the connections
+ * of a matrix. Rows and columns are given dense indices 0 to n-1 based on their position in the matrix rows and
+ * columns lists at the time the snapshot was taken. Each connection becomes an entry with a weight and an interface
+ * set id. Analysis code can iterate over these arrays without looking up any items or connections by uid.
+ *
+ * The snapshot never changes after it is constructed, so it can be handed to a background thread while the matrix
+ * keeps being edited. It must be constructed on the thread that modifies the matrix.
+ */
+public class DSMSparseSnapshot {
+    private final int[] rowUids;  // dense row index -> row item uid
+    private final int[] colUids;  // dense column index -> column item uid
+    private final HashMap<Integer, Integer> rowIndices;  // row item uid -> dense row index
+    private final HashMap<Integer, Integer> colIndices;  // column item uid -> dense column index
+    private final int[] rowAliases;  // dense row index -> dense column index of its alias or -1
+    private final int[] colAliases;  // dense column index -> dense row index of its alias or -1
+
+    // compressed sparse row arrays. The entries of row r are rowPointers[r] until rowPointers[r + 1]
+    private final int[] rowPointers;
+    private final int[] entryCols;
+    private final double[] entryWeights;
+    private final int[] entryInterfaceSets;
+    private final int[] connectionEntries;  // position in the connections list (skipping unknown items) -> entry
+
+    // compressed sparse column arrays. These refer to the entries in the csr arrays so data is not duplicated
+    private final int[] colPointers;
+    private final int[] colEntries;
+
+    private final int[] interfaceUids;  // interface ordinal -> interface type uid
+    private final HashMap<Integer, Integer> interfaceOrdinals;  // interface type uid -> interface ordinal
+    private final BitSet[] interfaceSets;  // interface set id -> set of interface ordinals
+
+
+    /**
+     * Creates a new snapshot of a matrix. Runs in O(n + E) time
+     *
+     * @param matrix  the matrix to take the snapshot of
+     */
+    public DSMSparseSnapshot(AbstractDSMData matrix) {
+        List<DSMItem> rows = matrix.getRows();
+        List<DSMItem> cols = matrix.getCols();
+        List<DSMConnection> connections = matrix.getConnections();
+        int numRows = rows.size();
+        int numCols = cols.size();
+
+        rowUids = new int[numRows];
+        rowIndices = new HashMap<>();
+        for(int r = 0; r < numRows; r++) {
+            rowUids[r] = rows.get(r).getUid();
+            rowIndices.put(rowUids[r], r);
+        }
+        colUids = new int[numCols];
+        colIndices = new HashMap<>();
+        for(int c = 0; c < numCols; c++) {
+            colUids[c] = cols.get(c).getUid();
+            colIndices.put(colUids[c], c);
+        }
+
+        rowAliases = new int[numRows];
+        for(int r = 0; r < numRows; r++) {
+            Integer aliasUid = rows.get(r).getAliasUid();
+            rowAliases[r] = aliasUid != null ? colIndices.getOrDefault(aliasUid, -1) : -1;
+        }
+        colAliases = new int[numCols];
+        for(int c = 0; c < numCols; c++) {
+            Integer aliasUid = cols.get(c).getAliasUid();
+            colAliases[c] = aliasUid != null ? rowIndices.getOrDefault(aliasUid, -1) : -1;
+        }
+
+        // resolve the row and column of each connection and count the entries in each row and column
+        int[] connectionRows = new int[connections.size()];
+        int[] connectionCols = new int[connections.size()];
+        rowPointers = new int[numRows + 1];
+        colPointers = new int[numCols + 1];
+        int numEntries = 0;
+        for(int i = 0; i < connections.size(); i++) {
+            Integer r = rowIndices.get(connections.get(i).getRowUid());
+            Integer c = colIndices.get(connections.get(i).getColUid());
+            if(r == null || c == null) {  // connection does not belong to items in the matrix so skip it
+                connectionRows[i] = -1;
+                continue;
+            }
+            connectionRows[i] = r;
+            connectionCols[i] = c;
+            rowPointers[r + 1] += 1;
+            colPointers[c + 1] += 1;
+            numEntries += 1;
+        }
+        for(int r = 0; r < numRows; r++) {
+            rowPointers[r + 1] += rowPointers[r];
+        }
+        for(int c = 0; c < numCols; c++) {
+            colPointers[c + 1] += colPointers[c];
+        }
+
+        // place each connection into its row. This is a stable counting sort so entries within a row keep the
+        // same order as the connections list
+        entryCols = new int[numEntries];
+        entryWeights = new double[numEntries];
+        entryInterfaceSets = new int[numEntries];
+        connectionEntries = new int[numEntries];
+        interfaceOrdinals = new HashMap<>();
+        List<Integer> interfaceUidsList = new ArrayList<>();
+        HashMap<BitSet, Integer> interfaceSetIds = new HashMap<>();
+        List<BitSet> interfaceSetsList = new ArrayList<>();
+
+        int[] rowFill = new int[numRows];
+        int numPlaced = 0;
+        for(int i = 0; i < connections.size(); i++) {
+            int r = connectionRows[i];
+            if(r == -1) continue;
+
+            DSMConnection connection = connections.get(i);
+            BitSet interfaces = new BitSet();
+            for(DSMInterfaceType interfaceType : connection.getInterfaces()) {
+                Integer ordinal = interfaceOrdinals.get(interfaceType.getUid());
+                if(ordinal == null) {
+                    ordinal = interfaceUidsList.size();
+                    interfaceOrdinals.put(interfaceType.getUid(), ordinal);
+                    interfaceUidsList.add(interfaceType.getUid());
+                }
+                interfaces.set(ordinal);
+            }
+            Integer setId = interfaceSetIds.get(interfaces);
+            if(setId == null) {
+                setId = interfaceSetsList.size();
+                interfaceSetIds.put(interfaces, setId);
+                interfaceSetsList.add(interfaces);
+            }
+
+            int entry = rowPointers[r] + rowFill[r];
+            rowFill[r] += 1;
+            entryCols[entry] = connectionCols[i];
+            entryWeights[entry] = connection.getWeight();
+            entryInterfaceSets[entry] = setId;
+            connectionEntries[numPlaced] = entry;
+            numPlaced += 1;
+        }
+
+        // walking the csr entries in order fills each column in order of increasing row index
+        colEntries = new int[numEntries];
+        int[] colFill = new int[numCols];
+        for(int r = 0; r < numRows; r++) {
+            for(int entry = rowPointers[r]; entry < rowPointers[r + 1]; entry++) {
+                int c = entryCols[entry];
+                colEntries[colPointers[c] + colFill[c]] = entry;
+                colFill[c] += 1;
+            }
+        }
+
+        interfaceUids = interfaceUidsList.stream().mapToInt(Integer::intValue).toArray();
+        interfaceSets = interfaceSetsList.toArray(new BitSet[0]);
+    }
+
+
+//region Getters for items
+    /**
+     * @return  the number of rows in the snapshot
+     */
+    public int getNumRows() {
+        return rowUids.length;
+    }
+
+
+    /**
+     * @return  the number of columns in the snapshot
+     */
+    public int getNumCols() {
+        return colUids.length;
+    }
+
+
+    /**
+     * @return  the number of connections (non-zero entries) in the snapshot
+     */
+    public int getNumEntries() {
+        return entryCols.length;
+    }
+
+
+    /**
+     * @param row  the dense row index
+     * @return     the uid of the row item at that index
+     */
+    public int getRowUid(int row) {
+        return rowUids[row];
+    }
+
+
+    /**
+     * @param col  the dense column index
+     * @return     the uid of the column item at that index
+     */
+    public int getColUid(int col) {
+        return colUids[col];
+    }
+
+
+    /**
+     * @param rowUid  the uid of a row item
+     * @return        the dense row index of the item or -1 if it is not a row in the snapshot
+     */
+    public int getRowIndex(int rowUid) {
+        return rowIndices.getOrDefault(rowUid, -1);
+    }
+
+
+    /**
+     * @param colUid  the uid of a column item
+     * @return        the dense column index of the item or -1 if it is not a column in the snapshot
+     */
+    public int getColIndex(int colUid) {
+        return colIndices.getOrDefault(colUid, -1);
+    }
+
+
+    /**
+     * @param row  the dense row index
+     * @return     the dense column index of the column the row is aliased to or -1 if it has no alias
+     */
+    public int getRowAlias(int row) {
+        return rowAliases[row];
+    }
+
+
+    /**
+     * @param col  the dense column index
+     * @return     the dense row index of the row the column is aliased to or -1 if it has no alias
+     */
+    public int getColAlias(int col) {
+        return colAliases[col];
+    }
+//endregion
+
+
+//region Getters for entries
+    /**
+     * Returns the first entry of a row. The entries of a row are getRowStart(row) until getRowEnd(row)
+     *
+     * @param row  the dense row index
+     * @return     the index of the first entry in the row
+     */
+    public int getRowStart(int row) {
+        return rowPointers[row];
+    }
+
+
+    /**
+     * @param row  the dense row index
+     * @return     one past the index of the last entry in the row
+     */
+    public int getRowEnd(int row) {
+        return rowPointers[row + 1];
+    }
+
+
+    /**
+     * Returns the position of the first entry of a column. The entries of a column are found with
+     * getColEntry(position) for position getColStart(col) until getColEnd(col)
+     *
+     * @param col  the dense column index
+     * @return     the position of the first entry in the column
+     */
+    public int getColStart(int col) {
+        return colPointers[col];
+    }
+
+
+    /**
+     * @param col  the dense column index
+     * @return     one past the position of the last entry in the column
+     */
+    public int getColEnd(int col) {
+        return colPointers[col + 1];
+    }
+
+
+    /**
+     * @param position  the position in the compressed columns
+     * @return          the entry at that position
+     */
+    public int getColEntry(int position) {
+        return colEntries[position];
+    }
+
+
+    /**
+     * @param entry  the entry index
+     * @return       the dense column index of the entry
+     */
+    public int getEntryCol(int entry) {
+        return entryCols[entry];
+    }
+
+
+    /**
+     * @param entry  the entry index
+     * @return       the weight of the connection of the entry
+     */
+    public double getEntryWeight(int entry) {
+        return entryWeights[entry];
+    }
+
+
+    /**
+     * @param entry  the entry index
+     * @return       the interface set id of the connection of the entry
+     */
+    public int getEntryInterfaceSet(int entry) {
+        return entryInterfaceSets[entry];
+    }
+
+
+    /**
+     * Returns the entries in the same order as the connections list of the matrix the snapshot was taken of. Useful
+     * for summing over the connections in the exact order the matrix would
+     *
+     * @param position  the position of the connection in the connections list, not counting connections that do not
+     *                  belong to items in the matrix
+     * @return          the entry index of the connection
+     */
+    public int getEntryInConnectionOrder(int position) {
+        return connectionEntries[position];
+    }
+//endregion
+
+
+//region Getters for interfaces
+    /**
+     * @return  the number of distinct interface types used by connections in the snapshot
+     */
+    public int getNumInterfaces() {
+        return interfaceUids.length;
+    }
+
+
+    /**
+     * @param ordinal  the interface ordinal
+     * @return         the uid of the interface type with that ordinal
+     */
+    public int getInterfaceUid(int ordinal) {
+        return interfaceUids[ordinal];
+    }
+
+
+    /**
+     * @param interfaceUid  the uid of an interface type
+     * @return              the ordinal of the interface type or -1 if no connection in the snapshot uses it
+     */
+    public int getInterfaceOrdinal(int interfaceUid) {
+        return interfaceOrdinals.getOrDefault(interfaceUid, -1);
+    }
+
+
+    /**
+     * Checks whether an interface set contains an interface
+     *
+     * @param interfaceSet  the interface set id of an entry
+     * @param ordinal       the interface ordinal
+     * @return              true if the set contains the interface
+     */
+    public boolean hasInterface(int interfaceSet, int ordinal) {
+        return ordinal >= 0 && interfaceSets[interfaceSet].get(ordinal);
+    }
+
+
+    /**
+     * @param interfaceSet  the interface set id of an entry
+     * @return              the number of interfaces in the set
+     */
+    public int getInterfaceSetSize(int interfaceSet) {
+        return interfaceSets[interfaceSet].cardinality();
+    }
+//endregion
+}
@@ -3,7 +3,10 @@ package Matrices.Data.Entities;
 import org.jdom2.Element;
 
 import java.util.ArrayList;
-import java.util.Objects;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Data class to manage DSM connections
@@ -16,11 +19,16 @@ public class DSMConnection {
 
     private String connectionName;
     private double weight;
-    private ArrayList<DSMInterfaceType> interfaces;
+
+    // interfaces are stored as a mask of ordinals from the table so comparing and filtering them are bitwise operations
+    private final InterfaceTypeTable interfaceTable;
+    private final BitSet interfaces;
 
 
     /**
-     * Creates a new connection data object
+     * Creates a new connection data object with its own interface table. Connections with their own tables have to
+     * compare interfaces by looking up each interface type, so connections that will be compared with the connections
+     * of a matrix should be created with the matrix's table instead
      *
      * @param connectionName the name given to the connection
      * @param weight         the weight given to the connection
@@ -29,11 +37,29 @@ public class DSMConnection {
      * @param interfaces     the interfaces for the connection
      */
     public DSMConnection(String connectionName, double weight, int rowUid, int colUid, ArrayList<DSMInterfaceType> interfaces) {
+        this(connectionName, weight, rowUid, colUid, interfaces, new InterfaceTypeTable());
+    }
+
+
+    /**
+     * Creates a new connection data object whose interfaces are interned in a shared table. Connections from the
+     * same table can be compared without looking at the interface types
+     *
+     * @param connectionName the name given to the connection
+     * @param weight         the weight given to the connection
+     * @param rowUid         the uid of the row item in the connection
+     * @param colUid         the uid of the column item in the connection
+     * @param interfaces     the interfaces for the connection
+     * @param interfaceTable the table to intern the interfaces in, normally the matrix's table
+     */
+    public DSMConnection(String connectionName, double weight, int rowUid, int colUid, ArrayList<DSMInterfaceType> interfaces, InterfaceTypeTable interfaceTable) {
         this.connectionName = connectionName;
         this.weight = weight;
         this.colUid = colUid;
         this.rowUid = rowUid;
-        this.interfaces = Objects.requireNonNullElseGet(interfaces, ArrayList::new);
+        this.interfaceTable = interfaceTable;
+        this.interfaces = new BitSet(0);
+        setInterfaces(interfaces);
     }
 
 
@@ -47,13 +73,45 @@ public class DSMConnection {
         weight = copy.getWeight();
         colUid = copy.getColUid();
         rowUid = copy.getRowUid();
-        this.interfaces = new ArrayList<>();
+        this.interfaceTable = new InterfaceTypeTable();
+        this.interfaces = new BitSet(0);
         for(DSMInterfaceType interfaceType : copy.getInterfaces()) {
-            this.interfaces.add(new DSMInterfaceType(interfaceType));
+            this.interfaces.set(interfaceTable.intern(new DSMInterfaceType(interfaceType)));
         }
     }
 
 
+    /**
+     * Creates a connection from all of its fields. The interface mask is used as is, so it must come from the table
+     *
+     * @param connectionName the name given to the connection
+     * @param weight         the weight given to the connection
+     * @param rowUid         the uid of the row item in the connection
+     * @param colUid         the uid of the column item in the connection
+     * @param interfaceTable the table the interfaces are interned in
+     * @param interfaces     the mask of the interfaces for the connection
+     */
+    private DSMConnection(String connectionName, double weight, int rowUid, int colUid, InterfaceTypeTable interfaceTable, BitSet interfaces) {
+        this.connectionName = connectionName;
+        this.weight = weight;
+        this.colUid = colUid;
+        this.rowUid = rowUid;
+        this.interfaceTable = interfaceTable;
+        this.interfaces = interfaces;
+    }
+
+
+    /**
+     * Creates a new connection with the same data as this one but with the row and column uids switched. The new
+     * connection shares this connection's interface table so no interface types are looked up
+     *
+     * @return  the transposed connection
+     */
+    public DSMConnection transposed() {
+        return new DSMConnection(connectionName, weight, colUid, rowUid, interfaceTable, (BitSet) interfaces.clone());
+    }
+
+
     /**
      * returns the current name of the connection
      *
@@ -95,10 +153,76 @@ public class DSMConnection {
 
 
     /**
-     * @return  the list of interface types for the connection
+     * @return  a new list of the interface types for the connection. Changing the list does not change the connection
      */
     public ArrayList<DSMInterfaceType> getInterfaces() {
-        return interfaces;
+        return interfaceTable.resolve(interfaces);
+    }
+
+
+    /**
+     * Finds the interface types of the connection that are also in a mask
+     *
+     * @param mask  a mask from the connection's interface table
+     * @return      a new list of the interface types in both the connection and the mask
+     */
+    public ArrayList<DSMInterfaceType> getInterfaces(BitSet mask) {
+        BitSet visible = (BitSet) interfaces.clone();
+        visible.and(mask);
+        return interfaceTable.resolve(visible);
+    }
+
+
+    /**
+     * Calls an action with each interface type of the connection in ordinal order without creating a list
+     *
+     * @param action  the action to call with each interface type
+     */
+    public void forEachInterface(Consumer<DSMInterfaceType> action) {
+        for(int i = interfaces.nextSetBit(0); i >= 0; i = interfaces.nextSetBit(i + 1)) {
+            action.accept(interfaceTable.get(i));
+        }
+    }
+
+
+    /**
+     * Calls an action with each interface type of the connection that is also in a mask in ordinal order without
+     * creating a list or copying the mask
+     *
+     * @param mask    a mask from the connection's interface table
+     * @param action  the action to call with each interface type in both the connection and the mask
+     */
+    public void forEachInterface(BitSet mask, Consumer<DSMInterfaceType> action) {
+        for(int i = interfaces.nextSetBit(0); i >= 0; i = interfaces.nextSetBit(i + 1)) {
+            if(mask.get(i)) {
+                action.accept(interfaceTable.get(i));
+            }
+        }
+    }
+
+
+    /**
+     * @return  a copy of the mask of interface ordinals of the connection
+     */
+    public BitSet getInterfaceMask() {
+        return (BitSet) interfaces.clone();
+    }
+
+
+    /**
+     * @return  the table the interfaces of the connection are interned in
+     */
+    public InterfaceTypeTable getInterfaceTable() {
+        return interfaceTable;
+    }
+
+
+    /**
+     * @param mask  a mask from the connection's interface table
+     * @return      if the connection has at least one of the interfaces in the mask
+     */
+    public boolean hasAnyInterface(BitSet mask) {
+        return interfaces.intersects(mask);
     }
 
 
@@ -128,9 +252,7 @@ public class DSMConnection {
      * @param interfaceType  the new interface type
      */
     public void addInterface(DSMInterfaceType interfaceType) {
-        if(!interfaces.contains(interfaceType)) {
-            interfaces.add(interfaceType);
-        }
+        interfaces.set(interfaceTable.intern(interfaceType));
     }
 
 
@@ -140,7 +262,10 @@ public class DSMConnection {
      * @param interfaceType  the new interface type
      */
     public void removeInterface(DSMInterfaceType interfaceType) {
-        interfaces.remove(interfaceType);
+        int ordinal = interfaceTable.getOrdinal(interfaceType);
+        if(ordinal >= 0) {
+            interfaces.clear(ordinal);
+        }
     }
 
 
@@ -156,7 +281,12 @@ public class DSMConnection {
      * Sets the interfaces for the connection
      */
     public void setInterfaces(ArrayList<DSMInterfaceType> interfaces) {
-        this.interfaces = interfaces;
+        this.interfaces.clear();
+        if(interfaces != null) {
+            for(DSMInterfaceType interfaceType : interfaces) {
+                this.interfaces.set(interfaceTable.intern(interfaceType));
+            }
+        }
     }
 
 
@@ -173,7 +303,7 @@ public class DSMConnection {
         connElement.addContent(new Element("weight").setText(Double.valueOf(getWeight()).toString()));
 
         Element interfacesXML = new Element("interfaces");
-        for(DSMInterfaceType interfaceType : interfaces) {
+        for(DSMInterfaceType interfaceType : getInterfaces()) {
             Element interfaceElement = new Element("interface");
             interfaceElement.setAttribute("uid", interfaceType.getUid().toString());
             interfacesXML.addContent(interfaceElement);
@@ -216,17 +346,26 @@ public class DSMConnection {
     public boolean isSameConnectionType(DSMConnection c) {
         boolean namesEqual = c.getConnectionName().equals(this.getConnectionName());
         boolean weightsEqual = c.getWeight() == this.getWeight();
-        boolean interfacesEqual = false;
-        if(c.getInterfaces().size() == interfaces.size()) {
-            interfacesEqual = true;
-            for (DSMInterfaceType interfaceType : interfaces) {
-                if (!c.getInterfaces().stream().map(DSMInterfaceType::getUid).toList().contains(interfaceType.getUid())) {
-                    interfacesEqual = false;
-                    break;
-                }
-            }
+        boolean interfacesEqual;
+        if(c.interfaceTable == interfaceTable) {  // same ordinals so the masks can be compared directly
+            interfacesEqual = c.interfaces.equals(interfaces);
+        } else {
+            interfacesEqual = getInterfaceUids(c).equals(getInterfaceUids(this));
         }
 
         return namesEqual && weightsEqual && interfacesEqual;  // compare based on name and weight
     }
+
+
+    /**
+     * @param c  the connection to get the interface uids of
+     * @return   the set of uids of the connection's interfaces
+     */
+    private static Set<Integer> getInterfaceUids(DSMConnection c) {
+        Set<Integer> uids = new HashSet<>();
+        for(DSMInterfaceType interfaceType : c.getInterfaces()) {
+            uids.add(interfaceType.getUid());
+        }
+        return uids;
+    }
 }
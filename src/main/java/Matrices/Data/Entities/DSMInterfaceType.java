@@ -20,7 +20,7 @@ public class DSMInterfaceType {
      * @param name  the starting name of the interface type
      */
     public DSMInterfaceType(String name, String abbreviation) {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = java.util.concurrent.ThreadLocalRandom.current().nextInt();
         this.name = name;
         this.abbreviation = abbreviation;
     }
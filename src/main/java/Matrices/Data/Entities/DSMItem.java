@@ -14,7 +14,8 @@ import org.jdom2.Element;
 public class DSMItem {
     private final Integer uid;
     private Integer aliasUid;
-    private StringProperty name;
+    private String name;                 // only used until the name property is created
+    private StringProperty nameProperty;  // created the first time something needs to observe the name
     private double sortIndex;
     private Grouping group1;  // how these 2 groupings are used is up to implementation of the DSM type
     private Grouping group2;
@@ -24,9 +25,9 @@ public class DSMItem {
      * creates a new DSMItem with default values for its properties. Sets a uid
      */
     public DSMItem() {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = java.util.concurrent.ThreadLocalRandom.current().nextInt();
 
-        this.name = new SimpleStringProperty("");
+        this.name = "";
         this.sortIndex = 0.0;
         this.group1 = null;
         this.group2 = null;
@@ -40,9 +41,9 @@ public class DSMItem {
      * @param name  the starting name of the item
      */
     public DSMItem(double index, String name) {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = java.util.concurrent.ThreadLocalRandom.current().nextInt();
 
-        this.name = new SimpleStringProperty(name);
+        this.name = name;
         this.sortIndex = index;
         this.group1 = null;
         this.group2 = null;
@@ -62,7 +63,7 @@ public class DSMItem {
     public DSMItem(Integer uid, Integer aliasUid, double index, String name, Grouping group1, Grouping group2) {
         this.uid = uid;
         this.aliasUid = aliasUid;
-        this.name = new SimpleStringProperty(name);
+        this.name = name;
         this.sortIndex = index;
         this.group1 = group1;
         this.group2 = group2;
@@ -77,7 +78,7 @@ public class DSMItem {
     public DSMItem(DSMItem copy) {
         uid = copy.getUid();
         aliasUid = copy.getAliasUid();
-        name = new SimpleStringProperty(copy.getName().getValue());
+        name = copy.getNameValue();
         sortIndex = copy.getSortIndex();
         group1 = copy.getGroup1();
         group2 = copy.getGroup2();
@@ -95,12 +96,27 @@ public class DSMItem {
 
 
     /**
-     * Getter function for the name of the item
+     * Getter function for the observable name of the item. The property is created the first time this is called, so
+     * use getNameValue when the name only needs to be read
      *
-     * @return the name of the item
+     * @return the name property of the item
      */
     public StringProperty getName() {
-        return name;
+        if(nameProperty == null) {
+            nameProperty = new SimpleStringProperty(name);
+            name = null;  // the property holds the name from now on
+        }
+        return nameProperty;
+    }
+
+
+    /**
+     * Getter function for the name of the item that does not create the name property
+     *
+     * @return the name of the item
+     */
+    public String getNameValue() {
+        return nameProperty != null ? nameProperty.get() : name;
     }
 
 
@@ -150,7 +166,11 @@ public class DSMItem {
      * @param name the new name of the item
      */
     public void setName(String name) {
-        this.name.set(name);
+        if(nameProperty != null) {
+            nameProperty.set(name);
+        } else {
+            this.name = name;
+        }
     }
 
 
@@ -200,7 +220,7 @@ public class DSMItem {
      * @param item  the item to copy
      */
     public void copyProperties(DSMItem item) {
-        name = item.getName();
+        setName(item.getNameValue());
         sortIndex = item.getSortIndex();
         group1 = item.getGroup1();
         group2 = item.getGroup2();
@@ -215,7 +235,7 @@ public class DSMItem {
      */
     public Element getXML(Element itemElement) {
         itemElement.setAttribute(new Attribute("uid", Integer.valueOf(getUid()).toString()));
-        itemElement.addContent(new Element("name").setText(getName().getValue()));
+        itemElement.addContent(new Element("name").setText(getNameValue()));
         itemElement.addContent(new Element("sort_index").setText(Double.valueOf(getSortIndex()).toString()));
 
         if(getGroup1() != null) {
@@ -248,7 +268,7 @@ public class DSMItem {
      */
     @Override
     public String toString() {
-        return name.getValue();
+        return getNameValue();
     }  // TODO: This should not be how this is implemented (use a cell factory)
 }
 
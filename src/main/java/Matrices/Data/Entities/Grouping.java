@@ -28,7 +28,24 @@ public class Grouping {
      * @param color the starting index of the grouping
      */
     public Grouping(String name, Color color) {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = java.util.concurrent.ThreadLocalRandom.current().nextInt();
+        this.priority = DEFAULT_PRIORITY;
+        this.name = name;
+        this.color = color;
+        this.fontColor = DEFAULT_FONT_COLOR;
+    }
+
+
+    /**
+     * Creates a new Grouping with a given uid, name, and color. Use a uid from the matrix's UidAllocator when the
+     * grouping is for a matrix
+     *
+     * @param uid   the uid of the grouping
+     * @param name  the starting name of the grouping
+     * @param color the starting color of the grouping
+     */
+    public Grouping(Integer uid, String name, Color color) {
+        this.uid = uid;
         this.priority = DEFAULT_PRIORITY;
         this.name = name;
         this.color = color;
@@ -43,7 +60,7 @@ public class Grouping {
      * @param color the starting index of the grouping
      */
     public Grouping(String name, Color color, Color fontColor) {
-        this.uid = java.util.UUID.randomUUID().hashCode();
+        this.uid = java.util.concurrent.ThreadLocalRandom.current().nextInt();
         this.priority = DEFAULT_PRIORITY;
         this.name = name;
         this.color = color;
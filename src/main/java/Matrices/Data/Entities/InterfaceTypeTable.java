@@ -0,0 +1,119 @@
+package Matrices.Data.Entities;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+
+
+/**
+ * Interns the interface types of a matrix and gives each one a dense ordinal so that the interfaces of a connection
+ * can be stored as a bit mask. Ordinals are never reused so masks stay valid for the life of the table even if an
+ * interface type is removed from the matrix
+ */
+public final class InterfaceTypeTable {
+    private final HashMap<Integer, Integer> ordinals = new HashMap<>();          // interface uid -> ordinal
+    private final ArrayList<DSMInterfaceType> interfaceTypes = new ArrayList<>();  // ordinal -> interface type
+
+
+    /**
+     * Finds the ordinal of an interface type, giving it the next ordinal if it has not been seen before. Interface
+     * types are matched by uid
+     *
+     * @param interfaceType  the interface type to intern
+     * @return               the ordinal of the interface type
+     */
+    public int intern(DSMInterfaceType interfaceType) {
+        Integer ordinal = ordinals.get(interfaceType.getUid());
+        if(ordinal == null) {
+            ordinal = interfaceTypes.size();
+            ordinals.put(interfaceType.getUid(), ordinal);
+            interfaceTypes.add(interfaceType);
+        }
+        return ordinal;
+    }
+
+
+    /**
+     * Interns an interface type and makes it the object returned for its ordinal. Used by the matrix so that the
+     * interface types returned by connections are the ones owned by the matrix
+     *
+     * @param interfaceType  the interface type to register
+     * @return               the ordinal of the interface type
+     */
+    public int register(DSMInterfaceType interfaceType) {
+        int ordinal = intern(interfaceType);
+        interfaceTypes.set(ordinal, interfaceType);
+        return ordinal;
+    }
+
+
+    /**
+     * Undoes a call to register so that the table looks up the interface type the way it did before. An interface
+     * type that was not interned before is forgotten and gets a new ordinal if it is interned again. Its old ordinal
+     * is not reused, so masks made while it was registered still resolve to it
+     *
+     * @param interfaceType  the interface type that was registered
+     * @param previous       the interface type that was returned for its ordinal before it was registered, or null if
+     *                       it was not interned
+     */
+    public void unregister(DSMInterfaceType interfaceType, DSMInterfaceType previous) {
+        if(previous == null) {
+            ordinals.remove(interfaceType.getUid());
+            return;
+        }
+
+        Integer ordinal = ordinals.get(interfaceType.getUid());
+        if(ordinal != null) {
+            interfaceTypes.set(ordinal, previous);
+        }
+    }
+
+
+    /**
+     * @param interfaceType  the interface type to look up
+     * @return               the ordinal of the interface type or -1 if it has not been interned
+     */
+    public int getOrdinal(DSMInterfaceType interfaceType) {
+        return ordinals.getOrDefault(interfaceType.getUid(), -1);
+    }
+
+
+    /**
+     * @param ordinal  the ordinal of an interned interface type
+     * @return         the interface type with that ordinal
+     */
+    public DSMInterfaceType get(int ordinal) {
+        return interfaceTypes.get(ordinal);
+    }
+
+
+    /**
+     * Creates a mask of a group of interface types, interning any that have not been seen before
+     *
+     * @param interfaces  the interface types to put in the mask
+     * @return            the mask with the bit of each interface type's ordinal set
+     */
+    public BitSet maskOf(Collection<DSMInterfaceType> interfaces) {
+        BitSet mask = new BitSet();
+        for(DSMInterfaceType interfaceType : interfaces) {
+            mask.set(intern(interfaceType));
+        }
+        return mask;
+    }
+
+
+    /**
+     * Finds the interface types of a mask
+     *
+     * @param mask  a mask created from this table
+     * @return      a new list of the interface types in ordinal order
+     */
+    public ArrayList<DSMInterfaceType> resolve(BitSet mask) {
+        ArrayList<DSMInterfaceType> interfaces = new ArrayList<>(mask.cardinality());
+        for(int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            interfaces.add(interfaceTypes.get(i));
+        }
+        return interfaces;
+    }
+}
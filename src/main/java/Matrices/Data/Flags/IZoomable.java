@@ -2,6 +2,9 @@ package Matrices.Data.Flags;
 
 import Matrices.Data.AbstractDSMData;
 import Matrices.Data.Entities.Grouping;
+import Matrices.Data.MatrixChangeEvent;
+
+import java.util.List;
 
 
 /**
@@ -19,6 +22,20 @@ public interface IZoomable {
     void importZoom(Grouping fromGroup, Grouping toGroup, AbstractDSMData matrix);
 
 
+    /**
+     * Applies the changes reported by a breakout view's change events in place, so that only the items and
+     * connections that changed are touched. Changes that can not be applied this way (ex. added or deleted items)
+     * must be merged with importZoom instead
+     *
+     * @param fromGroup  the "from" grouping item that defines where the breakout view is from
+     * @param toGroup    the "to" grouping item that defines where the breakout view is from
+     * @param matrix     the breakout view matrix
+     * @param events     the change events of the breakout view since it was last synced
+     * @return           if the changes were applied, false if nothing was changed and importZoom must be used
+     */
+    boolean applyZoomChanges(Grouping fromGroup, Grouping toGroup, AbstractDSMData matrix, List<MatrixChangeEvent> events);
+
+
     /**
      * Takes a matrix and creates a breakout view from it
      *
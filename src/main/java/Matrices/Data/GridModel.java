@@ -0,0 +1,60 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.RenderMode;
+
+
+/**
+ * A read only view of a matrix laid out as the grid that is displayed or exported. Cells are computed on demand from
+ * the current order of the rows and columns, so nothing is allocated per cell. The grid is made up of header rows and
+ * columns followed by one grid row per matrix row and one grid column per matrix column.
+ *
+ * The value of a cell depends on its render mode the same way as the values in AbstractDSMData.getGridArray, except
+ * for EDITABLE_CONNECTION cells whose value is the DSMConnection (or null if there is no connection). Use getRowItem
+ * and getColItem to find the items of a connection cell.
+ *
+ * The model reads the matrix directly so it should not be used after the rows or columns of the matrix change.
+ */
+public interface GridModel {
+
+    /**
+     * @return  the number of rows in the grid including the header rows
+     */
+    int getNumRows();
+
+
+    /**
+     * @return  the number of columns in the grid including the header columns
+     */
+    int getNumCols();
+
+
+    /**
+     * @param r  the grid row
+     * @param c  the grid column
+     * @return   how the cell should be displayed
+     */
+    RenderMode renderModeAt(int r, int c);
+
+
+    /**
+     * @param r  the grid row
+     * @param c  the grid column
+     * @return   the data of the cell. The type depends on the render mode of the cell
+     */
+    Object valueAt(int r, int c);
+
+
+    /**
+     * @param r  the grid row
+     * @return   the row item displayed in that grid row or null if it is a header row
+     */
+    DSMItem getRowItem(int r);
+
+
+    /**
+     * @param c  the grid column
+     * @return   the column item displayed in that grid column or null if it is a header column
+     */
+    DSMItem getColItem(int c);
+}
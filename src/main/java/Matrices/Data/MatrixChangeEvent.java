@@ -0,0 +1,72 @@
+package Matrices.Data;
+
+
+/**
+ * Describes a single change that was made to a matrix. Events are collected by the matrix and delivered to its
+ * MatrixChangeListeners once per checkpoint so that views and caches can update only what changed instead of
+ * rebuilding everything.
+ *
+ * For connection events uid is the row uid and otherUid is the column uid. For item events uid is the uid of the item
+ * that changed. For grouping events uid is the uid of the grouping. otherUid is 0 when it is not used
+ *
+ * @param type      the kind of change
+ * @param uid       the uid of the row, item, or grouping that changed
+ * @param otherUid  the uid of the column for connection events
+ */
+public record MatrixChangeEvent(Type type, int uid, int otherUid) {
+
+    /**
+     * The kinds of changes a matrix can report
+     */
+    public enum Type {
+        CONNECTION_ADDED,
+        CONNECTION_REMOVED,
+        CONNECTION_MODIFIED,
+        ITEM_RENAMED,
+        ITEM_MOVED,
+        ITEM_REGROUPED,
+        GROUPING_RECOLORED,
+        STRUCTURE_CHANGED,  // the change can not be described by the other types so everything should be refreshed
+    }
+
+
+    /**
+     * @return  if this event is about a connection
+     */
+    public boolean isConnectionEvent() {
+        return type == Type.CONNECTION_ADDED || type == Type.CONNECTION_REMOVED || type == Type.CONNECTION_MODIFIED;
+    }
+
+
+    public static MatrixChangeEvent connectionAdded(int rowUid, int colUid) {
+        return new MatrixChangeEvent(Type.CONNECTION_ADDED, rowUid, colUid);
+    }
+
+    public static MatrixChangeEvent connectionRemoved(int rowUid, int colUid) {
+        return new MatrixChangeEvent(Type.CONNECTION_REMOVED, rowUid, colUid);
+    }
+
+    public static MatrixChangeEvent connectionModified(int rowUid, int colUid) {
+        return new MatrixChangeEvent(Type.CONNECTION_MODIFIED, rowUid, colUid);
+    }
+
+    public static MatrixChangeEvent itemRenamed(int uid) {
+        return new MatrixChangeEvent(Type.ITEM_RENAMED, uid, 0);
+    }
+
+    public static MatrixChangeEvent itemMoved(int uid) {
+        return new MatrixChangeEvent(Type.ITEM_MOVED, uid, 0);
+    }
+
+    public static MatrixChangeEvent itemRegrouped(int uid) {
+        return new MatrixChangeEvent(Type.ITEM_REGROUPED, uid, 0);
+    }
+
+    public static MatrixChangeEvent groupingRecolored(int groupingUid) {
+        return new MatrixChangeEvent(Type.GROUPING_RECOLORED, groupingUid, 0);
+    }
+
+    public static MatrixChangeEvent structureChanged() {
+        return new MatrixChangeEvent(Type.STRUCTURE_CHANGED, 0, 0);
+    }
+}
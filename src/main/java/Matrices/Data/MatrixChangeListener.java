@@ -0,0 +1,19 @@
+package Matrices.Data;
+
+import java.util.List;
+
+
+/**
+ * Listener that is notified of the changes made to a matrix. See AbstractDSMData.addChangeListener
+ */
+@FunctionalInterface
+public interface MatrixChangeListener {
+
+    /**
+     * Called with the coalesced changes made to the matrix since the last notification. If the list contains a
+     * STRUCTURE_CHANGED event it is the only event in the list and the listener should refresh everything
+     *
+     * @param events  the changes in the order they were first made, the list can not be modified
+     */
+    void onMatrixChanged(List<MatrixChangeEvent> events);
+}
@@ -0,0 +1,100 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+
+import java.util.List;
+
+
+/**
+ * An immutable copy of the connections of a matrix taken at one version of the matrix. Background threads (searching,
+ * analysis) read the snapshot instead of the matrix's connection list so they never see the list while it is being
+ * modified. Use AbstractDSMData.getVersion to find out if a snapshot is out of date.
+ *
+ * Snapshots are created by AbstractDSMData.getSnapshot on the thread that modifies the matrix. Once created they can
+ * be read from any thread.
+ */
+public final class MatrixSnapshot {
+    private final long version;
+
+    // one entry per connection in the same order as the matrix's connections list
+    private final int[] rowUids;
+    private final int[] colUids;
+    private final String[] names;
+    private final double[] weights;
+
+
+    /**
+     * Copies the connections of a matrix. Runs in O(E) time
+     *
+     * @param matrix   the matrix to take the snapshot of
+     * @param version  the current version of the matrix
+     */
+    MatrixSnapshot(AbstractDSMData matrix, long version) {
+        this.version = version;
+
+        List<DSMConnection> connections = matrix.getConnections();
+        rowUids = new int[connections.size()];
+        colUids = new int[connections.size()];
+        names = new String[connections.size()];
+        weights = new double[connections.size()];
+        for(int i = 0; i < connections.size(); i++) {
+            DSMConnection connection = connections.get(i);
+            rowUids[i] = connection.getRowUid();
+            colUids[i] = connection.getColUid();
+            names[i] = connection.getConnectionName();
+            weights[i] = connection.getWeight();
+        }
+    }
+
+
+    /**
+     * @return  the version of the matrix the snapshot was taken at
+     */
+    public long getVersion() {
+        return version;
+    }
+
+
+    /**
+     * @return  the number of connections in the snapshot
+     */
+    public int getNumConnections() {
+        return rowUids.length;
+    }
+
+
+    /**
+     * @param i  the index of the connection
+     * @return   the uid of the row item of the connection
+     */
+    public int getRowUid(int i) {
+        return rowUids[i];
+    }
+
+
+    /**
+     * @param i  the index of the connection
+     * @return   the uid of the column item of the connection
+     */
+    public int getColUid(int i) {
+        return colUids[i];
+    }
+
+
+    /**
+     * @param i  the index of the connection
+     * @return   the name of the connection
+     */
+    public String getConnectionName(int i) {
+        return names[i];
+    }
+
+
+    /**
+     * @param i  the index of the connection
+     * @return   the weight of the connection
+     */
+    public double getWeight(int i) {
+        return weights[i];
+    }
+}
@@ -0,0 +1,378 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.Entities.Grouping;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+
+/**
+ * Statistics about the connections of a matrix that are kept up to date as the matrix changes, so reading them does
+ * not require scanning the connections. Every connection that is added to or removed from the matrix, every weight
+ * change, and every item that is added or regrouped updates the statistics in time proportional to the change.
+ *
+ * Out degree is the number of connections in a row and in degree is the number of connections in a column. A
+ * connection is internal to a grouping if its row item and column item are both in the grouping, otherwise it is
+ * external to the groupings of both of its items. Items are placed in groupings by their primary grouping (group1).
+ * Groupings are told apart by object instead of by uid because uids are not unique within a matrix (ex. the row and
+ * column default groupings of an asymmetric matrix, or the default groupings of each domain of a multi-domain matrix).
+ *
+ * The statistics are owned by the matrix and modified on the same thread as the matrix, so they should not be read
+ * from other threads. Use AbstractDSMData.getStatistics to get them
+ */
+public final class MatrixStatistics {
+    private final AbstractDSMData matrix;
+
+    private int numConnections = 0;
+    private double totalWeight = 0.0;
+
+    private final HashMap<Integer, Integer> outDegrees = new HashMap<>();     // row uid -> connections in the row
+    private final HashMap<Integer, Integer> inDegrees = new HashMap<>();      // col uid -> connections in the column
+    private final HashMap<Integer, Double> outWeights = new HashMap<>();      // row uid -> sum of the weights in the row
+    private final HashMap<Integer, Double> inWeights = new HashMap<>();       // col uid -> sum of the weights in the column
+    private final TreeMap<Integer, Integer> outDegreeCounts = new TreeMap<>();  // out degree -> number of rows with it
+    private final TreeMap<Integer, Integer> inDegreeCounts = new TreeMap<>();   // in degree -> number of columns with it
+    private final TreeMap<Double, Integer> weightCounts = new TreeMap<>();     // weight -> number of connections with it
+
+    // item uid -> grouping of the items in the matrix. Connections of items that are not in the matrix (ex. while an
+    // item is being deleted or its deletion is being undone) are counted as if that item had no grouping
+    private final HashMap<Integer, Grouping> itemGroups = new HashMap<>();
+    private final IdentityHashMap<Grouping, int[]> groupingCounts = new IdentityHashMap<>();  // grouping -> {internal, external}
+
+
+    /**
+     * Creates empty statistics for a matrix. Only the matrix should create its statistics
+     *
+     * @param matrix  the matrix the statistics describe
+     */
+    MatrixStatistics(AbstractDSMData matrix) {
+        this.matrix = matrix;
+    }
+
+
+//region Getters
+    /**
+     * @return  the number of connections in the matrix
+     */
+    public int getNumConnections() {
+        return numConnections;
+    }
+
+
+    /**
+     * @return  the sum of the weights of all the connections in the matrix
+     */
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+
+    /**
+     * @return  the fraction of cells in the matrix that have a connection, or 0 if the matrix has no cells
+     */
+    public double getDensity() {
+        long numCells = (long) matrix.getRows().size() * matrix.getCols().size();
+        return numCells == 0 ? 0.0 : (double) numConnections / numCells;
+    }
+
+
+    /**
+     * @param rowUid  the uid of a row item
+     * @return        the number of connections in the row
+     */
+    public int getOutDegree(int rowUid) {
+        return outDegrees.getOrDefault(rowUid, 0);
+    }
+
+
+    /**
+     * @param colUid  the uid of a column item
+     * @return        the number of connections in the column
+     */
+    public int getInDegree(int colUid) {
+        return inDegrees.getOrDefault(colUid, 0);
+    }
+
+
+    /**
+     * @param rowUid  the uid of a row item
+     * @return        the sum of the weights of the connections in the row
+     */
+    public double getOutWeight(int rowUid) {
+        return outWeights.getOrDefault(rowUid, 0.0);
+    }
+
+
+    /**
+     * @param colUid  the uid of a column item
+     * @return        the sum of the weights of the connections in the column
+     */
+    public double getInWeight(int colUid) {
+        return inWeights.getOrDefault(colUid, 0.0);
+    }
+
+
+    /**
+     * Returns how many rows have each out degree. Rows without any connections are not included
+     *
+     * @return  a read-only view of out degree -> number of rows with that degree
+     */
+    public SortedMap<Integer, Integer> getOutDegreeDistribution() {
+        return Collections.unmodifiableSortedMap(outDegreeCounts);
+    }
+
+
+    /**
+     * Returns how many columns have each in degree. Columns without any connections are not included
+     *
+     * @return  a read-only view of in degree -> number of columns with that degree
+     */
+    public SortedMap<Integer, Integer> getInDegreeDistribution() {
+        return Collections.unmodifiableSortedMap(inDegreeCounts);
+    }
+
+
+    /**
+     * @return  a read-only view of connection weight -> number of connections with that weight
+     */
+    public SortedMap<Double, Integer> getWeightHistogram() {
+        return Collections.unmodifiableSortedMap(weightCounts);
+    }
+
+
+    /**
+     * @param grouping  a grouping of the matrix
+     * @return          the number of connections with both items in the grouping
+     */
+    public int getInternalConnections(Grouping grouping) {
+        int[] counts = groupingCounts.get(grouping);
+        return counts == null ? 0 : counts[0];
+    }
+
+
+    /**
+     * @param grouping  a grouping of the matrix
+     * @return          the number of connections with exactly one item in the grouping
+     */
+    public int getExternalConnections(Grouping grouping) {
+        int[] counts = groupingCounts.get(grouping);
+        return counts == null ? 0 : counts[1];
+    }
+//endregion
+
+
+//region Updates (called by the matrix)
+    /**
+     * Counts a connection that was added to the matrix
+     *
+     * @param rowUid  the uid of the row item of the connection
+     * @param colUid  the uid of the column item of the connection
+     * @param weight  the weight of the connection
+     */
+    void connectionAdded(int rowUid, int colUid, double weight) {
+        numConnections += 1;
+        totalWeight += weight;
+        addDegree(outDegrees, outDegreeCounts, rowUid, 1);
+        addDegree(inDegrees, inDegreeCounts, colUid, 1);
+        outWeights.merge(rowUid, weight, Double::sum);
+        inWeights.merge(colUid, weight, Double::sum);
+        weightCounts.merge(weight, 1, Integer::sum);
+        addGroupingCounts(rowUid, colUid, 1);
+    }
+
+
+    /**
+     * Stops counting a connection that was removed from the matrix
+     *
+     * @param rowUid  the uid of the row item of the connection
+     * @param colUid  the uid of the column item of the connection
+     * @param weight  the weight of the connection when it was removed
+     */
+    void connectionRemoved(int rowUid, int colUid, double weight) {
+        numConnections -= 1;
+        totalWeight -= weight;
+        if(addDegree(outDegrees, outDegreeCounts, rowUid, -1) == 0) {
+            outWeights.remove(rowUid);  // remove instead of subtracting so rounding errors do not build up
+        } else {
+            outWeights.merge(rowUid, -weight, Double::sum);
+        }
+        if(addDegree(inDegrees, inDegreeCounts, colUid, -1) == 0) {
+            inWeights.remove(colUid);
+        } else {
+            inWeights.merge(colUid, -weight, Double::sum);
+        }
+        removeCount(weightCounts, weight);
+        addGroupingCounts(rowUid, colUid, -1);
+        if(numConnections == 0) {
+            totalWeight = 0.0;
+        }
+    }
+
+
+    /**
+     * Updates the weight sums and histogram for a connection whose weight changed
+     *
+     * @param rowUid     the uid of the row item of the connection
+     * @param colUid     the uid of the column item of the connection
+     * @param oldWeight  the weight before the change
+     * @param newWeight  the weight after the change
+     */
+    void weightChanged(int rowUid, int colUid, double oldWeight, double newWeight) {
+        if(Double.compare(oldWeight, newWeight) == 0) {
+            return;
+        }
+        double difference = newWeight - oldWeight;
+        totalWeight += difference;
+        outWeights.merge(rowUid, difference, Double::sum);
+        inWeights.merge(colUid, difference, Double::sum);
+        removeCount(weightCounts, oldWeight);
+        weightCounts.merge(newWeight, 1, Integer::sum);
+    }
+
+
+    /**
+     * Records the grouping of an item. If the item already has connections they are moved from the item's old
+     * grouping to the new one. Runs in time proportional to the number of connections of the item
+     *
+     * @param uid       the uid of the item
+     * @param grouping  the item's grouping or null if it has none
+     */
+    void itemGrouped(int uid, Grouping grouping) {
+        if(itemGroups.containsKey(uid) && itemGroups.get(uid) == grouping) {
+            return;
+        }
+
+        List<DSMConnection> rowConnections = matrix.getRowConnections(uid);
+        List<DSMConnection> colConnections = matrix.getColConnections(uid);
+        for(DSMConnection connection : rowConnections) {
+            addGroupingCounts(connection.getRowUid(), connection.getColUid(), -1);
+        }
+        for(DSMConnection connection : colConnections) {
+            addGroupingCounts(connection.getRowUid(), connection.getColUid(), -1);
+        }
+        itemGroups.put(uid, grouping);
+        for(DSMConnection connection : rowConnections) {
+            addGroupingCounts(connection.getRowUid(), connection.getColUid(), 1);
+        }
+        for(DSMConnection connection : colConnections) {
+            addGroupingCounts(connection.getRowUid(), connection.getColUid(), 1);
+        }
+    }
+
+
+    /**
+     * Forgets the grouping of an item that was removed from the matrix. Any of its connections that are still in the
+     * matrix are counted as if the item had no grouping until they are removed. Runs in time proportional to the
+     * number of connections of the item
+     *
+     * @param uid  the uid of the item
+     */
+    void itemRemoved(int uid) {
+        itemGrouped(uid, null);
+        itemGroups.remove(uid);
+    }
+
+
+    /**
+     * Resets all the connection statistics. The groupings of the items are kept. Used when the matrix rebuilds its
+     * connection indices, which adds every connection again
+     */
+    void clearConnections() {
+        numConnections = 0;
+        totalWeight = 0.0;
+        outDegrees.clear();
+        inDegrees.clear();
+        outWeights.clear();
+        inWeights.clear();
+        outDegreeCounts.clear();
+        inDegreeCounts.clear();
+        weightCounts.clear();
+        groupingCounts.clear();
+    }
+//endregion
+
+
+//region Private helpers
+    /**
+     * Changes the degree of an item and moves it between the buckets of the degree distribution
+     *
+     * @param degrees  the degrees of the rows or columns
+     * @param counts   the degree distribution of the rows or columns
+     * @param uid      the uid of the item
+     * @param delta    the amount to change the degree by
+     * @return         the new degree of the item
+     */
+    private static int addDegree(HashMap<Integer, Integer> degrees, TreeMap<Integer, Integer> counts, int uid, int delta) {
+        int oldDegree = degrees.getOrDefault(uid, 0);
+        int newDegree = oldDegree + delta;
+        if(oldDegree > 0) {
+            removeCount(counts, oldDegree);
+        }
+        if(newDegree > 0) {
+            degrees.put(uid, newDegree);
+            counts.merge(newDegree, 1, Integer::sum);
+        } else {
+            degrees.remove(uid);
+        }
+        return newDegree;
+    }
+
+
+    /**
+     * Decrements the count of a key, removing the key when the count reaches zero
+     *
+     * @param counts  the counts to modify
+     * @param key     the key to decrement
+     * @param <K>     the type of the key
+     */
+    private static <K> void removeCount(TreeMap<K, Integer> counts, K key) {
+        counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+    }
+
+
+    /**
+     * Adds or removes a connection from the internal and external counts of the groupings of its items. Items
+     * without a grouping are not counted
+     *
+     * @param rowUid  the uid of the row item of the connection
+     * @param colUid  the uid of the column item of the connection
+     * @param delta   1 to add the connection or -1 to remove it
+     */
+    private void addGroupingCounts(int rowUid, int colUid, int delta) {
+        Grouping rowGroup = itemGroups.get(rowUid);
+        Grouping colGroup = itemGroups.get(colUid);
+        if(rowGroup != null && rowGroup == colGroup) {
+            addGroupingCount(rowGroup, 0, delta);
+            return;
+        }
+        if(rowGroup != null) {
+            addGroupingCount(rowGroup, 1, delta);
+        }
+        if(colGroup != null) {
+            addGroupingCount(colGroup, 1, delta);
+        }
+    }
+
+
+    /**
+     * Changes the internal or external count of a grouping, forgetting the grouping when both counts reach zero so
+     * that deleted groupings are not kept alive
+     *
+     * @param grouping  the grouping
+     * @param index     0 for the internal count or 1 for the external count
+     * @param delta     the amount to change the count by
+     */
+    private void addGroupingCount(Grouping grouping, int index, int delta) {
+        int[] counts = groupingCounts.computeIfAbsent(grouping, k -> new int[2]);
+        counts[index] += delta;
+        if(counts[0] == 0 && counts[1] == 0) {
+            groupingCounts.remove(grouping);
+        }
+    }
+//endregion
+}
@@ -29,6 +29,38 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     private ObservableMap<Grouping, ObservableList<Grouping>> domains;  // hashmap of domains and list of groupings corresponding to that domain
     private final ObservableList<Grouping> sortedDomains;
 
+    // connections bucketed by the domains of their row and column items so that the connections between two domains
+    // can be found without scanning every connection. Connections with an item that has no domain are not bucketed
+    private final HashMap<Long, Set<DSMConnection>> domainBlocks = new HashMap<>();  // (row domain uid, col domain uid) -> connections
+    private final IdentityHashMap<DSMConnection, BlockEntry> connectionBlocks = new IdentityHashMap<>();  // connection -> where it is counted
+
+    // collapsed (aggregate) matrices of the connection counts and weight sums between every pair of domains and every
+    // pair of domain groupings. Kept up to date with the blocks so reading a cell is O(1)
+    private final HashMap<Long, Aggregate> domainAggregates = new HashMap<>();
+    private final HashMap<GroupingBlock, Aggregate> groupingAggregates = new HashMap<>();
+
+    /**
+     * A cell of a grouping aggregate. Groupings are identified by their domain as well because the default groupings
+     * of all the domains share the same uid
+     */
+    private record GroupingBlock(int fromDomainUid, int fromGroupUid, int toDomainUid, int toGroupUid) {}
+
+    /**
+     * Where a bucketed connection is counted, and the weight it was counted with so it can be subtracted again
+     */
+    private record BlockEntry(long domainKey, GroupingBlock groupingKey, double weight) {}
+
+    /**
+     * The number of connections and the sum of their weights in a cell of an aggregate matrix
+     */
+    private static final class Aggregate {
+        private int numConnections = 0;
+        private double weightSum = 0.0;
+    }
+
+    // items are displayed by domain and then by sort index. Items that do not have a domain yet are put first
+    private static final Comparator<DSMItem> DOMAIN_ORDER = Comparator.comparing(DSMItem::getGroup2, Comparator.nullsFirst(Comparator.comparing(Grouping::getPriority).thenComparing(Grouping::getName))).thenComparing(DSMItem::getSortIndex);
+
 
 
     /**
@@ -70,6 +102,18 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     }
 
 
+    /**
+     * Orders the items by the priority and name of their domain and then by their sort index. The order is
+     * invalidated by the changes that modify domains because they are not change records
+     *
+     * @return  the comparator for the items of the matrix
+     */
+    @Override
+    protected Comparator<DSMItem> getItemComparator() {
+        return DOMAIN_ORDER;
+    }
+
+
 //region Constructors
     /**
      * Creates a new MultiDomainDSMData object. Creates no row or column items and metadata are empty strings.
@@ -128,17 +172,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     public MultiDomainDSMData createCopy() {
         MultiDomainDSMData copy = new MultiDomainDSMData();
 
-        for(DSMItem row : getRows()) {
-            copy.rows.add(new DSMItem(row));
-        }
-
-        for(DSMItem col : getCols()) {
-            copy.cols.add(new DSMItem(col));
-        }
-
-        for(DSMConnection conn : getConnections()) {
-            copy.connections.add(new DSMConnection(conn));
-        }
+        copyContentsInto(copy);
 
         copy.domains = FXCollections.observableHashMap();
         for(ObservableMap.Entry<Grouping, ObservableList<Grouping>> entry : domains.entrySet()) {
@@ -151,14 +185,6 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             copy.sortedDomains.add(newDomain);
         }
 
-        for(Map.Entry<String, List<DSMInterfaceType>> interfaceGroup : getInterfaceTypes().entrySet()) {
-            List<DSMInterfaceType> interfaces = new ArrayList<>();
-            for(DSMInterfaceType i : interfaceGroup.getValue()) {
-                interfaces.add(new DSMInterfaceType(i));
-            }
-            copy.interfaceTypes.put(interfaceGroup.getKey(), interfaces);
-        }
-
         copy.setTitle(getTitle());
         copy.setProjectName(getProjectName());
         copy.setCustomer(getCustomer());
@@ -233,6 +259,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     public void addDomain(Grouping domain) {
         if(domains.containsKey(domain)) return;
 
+        getUidAllocator().reserve(domain.getUid());
         domain.setPriority(getHighestDomainPriority() + 1);
 
         Grouping group = new Grouping(DEFAULT_GROUP_UID, Grouping.DEFAULT_PRIORITY, "default", Color.WHITE, Grouping.DEFAULT_FONT_COLOR);
@@ -261,6 +288,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     public void addDomainGrouping(Grouping domain, Grouping group) {
         if(domains.get(domain).contains(group)) return;
 
+        getUidAllocator().reserve(group.getUid());
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     domains.get(domain).add(group);
@@ -516,6 +544,11 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
      * @param newColor  the new color of the grouping
      */
     public void updateGroupingColor(Grouping grouping, Color newColor) {
+        if(!domains.containsKey(grouping)) {  // domain-groupings do not affect the order of anything so use a record
+            addChangeToStack(new RecolorGrouping(recordGrouping(grouping), false, grouping.getColor(), newColor));
+            return;
+        }
+
         Color oldColor = grouping.getColor();
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
@@ -543,16 +576,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
      * @param newColor  the new color of the grouping
      */
     public void updateGroupingFontColor(Grouping grouping, Color newColor) {
-        Color oldColor = grouping.getFontColor();
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    grouping.setFontColor(newColor);
-                },
-                () -> {  // undo function
-                    grouping.setFontColor(oldColor);
-                },
-                false
-        ));
+        addChangeToStack(new RecolorGrouping(recordGrouping(grouping), true, grouping.getFontColor(), newColor));
     }
 
 
@@ -580,15 +604,15 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                     if (addedNewGroup) {
                         domains.get(domain).add(newGroup);
                     }
-                    item.setGroup1(newGroup);
-                    aliasedItem.setGroup1(newGroup);
+                    regroupItem(item, newGroup);
+                    regroupItem(aliasedItem, newGroup);
                 },
                 () -> {  // undo function
                     if (addedNewGroup) {
                         domains.get(domain).remove(newGroup);
                     }
-                    item.setGroup1(oldGroup);
-                    aliasedItem.setGroup1(oldGroup);
+                    regroupItem(item, oldGroup);
+                    regroupItem(aliasedItem, oldGroup);
                 },
                 false
         ));
@@ -624,8 +648,8 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     public void createItem(String name, Grouping domain) {
         double index = (int)getMaxSortIndex(domain) + 1;  // cast to int to remove the decimal place so that the index will be a whole number
 
-        DSMItem rowItem = new DSMItem(index, name);
-        DSMItem colItem = new DSMItem(index, name);
+        DSMItem rowItem = new DSMItem(getUidAllocator().next(), null, index, name, null, null);
+        DSMItem colItem = new DSMItem(getUidAllocator().next(), null, index, name, null, null);
 
         // configure domain and group
         if(!domains.containsKey(domain)) {  // add the domain if it does not exist already
@@ -664,7 +688,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
      */
     @Override
     public void deleteItem(DSMItem item) {
-        boolean isRow = rows.contains(item);  // check if the item was a row in case it needs to be added again
+        boolean isRow = isRow(item.getUid());  // check if the item was a row in case it needs to be added again
         DSMItem aliasedItem = getItemByAlias(item.getUid());
 
         addChangeToStack(new MatrixChange(
@@ -674,16 +698,35 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                 },
                 () -> {  // undo function
                     if (isRow) {
-                        this.rows.add(item);
-                        this.cols.add(aliasedItem);
+                        insertItem(item, true);
+                        insertItem(aliasedItem, false);
                     } else {
-                        this.rows.add(aliasedItem);
-                        this.cols.add(item);
+                        insertItem(aliasedItem, true);
+                        insertItem(item, false);
                     }
                 },
                 false
         ));
     }
+
+
+    /**
+     * Returns the item and its aliased item because symmetric items are always deleted in pairs
+     *
+     * @param item  the item being deleted
+     * @return      the item and its aliased item, or only the item if it has no aliased item
+     */
+    @Override
+    protected List<DSMItem> getItemsDeletedWith(DSMItem item) {
+        DSMItem aliasedItem = getRowByAlias(item.getUid());  // getItemByAlias throws when there is no aliased item
+        if(aliasedItem == null) {
+            aliasedItem = getColByAlias(item.getUid());
+        }
+        if(aliasedItem == null) {
+            return List.of(item);
+        }
+        return List.of(item, aliasedItem);
+    }
 //endregion
 
 
@@ -698,21 +741,11 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     @Override
     public void setItemName(DSMItem item, String newName) {
         DSMItem aliasedItem = getItemByAlias(item.getUid());
-        String oldName = item.getName().getValue();
+        String oldName = item.getNameValue();
 
-        assert oldName.equals(aliasedItem.getName().getValue()) : "Symmetric item names were not the same";
+        assert oldName.equals(aliasedItem.getNameValue()) : "Symmetric item names were not the same";
 
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    item.setName(newName);
-                    aliasedItem.setName(newName);
-                },
-                () -> {  // undo function
-                    item.setName(oldName);
-                    aliasedItem.setName(oldName);
-                },
-                false
-        ));
+        addChangeToStack(new RenameItem(item.getUid(), true, oldName, newName));
     }
 
 
@@ -730,17 +763,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
         assert oldIndex == aliasedItem.getSortIndex() : "Symmetric item sort indices were not the same";
 
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    item.setSortIndex(newIndex);
-                    aliasedItem.setSortIndex(newIndex);
-                },
-                () -> {  // undo function
-                    item.setSortIndex(oldIndex);
-                    aliasedItem.setSortIndex(oldIndex);
-                },
-                false
-        ));
+        addChangeToStack(new MoveItem(item.getUid(), true, oldIndex, newIndex));
     }
 //endregion
 
@@ -760,8 +783,281 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
         // add assertion in this override
         assert getItem(rowUid).getUid() != getItem(colUid).getAliasUid();  // corresponds to where row and column are same and thus connection cannot be made
 
-        DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces);
-        connections.add(connection);
+        DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces, getInterfaceTable());
+        insertConnection(connection);
+    }
+
+
+    /**
+     * Returns the connections whose row item is in one domain and whose column item is in another (or the same)
+     * domain. Runs in time proportional to the number of connections returned
+     *
+     * @param fromDomain  the domain of the row items
+     * @param toDomain    the domain of the column items
+     * @return            a new list of the connections in that block of the matrix
+     */
+    public final List<DSMConnection> getDomainConnections(Grouping fromDomain, Grouping toDomain) {
+        Set<DSMConnection> block = domainBlocks.get(domainBlockKey(fromDomain, toDomain));
+        return block == null ? new ArrayList<>() : new ArrayList<>(block);
+    }
+
+
+    /**
+     * @param fromDomain  the domain of the row items
+     * @param toDomain    the domain of the column items
+     * @return            the number of connections from the row items of one domain to the column items of another
+     */
+    public final int getDomainConnectionCount(Grouping fromDomain, Grouping toDomain) {
+        Aggregate aggregate = domainAggregates.get(domainBlockKey(fromDomain, toDomain));
+        return aggregate == null ? 0 : aggregate.numConnections;
+    }
+
+
+    /**
+     * @param fromDomain  the domain of the row items
+     * @param toDomain    the domain of the column items
+     * @return            the sum of the weights of the connections from one domain to another
+     */
+    public final double getDomainWeightSum(Grouping fromDomain, Grouping toDomain) {
+        Aggregate aggregate = domainAggregates.get(domainBlockKey(fromDomain, toDomain));
+        return aggregate == null ? 0.0 : aggregate.weightSum;
+    }
+
+
+    /**
+     * @param fromDomain  the domain of the row items
+     * @param fromGroup   the grouping of the row items in fromDomain
+     * @param toDomain    the domain of the column items
+     * @param toGroup     the grouping of the column items in toDomain
+     * @return            the number of connections from the row items of one domain grouping to the column items of
+     *                    another
+     */
+    public final int getGroupingConnectionCount(Grouping fromDomain, Grouping fromGroup, Grouping toDomain, Grouping toGroup) {
+        Aggregate aggregate = groupingAggregates.get(new GroupingBlock(fromDomain.getUid(), fromGroup.getUid(), toDomain.getUid(), toGroup.getUid()));
+        return aggregate == null ? 0 : aggregate.numConnections;
+    }
+
+
+    /**
+     * @param fromDomain  the domain of the row items
+     * @param fromGroup   the grouping of the row items in fromDomain
+     * @param toDomain    the domain of the column items
+     * @param toGroup     the grouping of the column items in toDomain
+     * @return            the sum of the weights of the connections from one domain grouping to another
+     */
+    public final double getGroupingWeightSum(Grouping fromDomain, Grouping fromGroup, Grouping toDomain, Grouping toGroup) {
+        Aggregate aggregate = groupingAggregates.get(new GroupingBlock(fromDomain.getUid(), fromGroup.getUid(), toDomain.getUid(), toGroup.getUid()));
+        return aggregate == null ? 0.0 : aggregate.weightSum;
+    }
+
+
+    /**
+     * Sets the domain of an item that is already in the matrix and moves its connections to the block of the new
+     * domain. This change is not added to the stack and should only be used when building a matrix (ex. when reading
+     * a file) because item domains can not be changed otherwise
+     *
+     * @param item    the item to change the domain of
+     * @param domain  the new domain of the item
+     */
+    public final void setItemDomain(DSMItem item, Grouping domain) {
+        item.setGroup2(domain);
+        invalidateItemOrder();  // items are ordered by domain
+        bucketItemConnections(item.getUid());
+    }
+
+
+    /**
+     * @param fromDomain  the domain of the row items
+     * @param toDomain    the domain of the column items
+     * @return            the key of the block in domainBlocks
+     */
+    private static long domainBlockKey(Grouping fromDomain, Grouping toDomain) {
+        return connectionKey(fromDomain.getUid(), toDomain.getUid());
+    }
+
+
+    /**
+     * Puts a connection in the block of the domains of its items and counts it in the aggregates, removing it from
+     * the block it was in before. Connections with an item that has no grouping are only counted in the domain
+     * aggregate
+     *
+     * @param connection  the connection to bucket
+     */
+    private void bucketConnection(DSMConnection connection) {
+        unbucketConnection(connection);
+        DSMItem rowItem = isRow(connection.getRowUid()) ? getItem(connection.getRowUid()) : null;
+        DSMItem colItem = isCol(connection.getColUid()) ? getItem(connection.getColUid()) : null;
+        if(rowItem == null || colItem == null || rowItem.getGroup2() == null || colItem.getGroup2() == null) {  // bucketed once both items have a domain
+            return;
+        }
+
+        Grouping rowDomain = rowItem.getGroup2();
+        Grouping colDomain = colItem.getGroup2();
+        long key = domainBlockKey(rowDomain, colDomain);
+        GroupingBlock groupingKey = null;
+        if(rowItem.getGroup1() != null && colItem.getGroup1() != null) {
+            groupingKey = new GroupingBlock(rowDomain.getUid(), rowItem.getGroup1().getUid(), colDomain.getUid(), colItem.getGroup1().getUid());
+        }
+        BlockEntry entry = new BlockEntry(key, groupingKey, connection.getWeight());
+
+        domainBlocks.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(connection);
+        connectionBlocks.put(connection, entry);
+        addToAggregates(entry, 1);
+    }
+
+
+    /**
+     * Removes a connection from the block it is in and from the aggregates, if it is in one
+     *
+     * @param connection  the connection to remove
+     */
+    private void unbucketConnection(DSMConnection connection) {
+        BlockEntry entry = connectionBlocks.remove(connection);
+        if(entry == null) {
+            return;
+        }
+        Set<DSMConnection> block = domainBlocks.get(entry.domainKey());
+        block.remove(connection);
+        if(block.isEmpty()) {
+            domainBlocks.remove(entry.domainKey());
+        }
+        addToAggregates(entry, -1);
+    }
+
+
+    /**
+     * Adds or subtracts a bucketed connection from the cells of the aggregates it is counted in
+     *
+     * @param entry  where the connection is counted and its weight
+     * @param delta  1 to add the connection or -1 to remove it
+     */
+    private void addToAggregates(BlockEntry entry, int delta) {
+        addToAggregate(domainAggregates, entry.domainKey(), entry.weight(), delta);
+        if(entry.groupingKey() != null) {
+            addToAggregate(groupingAggregates, entry.groupingKey(), entry.weight(), delta);
+        }
+    }
+
+
+    /**
+     * Adds or subtracts a connection from one cell of an aggregate. Cells are removed when they have no connections
+     * left so rounding errors in the weight sums do not build up
+     *
+     * @param aggregates  the aggregate to modify
+     * @param key         the cell of the aggregate
+     * @param weight      the weight of the connection
+     * @param delta       1 to add the connection or -1 to remove it
+     * @param <K>         the type of the key of the cells
+     */
+    private static <K> void addToAggregate(HashMap<K, Aggregate> aggregates, K key, double weight, int delta) {
+        Aggregate aggregate = aggregates.computeIfAbsent(key, k -> new Aggregate());
+        aggregate.numConnections += delta;
+        aggregate.weightSum += delta * weight;
+        if(aggregate.numConnections <= 0) {
+            aggregates.remove(key);
+        }
+    }
+
+
+    /**
+     * @param connection  the connection to check
+     * @param fromDomain  the domain of the row items
+     * @param toDomain    the domain of the column items
+     * @return            if the connection is in the block of the two domains
+     */
+    private boolean isInDomainBlock(DSMConnection connection, Grouping fromDomain, Grouping toDomain) {
+        BlockEntry entry = connectionBlocks.get(connection);
+        return entry != null && entry.domainKey() == domainBlockKey(fromDomain, toDomain);
+    }
+
+
+    /**
+     * Puts all the connections of an item in the blocks of their domains. Used when the domain or grouping of the item
+     * changes
+     *
+     * @param uid  the uid of the item
+     */
+    private void bucketItemConnections(int uid) {
+        for(DSMConnection connection : getRowConnections(uid)) {
+            bucketConnection(connection);
+        }
+        for(DSMConnection connection : getColConnections(uid)) {
+            bucketConnection(connection);
+        }
+    }
+
+
+    /**
+     * Puts the connections of a newly indexed item in the blocks of their domains
+     *
+     * @param item  the item that was added
+     */
+    @Override
+    protected void itemIndexed(DSMItem item) {
+        bucketItemConnections(item.getUid());
+    }
+
+
+    /**
+     * Puts a new connection in the block of its domains
+     *
+     * @param connection  the connection that was added
+     */
+    @Override
+    protected void connectionIndexed(DSMConnection connection) {
+        bucketConnection(connection);
+    }
+
+
+    /**
+     * Removes a connection from the block of its domains
+     *
+     * @param connection  the connection that was removed
+     */
+    @Override
+    protected void connectionUnindexed(DSMConnection connection) {
+        unbucketConnection(connection);
+    }
+
+
+    /**
+     * Updates the weight sums of the aggregates a connection is counted in if its weight changed
+     *
+     * @param connection  the connection that was modified
+     */
+    @Override
+    protected void connectionModified(DSMConnection connection) {
+        BlockEntry entry = connectionBlocks.get(connection);
+        if(entry == null || Double.compare(entry.weight(), connection.getWeight()) == 0) {
+            return;
+        }
+        BlockEntry newEntry = new BlockEntry(entry.domainKey(), entry.groupingKey(), connection.getWeight());
+        addToAggregates(entry, -1);
+        addToAggregates(newEntry, 1);
+        connectionBlocks.put(connection, newEntry);
+    }
+
+
+    /**
+     * Moves the connections of a regrouped item to the grouping aggregate cells of its new grouping
+     *
+     * @param item  the item that was regrouped
+     */
+    @Override
+    protected void itemRegrouped(DSMItem item) {
+        bucketItemConnections(item.getUid());
+    }
+
+
+    /**
+     * Clears the blocks because every connection is about to be indexed again
+     */
+    @Override
+    protected void connectionIndexCleared() {
+        domainBlocks.clear();
+        connectionBlocks.clear();
+        domainAggregates.clear();
+        groupingAggregates.clear();
     }
 
 
@@ -783,23 +1079,28 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
     /**
      * Sorts the current matrix rows and columns by sort index and modifies all the sort Indices
-     * such that they are now 1 to n. Used to make the sort Indices "clean" numbers. Puts multiple changes on the
+     * such that they are now 1 to n. Used to make the sort Indices "clean" numbers. Puts a single change on the
      * stack but does not set any checkpoint. Re-distributes by domain so count resets once the domain changes
      */
     @Override
     public void reDistributeSortIndices() {
-        // go domain by domain sorting the rows
-        for(Grouping domain : domains.keySet()) {
-            ArrayList<DSMItem> domainRows = new ArrayList<>(rows.stream().filter(r -> r.getGroup2().equals(domain)).toList());
-            ArrayList<DSMItem> domainCols = new ArrayList<>(cols.stream().filter(c -> c.getGroup2().equals(domain)).toList());
-            domainRows.sort(Comparator.comparing(DSMItem::getSortIndex));
-            domainCols.sort(Comparator.comparing(DSMItem::getSortIndex));
-            for(int i=0; i<domainRows.size(); i++) {  // reset row sort Indices 1 -> n
-                setItemSortIndex(domainRows.get(i), i + 1);
-            }
-            for(int i=0; i<domainCols.size(); i++) {  // reset col sort Indices 1 -> n
-                setItemSortIndex(domainCols.get(i), i + 1);
+        beginBatch(true);
+        try {
+            // go domain by domain sorting the rows
+            for(Grouping domain : domains.keySet()) {
+                ArrayList<DSMItem> domainRows = new ArrayList<>(rows.stream().filter(r -> r.getGroup2().equals(domain)).toList());
+                ArrayList<DSMItem> domainCols = new ArrayList<>(cols.stream().filter(c -> c.getGroup2().equals(domain)).toList());
+                domainRows.sort(Comparator.comparing(DSMItem::getSortIndex));
+                domainCols.sort(Comparator.comparing(DSMItem::getSortIndex));
+                for(int i=0; i<domainRows.size(); i++) {  // reset row sort Indices 1 -> n
+                    setItemSortIndex(domainRows.get(i), i + 1);
+                }
+                for(int i=0; i<domainCols.size(); i++) {  // reset col sort Indices 1 -> n
+                    setItemSortIndex(domainCols.get(i), i + 1);
+                }
             }
+        } finally {
+            endBatch();
         }
     }
 
@@ -814,21 +1115,41 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
      */
     public Pair<Integer, Integer> getSymmetricConnectionUids(int rowUid, int colUid) {
         Integer newRowUid = getItem(colUid).getAliasUid();
-        Integer newColUid = null;
-        for(DSMItem item : getCols()) {
-            if(item.getAliasUid() != null && item.getAliasUid() == rowUid) {
-                newColUid = item.getUid();
-                break;
-            }
-        }
+        DSMItem newCol = getColByAlias(rowUid);  // alias index is kept in sync with the columns so no need to search
 
-        if(newColUid != null && newRowUid != null) {
-            return new Pair<>(newRowUid, newColUid);
+        if(newCol != null && newRowUid != null) {
+            return new Pair<>(newRowUid, newCol.getUid());
         }
         return null;
     }
 
 
+    /**
+     * Finds all the cells that do not match their symmetric cell. A cell is a symmetry error if only one of it and its
+     * symmetric cell has a connection or if both have a connection but the connections are not the same type. Only
+     * the connections are visited so this runs in time proportional to the number of connections
+     *
+     * @return  set of (row uid, column uid) pairs of every cell that is a symmetry error
+     */
+    public Set<Pair<Integer, Integer>> getSymmetryErrors() {
+        Set<Pair<Integer, Integer>> errors = new HashSet<>();
+        for(DSMConnection conn : getConnections()) {
+            Pair<Integer, Integer> symmetricUids = getSymmetricConnectionUids(conn.getRowUid(), conn.getColUid());
+            if(symmetricUids == null) {
+                continue;
+            }
+
+            DSMConnection symmetricConn = getConnection(symmetricUids.getKey(), symmetricUids.getValue());
+            if(symmetricConn == null || !conn.isSameConnectionType(symmetricConn)) {
+                errors.add(new Pair<>(conn.getRowUid(), conn.getColUid()));
+                errors.add(symmetricUids);
+            }
+        }
+
+        return errors;
+    }
+
+
     /**
      * Returns the symmetric connection of a given pair of uids
      *
@@ -843,69 +1164,67 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
 
 
     /**
-     * Creates a 2d ArrayList of the matrix so that it can be displayed. Each cell in the grid is made
-     * up of a RenderMode, which is the key, and an Object that is different based on the key.
+     * Returns the layout of the matrix for displaying or exporting it. There are two header rows (column names and
+     * row labels) and four header columns (domain, grouping, name, and sort index of the rows). The domain of the
+     * first row of each domain spans all the rows in that domain. Connections from an item to itself can not be edited
      *
-     * @return 2d ArrayList of matrix
+     * @return  the grid model of the matrix
      */
-    public ArrayList<ArrayList<Pair<RenderMode, Object>>> getGridArray() {
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> grid = new ArrayList<>();
-
-        // sort row and columns by domain and then by sort index
-        rows.sort(Comparator.comparing((DSMItem item) -> item.getGroup2().getPriority()).thenComparing((DSMItem item) -> item.getGroup2().getName()).thenComparing(DSMItem::getSortIndex));
-        cols.sort(Comparator.comparing((DSMItem item) -> item.getGroup2().getPriority()).thenComparing((DSMItem item) -> item.getGroup2().getName()).thenComparing(DSMItem::getSortIndex));
-
-        // create header row
-        ArrayList<Pair<RenderMode, Object>> row0 = new ArrayList<>();
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, "Column Items"));
-        for(DSMItem c : cols) {
-            row0.add(new Pair<>(RenderMode.ITEM_NAME_V, c));
-        }
-        grid.add(row0);
-
-        // create third header row
-        ArrayList<Pair<RenderMode, Object>> row1 = new ArrayList<>();
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Domain"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Grouping"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Row Items"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Re-Sort Index"));
-        for(DSMItem ignored : cols) {
-            row1.add(new Pair<>(RenderMode.PLAIN_TEXT, ""));
-        }
-        grid.add(row1);
-
-        // create rows
-        boolean firstItemInDomain;
-        Grouping previousItemDomain = null;
-        for(DSMItem r : rows) {
-            ArrayList<Pair<RenderMode, Object>> row = new ArrayList<>();
-            // if domain switched then this is the first item in the domain
-            firstItemInDomain = !r.getGroup2().equals(previousItemDomain);
-
-            if(firstItemInDomain) {
-                int numItemsInDomain = (int) rows.stream().filter(item -> item.getGroup2().equals(r.getGroup2())).count();
-                row.add(new Pair<>(RenderMode.MULTI_SPAN_DOMAIN_TEXT, new Triplet<>(r.getGroup2(), numItemsInDomain, 1)));  // text, row span, col span
-            } else {
-                row.add(new Pair<>(RenderMode.MULTI_SPAN_NULL, null));
+    @Override
+    public GridModel getGridModel() {
+        return new ItemGridModel(2, 4) {
+            /**
+             * @param r  the grid row of a matrix row
+             * @return   if the row is the first row of its domain
+             */
+            private boolean isFirstInDomain(int r) {
+                return r == numHeaderRows || !getRowItem(r).getGroup2().equals(getRowItem(r - 1).getGroup2());
             }
-            row.add(new Pair<>(RenderMode.GROUPING_ITEM, r));
-            row.add(new Pair<>(RenderMode.ITEM_NAME, r));
-            row.add(new Pair<>(RenderMode.INDEX_ITEM, r));
-            for(DSMItem c : cols) {  // create connection items for all columns
-                if(c.getAliasUid() == r.getUid()) {  // can't have connection to itself in a symmetrical matrix
-                    row.add(new Pair<>(RenderMode.UNEDITABLE_CONNECTION, null));
-                } else {
-                    row.add(new Pair<>(RenderMode.EDITABLE_CONNECTION, new Pair<>(r, c)));
+
+            @Override
+            public RenderMode renderModeAt(int r, int c) {
+                if(r == 0) {
+                    return c < numHeaderCols ? RenderMode.PLAIN_TEXT_V : RenderMode.ITEM_NAME_V;
+                } else if(r == 1) {
+                    return RenderMode.PLAIN_TEXT;
                 }
+                return switch(c) {
+                    case 0 -> isFirstInDomain(r) ? RenderMode.MULTI_SPAN_DOMAIN_TEXT : RenderMode.MULTI_SPAN_NULL;
+                    case 1 -> RenderMode.GROUPING_ITEM;
+                    case 2 -> RenderMode.ITEM_NAME;
+                    case 3 -> RenderMode.INDEX_ITEM;
+                    default -> isAliasCell(r, c) ? RenderMode.UNEDITABLE_CONNECTION : RenderMode.EDITABLE_CONNECTION;  // can't have connection to itself in a symmetrical matrix
+                };
             }
-            grid.add(row);
-            previousItemDomain = r.getGroup2();
-        }
 
-        return grid;
+            @Override
+            public Object valueAt(int r, int c) {
+                if(r == 0) {
+                    return c < numHeaderCols ? (c == 3 ? "Column Items" : "") : getColItem(c);
+                } else if(r == 1) {
+                    return switch(c) {
+                        case 0 -> "Domain";
+                        case 1 -> "Grouping";
+                        case 2 -> "Row Items";
+                        case 3 -> "Re-Sort Index";
+                        default -> "";
+                    };
+                } else if(c == 0) {
+                    if(!isFirstInDomain(r)) {
+                        return null;
+                    }
+                    Grouping domain = getRowItem(r).getGroup2();
+                    int numItemsInDomain = 1;  // rows are sorted by domain so the rest of the domain follows this row
+                    while(r + numItemsInDomain < getNumRows() && getRowItem(r + numItemsInDomain).getGroup2().equals(domain)) {
+                        numItemsInDomain += 1;
+                    }
+                    return new Triplet<>(domain, numItemsInDomain, 1);  // text, row span, col span
+                } else if(c < numHeaderCols) {
+                    return getRowItem(r);
+                }
+                return isAliasCell(r, c) ? null : connectionAt(r, c);
+            }
+        };
     }
 
 
@@ -947,32 +1266,23 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             // merge in the dsm items
             List<DSMItem> rowsToDelete = new ArrayList<>(rows.stream().filter(o -> o.getGroup2().equals(fromGroup)).toList());
             for(DSMItem importedRow : importMatrix.getRows()) {
-                if(rows.stream().anyMatch(r -> r.getUid() == importedRow.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
+                if(isRow(importedRow.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
                     DSMItem rowItem = getItem(importedRow.getUid());
                     DSMItem colItem = getItemByAlias(importedRow.getUid());
 
                     // update the item fields
-                    setItemName(rowItem, importedRow.getName().getValue());
+                    setItemName(rowItem, importedRow.getNameValue());
                     setItemSortIndex(rowItem, importedRow.getSortIndex());
                     setItemDomainGroup(rowItem, fromGroup, importedRow.getGroup1());
-                    setItemName(colItem, importedRow.getName().getValue());
+                    setItemName(colItem, importedRow.getNameValue());
                     setItemSortIndex(colItem, importedRow.getSortIndex());
                     setItemDomainGroup(colItem, fromGroup, importedRow.getGroup1());
 
 
                     // clear connections in this domain and this row
                     ArrayList<DSMConnection> domainConnections = new ArrayList<>();
-                    for(DSMConnection conn : getConnections()) {
-                        DSMItem connRowItem;
-                        DSMItem connColItem;
-                        try {
-                            connRowItem = getItem(conn.getRowUid());
-                            connColItem = getItem(conn.getColUid());
-                        } catch (NoSuchElementException e) {
-                            continue;
-                        }
-
-                        if(connRowItem.getUid() == rowItem.getUid() && connRowItem.getGroup2().equals(fromGroup) && connColItem.getGroup2().equals(toGroup)) {
+                    for(DSMConnection conn : getRowConnections(rowItem.getUid())) {
+                        if(isInDomainBlock(conn, fromGroup, toGroup)) {
                             domainConnections.add(conn);
                         }
                     }
@@ -1035,31 +1345,22 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             // merge in the row items
             List<DSMItem> rowsToDelete = new ArrayList<>(rows.stream().filter(o -> o.getGroup2().equals(fromGroup)).toList());
             for(DSMItem importedRow : importMatrix.getRows()) {
-                if(rows.stream().anyMatch(r -> r.getUid() == importedRow.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
+                if(isRow(importedRow.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
                     DSMItem rowItem = getItem(importedRow.getUid());
                     DSMItem colItem = getItemByAlias(importedRow.getUid());
 
                     // update the item fields
-                    setItemName(rowItem, importedRow.getName().getValue());
+                    setItemName(rowItem, importedRow.getNameValue());
                     setItemSortIndex(rowItem, importedRow.getSortIndex());
                     setItemDomainGroup(rowItem, fromGroup, importedRow.getGroup1());
-                    setItemName(colItem, importedRow.getName().getValue());
+                    setItemName(colItem, importedRow.getNameValue());
                     setItemSortIndex(colItem, importedRow.getSortIndex());
                     setItemDomainGroup(colItem, fromGroup, importedRow.getGroup1());
 
                     // clear connections in this domain and this row
                     ArrayList<DSMConnection> domainConnections = new ArrayList<>();
-                    for(DSMConnection conn : getConnections()) {
-                        DSMItem connRowItem;
-                        DSMItem connColItem;
-                        try {
-                            connRowItem = getItem(conn.getRowUid());
-                            connColItem = getItem(conn.getColUid());
-                        } catch (NoSuchElementException e) {
-                            continue;
-                        }
-
-                        if(connRowItem.getUid() == rowItem.getUid() && connRowItem.getGroup2().equals(fromGroup) && connColItem.getGroup2().equals(toGroup)) {
+                    for(DSMConnection conn : getRowConnections(rowItem.getUid())) {
+                        if(isInDomainBlock(conn, fromGroup, toGroup)) {
                             domainConnections.add(conn);
                         }
                     }
@@ -1078,7 +1379,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                     rowsToDelete.remove(rowItem);
 
                 } else {  // item is not contained so add it
-                    DSMItem col = new DSMItem();  // add a new column item because mdm is symmetric
+                    DSMItem col = new DSMItem(getUidAllocator().next(), null, 0.0, "", null, null);  // add a new column item because mdm is symmetric
                     col.copyProperties(importedRow);
                     col.setAliasUid(importedRow.getUid());
                     importedRow.setAliasUid(col.getUid());
@@ -1095,31 +1396,22 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             // merge in the column items
             List<DSMItem> colsToDelete = new ArrayList<>(cols.stream().filter(o -> o.getGroup2().equals(toGroup)).toList());
             for(DSMItem importedCol : importMatrix.getCols()) {
-                if(cols.stream().anyMatch(c -> c.getUid() == importedCol.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
+                if(isCol(importedCol.getUid())) {  // item is already contained so modify it and its connections by doing a copy replace
                     DSMItem rowItem = getItemByAlias(importedCol.getUid());
                     DSMItem colItem = getItem(importedCol.getUid());
 
                     // update the item fields
-                    setItemName(rowItem, importedCol.getName().getValue());
+                    setItemName(rowItem, importedCol.getNameValue());
                     setItemSortIndex(rowItem, importedCol.getSortIndex());
                     setItemDomainGroup(rowItem, toGroup, importedCol.getGroup1());
-                    setItemName(colItem, importedCol.getName().getValue());
+                    setItemName(colItem, importedCol.getNameValue());
                     setItemSortIndex(colItem, importedCol.getSortIndex());
                     setItemDomainGroup(colItem, toGroup, importedCol.getGroup1());
 
                     // clear connections in this domain and this column
                     ArrayList<DSMConnection> domainConnections = new ArrayList<>();
-                    for(DSMConnection conn : getConnections()) {
-                        DSMItem connRowItem;
-                        DSMItem connColItem;
-                        try {
-                            connRowItem = getItem(conn.getRowUid());
-                            connColItem = getItem(conn.getColUid());
-                        } catch (NoSuchElementException e) {
-                            continue;
-                        }
-
-                        if(connColItem.getUid() == colItem.getUid() && connRowItem.getGroup2().equals(fromGroup) && connColItem.getGroup2().equals(toGroup)) {
+                    for(DSMConnection conn : getColConnections(colItem.getUid())) {
+                        if(isInDomainBlock(conn, fromGroup, toGroup)) {
                             domainConnections.add(conn);
                         }
                     }
@@ -1138,7 +1430,7 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
                     colsToDelete.remove(colItem);
 
                 } else {  // item is not contained so add it
-                    DSMItem row = new DSMItem();  // add a new row item because mdm is symmetric
+                    DSMItem row = new DSMItem(getUidAllocator().next(), null, 0.0, "", null, null);  // add a new row item because mdm is symmetric
                     row.copyProperties(importedCol);
                     row.setAliasUid(importedCol.getUid());
                     importedCol.setAliasUid(row.getUid());
@@ -1162,6 +1454,74 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
     }
 
 
+    /**
+     * Applies the changes reported by a breakout view's change events in place. Connections, names, sort indices, and
+     * groupings of the items in the events are copied from the breakout view, so only the parts of the matrix that
+     * changed are touched. All the changes are put on the stack as a single change, but no checkpoint is set
+     *
+     * @param fromGroup  the "from" grouping item that defines where the breakout view is from
+     * @param toGroup    the "to" grouping item that defines where the breakout view is from
+     * @param matrix     the breakout view matrix
+     * @param events     the change events of the breakout view since it was last synced
+     * @return           if the changes were applied, false if nothing was changed and importZoom must be used
+     */
+    @Override
+    public boolean applyZoomChanges(Grouping fromGroup, Grouping toGroup, AbstractDSMData matrix, List<MatrixChangeEvent> events) {
+        for(MatrixChangeEvent event : events) {  // check everything first so that nothing is changed if a merge is needed
+            if(event.type() == MatrixChangeEvent.Type.STRUCTURE_CHANGED || event.type() == MatrixChangeEvent.Type.GROUPING_RECOLORED) {
+                return false;
+            }
+        }
+
+        beginBatch(true);
+        try {
+            for(MatrixChangeEvent event : events) {
+                switch(event.type()) {
+                    case CONNECTION_ADDED, CONNECTION_MODIFIED, CONNECTION_REMOVED -> {
+                        DSMConnection conn = matrix.getConnection(event.uid(), event.otherUid());
+                        if(conn != null) {
+                            modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
+                        } else if(getConnection(event.uid(), event.otherUid()) != null) {
+                            deleteConnection(event.uid(), event.otherUid());
+                        }
+                    }
+                    case ITEM_RENAMED -> {
+                        DSMItem item = getItem(event.uid());
+                        String name = matrix.getItem(event.uid()).getNameValue();
+                        if(!item.getNameValue().equals(name)) {  // the alias was already renamed with the item
+                            setItemName(item, name);
+                        }
+                    }
+                    case ITEM_MOVED -> {
+                        DSMItem item = getItem(event.uid());
+                        double index = matrix.getItem(event.uid()).getSortIndex();
+                        if(item.getSortIndex() != index) {
+                            setItemSortIndex(item, index);
+                        }
+                    }
+                    case ITEM_REGROUPED -> {
+                        DSMItem item = getItem(event.uid());
+                        Grouping group = matrix.getItem(event.uid()).getGroup1();
+                        if(!item.getGroup1().getUid().equals(group.getUid())) {
+                            Grouping domain = item.getGroup2();
+                            Grouping domainGroup = getDomainGroupings(domain).stream()
+                                    .filter(g -> g.getUid().equals(group.getUid()))
+                                    .findFirst()
+                                    .orElseGet(() -> new Grouping(group));  // grouping was created in the breakout view
+                            setItemDomainGroup(item, domain, domainGroup);
+                        }
+                    }
+                    default -> throw new IllegalStateException("Unexpected change event " + event);
+                }
+            }
+        } finally {
+            endBatch();
+        }
+
+        return true;
+    }
+
+
     /**
      * Takes a matrix and creates a breakout view from it
      *
@@ -1195,10 +1555,8 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             }
 
             // find the connections
-            for(DSMConnection conn : connections) {
-                if(exportMatrix.getRows().stream().anyMatch(r -> r.getUid() == conn.getRowUid()) && exportMatrix.getCols().stream().anyMatch(c -> c.getUid() == conn.getColUid())) {
-                    exportMatrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
-                }
+            for(DSMConnection conn : getDomainConnections(fromGroup, toGroup)) {
+                exportMatrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
             }
 
 
@@ -1231,10 +1589,8 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             }
 
             // find the connections
-            for(DSMConnection conn : connections) {
-                if(exportMatrix.getRows().stream().anyMatch(r -> r.getUid() == conn.getRowUid()) && exportMatrix.getCols().stream().anyMatch(c -> c.getUid() == conn.getColUid())) {
-                    exportMatrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
-                }
+            for(DSMConnection conn : getDomainConnections(fromGroup, toGroup)) {
+                exportMatrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), conn.getInterfaces());
             }
 
 
@@ -1270,14 +1626,11 @@ public class MultiDomainDSMData extends AbstractDSMData implements IZoomable, IP
             for(Integer uid : dependentConnections) {  // find dependent connections of each item from the previous level
 
                 // find connections with uid as the row item
-                for(DSMItem col : cols) {  // iterate over column items finding the ones that match the row
-                    DSMConnection conn = getConnection(uid, col.getUid());
-
+                for(DSMConnection conn : getRowConnections(uid)) {  // iterate over the connections in the row
                     // define exit conditions
-                    if(conn == null) continue;
                     if(conn.getWeight() < minWeight) continue;
 
-                    Integer resultEntryUid = col.getAliasUid();
+                    Integer resultEntryUid = getColItem(conn.getColUid()).getAliasUid();
 
                     results.get(currentLevel).putIfAbsent(resultEntryUid, 0.0);
 
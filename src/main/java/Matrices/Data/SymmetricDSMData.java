@@ -68,30 +68,12 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     public SymmetricDSMData createCopy() {
         SymmetricDSMData copy = new SymmetricDSMData();
 
-        for(DSMItem row : getRows()) {
-            copy.rows.add(new DSMItem(row));
-        }
-
-        for(DSMItem col : getCols()) {
-            copy.cols.add(new DSMItem(col));
-        }
-
-        for(DSMConnection conn : getConnections()) {
-            copy.connections.add(new DSMConnection(conn));
-        }
+        copyContentsInto(copy);
 
         for(Grouping group : getGroupings()) {
             copy.groupings.add(new Grouping(group));
         }
 
-        for(Map.Entry<String, List<DSMInterfaceType>> interfaceGroup : getInterfaceTypes().entrySet()) {
-            List<DSMInterfaceType> interfaces = new ArrayList<>();
-            for(DSMInterfaceType i : interfaceGroup.getValue()) {
-                interfaces.add(new DSMInterfaceType(i));
-            }
-            copy.interfaceTypes.put(interfaceGroup.getKey(), interfaces);
-        }
-
         copy.setTitle(getTitle());
         copy.setProjectName(getProjectName());
         copy.setCustomer(getCustomer());
@@ -128,6 +110,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     public void addGrouping(Grouping group) {
         if(groupings.contains(group)) return;
 
+        getUidAllocator().reserve(group.getUid());
         addChangeToStack(new MatrixChange(
                 () -> {  // do function
                     groupings.add(group);
@@ -245,16 +228,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
      * @param newColor  the new color of the grouping
      */
     public void updateGroupingColor(Grouping grouping, Color newColor) {
-        Color oldColor = grouping.getColor();
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    grouping.setColor(newColor);
-                },
-                () -> {  // undo function
-                    grouping.setColor(oldColor);
-                },
-                false
-        ));
+        addChangeToStack(new RecolorGrouping(recordGrouping(grouping), false, grouping.getColor(), newColor));
     }
 
 
@@ -265,16 +239,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
      * @param newColor  the new color of the grouping
      */
     public void updateGroupingFontColor(Grouping grouping, Color newColor) {
-        Color oldColor = grouping.getFontColor();
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    grouping.setFontColor(newColor);
-                },
-                () -> {  // undo function
-                    grouping.setFontColor(oldColor);
-                },
-                false
-        ));
+        addChangeToStack(new RecolorGrouping(recordGrouping(grouping), true, grouping.getFontColor(), newColor));
     }
 
 
@@ -290,23 +255,8 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
         Grouping oldGroup = item.getGroup1();
         assert oldGroup.getUid().equals(aliasedItem.getGroup1().getUid()) : "Symmetric item groupings were not the same";
 
-        boolean addNewGroup = !groupings.contains(newGroup);
-
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    item.setGroup1(newGroup);
-                    if (addNewGroup) {  // no need to undo because this puts another change on the stack
-                        addGrouping(newGroup);
-                    }
-                    item.setGroup1(newGroup);
-                    aliasedItem.setGroup1(newGroup);
-                },
-                () -> {  // undo function
-                    item.setGroup1(oldGroup);
-                    aliasedItem.setGroup1(oldGroup);
-                },
-                false
-        ));
+        addGrouping(newGroup);  // puts its own change on the stack if the group is new
+        addChangeToStack(new SetGroup(item.getUid(), true, recordGrouping(oldGroup), recordGrouping(newGroup)));
     }
 
 
@@ -325,12 +275,10 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     public void createItem(String name, boolean isRow) {
         double index = (int)getRowMaxSortIndex() + 1;  // cast to int to remove the decimal place so that the index will be a whole number
 
-        DSMItem rowItem = new DSMItem(index, name);
-        DSMItem colItem = new DSMItem(index, name);
-        rowItem.setGroup1(getDefaultGroup());
-        colItem.setGroup1(getDefaultGroup());
-        colItem.setAliasUid(rowItem.getUid());
-        rowItem.setAliasUid(colItem.getUid());
+        int rowUid = getUidAllocator().next();
+        int colUid = getUidAllocator().next();
+        DSMItem rowItem = new DSMItem(rowUid, colUid, index, name, getDefaultGroup(), null);
+        DSMItem colItem = new DSMItem(colUid, rowUid, index, name, getDefaultGroup(), null);
 
         addItem(rowItem, true);
         addItem(colItem, false);
@@ -344,7 +292,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
      */
     @Override
     public void deleteItem(DSMItem item) {
-        boolean isRow = rows.contains(item);  // check if the item was a row in case it needs to be added again
+        boolean isRow = isRow(item.getUid());  // check if the item was a row in case it needs to be added again
         DSMItem aliasedItem = getItemByAlias(item.getUid());
 
         addChangeToStack(new MatrixChange(
@@ -354,16 +302,35 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
                 },
                 () -> {  // undo function
                     if (isRow) {
-                        this.rows.add(item);
-                        this.cols.add(aliasedItem);
+                        insertItem(item, true);
+                        insertItem(aliasedItem, false);
                     } else {
-                        this.rows.add(aliasedItem);
-                        this.cols.add(item);
+                        insertItem(aliasedItem, true);
+                        insertItem(item, false);
                     }
                 },
                 false
         ));
     }
+
+
+    /**
+     * Returns the item and its aliased item because symmetric items are always deleted in pairs
+     *
+     * @param item  the item being deleted
+     * @return      the item and its aliased item, or only the item if it has no aliased item
+     */
+    @Override
+    protected List<DSMItem> getItemsDeletedWith(DSMItem item) {
+        DSMItem aliasedItem = getRowByAlias(item.getUid());  // getItemByAlias throws when there is no aliased item
+        if(aliasedItem == null) {
+            aliasedItem = getColByAlias(item.getUid());
+        }
+        if(aliasedItem == null) {
+            return List.of(item);
+        }
+        return List.of(item, aliasedItem);
+    }
 //endregion
 
 
@@ -378,21 +345,11 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
     @Override
     public void setItemName(DSMItem item, String newName) {
         DSMItem aliasedItem = getItemByAlias(item.getUid());
-        String oldName = item.getName().getValue();
+        String oldName = item.getNameValue();
 
-        assert oldName.equals(aliasedItem.getName().getValue()) : "Symmetric item names were not the same";
+        assert oldName.equals(aliasedItem.getNameValue()) : "Symmetric item names were not the same";
 
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    item.setName(newName);
-                    aliasedItem.setName(newName);
-                },
-                () -> {  // undo function
-                    item.setName(oldName);
-                    aliasedItem.setName(oldName);
-                },
-                false
-        ));
+        addChangeToStack(new RenameItem(item.getUid(), true, oldName, newName));
     }
 
 
@@ -410,17 +367,7 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
 
         assert oldIndex == aliasedItem.getSortIndex() : "Symmetric item sort indices were not the same";
 
-        addChangeToStack(new MatrixChange(
-                () -> {  // do function
-                    item.setSortIndex(newIndex);
-                    aliasedItem.setSortIndex(newIndex);
-                },
-                () -> {  // undo function
-                    item.setSortIndex(oldIndex);
-                    aliasedItem.setSortIndex(oldIndex);
-                },
-                false
-        ));
+        addChangeToStack(new MoveItem(item.getUid(), true, oldIndex, newIndex));
     }
 //endregion
 
@@ -440,8 +387,8 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
         // add assertion in this override
         assert getItem(rowUid).getUid() != getItem(colUid).getAliasUid();  // corresponds to where row and column are same and thus connection cannot be made
 
-        DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces);
-        connections.add(connection);
+        DSMConnection connection = new DSMConnection(connectionName, weight, rowUid, colUid, interfaces, getInterfaceTable());
+        insertConnection(connection);
     }
 
 
@@ -464,31 +411,34 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
 
     /**
      * Sorts the matrix rows and columns by their group and then their current sort index, then distributes new sort
-     * Indices 1 to n. Used to make the sort Indices "clean" numbers and make the groups line up. Puts multiple changes on the
+     * Indices 1 to n. Used to make the sort Indices "clean" numbers and make the groups line up. Puts a single change on the
      * stack but does not set any checkpoint.
      */
     public void reDistributeSortIndicesByGroup() {
-        rows.sort(Comparator.comparing((DSMItem item) -> item.getGroup1().getName()).thenComparing((DSMItem item) -> item.getName().getValue()));
+        List<DSMItem> newRows = new ArrayList<>(rows);  // sort copies because the rows and columns are kept sorted by sort index
+        newRows.sort(Comparator.comparing((DSMItem item) -> item.getGroup1().getName()).thenComparing((DSMItem item) -> item.getNameValue()));
         List<DSMItem> newCols = new ArrayList<>();
 
-        for(DSMItem row : rows) {  // sort the new columns according to the rows (this does not need to be on the change stack because
+        for(DSMItem row : newRows) {  // sort the new columns according to the rows (this does not need to be on the change stack because
                                    // only the index numbers are what matters to the change stack
-            for(DSMItem col : cols) {
-                if(col.getAliasUid() == row.getUid()) {
-                    assert col.getGroup1().getUid().equals(row.getGroup1().getUid()) : "Groups were not the same when redistributing sort indices";
+            DSMItem col = getColByAlias(row.getUid());
+            if(col != null) {
+                assert col.getGroup1().getUid().equals(row.getGroup1().getUid()) : "Groups were not the same when redistributing sort indices";
 
-                    newCols.add(col);
-                    break;
-                }
+                newCols.add(col);
             }
         }
-        cols = newCols;
 
-        for(int i=0; i<rows.size(); i++) {  // reset row sort Indices 1 -> n
-            setItemSortIndex(rows.get(i), i + 1);
-        }
-        for(int i=0; i<cols.size(); i++) {  // reset col sort Indices 1 -> n
-            setItemSortIndex(cols.get(i), i + 1);
+        beginBatch(true);
+        try {
+            for(int i=0; i<newRows.size(); i++) {  // reset row sort Indices 1 -> n
+                setItemSortIndex(newRows.get(i), i + 1);
+            }
+            for(int i=0; i<newCols.size(); i++) {  // reset col sort Indices 1 -> n
+                setItemSortIndex(newCols.get(i), i + 1);
+            }
+        } finally {
+            endBatch();
         }
     }
 
@@ -503,21 +453,41 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
      */
     public Pair<Integer, Integer> getSymmetricConnectionUids(int rowUid, int colUid) {
         Integer newRowUid = getItem(colUid).getAliasUid();
-        Integer newColUid = null;
-        for(DSMItem item : getCols()) {
-            if(item.getAliasUid() != null && item.getAliasUid() == rowUid) {
-                newColUid = item.getUid();
-                break;
-            }
-        }
+        DSMItem newCol = getColByAlias(rowUid);  // alias index is kept in sync with the columns so no need to search
 
-        if(newColUid != null && newRowUid != null) {
-            return new Pair<>(newRowUid, newColUid);
+        if(newCol != null && newRowUid != null) {
+            return new Pair<>(newRowUid, newCol.getUid());
         }
         return null;
     }
 
 
+    /**
+     * Finds all the cells that do not match their symmetric cell. A cell is a symmetry error if only one of it and its
+     * symmetric cell has a connection or if both have a connection but the connections are not the same type. Only
+     * the connections are visited so this runs in time proportional to the number of connections
+     *
+     * @return  set of (row uid, column uid) pairs of every cell that is a symmetry error
+     */
+    public Set<Pair<Integer, Integer>> getSymmetryErrors() {
+        Set<Pair<Integer, Integer>> errors = new HashSet<>();
+        for(DSMConnection conn : getConnections()) {
+            Pair<Integer, Integer> symmetricUids = getSymmetricConnectionUids(conn.getRowUid(), conn.getColUid());
+            if(symmetricUids == null) {
+                continue;
+            }
+
+            DSMConnection symmetricConn = getConnection(symmetricUids.getKey(), symmetricUids.getValue());
+            if(symmetricConn == null || !conn.isSameConnectionType(symmetricConn)) {
+                errors.add(new Pair<>(conn.getRowUid(), conn.getColUid()));
+                errors.add(symmetricUids);
+            }
+        }
+
+        return errors;
+    }
+
+
     /**
      * Returns the symmetric connection of a given pair of uids
      *
@@ -532,55 +502,48 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
 
 
     /**
-     * Creates a 2d ArrayList of the matrix so that it can be displayed. Each cell in the grid is made
-     * up of a RenderMode, which is the key, and an Object that is different based on the key.
+     * Returns the layout of the matrix for displaying or exporting it. There are two header rows (column names and
+     * row labels) and three header columns (grouping, name, and sort index of the rows). Connections from an item to
+     * itself can not be edited
      *
-     * @return 2d ArrayList of matrix
+     * @return  the grid model of the matrix
      */
-    public ArrayList<ArrayList<Pair<RenderMode, Object>>> getGridArray() {
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> grid = new ArrayList<>();
-
-        // sort row and columns by sortIndex
-        rows.sort(Comparator.comparing(DSMItem::getSortIndex));
-        cols.sort(Comparator.comparing(DSMItem::getSortIndex));
-
-        // create header row
-        ArrayList<Pair<RenderMode, Object>> row0 = new ArrayList<>();
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, ""));
-        row0.add(new Pair<>(RenderMode.PLAIN_TEXT_V, "Column Items"));
-        for(DSMItem c : cols) {
-            row0.add(new Pair<>(RenderMode.ITEM_NAME_V, c));
-        }
-        grid.add(row0);
-
-        // create third header row
-        ArrayList<Pair<RenderMode, Object>> row1 = new ArrayList<>();
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Grouping"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Row Items"));
-        row1.add(new Pair<>(RenderMode.PLAIN_TEXT, "Re-Sort Index"));
-        for(DSMItem c : cols) {
-            row1.add(new Pair<>(RenderMode.PLAIN_TEXT, ""));
-        }
-        grid.add(row1);
-
-        // create rows
-        for(DSMItem r : rows) {
-            ArrayList<Pair<RenderMode, Object>> row = new ArrayList<>();
-            row.add(new Pair<>(RenderMode.GROUPING_ITEM, r));
-            row.add(new Pair<>(RenderMode.ITEM_NAME, r));
-            row.add(new Pair<>(RenderMode.INDEX_ITEM, r));
-            for(DSMItem c : cols) {  // create connection items for all columns
-                if(c.getAliasUid() == r.getUid()) {  // can't have connection to itself in a symmetrical matrix
-                    row.add(new Pair<>(RenderMode.UNEDITABLE_CONNECTION, null));
-                } else {
-                    row.add(new Pair<>(RenderMode.EDITABLE_CONNECTION, new Pair<>(r, c)));
+    @Override
+    public GridModel getGridModel() {
+        return new ItemGridModel(2, 3) {
+            @Override
+            public RenderMode renderModeAt(int r, int c) {
+                if(r == 0) {
+                    return c < numHeaderCols ? RenderMode.PLAIN_TEXT_V : RenderMode.ITEM_NAME_V;
+                } else if(r == 1) {
+                    return RenderMode.PLAIN_TEXT;
+                } else if(c == 0) {
+                    return RenderMode.GROUPING_ITEM;
+                } else if(c == 1) {
+                    return RenderMode.ITEM_NAME;
+                } else if(c == 2) {
+                    return RenderMode.INDEX_ITEM;
                 }
+                return isAliasCell(r, c) ? RenderMode.UNEDITABLE_CONNECTION : RenderMode.EDITABLE_CONNECTION;  // can't have connection to itself in a symmetrical matrix
             }
-            grid.add(row);
-        }
 
-        return grid;
+            @Override
+            public Object valueAt(int r, int c) {
+                if(r == 0) {
+                    return c < numHeaderCols ? (c == 2 ? "Column Items" : "") : getColItem(c);
+                } else if(r == 1) {
+                    return switch(c) {
+                        case 0 -> "Grouping";
+                        case 1 -> "Row Items";
+                        case 2 -> "Re-Sort Index";
+                        default -> "";
+                    };
+                } else if(c < numHeaderCols) {
+                    return getRowItem(r);
+                }
+                return isAliasCell(r, c) ? null : connectionAt(r, c);
+            }
+        };
     }
 
 
@@ -611,14 +574,11 @@ public class SymmetricDSMData extends AbstractDSMData implements IPropagationAna
             for(Integer uid : dependentConnections) {  // find dependent connections of each item from the previous level
 
                 // find connections with uid as the row item
-                for(DSMItem col : cols) {  // iterate over column items finding the ones that match the row
-                    DSMConnection conn = getConnection(uid, col.getUid());
-
+                for(DSMConnection conn : getRowConnections(uid)) {  // iterate over the connections in the row
                     // define exit conditions
-                    if(conn == null) continue;
                     if(conn.getWeight() < minWeight) continue;
 
-                    Integer resultEntryUid = col.getAliasUid();
+                    Integer resultEntryUid = getColItem(conn.getColUid()).getAliasUid();
 
                     results.get(currentLevel).putIfAbsent(resultEntryUid, 0.0);
 
@@ -0,0 +1,60 @@
+package Matrices.Data;
+
+import java.util.HashSet;
+
+
+/**
+ * Hands out uids for the items and groupings of a matrix. Every uid used by the matrix is reserved (items when they are
+ * added, groupings when they are added, and everything read from a file when it is loaded), and new uids count up
+ * from the largest uid reserved so far. Reserved uids are skipped, so a new uid never collides with one that is already
+ * in the matrix. If the count passes the largest int it wraps around to the smallest int and keeps going. The largest
+ * int is used as the uid of the default groupings so it is reserved but not counted up from.
+ *
+ * This is much faster than minting random uids because it does not use a secure random number generator, so it should
+ * be used by anything that creates many items at once
+ */
+public final class UidAllocator {
+    private final HashSet<Integer> reservedUids = new HashSet<>();
+    private int lastUid = 0;  // new uids are given out counting up from here
+
+
+    /**
+     * Marks a uid as used so that it will not be given out
+     *
+     * @param uid  the uid that is in use
+     */
+    public void reserve(int uid) {
+        reservedUids.add(uid);
+        if(uid > lastUid && uid != Integer.MAX_VALUE) {
+            lastUid = uid;
+        }
+    }
+
+
+    /**
+     * Reserves every uid reserved by another allocator. Used when copying a matrix
+     *
+     * @param other  the allocator to copy the reserved uids of
+     */
+    public void reserveAll(UidAllocator other) {
+        reservedUids.addAll(other.reservedUids);
+        if(other.lastUid > lastUid) {
+            lastUid = other.lastUid;
+        }
+    }
+
+
+    /**
+     * Gives out a new uid that has not been reserved and reserves it
+     *
+     * @return  the new uid
+     */
+    public int next() {
+        do {
+            lastUid++;  // overflow wraps around to the smallest int
+        } while(reservedUids.contains(lastUid));
+        reservedUids.add(lastUid);
+
+        return lastUid;
+    }
+}
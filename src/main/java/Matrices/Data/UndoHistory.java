@@ -0,0 +1,200 @@
+package Matrices.Data;
+
+import Matrices.Data.AbstractDSMData.AbstractMatrixChange;
+
+import java.util.function.Consumer;
+
+
+/**
+ * A stack of matrix changes backed by a ring buffer so that the oldest changes can be removed in constant time. When
+ * the number of changes or their estimated size goes over the budget, the oldest checkpoint groups are evicted. A
+ * checkpoint group is every change from the bottom of the stack up to and including the first checkpoint, so a
+ * checkpoint is never partially evicted and the newest group is always kept. The owner of the history is told when
+ * changes are dropped so that it can forget anything only those changes referred to.
+ */
+class UndoHistory {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private AbstractMatrixChange[] changes = new AbstractMatrixChange[INITIAL_CAPACITY];
+    private int bottom = 0;  // index in the buffer of the oldest change
+    private int size = 0;
+    private int numCheckpoints = 0;
+    private long retainedBytes = 0;
+
+    private int maxEntries;
+    private long maxBytes;
+    private final Runnable onChangesDropped;
+
+
+    /**
+     * Creates a new empty history
+     *
+     * @param maxEntries        the maximum number of changes to keep before evicting checkpoint groups
+     * @param maxBytes          the maximum estimated size of the changes to keep before evicting checkpoint groups
+     * @param onChangesDropped  called after changes are evicted or cleared from the history
+     */
+    UndoHistory(int maxEntries, long maxBytes, Runnable onChangesDropped) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.onChangesDropped = onChangesDropped;
+    }
+
+
+    /**
+     * Changes the budget of the history. Evicts checkpoint groups if the history is now over budget
+     *
+     * @param maxEntries  the maximum number of changes to keep
+     * @param maxBytes    the maximum estimated size of the changes to keep
+     */
+    void setLimits(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        evictOverBudget();
+    }
+
+
+    /**
+     * Pushes a change to the top of the history and evicts old checkpoint groups if the history is over budget
+     *
+     * @param change  the change to push
+     */
+    void push(AbstractMatrixChange change) {
+        if(size == changes.length) {  // buffer is full so double it and unwrap it so the bottom is at index 0
+            AbstractMatrixChange[] newChanges = new AbstractMatrixChange[changes.length * 2];
+            for(int i = 0; i < size; i++) {
+                newChanges[i] = changes[(bottom + i) % changes.length];
+            }
+            changes = newChanges;
+            bottom = 0;
+        }
+
+        changes[(bottom + size) % changes.length] = change;
+        size += 1;
+        retainedBytes += change.getSizeEstimate();
+        if(change.isCheckpoint()) {
+            numCheckpoints += 1;
+        }
+
+        evictOverBudget();
+    }
+
+
+    /**
+     * Removes the change on the top of the history
+     *
+     * @return  the change that was removed
+     */
+    AbstractMatrixChange pop() {
+        AbstractMatrixChange change = peek();
+        changes[(bottom + size - 1) % changes.length] = null;
+        size -= 1;
+        retainedBytes -= change.getSizeEstimate();
+        if(change.isCheckpoint()) {
+            numCheckpoints -= 1;
+        }
+
+        return change;
+    }
+
+
+    /**
+     * @return  the change on the top of the history
+     */
+    AbstractMatrixChange peek() {
+        assert size > 0 : "history is empty";
+        return changes[(bottom + size - 1) % changes.length];
+    }
+
+
+    /**
+     * Marks the change on the top of the history as a checkpoint. Does nothing if the history is empty
+     */
+    void setTopCheckpoint() {
+        if(size > 0 && !peek().isCheckpoint()) {
+            peek().setCheckpoint(true);
+            numCheckpoints += 1;
+        }
+    }
+
+
+    /**
+     * Removes all changes from the history
+     */
+    void clear() {
+        changes = new AbstractMatrixChange[INITIAL_CAPACITY];
+        bottom = 0;
+        size = 0;
+        numCheckpoints = 0;
+        retainedBytes = 0;
+        onChangesDropped.run();
+    }
+
+
+    /**
+     * Runs a function on every change in the history from the oldest to the newest
+     *
+     * @param action  the function to run
+     */
+    void forEach(Consumer<AbstractMatrixChange> action) {
+        for(int i = 0; i < size; i++) {
+            action.accept(changes[(bottom + i) % changes.length]);
+        }
+    }
+
+
+    /**
+     * @return  if there are no changes in the history
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+
+    /**
+     * @return  the number of changes in the history
+     */
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * @return  the approximate number of bytes retained by the changes in the history
+     */
+    long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+
+    /**
+     * Evicts checkpoint groups from the bottom of the history until it is within budget. A group is only evicted if
+     * there is a checkpoint below the top change, otherwise the whole history is one group and it is kept
+     */
+    private void evictOverBudget() {
+        boolean evicted = false;
+        while((size > maxEntries || retainedBytes > maxBytes) && hasCompleteGroupBelowTop()) {
+            AbstractMatrixChange change;
+            do {  // remove from the bottom up to and including the first checkpoint
+                change = changes[bottom];
+                changes[bottom] = null;
+                bottom = (bottom + 1) % changes.length;
+                size -= 1;
+                retainedBytes -= change.getSizeEstimate();
+            } while(!change.isCheckpoint());
+            numCheckpoints -= 1;
+            evicted = true;
+        }
+
+        if(evicted) {
+            onChangesDropped.run();
+        }
+    }
+
+
+    /**
+     * @return  if there is a checkpoint anywhere in the history other than the top change
+     */
+    private boolean hasCompleteGroupBelowTop() {
+        return numCheckpoints > 1 || (numCheckpoints == 1 && !peek().isCheckpoint());
+    }
+}
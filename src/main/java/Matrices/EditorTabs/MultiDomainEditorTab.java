@@ -3,6 +3,7 @@ package Matrices.EditorTabs;
 import Matrices.Data.AbstractDSMData;
 import Matrices.Data.AsymmetricDSMData;
 import Matrices.Data.Entities.Grouping;
+import Matrices.Data.MatrixChangeListener;
 import Matrices.Data.MultiDomainDSMData;
 import Matrices.Data.SymmetricDSMData;
 import Matrices.IOHandlers.AbstractIOHandler;
@@ -21,6 +22,8 @@ import UI.SideBarViews.SymmetricSideBar;
 import UI.Widgets.DraggableTab;
 import UI.Widgets.Misc;
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -53,6 +56,7 @@ public class MultiDomainEditorTab extends AbstractEditorTab {
     protected final MultiDomainView mainMatrixView;
     protected final MultiDomainIOHandler mainIOHandler;
     protected final MultiDomainSideBar mainSidebar;
+    protected boolean mainViewStale = false;  // set when a breakout view changes the main matrix so the view is refreshed when it is shown again
 
 
     protected final TabPane tabPane = new TabPane();
@@ -117,6 +121,11 @@ public class MultiDomainEditorTab extends AbstractEditorTab {
         tab.setClosable(false);
 
         tab.setOnSelectionChanged(e -> {
+            if(tab.isSelected() && mainViewStale) {  // only rebuild the main view once for all the changes made in breakout views
+                mainMatrixView.refreshView();
+                mainViewStale = false;
+            }
+
             // update the data members for the main view
             this.matrixData = this.mainMatrixData;
             this.matrixIOHandler = this.mainIOHandler;
@@ -135,9 +144,7 @@ public class MultiDomainEditorTab extends AbstractEditorTab {
             leftLayout.getChildren().clear();
             leftLayout.getChildren().add(mainSidebar.getLayout());
 
-            MatrixMetaDataPane metadata = new MatrixMetaDataPane(this.mainMatrixData);
-            rightLayout.getChildren().clear();
-            rightLayout.getChildren().add(metadata.getLayout());
+            setMetadata(this.mainMatrixData);
 
             bottomLayout.getChildren().clear();
             bottomLayout.setAlignment(Pos.CENTER);
@@ -218,7 +225,16 @@ public class MultiDomainEditorTab extends AbstractEditorTab {
                 window.setScene(scene);
                 window.showAndWait();
             });
-            bottomLayout.getChildren().add(zoomButton);
+
+            ToggleButton collapseButton = new ToggleButton("Collapse Domains");
+            collapseButton.setSelected(mainMatrixView.isCollapsed());
+            collapseButton.setOnAction(ee -> {
+                mainMatrixView.setCollapsed(collapseButton.isSelected());
+                mainMatrixView.refreshView();
+            });
+
+            bottomLayout.setSpacing(15);
+            bottomLayout.getChildren().addAll(zoomButton, collapseButton);
         });
 
         tabPane.getTabs().add(tab);
@@ -269,8 +285,22 @@ public class MultiDomainEditorTab extends AbstractEditorTab {
         tab.setDetachable(false);
         tab.setClosable(true);
 
+        // changes made in the breakout view are applied to the main matrix in place at each checkpoint. Changes that
+        // can not be applied in place (ex. adding or deleting items) are merged when the user applies them
+        BooleanProperty needsMerge = new SimpleBooleanProperty(false);
+        MatrixChangeListener syncListener = events -> {
+            if(needsMerge.get() || !this.mainMatrixData.applyZoomChanges(fromGroup, toGroup, data, events)) {
+                needsMerge.set(true);  // the merge will copy everything so there is no need to sync until then
+                return;
+            }
+            this.mainMatrixData.setCurrentStateAsCheckpoint();
+            mainViewStale = true;
+        };
+        data.addChangeListener(syncListener);
+
         tab.setOnCloseRequest(e -> {
            // TODO: ask if user wants to apply changes
+            data.removeChangeListener(syncListener);
             this.tabsData.remove(tab);
             this.tabPane.getTabs().remove(tab);
         });
@@ -288,16 +318,16 @@ public class MultiDomainEditorTab extends AbstractEditorTab {
             leftLayout.getChildren().clear();
             leftLayout.getChildren().add(sideBar.getLayout());
 
-            MatrixMetaDataPane metadata = new MatrixMetaDataPane(data);
-            rightLayout.getChildren().clear();
-            rightLayout.getChildren().add(metadata.getLayout());
+            setMetadata(data);
 
             bottomLayout.getChildren().clear();
             Button applyButton = new Button("Apply Changes");
+            applyButton.disableProperty().bind(needsMerge.not());  // everything else is already synced
             applyButton.setOnAction(ee -> {
                 this.mainMatrixData.importZoom(fromGroup, toGroup, data);
                 this.mainMatrixData.setCurrentStateAsCheckpoint();
-                this.mainMatrixView.refreshView();  // refresh the main view
+                needsMerge.set(false);
+                mainViewStale = true;
             });
             HBox applyButtonLayout = new HBox();
             applyButtonLayout.setAlignment(Pos.CENTER);
@@ -313,6 +343,22 @@ public class MultiDomainEditorTab extends AbstractEditorTab {
     }
 
 
+    /**
+     * Replaces the metadata pane on the right with one for a matrix. The old pane is disposed so that it stops
+     * listening to its matrix
+     *
+     * @param data  the matrix to show the metadata of
+     */
+    private void setMetadata(AbstractDSMData data) {
+        if(this.metadata != null) {
+            this.metadata.dispose();
+        }
+        this.metadata = new MatrixMetaDataPane(data);
+        rightLayout.getChildren().clear();
+        rightLayout.getChildren().add(this.metadata.getLayout());
+    }
+
+
     /**
      * @return  The node to be displayed as the center content
      */
@@ -1,11 +1,12 @@
 package Matrices.IOHandlers;
 
 import Constants.Constants;
+import Matrices.Data.DSMSparseSnapshot;
 import Matrices.Data.Entities.*;
+import Matrices.Data.GridModel;
 import Matrices.Data.MultiDomainDSMData;
 import UI.MatrixViews.AbstractMatrixView;
 import javafx.scene.paint.Color;
-import javafx.util.Pair;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.WorkbookUtil;
@@ -97,6 +98,7 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
                 }
             }
             MultiDomainDSMData matrix = new MultiDomainDSMData(groupingConfiguration);  // create the matrix with the given domains
+            matrix.beginBatch(false);  // no undo history is needed while the matrix is being read in
             matrix.setTitle(title);
             matrix.setProjectName(project);
             matrix.setCustomer(customer);
@@ -175,6 +177,8 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
             }
 
 
+            matrix.endBatch();
+
             Set<Integer> set = new HashSet<>(uids);
             if(set.size() != uids.size()) {  // uids were repeated and file is corrupt in some way
                 // TODO: add alert box that says the file was corrupted in some way and could not be read in
@@ -307,6 +311,7 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
      */
     public MultiDomainDSMData importAdjacencyMatrix(File file) {
         MultiDomainDSMData matrix = new MultiDomainDSMData();
+        matrix.beginBatch(false);  // no undo history is needed while the matrix is being read in
 
         // read the lines of the file
         List<List<String>> lines = readAdjacencyMatrix(file);
@@ -369,8 +374,8 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
             Integer rowUid = rowItems.get(itemsOrder.get(i - 2));  // subtract one for header row
 
             // update the domains manually
-            matrix.getItem(rowUid).setGroup2(domain);
-            matrix.getItemByAlias(rowUid).setGroup2(domain);
+            matrix.setItemDomain(matrix.getItem(rowUid), domain);
+            matrix.setItemDomain(matrix.getItemByAlias(rowUid), domain);
 
             // update the groups
             matrix.setItemDomainGroup(matrix.getItem(rowUid), domain, group);  // set the group (does both row and column)
@@ -411,6 +416,7 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
         }
 
         matrix.reDistributeSortIndices();
+        matrix.endBatch();
         matrix.clearWasModifiedFlag();  // clear flag because no write operations were performed to the file
         matrix.clearStacks();  // make sure there are no changes when it is opened
 
@@ -433,23 +439,24 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
             contents.append("Customer,").append(matrix.getCustomer()).append("\n");
             contents.append("Version,").append(matrix.getVersionNumber()).append("\n");
 
-            ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-            int columns = template.get(0).size();
+            GridModel template = matrix.getGridModel();
+            int columns = template.getNumCols();
 
-            for (ArrayList<Pair<RenderMode, Object>> pairs : template) {
+            for (int r = 0; r < template.getNumRows(); r++) {
                 for (int c = 0; c < columns; c++) {
-                    Pair<RenderMode, Object> item = pairs.get(c);
-
-                    switch (item.getKey()) {
-                        case PLAIN_TEXT, PLAIN_TEXT_V -> contents.append(item.getValue()).append(",");
-                        case MULTI_SPAN_DOMAIN_TEXT -> contents.append(((Triplet<Grouping, Integer, Integer>) item.getValue()).getValue0().getName()).append(",");
-                        case ITEM_NAME, ITEM_NAME_V -> contents.append(((DSMItem) item.getValue()).getName().getValue()).append(",");
-                        case GROUPING_ITEM, GROUPING_ITEM_V -> contents.append(((DSMItem) item.getValue()).getGroup1().getName()).append(",");
-                        case INDEX_ITEM -> contents.append(((DSMItem) item.getValue()).getSortIndex()).append(",");
+                    RenderMode renderMode = template.renderModeAt(r, c);
+                    Object value = template.valueAt(r, c);
+
+                    switch (renderMode) {
+                        case PLAIN_TEXT, PLAIN_TEXT_V -> contents.append(value).append(",");
+                        case MULTI_SPAN_DOMAIN_TEXT -> contents.append(((Triplet<Grouping, Integer, Integer>) value).getValue0().getName()).append(",");
+                        case ITEM_NAME, ITEM_NAME_V -> contents.append(((DSMItem) value).getNameValue()).append(",");
+                        case GROUPING_ITEM, GROUPING_ITEM_V -> contents.append(((DSMItem) value).getGroup1().getName()).append(",");
+                        case INDEX_ITEM -> contents.append(((DSMItem) value).getSortIndex()).append(",");
                         case UNEDITABLE_CONNECTION, MULTI_SPAN_NULL -> contents.append(",");
                         case EDITABLE_CONNECTION -> {
-                            int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                            int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                            int rowUid = template.getRowItem(r).getUid();
+                            int colUid = template.getColItem(c).getUid();
                             if (matrix.getConnection(rowUid, colUid) != null) {
                                 contents.append(matrix.getConnection(rowUid, colUid).getConnectionName());
                             }
@@ -495,17 +502,23 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
 
             matrix.reDistributeSortIndices();
             for (DSMItem col : matrix.getCols()) {
-                contents.append(",").append(col.getName().getValue());
+                contents.append(",").append(col.getNameValue());
             }
 
-            for (DSMItem row : matrix.getRows()) {
+            DSMSparseSnapshot snapshot = new DSMSparseSnapshot(matrix);  // dense indices match the sorted rows and columns
+            int[] rowEntries = new int[snapshot.getNumCols()];  // entry of each column in the current row, -1 if no connection
+            for (int r = 0; r < snapshot.getNumRows(); r++) {
+                DSMItem row = matrix.getRows().get(r);
                 contents.append("\n");
                 contents.append(row.getGroup2().getName()).append(",");  // domain
                 contents.append(row.getGroup1().getName());              // group
-                for (DSMItem col : matrix.getCols()) {
-                    DSMConnection connection = matrix.getConnection(row.getUid(), col.getUid());
-                    if (connection != null) {
-                        contents.append(",").append(connection.getWeight());
+                Arrays.fill(rowEntries, -1);
+                for (int entry = snapshot.getRowStart(r); entry < snapshot.getRowEnd(r); entry++) {
+                    rowEntries[snapshot.getEntryCol(entry)] = entry;
+                }
+                for (int entry : rowEntries) {
+                    if (entry != -1) {
+                        contents.append(",").append(snapshot.getEntryWeight(entry));
                     } else {
                         contents.append(",0");
                     }
@@ -563,25 +576,26 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
             short HORIZONTAL_ROTATION = 0;
             short VERTICAL_ROTATION = 90;
 
-            ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-            int rows = template.size();
-            int columns = template.get(0).size();
+            GridModel template = matrix.getGridModel();
+            int rows = template.getNumRows();
+            int columns = template.getNumCols();
 
             for(int r=0; r<rows; r++) {
                 Row row = sheet.createRow(r + ROW_START);
                 for (int c=0; c<columns; c++) {
-                    Pair<RenderMode, Object> item = template.get(r).get(c);
+                    RenderMode renderMode = template.renderModeAt(r, c);
+                    Object value = template.valueAt(r, c);
 
-                    switch (item.getKey()) {
+                    switch (renderMode) {
                         case PLAIN_TEXT -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(item.getValue().toString());
+                            cell.setCellValue(value.toString());
 
                             styleExcelCell(workbook, cell, null, null, HORIZONTAL_ROTATION);
                         }
                         case PLAIN_TEXT_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(item.getValue().toString());
+                            cell.setCellValue(value.toString());
 
                             CellStyle cellStyle = workbook.createCellStyle();
                             cellStyle.setAlignment(HorizontalAlignment.RIGHT);
@@ -590,7 +604,7 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
                             cell.setCellStyle(cellStyle);
                         }
                         case MULTI_SPAN_DOMAIN_TEXT -> {
-                            Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) item.getValue();
+                            Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) value;
                             Cell cell = row.createCell(c + COL_START);
                             cell.setCellValue(data.getValue0().getName());
 
@@ -606,42 +620,42 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
                         }
                         case ITEM_NAME -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getName().getValue());
+                            cell.setCellValue(((DSMItem) value).getNameValue());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case ITEM_NAME_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getName().getValue());
+                            cell.setCellValue(((DSMItem) value).getNameValue());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, VERTICAL_ROTATION);
                         }
                         case GROUPING_ITEM -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getGroup1().getName());
+                            cell.setCellValue(((DSMItem) value).getGroup1().getName());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case GROUPING_ITEM_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getGroup1().getName());
+                            cell.setCellValue(((DSMItem) value).getGroup1().getName());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, VERTICAL_ROTATION);
                         }
                         case INDEX_ITEM -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getSortIndex());
+                            cell.setCellValue(((DSMItem) value).getSortIndex());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case UNEDITABLE_CONNECTION -> {
@@ -652,8 +666,8 @@ public class MultiDomainIOHandler extends AbstractIOHandler {
                             styleExcelCell(workbook, cell, bgColor, null, HORIZONTAL_ROTATION);
                         }
                         case EDITABLE_CONNECTION -> {
-                            int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                            int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                            int rowUid = template.getRowItem(r).getUid();
+                            int colUid = template.getColItem(c).getUid();
 
                             Cell cell = row.createCell(c + COL_START);
                             if (matrix.getConnection(rowUid, colUid) != null) {
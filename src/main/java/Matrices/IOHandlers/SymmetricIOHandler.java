@@ -1,14 +1,15 @@
 package Matrices.IOHandlers;
 
 import Constants.Constants;
+import Matrices.Data.DSMSparseSnapshot;
 import Matrices.Data.Entities.*;
+import Matrices.Data.GridModel;
 import Matrices.Data.SymmetricDSMData;
 import Matrices.IOHandlers.Flags.IThebeauExport;
 import UI.MatrixViews.AbstractMatrixView;
 import javafx.scene.paint.Color;
 import javafx.stage.FileChooser;
 import javafx.stage.Window;
-import javafx.util.Pair;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.WorkbookUtil;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
@@ -88,6 +89,7 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
             }
 
             SymmetricDSMData matrix = new SymmetricDSMData(matrixGroupings.values());
+            matrix.beginBatch(false);  // no undo history is needed while the matrix is being read in
             matrix.setTitle(title);
             matrix.setProjectName(project);
             matrix.setCustomer(customer);
@@ -162,6 +164,8 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
             }
 
 
+            matrix.endBatch();
+
             Set<Integer> set = new HashSet<>(uids);
             if(set.size() != uids.size()) {  // uids were repeated and file is corrupt in some way
                 // TODO: add alert box that says the file was corrupted in some way and could not be read in
@@ -192,6 +196,7 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
      */
     public SymmetricDSMData importThebeauMatlabFile(File file) {
         SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.beginBatch(false);  // no undo history is needed while the matrix is being read in
 
         ArrayList<String> lines = new ArrayList<>();
         Scanner s;
@@ -248,6 +253,7 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
             matrix.modifyConnection(rowUid, colUid, "x", conn.get(2), new ArrayList<>());
         }
 
+        matrix.endBatch();
         matrix.clearStacks();  // make sure there are no changes when it is opened
 
         return matrix;
@@ -269,6 +275,7 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
      */
     public SymmetricDSMData importAdjacencyMatrix(File file) {
         SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.beginBatch(false);  // no undo history is needed while the matrix is being read in
 
         // read the lines of the file
         List<List<String>> lines = readAdjacencyMatrix(file);
@@ -323,6 +330,7 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
         }
 
         matrix.reDistributeSortIndicesByGroup();
+        matrix.endBatch();
         matrix.clearWasModifiedFlag();  // clear flag because no write operations were performed to the file
         matrix.clearStacks();  // make sure there are no changes when it is opened
 
@@ -432,23 +440,24 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
             contents.append("Customer,").append(matrix.getCustomer()).append("\n");
             contents.append("Version,").append(matrix.getVersionNumber()).append("\n");
 
-            ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-            int rows = template.size();
-            int columns = template.get(0).size();
+            GridModel template = matrix.getGridModel();
+            int rows = template.getNumRows();
+            int columns = template.getNumCols();
 
             for(int r=0; r<rows; r++) {
                 for (int c = 0; c < columns; c++) {
-                    Pair<RenderMode, Object> item = template.get(r).get(c);
-
-                    switch(item.getKey()) {
-                        case PLAIN_TEXT, PLAIN_TEXT_V -> contents.append(item.getValue()).append(",");
-                        case ITEM_NAME, ITEM_NAME_V -> contents.append(((DSMItem) item.getValue()).getName().getValue()).append(",");
-                        case GROUPING_ITEM, GROUPING_ITEM_V -> contents.append(((DSMItem) item.getValue()).getGroup1().getName()).append(",");
-                        case INDEX_ITEM -> contents.append(((DSMItem) item.getValue()).getSortIndex()).append(",");
+                    RenderMode renderMode = template.renderModeAt(r, c);
+                    Object value = template.valueAt(r, c);
+
+                    switch(renderMode) {
+                        case PLAIN_TEXT, PLAIN_TEXT_V -> contents.append(value).append(",");
+                        case ITEM_NAME, ITEM_NAME_V -> contents.append(((DSMItem) value).getNameValue()).append(",");
+                        case GROUPING_ITEM, GROUPING_ITEM_V -> contents.append(((DSMItem) value).getGroup1().getName()).append(",");
+                        case INDEX_ITEM -> contents.append(((DSMItem) value).getSortIndex()).append(",");
                         case UNEDITABLE_CONNECTION -> contents.append(",");
                         case EDITABLE_CONNECTION -> {
-                            int rowUid = ((Pair<DSMItem, DSMItem>)item.getValue()).getKey().getUid();
-                            int colUid = ((Pair<DSMItem, DSMItem>)item.getValue()).getValue().getUid();
+                            int rowUid = template.getRowItem(r).getUid();
+                            int colUid = template.getColItem(c).getUid();
                             if(matrix.getConnection(rowUid, colUid) != null) {
                                 contents.append(matrix.getConnection(rowUid, colUid).getConnectionName());
                             }
@@ -496,15 +505,21 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
 
             matrix.reDistributeSortIndices();  // re-number so that rows and columns always align
             for (DSMItem col : matrix.getCols()) {
-                contents.append(",").append(col.getName().getValue());
+                contents.append(",").append(col.getNameValue());
             }
 
-            for (DSMItem row : matrix.getRows()) {
+            DSMSparseSnapshot snapshot = new DSMSparseSnapshot(matrix);  // dense indices match the sorted rows and columns
+            int[] rowEntries = new int[snapshot.getNumCols()];  // entry of each column in the current row, -1 if no connection
+            for (int r = 0; r < snapshot.getNumRows(); r++) {
+                DSMItem row = matrix.getRows().get(r);
                 contents.append("\n").append(row.getGroup1().getName());
-                for (DSMItem col : matrix.getCols()) {
-                    DSMConnection conn = matrix.getConnection(row.getUid(), col.getUid());
-                    if (conn != null) {
-                        contents.append(",").append(conn.getWeight());
+                Arrays.fill(rowEntries, -1);
+                for (int entry = snapshot.getRowStart(r); entry < snapshot.getRowEnd(r); entry++) {
+                    rowEntries[snapshot.getEntryCol(entry)] = entry;
+                }
+                for (int entry : rowEntries) {
+                    if (entry != -1) {
+                        contents.append(",").append(snapshot.getEntryWeight(entry));
                     } else {
                         contents.append(",0");
                     }
@@ -562,25 +577,26 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
             short HORIZONTAL_ROTATION = 0;
             short VERTICAL_ROTATION = 90;
 
-            ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-            int rows = template.size();
-            int columns = template.get(0).size();
+            GridModel template = matrix.getGridModel();
+            int rows = template.getNumRows();
+            int columns = template.getNumCols();
 
             for(int r=0; r<rows; r++) {
                 Row row = sheet.createRow(r + ROW_START);
                 for (int c=0; c<columns; c++) {
-                    Pair<RenderMode, Object> item = template.get(r).get(c);
+                    RenderMode renderMode = template.renderModeAt(r, c);
+                    Object value = template.valueAt(r, c);
 
-                    switch (item.getKey()) {
+                    switch (renderMode) {
                         case PLAIN_TEXT -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(item.getValue().toString());
+                            cell.setCellValue(value.toString());
 
                             styleExcelCell(workbook, cell, null, null, HORIZONTAL_ROTATION);
                         }
                         case PLAIN_TEXT_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(item.getValue().toString());
+                            cell.setCellValue(value.toString());
 
                             CellStyle cellStyle = workbook.createCellStyle();
                             cellStyle.setAlignment(HorizontalAlignment.RIGHT);
@@ -590,42 +606,42 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
                         }
                         case ITEM_NAME -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getName().getValue());
+                            cell.setCellValue(((DSMItem) value).getNameValue());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case ITEM_NAME_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getName().getValue());
+                            cell.setCellValue(((DSMItem) value).getNameValue());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, VERTICAL_ROTATION);
                         }
                         case GROUPING_ITEM -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getGroup1().getName());
+                            cell.setCellValue(((DSMItem) value).getGroup1().getName());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case GROUPING_ITEM_V -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getGroup1().getName());
+                            cell.setCellValue(((DSMItem) value).getGroup1().getName());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, VERTICAL_ROTATION);
                         }
                         case INDEX_ITEM -> {
                             Cell cell = row.createCell(c + COL_START);
-                            cell.setCellValue(((DSMItem) item.getValue()).getSortIndex());
+                            cell.setCellValue(((DSMItem) value).getSortIndex());
 
-                            Color bgColor = ((DSMItem) item.getValue()).getGroup1().getColor();
-                            Color fontColor = ((DSMItem) item.getValue()).getGroup1().getFontColor();
+                            Color bgColor = ((DSMItem) value).getGroup1().getColor();
+                            Color fontColor = ((DSMItem) value).getGroup1().getFontColor();
                             styleExcelCell(workbook, cell, bgColor, fontColor, HORIZONTAL_ROTATION);
                         }
                         case UNEDITABLE_CONNECTION -> {
@@ -636,8 +652,8 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
                             styleExcelCell(workbook, cell, bgColor, null, HORIZONTAL_ROTATION);
                         }
                         case EDITABLE_CONNECTION -> {
-                            int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                            int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                            int rowUid = template.getRowItem(r).getUid();
+                            int colUid = template.getColItem(c).getUid();
 
                             Cell cell = row.createCell(c + COL_START);
                             if (matrix.getConnection(rowUid, colUid) != null) {
@@ -706,7 +722,7 @@ public class SymmetricIOHandler extends AbstractIOHandler implements IThebeauExp
                 String l = "DSMLABEL{"
                         + (int)row.getSortIndex()
                         + ",1} = '"
-                        + row.getName().getValue()
+                        + row.getNameValue()
                         + "';\n";
                 labelsString.append(l);
             }
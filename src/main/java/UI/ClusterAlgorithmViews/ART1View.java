@@ -1,6 +1,7 @@
 package UI.ClusterAlgorithmViews;
 
 import Matrices.ClusterAlgorithms.ART1;
+import Matrices.Data.DSMSparseSnapshot;
 import Matrices.Data.SymmetricDSMData;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
@@ -28,11 +29,8 @@ public class ART1View implements IAlgorithmView {
     }
 
     @Override
-    public SymmetricDSMData runSimulation(SymmetricDSMData matrix) {
-        ART1 algo = new ART1(matrix);
-        SymmetricDSMData outputMatrix = algo.art1Algorithm(maxGroups.intValue(), vigilance.doubleValue(), beta.doubleValue());
-
-        outputMatrix.reDistributeSortIndicesByGroup();
-        return outputMatrix;
+    public int[] runSimulation(DSMSparseSnapshot snapshot) {
+        ART1 algo = new ART1(snapshot);
+        return algo.art1Algorithm(maxGroups.intValue(), vigilance.doubleValue(), beta.doubleValue());
     }
 }
@@ -1,5 +1,6 @@
 package UI.ClusterAlgorithmViews;
 
+import Matrices.Data.DSMSparseSnapshot;
 import Matrices.Data.SymmetricDSMData;
 import javafx.scene.layout.VBox;
 
@@ -17,10 +18,11 @@ public interface IAlgorithmView {
 
 
     /**
-     * Runs the simulation using a given algorithm
+     * Runs the simulation using a given algorithm. This is called on a background thread, so it must only read the
+     * snapshot and never the matrix it was taken from
      *
-     * @param matrix - the symmetric matrix to run the algorithm on
-     * @return the matrix with new groupings
+     * @param snapshot - snapshot of the symmetric matrix to run the algorithm on
+     * @return the cluster of each row index of the snapshot. Cluster i becomes the grouping named "G" + i
      */
-    SymmetricDSMData runSimulation(SymmetricDSMData matrix);
+    int[] runSimulation(DSMSparseSnapshot snapshot);
 }
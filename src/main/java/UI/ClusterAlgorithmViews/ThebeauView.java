@@ -1,6 +1,7 @@
 package UI.ClusterAlgorithmViews;
 
 import Matrices.ClusterAlgorithms.Thebeau;
+import Matrices.Data.DSMSparseSnapshot;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.SymmetricDSMData;
 import javafx.beans.property.BooleanProperty;
@@ -12,6 +13,7 @@ import javafx.collections.ObservableList;
 import javafx.scene.layout.VBox;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The Thebeau algorithm view. Generates the pane that contains all the entry areas
@@ -28,6 +30,7 @@ public class ThebeauView implements IAlgorithmView {
     private final BooleanProperty countByWeight = new SimpleBooleanProperty(false);
     private final DoubleProperty numLevels = new SimpleDoubleProperty(1000);
     private final DoubleProperty randSeed = new SimpleDoubleProperty(30);
+    private final DoubleProperty numChains = new SimpleDoubleProperty(1);
     private final BooleanProperty debug = new SimpleBooleanProperty(false);
     private final ObservableList<Integer> exclusions = FXCollections.observableArrayList();
 
@@ -50,35 +53,68 @@ public class ThebeauView implements IAlgorithmView {
                 .newNumericEntry(numLevels, "Number of Iterations", "", true)
                 .newDSMItemSelect("", "", matrix, exclusions)
                 .newNumericEntry(randSeed, "Random Seed", "", false)
+                .newNumericEntry(numChains, "Number of Chains", "Runs the algorithm this many times in parallel with different seeds and keeps the best result", true)
                 .newCheckbox(debug, "Debug to stdout")
                 .build();
     }
 
 
     /**
-     * Runs the Thebeau algorithm on the input matrix
+     * Runs the Thebeau algorithm on a snapshot of the input matrix. When more than one chain is requested the chains
+     * are run in parallel and the best result is kept
      *
-     * @param matrix - the symmetric matrix to run the algorithm on
-     * @return the matrix with new groupings
+     * @param snapshot - snapshot of the symmetric matrix to run the algorithm on
+     * @return the cluster of each row index of the snapshot
      */
     @Override
-    public SymmetricDSMData runSimulation(SymmetricDSMData matrix) {
-        SymmetricDSMData outputMatrix = Thebeau.thebeauAlgorithm(
-                matrix.createCopy(),  // use copy to not modify this matrix
+    public int[] runSimulation(DSMSparseSnapshot snapshot) {
+        boolean[] excluded = Thebeau.getExcludedRows(snapshot, new ArrayList<>(exclusions));
+        if(numChains.intValue() > 1) {
+            List<Thebeau.ChainResult> chains = Thebeau.multiStartThebeauClusters(
+                    snapshot,
+                    optimalSizeCluster.doubleValue(),
+                    powdep.doubleValue(),
+                    powbid.doubleValue(),
+                    powcc.doubleValue(),
+                    randBid.intValue(),
+                    randAccept.intValue(),
+                    excluded,
+                    countByWeight.getValue(),
+                    numLevels.intValue(),
+                    numChains.intValue(),
+                    randSeed.longValue()
+            );
+            if(debug.getValue()) {
+                StringBuilder debugString = new StringBuilder("chain,seed,coordination score,moves,improvements,elapsed time\n");
+                for(int i = 0; i < chains.size(); i++) {
+                    Thebeau.ChainResult chain = chains.get(i);
+                    debugString.append(i).append(",").append(chain.randSeed).append(",").append(chain.bestCost).append(",")
+                            .append(chain.numMoves).append(",").append(chain.numImprovements).append(",").append(chain.elapsedMillis).append("\n");
+                }
+                System.out.println(debugString);
+            }
+            return chains.get(Thebeau.getBestChain(chains)).clusters;
+        }
+
+        StringBuilder debugString = debug.getValue() ? new StringBuilder("iteration,start time, elapsed time,coordination score\n") : null;
+        Thebeau.ChainResult result = Thebeau.thebeauClusters(
+                snapshot,
                 optimalSizeCluster.doubleValue(),
                 powdep.doubleValue(),
                 powbid.doubleValue(),
                 powcc.doubleValue(),
                 randBid.intValue(),
                 randAccept.intValue(),
-                new ArrayList<>(exclusions),
+                excluded,
                 countByWeight.getValue(),
                 numLevels.intValue(),
                 randSeed.longValue(),
-                debug.getValue()
+                debugString
         );
-        outputMatrix.reDistributeSortIndicesByGroup();
-        return outputMatrix;
+        if(debugString != null) {
+            System.out.println(debugString);
+        }
+        return result.clusters;
     }
 
 }
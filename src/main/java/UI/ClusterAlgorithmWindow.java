@@ -1,6 +1,7 @@
 package UI;
 
 import Matrices.ClusterAlgorithms.Thebeau;
+import Matrices.Data.DSMSparseSnapshot;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.SymmetricDSMData;
 import Matrices.IOHandlers.SymmetricIOHandler;
@@ -24,6 +25,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
+import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.stage.Window;
@@ -33,6 +35,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -370,14 +373,18 @@ public class ClusterAlgorithmWindow {
         BooleanProperty completedProperty = new SimpleBooleanProperty();  // used to know when to close popup
         completedProperty.set(false);
 
+        // take a snapshot on this thread so the algorithm thread never reads the matrix itself
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(matrix);
+        AtomicReference<int[]> clusters = new AtomicReference<>();
         Thread t = new Thread(() -> {  // thread to perform the function
-            outputMatrix = algorithmView.runSimulation(matrix);
+            clusters.set(algorithmView.runSimulation(snapshot));
             completedProperty.set(true);
         });
 
         // create popup window saying how long it has been running for
         Stage popup = new Stage();
         popup.initStyle(StageStyle.UTILITY);
+        popup.initModality(Modality.APPLICATION_MODAL);  // the matrix can not be edited until the clusters are applied to it
         popup.setTitle(matrix.getTitle() + " - Cluster Algorithm");
 
         VBox uptimeArea = new VBox();
@@ -427,6 +434,10 @@ public class ClusterAlgorithmWindow {
         t2.start();
         popup.showAndWait();  // wait for it to finish
 
+        if(clusters.get() != null) {
+            outputMatrix = Thebeau.createClusteredMatrix(matrix, snapshot, clusters.get());
+            outputMatrix.reDistributeSortIndicesByGroup();
+        }
         if(outputMatrix != null) {
             SymmetricView gui = new SymmetricView(outputMatrix, 10);
             gui.setCurrentMode(AbstractMatrixView.MatrixViewMode.STATIC_NAMES);
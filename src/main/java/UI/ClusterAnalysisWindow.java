@@ -275,7 +275,7 @@ public class ClusterAnalysisWindow {
                 if(c == 0) {
                     rowBids.add(items.get(r).getGroup1().getName());
                 } else if(c == 1) {
-                    rowBids.add(items.get(r).getName().getValue());
+                    rowBids.add(items.get(r).getNameValue());
                 } else {
                     double bid = Thebeau.calculateClusterBid(matrix, groupOrder.get(c - 2), items.get(r), optimalSizeCluster.doubleValue(), powdep.doubleValue(), powbid.doubleValue(), countByWeight.isSelected());
                     rowBids.add(String.valueOf(bid));
@@ -1,7 +1,7 @@
 package UI;
 
 import Matrices.Data.AbstractDSMData;
-import Matrices.Data.Entities.DSMConnection;
+import Matrices.Data.MatrixSnapshot;
 import Matrices.EditorTabs.AbstractEditorTab;
 import UI.MatrixViews.AbstractMatrixView;
 import javafx.application.Platform;
@@ -19,6 +19,8 @@ import javafx.util.Pair;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 
 /**
@@ -101,7 +103,8 @@ public class ConnectionSearchWidget {
                 try {
                     Thread.sleep(100);
                 } catch (InterruptedException e) {
-                    e.printStackTrace();
+                    Thread.currentThread().interrupt();  // keep the interrupt so the thread stops
+                    return;
                 }
 
                 if (editor.getFocusedMatrixUid() == null || !isOpen) {
@@ -116,8 +119,24 @@ public class ConnectionSearchWidget {
                     prevView = view;
                 }
 
+                // search a snapshot instead of the connections list because the list can be modified while searching
+                MatrixSnapshot snapshot = matrix.getLatestSnapshot();
+                if(snapshot == null || snapshot.getVersion() != matrix.getVersion()) {
+                    FutureTask<MatrixSnapshot> takeSnapshot = new FutureTask<>(matrix::getSnapshot);
+                    Platform.runLater(takeSnapshot);  // snapshots must be taken on the javafx thread
+                    try {
+                        snapshot = takeSnapshot.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();  // keep the interrupt so the thread stops
+                        return;
+                    } catch (ExecutionException e) {
+                        e.printStackTrace();
+                        continue;
+                    }
+                }
+
                 synchronized (view) {
-                    matches = getMatches(searchInput.getText(), matrix);
+                    matches = getMatches(searchInput.getText(), snapshot);
                     Set<Pair<Integer, Integer>> prevAndCurrentErrors = new HashSet<>(prevMatches);
                     prevAndCurrentErrors.addAll(matches);
 
@@ -148,21 +167,22 @@ public class ConnectionSearchWidget {
     /**
      * Finds the connection cells with text that matches or contains the search text
      *
-     * @param text the text to search for
-     * @return     ArrayList of Pair row uid, column uid of all the matches
+     * @param text     the text to search for
+     * @param snapshot the snapshot of the matrix to search
+     * @return         ArrayList of Pair row uid, column uid of all the matches
      */
-    private ArrayList<Pair<Integer, Integer>> getMatches(String text, AbstractDSMData matrix) {
+    private ArrayList<Pair<Integer, Integer>> getMatches(String text, MatrixSnapshot snapshot) {
         ArrayList<Pair<Integer, Integer>> matches = new ArrayList<>();  // find the connection cells to highlight
         if(tg.getSelectedToggle().equals(exactRadio)) {
-            for(DSMConnection connection : matrix.getConnections()) {
-                if(connection.getConnectionName().equals(text)) {
-                    matches.add(new Pair<>(connection.getRowUid(), connection.getColUid()));
+            for(int i = 0; i < snapshot.getNumConnections(); i++) {
+                if(snapshot.getConnectionName(i).equals(text)) {
+                    matches.add(new Pair<>(snapshot.getRowUid(i), snapshot.getColUid(i)));
                 }
             }
         } else if(tg.getSelectedToggle().equals(containsRadio)){
-            for(DSMConnection connection : matrix.getConnections()) {
-                if(connection.getConnectionName().contains(text)) {
-                    matches.add(new Pair<>(connection.getRowUid(), connection.getColUid()));
+            for(int i = 0; i < snapshot.getNumConnections(); i++) {
+                if(snapshot.getConnectionName(i).contains(text)) {
+                    matches.add(new Pair<>(snapshot.getRowUid(i), snapshot.getColUid(i)));
                 }
             }
         } else {
@@ -173,9 +193,9 @@ public class ConnectionSearchWidget {
                 return new ArrayList<>();
             }
 
-            for(DSMConnection connection : matrix.getConnections()) {
-                if(connection.getWeight() == searchWeight) {
-                    matches.add(new Pair<>(connection.getRowUid(), connection.getColUid()));
+            for(int i = 0; i < snapshot.getNumConnections(); i++) {
+                if(snapshot.getWeight(i) == searchWeight) {
+                    matches.add(new Pair<>(snapshot.getRowUid(i), snapshot.getColUid(i)));
                 }
             }
         }
@@ -480,9 +480,7 @@ public class HeaderMenu {
                 // create the connections
                 for(DSMConnection conn : symmetricMatrix.getConnections()) {
                     ArrayList<DSMInterfaceType> connectionInterfaces = new ArrayList<>();  // parse interfaces
-                    for(DSMInterfaceType interfaceType : conn.getInterfaces()) {
-                        connectionInterfaces.add(new DSMInterfaceType(interfaceType));
-                    }
+                    conn.forEachInterface(interfaceType -> connectionInterfaces.add(new DSMInterfaceType(interfaceType)));
                     multiDomainMatrix.modifyConnection(conn.getRowUid(), conn.getColUid(), conn.getConnectionName(), conn.getWeight(), connectionInterfaces);
                 }
 
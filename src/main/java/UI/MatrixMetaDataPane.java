@@ -1,6 +1,8 @@
 package UI;
 
 import Matrices.Data.AbstractDSMData;
+import Matrices.Data.MatrixChangeListener;
+import Matrices.Data.MatrixStatistics;
 import UI.Widgets.Misc;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -24,6 +26,8 @@ public class MatrixMetaDataPane {
     private final Label projectNameLabel;
     private final Label customerLabel;
     private final Label versionNumberLabel;
+    private final Label connectionsLabel;
+    private final Label densityLabel;
 
     private final Button openCloseButton;
     private Boolean isOpen = true;
@@ -34,6 +38,7 @@ public class MatrixMetaDataPane {
     private final GridPane detailsLayout;
 
     private final AbstractDSMData matrix;
+    private final MatrixChangeListener statisticsListener = events -> updateStatistics();
 
 
     /**
@@ -48,6 +53,8 @@ public class MatrixMetaDataPane {
         Label projectHeader = new Label("Project Name: ");
         Label customerHeader = new Label("Customer: ");
         Label versionHeader = new Label("Version: ");
+        Label connectionsHeader = new Label("Connections: ");
+        Label densityHeader = new Label("Density: ");
 
         titleLabel = new Label("");
         projectNameLabel = new Label("");
@@ -58,6 +65,11 @@ public class MatrixMetaDataPane {
         customerLabel.textProperty().bind(matrix.getCustomerProperty());
         versionNumberLabel.textProperty().bind(matrix.getVersionNumberProperty());
 
+        connectionsLabel = new Label("");
+        densityLabel = new Label("");
+        updateStatistics();
+        matrix.addChangeListener(statisticsListener);  // statistics are kept up to date by the matrix so this is constant time
+
         GridPane.setConstraints(titleHeader, 0, 0);
         GridPane.setConstraints(projectHeader, 0, 1);
         GridPane.setConstraints(customerHeader, 0, 2);
@@ -66,7 +78,12 @@ public class MatrixMetaDataPane {
         GridPane.setConstraints(projectNameLabel, 1, 1);
         GridPane.setConstraints(customerLabel, 1, 2);
         GridPane.setConstraints(versionNumberLabel, 1, 3);
+        GridPane.setConstraints(connectionsHeader, 0, 4);
+        GridPane.setConstraints(densityHeader, 0, 5);
+        GridPane.setConstraints(connectionsLabel, 1, 4);
+        GridPane.setConstraints(densityLabel, 1, 5);
         detailsLayout.getChildren().addAll(titleHeader, projectHeader, customerHeader, versionHeader, titleLabel, projectNameLabel, customerLabel, versionNumberLabel);
+        detailsLayout.getChildren().addAll(connectionsHeader, densityHeader, connectionsLabel, densityLabel);
         detailsLayout.setHgap(10);
         detailsLayout.setVgap(10);
 
@@ -189,6 +206,25 @@ public class MatrixMetaDataPane {
     }
 
 
+    /**
+     * Updates the labels that show the connection statistics of the matrix
+     */
+    private void updateStatistics() {
+        MatrixStatistics statistics = matrix.getStatistics();
+        connectionsLabel.setText(String.valueOf(statistics.getNumConnections()));
+        densityLabel.setText(String.format("%.1f%%", statistics.getDensity() * 100));
+    }
+
+
+    /**
+     * Stops updating the statistics when the matrix changes. Must be called when the pane is no longer shown so that
+     * the matrix does not keep it alive
+     */
+    public void dispose() {
+        matrix.removeChangeListener(statisticsListener);
+    }
+
+
     /**
      * Returns the VBox layout that contains all the widgets so that it can be added to a main layout
      *
@@ -32,6 +32,7 @@ import javafx.util.Callback;
 import javafx.util.Pair;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
@@ -53,6 +54,7 @@ public abstract class AbstractMatrixView {
 
     protected AbstractDSMData matrix;
     private final ObservableList<DSMInterfaceType> currentInterfaces = FXCollections.observableArrayList();
+    private BitSet visibleInterfaceMask = new BitSet();  // currentInterfaces as a mask from the matrix's interface table
 
     protected DoubleProperty fontSize;
     protected ObjectProperty<MatrixViewMode> currentMode;
@@ -306,6 +308,7 @@ public abstract class AbstractMatrixView {
      * @param currentInterfaces  the list of interfaces to show in the cells
      */
     public final void setVisibleInterfaces(List<DSMInterfaceType> currentInterfaces) {
+        this.visibleInterfaceMask = matrix.getInterfaceTable().maskOf(currentInterfaces);  // update before the cells are notified
         this.currentInterfaces.clear();
         this.currentInterfaces.addAll(currentInterfaces);
     }
@@ -521,10 +524,14 @@ public abstract class AbstractMatrixView {
             return text;
         } else if(currentMode.getValue().equals(MatrixViewMode.EDIT_INTERFACES) || currentMode.getValue().equals(MatrixViewMode.STATIC_INTERFACES)) {
             StringBuilder text = new StringBuilder();
-            for(DSMInterfaceType i : conn.getInterfaces()) {
-                if(currentInterfaces.contains(i)) {
-                    text.append(i.getAbbreviation());
-                }
+            if(conn.getInterfaceTable() == matrix.getInterfaceTable()) {  // filter with the mask instead of searching the list
+                conn.forEachInterface(visibleInterfaceMask, i -> text.append(i.getAbbreviation()));
+            } else {
+                conn.forEachInterface(i -> {
+                    if(currentInterfaces.contains(i)) {
+                        text.append(i.getAbbreviation());
+                    }
+                });
             }
             if(text.length() > 3) {  // replace with dots because maintaining grid squareness is very important
                 return "...";
@@ -584,7 +591,7 @@ public abstract class AbstractMatrixView {
                 VBox layout = new VBox();
 
                 // row 0
-                Label titleLabel = new Label("Connection From " + matrix.getItem(rowUid).getName().getValue() + " to " + matrix.getItem(colUid).getName().getValue());
+                Label titleLabel = new Label("Connection From " + matrix.getItem(rowUid).getNameValue() + " to " + matrix.getItem(colUid).getNameValue());
                 GridPane.setConstraints(titleLabel, 0, 0, 3, 1);  // span 3 columns
 
                 // row 1
@@ -627,7 +634,7 @@ public abstract class AbstractMatrixView {
                 // row 3
                 final ObservableList<DSMInterfaceType> interfaceTypes = FXCollections.observableArrayList();
                 if(matrix.getConnection(rowUid, colUid) != null) {
-                    interfaceTypes.addAll(matrix.getConnection(rowUid, colUid).getInterfaces());
+                    matrix.getConnection(rowUid, colUid).forEachInterface(interfaceTypes::add);
                 }
 
                 HBox row3 = new HBox();
@@ -710,7 +717,7 @@ public abstract class AbstractMatrixView {
 
         cell.setOnMouseEntered(e -> {
             crossHighlightData.set(new CrossHighlightData(gridRowIndex, gridColIndex, crossHighlightData.getValue().crossHighlightEnabled));
-            locationLabel.setText(matrix.getItem(rowUid).getName().getValue() + ":" + matrix.getItem(colUid).getName().getValue());
+            locationLabel.setText(matrix.getItem(rowUid).getNameValue() + ":" + matrix.getItem(colUid).getNameValue());
         });
 
         cell.setOnMouseExited(e -> {
@@ -748,7 +755,7 @@ public abstract class AbstractMatrixView {
 
         DSMItem item = matrix.getItem(itemUid);
 
-        TextField nameField = new TextField(item.getName().getValue());
+        TextField nameField = new TextField(item.getNameValue());
         nameField.setMaxWidth(Double.MAX_VALUE);
         HBox.setHgrow(nameField, Priority.ALWAYS);
         row1.getChildren().addAll(nameLabel, nameField);
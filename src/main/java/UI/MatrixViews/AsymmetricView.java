@@ -6,6 +6,7 @@ import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.Entities.RenderMode;
+import Matrices.Data.GridModel;
 import UI.MatrixViews.Entities.Cell;
 import UI.Widgets.FreezeGrid;
 import UI.Widgets.Misc;
@@ -148,7 +149,7 @@ public class AsymmetricView extends AbstractMatrixView {
 
 
     /**
-     * Creates the gui that displays a matrix. Uses the AsymmetricDSMData's getGridArray() method to create the grid.
+     * Creates the gui that displays a matrix. Uses the AsymmetricDSMData's getGridModel() method to create the grid.
      * Puts grid in a scroll pane and adds a location label (displays connection row, column) at the bottom of the VBox.
      */
     @Override
@@ -164,11 +165,11 @@ public class AsymmetricView extends AbstractMatrixView {
         Label locationLabel = new Label("");
         FreezeGrid grid = new FreezeGrid();
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int rows = template.size();
-        int columns = template.get(0).size();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         // create a test item to determine layout width for a vertical item cell to square up the matrix when viewed
         ComboBox<Grouping> _groupings = new ComboBox<>();
@@ -181,19 +182,20 @@ public class AsymmetricView extends AbstractMatrixView {
         for(int r=0; r<rows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode renderMode = template.renderModeAt(r, c);
+                Object value = template.valueAt(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
-                switch (item.getKey()) {
+                switch (renderMode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setPadding(new Insets(1));
@@ -204,7 +206,7 @@ public class AsymmetricView extends AbstractMatrixView {
                     }
                     case ITEM_NAME -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -212,7 +214,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         int finalC = c;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeColumn(finalC);
                                 grid.updateGrid();
                             }
@@ -220,7 +222,7 @@ public class AsymmetricView extends AbstractMatrixView {
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -231,7 +233,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         int finalR = r;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeRow(finalR);
                                 grid.updateGrid();
                             }
@@ -250,9 +252,9 @@ public class AsymmetricView extends AbstractMatrixView {
                         groupings.setButtonCell(groupingItemCellFactory.call(null));
 
                         groupings.getItems().addAll(matrix.getGroupings(true));
-                        groupings.getSelectionModel().select(((DSMItem) item.getValue()).getGroup1());
+                        groupings.getSelectionModel().select(((DSMItem) value).getGroup1());
                         groupings.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                            matrix.setItemGroup((DSMItem) item.getValue(), groupings.getValue());
+                            matrix.setItemGroup((DSMItem) value, groupings.getValue());
                             matrix.setCurrentStateAsCheckpoint();
                             for (Cell c_ : cells) {
                                 refreshCellHighlight(c_);
@@ -273,9 +275,9 @@ public class AsymmetricView extends AbstractMatrixView {
                         groupings.setButtonCell(groupingItemCellFactory.call(null));
 
                         groupings.getItems().addAll(matrix.getGroupings(false));
-                        groupings.getSelectionModel().select(((DSMItem) item.getValue()).getGroup1());
+                        groupings.getSelectionModel().select(((DSMItem) value).getGroup1());
                         groupings.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                            matrix.setItemGroup((DSMItem) item.getValue(), groupings.getValue());
+                            matrix.setItemGroup((DSMItem) value, groupings.getValue());
                             matrix.setCurrentStateAsCheckpoint();
                             for (Cell c_ : cells) {
                                 refreshCellHighlight(c_);
@@ -287,7 +289,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(g);
                     }
                     case INDEX_ITEM -> {
-                        NumericTextField entry = new NumericTextField(((DSMItem) item.getValue()).getSortIndex());
+                        NumericTextField entry = new NumericTextField(((DSMItem) value).getSortIndex());
                         entry.setPrefColumnCount(3);  // set size to 3 characters fitting
                         entry.setPadding(new Insets(0));
                         cell.setMaxWidth(Region.USE_COMPUTED_SIZE);
@@ -301,7 +303,7 @@ public class AsymmetricView extends AbstractMatrixView {
                             if (!newVal) {  // if changing to not focused
                                 if (entry.getNumericValue() != null) {
                                     Double newSortIndex = entry.getNumericValue();
-                                    matrix.setItemSortIndex((DSMItem) item.getValue(), newSortIndex);
+                                    matrix.setItemSortIndex((DSMItem) value, newSortIndex);
                                     matrix.setCurrentStateAsCheckpoint();
                                     clearCellHighlight(new Pair<>(finalR, finalC), "errorHighlight");
                                 } else {
@@ -312,8 +314,8 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(entry);
                     }
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         label = getEditableConnectionCell(cell, locationLabel, rowUid, colUid, r, c);
                     }
                 }
@@ -366,24 +368,25 @@ public class AsymmetricView extends AbstractMatrixView {
         GridPane grid = new GridPane();
 
         grid.setAlignment(Pos.CENTER);
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-        int rows = template.size();
-        int columns = template.get(0).size();
+        GridModel template = matrix.getGridModel();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         for(int r=0; r<rows; r++) {
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode renderMode = template.renderModeAt(r, c);
+                Object value = template.valueAt(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
-                switch (item.getKey()) {
+                switch (renderMode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         Group g = new Group();  // label will be added to a group so that it will be formatted correctly if it is vertical
@@ -392,14 +395,14 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(g);
                     }
                     case ITEM_NAME -> {
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getNameValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getNameValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -409,13 +412,13 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(g);
                     }
                     case GROUPING_ITEM -> {
-                        label = new Label(((DSMItem) item.getValue()).getGroup1().getName());
+                        label = new Label(((DSMItem) value).getGroup1().getName());
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case GROUPING_ITEM_V -> {
-                        label = new Label(((DSMItem) item.getValue()).getGroup1().getName());
+                        label = new Label(((DSMItem) value).getGroup1().getName());
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -424,14 +427,14 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(g);
                     }
                     case INDEX_ITEM -> {
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         label = new Label(getConnectionCellText(conn));
 
@@ -487,11 +490,11 @@ public class AsymmetricView extends AbstractMatrixView {
         FreezeGrid grid = new FreezeGrid();
         grid.setStatic(isStatic);
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int numRows = template.size();
-        int numCols = template.get(0).size();
+        int numRows = template.getNumRows();
+        int numCols = template.getNumCols();
 
         // set up the scaled font size. Don't use the normal range because if fast render is on matrices will likely
         // be very large and a smaller font size is needed to view them
@@ -526,7 +529,7 @@ public class AsymmetricView extends AbstractMatrixView {
         items.addAll(matrix.getRows());
         items.addAll(matrix.getCols());
         items.add(new DSMItem(-1.0, "Column Items"));
-        String longestItemName = items.stream().max(Comparator.comparing((DSMItem item) -> item.getName().toString().length())).orElse(new DSMItem(-1.0, "")).getName().getValue();
+        String longestItemName = items.stream().max(Comparator.comparing((DSMItem item) -> item.getNameValue().length())).orElse(new DSMItem(-1.0, "")).getNameValue();
         testLabel.setText(longestItemName);
         double col2Width = Misc.calculateNodeSize(testCell).getWidth();
         double row2Height = col2Width;
@@ -558,19 +561,20 @@ public class AsymmetricView extends AbstractMatrixView {
         for(int r=0; r<numRows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<numCols; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode renderMode = template.renderModeAt(r, c);
+                Object value = template.valueAt(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
-                switch (item.getKey()) {
+                switch (renderMode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -582,14 +586,14 @@ public class AsymmetricView extends AbstractMatrixView {
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -605,7 +609,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.setPrefWidth(cellSize);
                     }
                     case GROUPING_ITEM -> {  // dropdown box for choosing group
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
+                        Grouping group = ((DSMItem) value).getGroup1();
                         label = new Label(group.getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
@@ -614,7 +618,7 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.getChildren().add(label);
                     }
                     case GROUPING_ITEM_V -> {  // dropdown box for choosing group
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
+                        Grouping group = ((DSMItem) value).getGroup1();
                         label = new Label(group.getName());
                         label.setRotate(-90);
                         label.setPadding(new Insets(0, 5, 0, 5));
@@ -630,8 +634,8 @@ public class AsymmetricView extends AbstractMatrixView {
                         cell.setPrefWidth(cellSize);
                     }
                     case INDEX_ITEM -> {
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        Grouping group = ((DSMItem) value).getGroup1();
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -644,8 +648,8 @@ public class AsymmetricView extends AbstractMatrixView {
                             connectionsCol = c;
                         }
 
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         if(conn != null) {  // only add connections that exist
                             Color color = Color.BLACK;  // default to black
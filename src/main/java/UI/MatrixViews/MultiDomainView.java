@@ -5,6 +5,7 @@ import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.Entities.RenderMode;
+import Matrices.Data.GridModel;
 import Matrices.Data.MultiDomainDSMData;
 import UI.MatrixViews.Entities.Cell;
 import UI.MatrixViews.Flags.ISymmetricHighlight;
@@ -25,6 +26,7 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.Tooltip;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
@@ -38,6 +40,7 @@ import java.util.*;
 public class MultiDomainView extends AbstractMatrixView implements ISymmetricHighlight {
 
     private boolean symmetryValidation = false;
+    private boolean collapsed = false;  // show the domain and grouping aggregates instead of the items
     private Integer domainColumn;
 
     MultiDomainDSMData matrix;
@@ -51,6 +54,14 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
     public MultiDomainView(MultiDomainDSMData matrix, double fontSize) {
         super(matrix, fontSize);
         this.matrix = matrix;
+
+        // the collapsed view has no bindings to the items, so rebuild it whenever the matrix changes. This is cheap
+        // because the aggregates are kept up to date by the matrix
+        matrix.addChangeListener(events -> {
+            if(collapsed) {
+                refreshView();
+            }
+        });
     }
 
 
@@ -89,6 +100,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         MultiDomainView copy = new MultiDomainView(matrix.createCopy(), fontSize.doubleValue());
 
         copy.setCurrentMode(getCurrentMode());
+        copy.setCollapsed(collapsed);
 
         // no need to copy gridUidLookup HashMap because those values are generated from the matrix on the
         // refreshView call which can be done later
@@ -195,6 +207,8 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
      * check the highlight of all cells
      */
     private void symmetryHighlightAllCells() {
+        // find the errors from the connections once instead of looking up both connections of every cell
+        Set<Pair<Integer, Integer>> symmetryErrors = symmetryValidation ? matrix.getSymmetryErrors() : Set.of();
         for(Cell cell : cells) {
             Pair<Integer, Integer> gridLocation = cell.getGridLocation();
             Pair<Integer, Integer> uids = getUidsFromGridLoc(gridLocation);
@@ -202,14 +216,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                 continue;
             }
 
-            int rowUid = uids.getKey();
-            int colUid = uids.getValue();
-            DSMConnection conn = matrix.getConnection(rowUid, colUid);
-            Pair<Integer, Integer> symmetricConnUids = matrix.getSymmetricConnectionUids(rowUid, colUid);
-            DSMConnection symmetricConn = matrix.getConnection(symmetricConnUids.getKey(), symmetricConnUids.getValue());
-
-            // ignore the symmetric connection because it will be hit later in the loop
-            if(symmetryValidation && ((conn == null && symmetricConn != null) || (conn != null && symmetricConn == null) || (conn != null && symmetricConn != null && !conn.isSameConnectionType(symmetricConn)))) {
+            if(symmetryErrors.contains(uids)) {
                 this.setCellHighlight(cell, AbstractMatrixView.SYMMETRY_ERROR_BACKGROUND, "symmetryError");
             } else {
                 this.clearCellHighlight(cell, "symmetryError");
@@ -252,12 +259,149 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
 
 
     /**
-     * Creates the gui that displays a matrix with an editable view. Uses the SymmetricDSMData's getGridArray() method
+     * Sets if the matrix should be displayed as a collapsed overview of the connections between the domains and
+     * domain groupings instead of the individual items. Does not refresh the view
+     *
+     * @param collapsed  if the collapsed overview should be shown
+     */
+    public void setCollapsed(boolean collapsed) {
+        this.collapsed = collapsed;
+    }
+
+
+    /**
+     * @return  if the matrix is displayed as a collapsed overview
+     */
+    public boolean isCollapsed() {
+        return collapsed;
+    }
+
+
+    /**
+     * Creates the gui that displays the collapsed overview of the matrix. There is one row and column per domain
+     * grouping, grouped under their domains, and each cell shows the number of connections and the sum of their
+     * weights from one domain grouping to another. Hovering a cell shows the totals of its pair of domains. All the
+     * values are read from the aggregates kept by the matrix so this runs in time proportional to the number of cells
+     * and not the number of connections. The overview is not editable
+     */
+    private void refreshCollapsedView() {
+        cells = new ArrayList<>();  // there are no item cells to highlight
+        gridUidLookup = new HashMap<>();
+        gridUidLookup.put("rows", new HashMap<>());
+        gridUidLookup.put("cols", new HashMap<>());
+
+        rootLayout.getChildren().clear();
+        rootLayout.setAlignment(Pos.CENTER);
+        rootLayout.styleProperty().bind(Bindings.concat("-fx-font-size: ", fontSize.asString(), "};"));
+
+        GridPane grid = new GridPane();
+        grid.setAlignment(Pos.CENTER);
+
+        // pairs of domain, domain grouping in display order. Used for both the rows and the columns
+        ArrayList<Pair<Grouping, Grouping>> groupings = new ArrayList<>();
+        for(Grouping domain : matrix.getDomains()) {
+            for(Grouping group : matrix.getDomainGroupings(domain)) {
+                groupings.add(new Pair<>(domain, group));
+            }
+        }
+
+        // header rows and columns: domain names spanning their groupings and then the grouping names
+        int offset = 2;
+        for(Grouping domain : matrix.getDomains()) {
+            int span = matrix.getDomainGroupings(domain).size();
+            if(span == 0) continue;
+
+            HBox colDomainCell = new HBox(new Label(domain.getName()));
+            colDomainCell.setAlignment(Pos.CENTER);
+            addCollapsedCell(grid, colDomainCell, offset, 0, 1, span);
+
+            HBox rowDomainCell = new HBox(new Label(domain.getName()));
+            rowDomainCell.setAlignment(Pos.CENTER);
+            addCollapsedCell(grid, rowDomainCell, 0, offset, span, 1);
+
+            offset += span;
+        }
+        for(int i = 0; i < groupings.size(); i++) {
+            Grouping group = groupings.get(i).getValue();
+
+            Label colLabel = new Label(group.getName());
+            colLabel.setPadding(new Insets(0, 5, 0, 5));
+            colLabel.setRotate(-90);
+            HBox colGroupCell = new HBox(new Group(colLabel));  // label is in a group so that it is formatted correctly when vertical
+            colGroupCell.setAlignment(Pos.BOTTOM_CENTER);
+            addCollapsedCell(grid, colGroupCell, i + 2, 1, 1, 1);
+
+            Label rowLabel = new Label(group.getName());
+            rowLabel.setPadding(new Insets(0, 5, 0, 5));
+            rowLabel.setMinWidth(Region.USE_PREF_SIZE);
+            HBox rowGroupCell = new HBox(rowLabel);
+            rowGroupCell.setAlignment(Pos.CENTER_RIGHT);
+            addCollapsedCell(grid, rowGroupCell, 1, i + 2, 1, 1);
+        }
+
+        // aggregate cells
+        for(int r = 0; r < groupings.size(); r++) {
+            Grouping fromDomain = groupings.get(r).getKey();
+            Grouping fromGroup = groupings.get(r).getValue();
+            for(int c = 0; c < groupings.size(); c++) {
+                Grouping toDomain = groupings.get(c).getKey();
+                Grouping toGroup = groupings.get(c).getValue();
+
+                int numConnections = matrix.getGroupingConnectionCount(fromDomain, fromGroup, toDomain, toGroup);
+                double weightSum = matrix.getGroupingWeightSum(fromDomain, fromGroup, toDomain, toGroup);
+                Label label = new Label(numConnections == 0 ? "" : numConnections + " (" + weightSum + ")");
+                label.setPadding(new Insets(0, 5, 0, 5));
+                label.setMinWidth(Region.USE_PREF_SIZE);
+
+                HBox cell = new HBox(label);
+                cell.setAlignment(Pos.CENTER);
+                if(fromDomain.equals(toDomain) && fromGroup.equals(toGroup)) {
+                    cell.setBackground(new Background(new BackgroundFill(fromGroup.getColor(), new CornerRadii(3), new Insets(0))));
+                    label.setTextFill(fromGroup.getFontColor());
+                } else {
+                    cell.setBackground(DEFAULT_BACKGROUND);
+                }
+                Tooltip.install(cell, new Tooltip(fromDomain.getName() + " -> " + toDomain.getName() + ": "
+                        + matrix.getDomainConnectionCount(fromDomain, toDomain) + " connections, total weight "
+                        + matrix.getDomainWeightSum(fromDomain, toDomain)));
+
+                addCollapsedCell(grid, cell, c + 2, r + 2, 1, 1);
+            }
+        }
+
+        rootLayout.getChildren().add(grid);
+    }
+
+
+    /**
+     * Adds a bordered cell to the grid of the collapsed view
+     *
+     * @param grid     the grid to add the cell to
+     * @param cell     the cell to add
+     * @param col      the column of the cell
+     * @param row      the row of the cell
+     * @param colSpan  the number of columns the cell spans
+     * @param rowSpan  the number of rows the cell spans
+     */
+    private static void addCollapsedCell(GridPane grid, HBox cell, int col, int row, int colSpan, int rowSpan) {
+        cell.setBorder(new Border(new BorderStroke(Color.BLACK, BorderStrokeStyle.SOLID, CornerRadii.EMPTY, BorderWidths.DEFAULT)));
+        cell.setPadding(new Insets(0));
+        grid.add(cell, col, row, colSpan, rowSpan);
+    }
+
+
+    /**
+     * Creates the gui that displays a matrix with an editable view. Uses the SymmetricDSMData's getGridModel() method
      * to create the grid. Adds a location label (displays connection row, column)
      * at the bottom of the VBox.
      */
     @Override
     protected void refreshEditView() {
+        if(collapsed) {
+            refreshCollapsedView();
+            return;
+        }
+
         cells = new ArrayList<>();
         gridUidLookup = new HashMap<>();
         gridUidLookup.put("rows", new HashMap<>());
@@ -269,10 +413,10 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         Label locationLabel = new Label("");
         FreezeGrid grid = new FreezeGrid();
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
-        int rows = template.size();
-        int columns = template.get(0).size();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
 
         // create a test item to determine layout width for a vertical item cell to square up the matrix when viewed
@@ -301,21 +445,22 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         for(int r=0; r<rows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode renderMode = template.renderModeAt(r, c);
+                Object value = template.valueAt(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (renderMode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -325,7 +470,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.getChildren().add(g);
                     }
                     case MULTI_SPAN_DOMAIN_TEXT -> {
-                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) item.getValue();
+                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) value;
                         label = new Label(data.getValue0().getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1, 5, 1, 5));
@@ -339,14 +484,14 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                         int finalC = c;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeColumn(finalC);
                                 grid.resizeRow(0);  // 0 is first row which contains the vertical names (this is cheating)
                             }
@@ -354,7 +499,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -365,7 +510,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         int finalR = r;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeRow(finalR);
                                 grid.resizeColumn(1);  // 1 is first column which contains the horizontal names (this is cheating)
                             }
@@ -374,7 +519,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                                                       // explicitly set due to how the freeze grid is set up)
                     }
                     case GROUPING_ITEM -> {  // dropdown box for choosing group
-                        DSMItem matrixItem = ((DSMItem) item.getValue());
+                        DSMItem matrixItem = ((DSMItem) value);
                         ComboBox<Grouping> groupings = new ComboBox<>();
                         groupings.setMinWidth(groupingWidth);
                         groupings.setPadding(new Insets(0));
@@ -397,7 +542,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.getChildren().add(groupings);
                     }
                     case INDEX_ITEM -> {
-                        NumericTextField entry = new NumericTextField(((DSMItem) item.getValue()).getSortIndex());
+                        NumericTextField entry = new NumericTextField(((DSMItem) value).getSortIndex());
                         entry.setPrefColumnCount(3);  // set size to 3 characters fitting
                         entry.setPadding(new Insets(0));
                         cell.setMaxWidth(Region.USE_COMPUTED_SIZE);
@@ -413,7 +558,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                             if (!newVal) {  // if changing to not focused
                                 if (entry.getNumericValue() != null) {
                                     Double newSortIndex = entry.getNumericValue();
-                                    matrix.setItemSortIndex((DSMItem) item.getValue(), newSortIndex);
+                                    matrix.setItemSortIndex((DSMItem) value, newSortIndex);
                                     matrix.setCurrentStateAsCheckpoint();
                                     clearCellHighlight(new Pair<>(finalR, finalC), "errorHighlight");
                                 } else {
@@ -425,8 +570,8 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case UNEDITABLE_CONNECTION -> defaultBackground = UNEDITABLE_CONNECTION_BACKGROUND;
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         label = getEditableConnectionCell(cell, locationLabel, rowUid, colUid, r, c);
                         int finalR = r;
                         int finalC = c;
@@ -478,11 +623,16 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
 
 
     /**
-     * Creates the guid that displays a matrix in a static read only view. Uses the SymmetricDSMData's getGridArray() method
+     * Creates the guid that displays a matrix in a static read only view. Uses the SymmetricDSMData's getGridModel() method
      * to create the grid.
      */
     @Override
     protected void refreshStaticView() {
+        if(collapsed) {
+            refreshCollapsedView();
+            return;
+        }
+
         cells = new ArrayList<>();
         gridUidLookup = new HashMap<>();
         gridUidLookup.put("rows", new HashMap<>());
@@ -498,28 +648,29 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         GridPane grid = new GridPane();
 
         grid.setAlignment(Pos.CENTER);
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-        int rows = template.size();
-        int columns = template.get(0).size();
+        GridModel template = matrix.getGridModel();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         for(int r=0; r<rows; r++) {
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode renderMode = template.renderModeAt(r, c);
+                Object value = template.valueAt(r, c);
                 HBox cell = null;  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (renderMode) {
                     case PLAIN_TEXT -> {
                         cell = new HBox();
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
                         cell = new HBox();
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         Group g = new Group();  // label will be added to a group so that it will be formatted correctly if it is vertical
@@ -529,7 +680,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case MULTI_SPAN_DOMAIN_TEXT -> {
                         cell = new HBox();
-                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) item.getValue();
+                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) value;
                         label = new Label(data.getValue0().getName());
                         cell.setAlignment(Pos.CENTER);
                         cell.getChildren().add(label);
@@ -540,7 +691,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case ITEM_NAME -> {
                         cell = new HBox();
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getNameValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -548,7 +699,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case ITEM_NAME_V -> {
                         cell = new HBox();
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getNameValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -559,14 +710,14 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case GROUPING_ITEM -> {
                         cell = new HBox();
-                        label = new Label(((DSMItem) item.getValue()).getGroup1().getName());
+                        label = new Label(((DSMItem) value).getGroup1().getName());
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case INDEX_ITEM -> {
                         cell = new HBox();
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
@@ -577,8 +728,8 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     }
                     case EDITABLE_CONNECTION -> {
                         cell = new HBox();
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         label = new Label(getConnectionCellText(conn));
 
@@ -625,6 +776,11 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
      */
     @Override
     protected void refreshFastRenderView(boolean isStatic) {
+        if(collapsed) {
+            refreshCollapsedView();
+            return;
+        }
+
         cells = new ArrayList<>();
         gridUidLookup = new HashMap<>();
         gridUidLookup.put("rows", new HashMap<>());
@@ -636,11 +792,11 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         FreezeGrid grid = new FreezeGrid();
         grid.setStatic(isStatic);
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int numRows = template.size();
-        int numCols = template.get(0).size();
+        int numRows = template.getNumRows();
+        int numCols = template.getNumCols();
 
         // set up the scaled font size. Don't use the normal range because if fast render is on matrices will likely
         // be very large and a smaller font size is needed to view them
@@ -678,7 +834,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         double col2Width = Misc.calculateNodeSize(testCell).getWidth();
 
         // calculate width of column 3 and height of row 1 (item names)
-        String longestItemName = matrix.getRows().stream().max(Comparator.comparing((DSMItem item) -> item.getName().toString().length())).orElse(new DSMItem(-1.0, "")).getName().getValue();
+        String longestItemName = matrix.getRows().stream().max(Comparator.comparing((DSMItem item) -> item.getNameValue().length())).orElse(new DSMItem(-1.0, "")).getNameValue();
         longestItemName = longestItemName.length() > "Column Items".length() ? longestItemName: "Column Items";
         testLabel.setText(longestItemName);
         double col3Width = Misc.calculateNodeSize(testCell).getWidth();
@@ -716,19 +872,20 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
         for(int r=0; r<numRows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<numCols; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode renderMode = template.renderModeAt(r, c);
+                Object value = template.valueAt(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
-                switch (item.getKey()) {
+                switch (renderMode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -738,7 +895,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.getChildren().add(g);
                     }
                     case MULTI_SPAN_DOMAIN_TEXT -> {
-                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) item.getValue();
+                        Triplet<Grouping, Integer, Integer> data = (Triplet<Grouping, Integer, Integer>) value;
                         label = new Label(data.getValue0().getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1, 5, 1, 5));
@@ -752,14 +909,14 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -775,7 +932,7 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.setPrefWidth(cellSize);
                     }
                     case GROUPING_ITEM -> {  // dropdown box for choosing group
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
+                        Grouping group = ((DSMItem) value).getGroup1();
                         label = new Label(group.getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
@@ -784,8 +941,8 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         cell.getChildren().add(label);
                     }
                     case INDEX_ITEM -> {
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        Grouping group = ((DSMItem) value).getGroup1();
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -801,8 +958,8 @@ public class MultiDomainView extends AbstractMatrixView implements ISymmetricHig
                         }
                     }
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         if(conn != null) {  // only add connections that exist
                             Color color = Color.BLACK;  // default to black
@@ -5,6 +5,7 @@ import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import Matrices.Data.Entities.RenderMode;
+import Matrices.Data.GridModel;
 import Matrices.Data.SymmetricDSMData;
 import UI.MatrixViews.Entities.Cell;
 import UI.MatrixViews.Flags.ISymmetricHighlight;
@@ -182,6 +183,8 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
      * check the highlight of all cells
      */
     private void symmetryHighlightAllCells() {
+        // find the errors from the connections once instead of looking up both connections of every cell
+        Set<Pair<Integer, Integer>> symmetryErrors = symmetryValidation ? matrix.getSymmetryErrors() : Set.of();
         for(Cell cell : cells) {
             Pair<Integer, Integer> gridLocation = cell.getGridLocation();
             Pair<Integer, Integer> uids = getUidsFromGridLoc(gridLocation);
@@ -189,14 +192,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                 continue;
             }
 
-            int rowUid = uids.getKey();
-            int colUid = uids.getValue();
-            DSMConnection conn = matrix.getConnection(rowUid, colUid);
-            Pair<Integer, Integer> symmetricConnUids = matrix.getSymmetricConnectionUids(rowUid, colUid);
-            DSMConnection symmetricConn = matrix.getConnection(symmetricConnUids.getKey(), symmetricConnUids.getValue());
-
-            // ignore the symmetric connection because it will be hit later in the loop
-            if(symmetryValidation && ((conn == null && symmetricConn != null) || (conn != null && symmetricConn == null) || (conn != null && symmetricConn != null && !conn.isSameConnectionType(symmetricConn)))) {
+            if(symmetryErrors.contains(uids)) {
                 this.setCellHighlight(cell, AbstractMatrixView.SYMMETRY_ERROR_BACKGROUND, "symmetryError");
             } else {
                 this.clearCellHighlight(cell, "symmetryError");
@@ -239,7 +235,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
 
 
     /**
-     * Creates the gui that displays a matrix with an editable view. Uses the SymmetricDSMData's getGridArray() method
+     * Creates the gui that displays a matrix with an editable view. Uses the SymmetricDSMData's getGridModel() method
      * to create the grid. Adds a location label (displays connection row, column)
      * at the bottom of the VBox.
      */
@@ -256,11 +252,11 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         Label locationLabel = new Label("");
         FreezeGrid grid = new FreezeGrid();
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int rows = template.size();
-        int columns = template.get(0).size();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         // create a test item to determine layout width for a vertical item cell to square up the matrix when viewed
         ComboBox<Grouping> _groupings = new ComboBox<>();
@@ -273,21 +269,22 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         for(int r=0; r<rows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode renderMode = template.renderModeAt(r, c);
+                Object value = template.valueAt(r, c);
                 final HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (renderMode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -299,14 +296,14 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                         int finalC = c;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeColumn(finalC);
                                 grid.resizeRow(0);  // 0 is first row which contains the vertical names (this is cheating)
                             }
@@ -314,7 +311,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -325,7 +322,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         int finalR = r;
                         cell.setOnMouseClicked(e -> {
                             if (e.getButton().equals(MouseButton.PRIMARY)) {
-                                editItemName(((DSMItem) item.getValue()).getUid());
+                                editItemName(((DSMItem) value).getUid());
                                 grid.resizeRow(finalR);
                                 grid.resizeColumn(1);  // 1 is first column which contains the horizontal names (this is cheating)
                             }
@@ -344,9 +341,9 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         groupings.setButtonCell(groupingItemCellFactory.call(null));
 
                         groupings.getItems().addAll(matrix.getGroupings());
-                        groupings.getSelectionModel().select(((DSMItem) item.getValue()).getGroup1());
+                        groupings.getSelectionModel().select(((DSMItem) value).getGroup1());
                         groupings.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-                            matrix.setItemGroup((DSMItem) item.getValue(), groupings.getValue());
+                            matrix.setItemGroup((DSMItem) value, groupings.getValue());
                             matrix.setCurrentStateAsCheckpoint();
                             for (Cell c_ : cells) {
                                 refreshCellHighlight(c_);
@@ -356,7 +353,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.getChildren().add(groupings);
                     }
                     case INDEX_ITEM -> {
-                        NumericTextField entry = new NumericTextField(((DSMItem) item.getValue()).getSortIndex());
+                        NumericTextField entry = new NumericTextField(((DSMItem) value).getSortIndex());
                         entry.setPrefColumnCount(3);  // set size to 3 characters fitting
                         entry.setPadding(new Insets(0));
                         cell.setMaxWidth(Region.USE_COMPUTED_SIZE);
@@ -371,7 +368,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                             if (!newVal) {  // if changing to not focused
                                 if (entry.getNumericValue() != null) {
                                     Double newSortIndex = entry.getNumericValue();
-                                    matrix.setItemSortIndex((DSMItem) item.getValue(), newSortIndex);
+                                    matrix.setItemSortIndex((DSMItem) value, newSortIndex);
                                     matrix.setCurrentStateAsCheckpoint();
                                     clearCellHighlight(new Pair<>(finalR, finalC), "errorHighlight");
                                 } else {
@@ -383,8 +380,8 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                     }
                     case UNEDITABLE_CONNECTION -> defaultBackground = UNEDITABLE_CONNECTION_BACKGROUND;
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         label = getEditableConnectionCell(cell, locationLabel, rowUid, colUid, r, c);
                         int finalR = r;
                         int finalC = c;
@@ -430,7 +427,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
 
 
     /**
-     * Creates the guid that displays a matrix in a static read only view. Uses the SymmetricDSMData's getGridArray() method
+     * Creates the guid that displays a matrix in a static read only view. Uses the SymmetricDSMData's getGridModel() method
      * to create the grid.
      */
     @Override
@@ -450,26 +447,27 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         GridPane grid = new GridPane();
 
         grid.setAlignment(Pos.CENTER);
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
-        int rows = template.size();
-        int columns = template.get(0).size();
+        GridModel template = matrix.getGridModel();
+        int rows = template.getNumRows();
+        int columns = template.getNumCols();
 
         for(int r=0; r<rows; r++) {
             for(int c=0; c<columns; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode renderMode = template.renderModeAt(r, c);
+                Object value = template.valueAt(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
                 Background defaultBackground = DEFAULT_BACKGROUND;
 
-                switch (item.getKey()) {
+                switch (renderMode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         Group g = new Group();  // label will be added to a group so that it will be formatted correctly if it is vertical
@@ -478,14 +476,14 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.getChildren().add(g);
                     }
                     case ITEM_NAME -> {
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getNameValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
-                        label = new Label(((DSMItem) item.getValue()).getName().getValue());
+                        label = new Label(((DSMItem) value).getNameValue());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -495,21 +493,21 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.getChildren().add(g);
                     }
                     case GROUPING_ITEM -> {
-                        label = new Label(((DSMItem) item.getValue()).getGroup1().getName());
+                        label = new Label(((DSMItem) value).getGroup1().getName());
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case INDEX_ITEM -> {
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.getChildren().add(label);
                     }
                     case UNEDITABLE_CONNECTION -> defaultBackground = UNEDITABLE_CONNECTION_BACKGROUND;
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         label = new Label(getConnectionCellText(conn));
 
@@ -565,11 +563,11 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         FreezeGrid grid = new FreezeGrid();
         grid.setStatic(isStatic);
 
-        ArrayList<ArrayList<Pair<RenderMode, Object>>> template = matrix.getGridArray();
+        GridModel template = matrix.getGridModel();
         ArrayList<ArrayList<HBox>> gridData = new ArrayList<>();
 
-        int numRows = template.size();
-        int numCols = template.get(0).size();
+        int numRows = template.getNumRows();
+        int numCols = template.getNumCols();
 
         // set up the scaled font size. Don't use the normal range because if fast render is on matrices will likely
         // be very large and a smaller font size is needed to view them
@@ -597,7 +595,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         double col1Width = Misc.calculateNodeSize(testCell).getWidth();
 
         // calculate width of column 2 and height of row 1 (item names)
-        String longestItemName = matrix.getRows().stream().max(Comparator.comparing((DSMItem item) -> item.getName().toString().length())).orElse(new DSMItem(-1.0, "")).getName().getValue();
+        String longestItemName = matrix.getRows().stream().max(Comparator.comparing((DSMItem item) -> item.getNameValue().length())).orElse(new DSMItem(-1.0, "")).getNameValue();
         longestItemName = longestItemName.length() > "Column Items".length() ? longestItemName: "Column Items";
         testLabel.setText(longestItemName);
         double col2Width = Misc.calculateNodeSize(testCell).getWidth();
@@ -632,19 +630,20 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
         for(int r=0; r<numRows; r++) {
             ArrayList<HBox> rowData = new ArrayList<>();
             for(int c=0; c<numCols; c++) {
-                Pair<RenderMode, Object> item = template.get(r).get(c);
+                RenderMode renderMode = template.renderModeAt(r, c);
+                Object value = template.valueAt(r, c);
                 HBox cell = new HBox();  // wrap everything in an HBox so a border can be added easily
                 Label label = null;
 
-                switch (item.getKey()) {
+                switch (renderMode) {
                     case PLAIN_TEXT -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         label.setPadding(new Insets(1));
                         cell.getChildren().add(label);
                     }
                     case PLAIN_TEXT_V -> {
-                        label = new Label((String) item.getValue());
+                        label = new Label((String) value);
                         label.setRotate(-90);
                         label.setPadding(new Insets(1));
                         cell.setAlignment(Pos.BOTTOM_RIGHT);
@@ -656,14 +655,14 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                     case ITEM_NAME -> {
                         label = new Label();
                         label.setPadding(new Insets(0, 5, 0, 5));
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setMinWidth(Region.USE_PREF_SIZE);
                         cell.setAlignment(Pos.CENTER_RIGHT);
                         cell.getChildren().add(label);
                     }
                     case ITEM_NAME_V -> {
                         label = new Label();
-                        label.textProperty().bind(((DSMItem) item.getValue()).getName());
+                        label.textProperty().bind(((DSMItem) value).getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setRotate(-90);
                         cell.setAlignment(Pos.BOTTOM_CENTER);
@@ -679,7 +678,7 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.setPrefWidth(cellSize);
                     }
                     case GROUPING_ITEM -> {  // dropdown box for choosing group
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
+                        Grouping group = ((DSMItem) value).getGroup1();
                         label = new Label(group.getName());
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
@@ -688,8 +687,8 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         cell.getChildren().add(label);
                     }
                     case INDEX_ITEM -> {
-                        Grouping group = ((DSMItem) item.getValue()).getGroup1();
-                        label = new Label(String.valueOf(((DSMItem) item.getValue()).getSortIndex()));
+                        Grouping group = ((DSMItem) value).getGroup1();
+                        label = new Label(String.valueOf(((DSMItem) value).getSortIndex()));
                         label.setPadding(new Insets(0, 5, 0, 5));
                         label.setTextFill(group.getFontColor());
                         label.setMinWidth(Region.USE_PREF_SIZE);
@@ -705,8 +704,8 @@ public class SymmetricView extends AbstractMatrixView implements ISymmetricHighl
                         }
                     }
                     case EDITABLE_CONNECTION -> {
-                        int rowUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getKey().getUid();
-                        int colUid = ((Pair<DSMItem, DSMItem>) item.getValue()).getValue().getUid();
+                        int rowUid = template.getRowItem(r).getUid();
+                        int colUid = template.getColItem(c).getUid();
                         DSMConnection conn = matrix.getConnection(rowUid, colUid);
                         if(conn != null) {  // only add connections that exist
                             Color color = Color.BLACK;  // default to black
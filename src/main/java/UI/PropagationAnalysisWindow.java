@@ -139,7 +139,7 @@ public class PropagationAnalysisWindow<T extends AbstractDSMData & IPropagationA
                             setText(null);
                             setGraphic(null);
                         } else {
-                            setText(matrix.getItem(item).getName().getValue());
+                            setText(matrix.getItem(item).getNameValue());
                         }
                     }
                 };
@@ -296,7 +296,7 @@ public class PropagationAnalysisWindow<T extends AbstractDSMData & IPropagationA
         }
 
         for(Map.Entry<Integer, Double> entry : scores.entrySet()) {
-            series1.getData().add(new XYChart.Data<>(matrix.getItem(entry.getKey()).getName().getValue(), entry.getValue()));
+            series1.getData().add(new XYChart.Data<>(matrix.getItem(entry.getKey()).getNameValue(), entry.getValue()));
         }
 
         graph.getData().addAll(series1);
@@ -307,7 +307,7 @@ public class PropagationAnalysisWindow<T extends AbstractDSMData & IPropagationA
         // update raw data layout
         ObservableList<Pair<String, Double>> tableItems = FXCollections.observableArrayList();
         for(Map.Entry<Integer, Double> entry : scores.entrySet()) {
-            tableItems.add(new Pair<>(matrix.getItem(entry.getKey()).getName().getValue(), entry.getValue()));
+            tableItems.add(new Pair<>(matrix.getItem(entry.getKey()).getNameValue(), entry.getValue()));
         }
 
         TableView<Pair<String, Double>> table = new TableView<>();
@@ -327,7 +327,7 @@ public class PropagationAnalysisWindow<T extends AbstractDSMData & IPropagationA
             for (Object row : table.getItems()) {
                 for (TableColumn column : table.getColumns()) {
                     if(column.getCellObservableValue(row).getValue().getClass().equals(Integer.class)) {
-                        copyString.append(matrix.getItem((Integer) column.getCellObservableValue(row).getValue()).getName().getValue()).append(",");
+                        copyString.append(matrix.getItem((Integer) column.getCellObservableValue(row).getValue()).getNameValue()).append(",");
                     } else {
                         copyString.append(column.getCellObservableValue(row).getValue()).append(",");
                     }
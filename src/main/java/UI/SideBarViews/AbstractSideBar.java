@@ -66,15 +66,15 @@ public abstract class AbstractSideBar {
                         setText(null);
                     } else if (!connection.getConnectionName().isEmpty() && connection.getWeight() != Double.MAX_VALUE) {
                         setText(
-                            matrix.getItem(connection.getRowUid()).getName().getValue() + " (Row):" +
-                            matrix.getItem(connection.getColUid()).getName().getValue() + " (Col)" +
+                            matrix.getItem(connection.getRowUid()).getNameValue() + " (Row):" +
+                            matrix.getItem(connection.getColUid()).getNameValue() + " (Col)" +
                             "  {" + connection.getConnectionName() + ", " + connection.getWeight() + "}"
                         );
                     } else {
                         setText(
                             "DELETE " +
-                            matrix.getItem(connection.getRowUid()).getName().getValue() + " (Row):" +
-                            matrix.getItem(connection.getColUid()).getName().getValue() + " (Col)"
+                            matrix.getItem(connection.getRowUid()).getNameValue() + " (Row):" +
+                            matrix.getItem(connection.getColUid()).getNameValue() + " (Col)"
                         );
                     }
                 }
@@ -99,8 +99,8 @@ public abstract class AbstractSideBar {
                     } else {
                         setText(
                             "DELETE " +
-                            matrix.getItem(conn.getRowUid()).getName().getValue() + ":" +
-                            matrix.getItem(conn.getColUid()).getName().getValue()
+                            matrix.getItem(conn.getRowUid()).getNameValue() + ":" +
+                            matrix.getItem(conn.getColUid()).getNameValue()
                         );
                     }
                 }
@@ -122,9 +122,9 @@ public abstract class AbstractSideBar {
                 if(object == Integer.MAX_VALUE) {
                     return "All";
                 } else if(matrix.isRow(matrix.getItem(object).getUid())) {
-                    return matrix.getItem(object).getName().getValue() + " (Row)";
+                    return matrix.getItem(object).getNameValue() + " (Row)";
                 } else {
-                    return matrix.getItem(object).getName().getValue() + " (Column)";
+                    return matrix.getItem(object).getNameValue() + " (Column)";
                 }
             }
         }
@@ -216,7 +216,7 @@ public abstract class AbstractSideBar {
                 if (empty || item == null) {
                     setText(null);
                 } else {
-                    setText(matrix.getItem(item).getName().getValue());
+                    setText(matrix.getItem(item).getNameValue());
                 }
             }
         });
@@ -260,10 +260,14 @@ public abstract class AbstractSideBar {
         HBox closeArea = new HBox();
         Button applyButton = new Button("Apply Changes");
         applyButton.setOnAction(e -> {
+            ArrayList<DSMItem> items = new ArrayList<>();
             for(Integer uid : changesToMakeView.getItems()) {
                 DSMItem item = matrix.getItem(uid);  // null check in case user tries to delete the same item twice
-                matrix.deleteItem(item);
+                if(item != null) {
+                    items.add(item);
+                }
             }
+            matrix.deleteItems(items);  // delete everything as one change so it can be undone at once
             window.close();
             matrixView.refreshView();
             matrix.setCurrentStateAsCheckpoint();
@@ -358,7 +362,7 @@ public abstract class AbstractSideBar {
             VBox connectionVBox = new VBox();
             connectionVBox.setAlignment(Pos.CENTER);
 
-            Label name = new Label(conn.getName().getValue());
+            Label name = new Label(conn.getNameValue());
             CheckBox box = new CheckBox();
             connectionCheckBoxes.put(box, conn);
             connectionVBox.getChildren().addAll(name, box);
@@ -429,7 +433,7 @@ public abstract class AbstractSideBar {
                     VBox connectionVBox = new VBox();
                     connectionVBox.setAlignment(Pos.CENTER);
 
-                    Label name = new Label(col.getName().getValue());
+                    Label name = new Label(col.getNameValue());
                     CheckBox box = new CheckBox();
                     connectionCheckBoxes.put(box, col);
                     connectionVBox.getChildren().addAll(name, box);
@@ -443,7 +447,7 @@ public abstract class AbstractSideBar {
                     VBox connectionVBox = new VBox();
                     connectionVBox.setAlignment(Pos.CENTER);
 
-                    Label name = new Label(row.getName().getValue());
+                    Label name = new Label(row.getNameValue());
                     CheckBox box = new CheckBox();
                     connectionCheckBoxes.put(box, row);
                     connectionVBox.getChildren().addAll(name, box);
@@ -273,13 +273,13 @@ public class AsymmetricSideBar extends AbstractSideBar {
             for (Map.Entry<CheckBox, DSMItem> entry : connections.entrySet()) {
                 if(entry.getKey().isSelected()) {
                     if(tg.getSelectedToggle().equals(selectByRow)) {  // selecting by row
-                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces, matrix.getInterfaceTable());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
 
                     } else if(tg.getSelectedToggle().equals(selectByCol)) {  // selecting by column
-                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces, matrix.getInterfaceTable());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
@@ -389,26 +389,26 @@ public class AsymmetricSideBar extends AbstractSideBar {
             for (Map.Entry<CheckBox, DSMItem> entry : connections.entrySet()) {
                 if (entry.getKey().isSelected() && !connectionName.getText().isEmpty()) {  // create the connection
                     if(tg.getSelectedToggle().equals(selectByRow)) {  // selecting by row
-                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces, matrix.getInterfaceTable());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
 
                     } else if(tg.getSelectedToggle().equals(selectByCol)) {  // selecting by column
-                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection(connectionName.getText(), weight.getNumericValue(), entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces, matrix.getInterfaceTable());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
                     }
                 } else {  // delete the connection
                     if(tg.getSelectedToggle().equals(selectByRow)) {  // selecting by row
-                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, itemSelector.getValue().getUid(), entry.getValue().getUid(), selectedInterfaces, matrix.getInterfaceTable());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
 
                     } else if(tg.getSelectedToggle().equals(selectByCol)) {  // selecting by column
-                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces);
+                        DSMConnection conn = new DSMConnection("", Double.MAX_VALUE, entry.getValue().getUid(), itemSelector.getValue().getUid(), selectedInterfaces, matrix.getInterfaceTable());
                         if(!changesToMakeView.getItems().contains(conn)) {  // ensure no duplicates
                             changesToMakeView.getItems().add(conn);
                         }
@@ -741,7 +741,7 @@ public class AsymmetricSideBar extends AbstractSideBar {
         addRowButton.setAlignment(Pos.CENTER);
         addRowButton.setPadding(new Insets(5));
         addRowButton.setOnAction(e -> {
-            Grouping newGrouping = new Grouping("New Grouping", Color.color(1, 1, 1));
+            Grouping newGrouping = new Grouping(matrix.getUidAllocator().next(), "New Grouping", Color.color(1, 1, 1));
             HBox groupRow = configureGroupingEditorRow(matrix, newGrouping, true, rowGroupingsView, true);
             matrix.addGrouping(true, newGrouping);
             rowGroupingsView.getChildren().add(groupRow);
@@ -763,7 +763,7 @@ public class AsymmetricSideBar extends AbstractSideBar {
         addColButton.setAlignment(Pos.CENTER);
         addColButton.setPadding(new Insets(5));
         addColButton.setOnAction(e -> {
-            Grouping newGrouping = new Grouping("New Grouping", Color.color(1, 1, 1));
+            Grouping newGrouping = new Grouping(matrix.getUidAllocator().next(), "New Grouping", Color.color(1, 1, 1));
             HBox groupRow = configureGroupingEditorRow(matrix, newGrouping, false, colGroupingsView, true);
             matrix.addGrouping(false, newGrouping);
             colGroupingsView.getChildren().add(groupRow);
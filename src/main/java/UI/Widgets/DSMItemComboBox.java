@@ -19,7 +19,7 @@ public class DSMItemComboBox extends SearchableComboBox<DSMItem> {
             @Override
             public String toString(DSMItem i) {
                 if (i != null) {
-                    return i.getName().getValue();
+                    return i.getNameValue();
                 }
                 return "";
             }
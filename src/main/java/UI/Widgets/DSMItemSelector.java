@@ -48,7 +48,7 @@ public class DSMItemSelector {
                             setText(null);
                             setGraphic(null);
                         } else {
-                            setText(matrix.getItem(item).getName().getValue());
+                            setText(matrix.getItem(item).getNameValue());
                         }
                     }
                 };
@@ -93,7 +93,7 @@ public class DSMItemSelector {
                 return;
             items.getItems().add(itemSelector.getValue().getUid());
             items.getItems().sort((arg0, arg1) ->    // sort the list
-                    matrix.getItem(arg0).getName().toString().compareToIgnoreCase(matrix.getItem(arg1).getName().toString())
+                    matrix.getItem(arg0).getNameValue().compareToIgnoreCase(matrix.getItem(arg1).getNameValue())
             );
         });
 
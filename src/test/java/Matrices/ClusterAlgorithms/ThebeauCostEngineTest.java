@@ -0,0 +1,218 @@
+package Matrices.ClusterAlgorithms;
+
+import Matrices.Data.DSMSparseSnapshot;
+import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.Grouping;
+import Matrices.Data.SymmetricDSMData;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Class for testing that the incremental costs of the Thebeau cost engine match the coordination score calculated
+ * from the whole matrix
+ */
+public class ThebeauCostEngineTest {
+
+    private static final int NUM_MOVES = 400;
+
+
+    /**
+     * Creates a symmetric matrix with random connections between its items. No item is connected to itself
+     *
+     * @param generator     the random number generator to use
+     * @param numItems      the number of items in the matrix
+     * @param density       the chance of any two items being connected
+     * @param allowNegative if weights can be negative
+     * @return              the matrix
+     */
+    private static SymmetricDSMData createMatrix(Random generator, int numItems, double density, boolean allowNegative) {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < numItems; i++) {
+            matrix.createItem("item" + i, true);
+        }
+
+        List<DSMItem> rows = matrix.getRows();
+        for(DSMItem row : rows) {
+            for(DSMItem other : rows) {
+                if(row != other && generator.nextDouble() < density) {
+                    double weight = generator.nextInt(9) + generator.nextDouble();
+                    if(allowNegative && generator.nextBoolean()) {
+                        weight = -weight;
+                    }
+                    matrix.modifyConnection(row.getUid(), other.getAliasUid(), "x", weight, new ArrayList<>());
+                }
+            }
+        }
+
+        return matrix;
+    }
+
+
+    /**
+     * Puts every row of a matrix into its own grouping named "G" + the index of the row, the same way the clusters
+     * of the engine start out
+     *
+     * @param matrix  the matrix
+     * @return        the grouping of each cluster
+     */
+    private static Grouping[] createClusterGroupings(SymmetricDSMData matrix) {
+        matrix.clearGroupings();
+        List<DSMItem> rows = new ArrayList<>(matrix.getRows());
+        Grouping[] groups = new Grouping[rows.size()];
+        for(int i = 0; i < rows.size(); i++) {
+            groups[i] = new Grouping("G" + i, Color.WHITE);
+            matrix.addGrouping(groups[i]);
+            matrix.setItemGroup(rows.get(i), groups[i]);
+        }
+
+        return groups;
+    }
+
+
+    /**
+     * Moves random items to random clusters in both the engine and the matrix and checks after every move that the
+     * running cost is within the error bound of the coordination score calculated from the matrix, and that the exact
+     * cost of the engine is the same as the coordination score
+     *
+     * @param seed               seed of the random number generator
+     * @param numItems           the number of items in the matrix
+     * @param density            the chance of any two items being connected
+     * @param allowNegative      if weights can be negative
+     * @param optimalSizeCluster optimal cluster size that will receive no penalty
+     * @param powcc              constant to penalize size of cluster in cost calculation
+     * @param calculateByWeight  calculate the cost by weight or by number of occurrences
+     */
+    private static void checkRandomMoves(long seed, int numItems, double density, boolean allowNegative,
+                                         double optimalSizeCluster, double powcc, boolean calculateByWeight) {
+        Random generator = new Random(seed);
+        SymmetricDSMData matrix = createMatrix(generator, numItems, density, allowNegative);
+        Grouping[] groups = createClusterGroupings(matrix);
+        List<DSMItem> rows = new ArrayList<>(matrix.getRows());
+        ThebeauCostEngine engine = new ThebeauCostEngine(new DSMSparseSnapshot(matrix), optimalSizeCluster, powcc, 1.0, 1.0, calculateByWeight);
+
+        double score = Thebeau.getCoordinationScore(matrix, optimalSizeCluster, powcc, calculateByWeight).totalCost;
+        Assertions.assertEquals(score, engine.getCost());
+
+        for(int i = 0; i < NUM_MOVES; i++) {
+            int item = generator.nextInt(numItems);
+            int target = generator.nextInt(numItems);
+            engine.move(item, target);
+            matrix.setItemGroup(rows.get(item), groups[target]);
+
+            score = Thebeau.getCoordinationScore(matrix, optimalSizeCluster, powcc, calculateByWeight).totalCost;
+            Assertions.assertEquals(score, engine.getExactCost(engine.getClusters()));
+            Assertions.assertEquals(score, engine.getCost(), engine.getCostError());
+        }
+    }
+
+
+    /**
+     * Tests that the cost of the engine follows the coordination score when items are moved at random
+     */
+    @Test
+    public void randomMovesTest() {
+        checkRandomMoves(1, 12, 0.3, false, 4.5, 1.0, true);
+        checkRandomMoves(2, 30, 0.2, false, 4.5, 1.0, true);
+        checkRandomMoves(3, 30, 0.2, false, 4.5, 1.0, false);
+        checkRandomMoves(4, 25, 0.5, true, 3.0, 2.0, true);
+        checkRandomMoves(5, 40, 0.1, false, 1.0, 0.5, true);
+    }
+
+
+    /**
+     * Tests that the change in cost of a move is the cost after the move minus the cost before it, and that a move is
+     * only an improvement when the coordination score after it is lower
+     */
+    @Test
+    public void moveDeltaTest() {
+        double optimalSizeCluster = 4.5;
+        double powcc = 1.0;
+        Random generator = new Random(6);
+        SymmetricDSMData matrix = createMatrix(generator, 20, 0.3, true);
+        Grouping[] groups = createClusterGroupings(matrix);
+        List<DSMItem> rows = new ArrayList<>(matrix.getRows());
+        ThebeauCostEngine engine = new ThebeauCostEngine(new DSMSparseSnapshot(matrix), optimalSizeCluster, powcc, 1.0, 1.0, true);
+
+        for(int i = 0; i < NUM_MOVES; i++) {
+            int item = generator.nextInt(rows.size());
+            int source = engine.getCluster(item);
+            int target = generator.nextInt(rows.size());
+
+            double before = Thebeau.getCoordinationScore(matrix, optimalSizeCluster, powcc, true).totalCost;
+            double errorBefore = engine.getCostError();
+            double delta = engine.getMoveDelta(item, target);
+            boolean improvement = engine.isImprovement(item, target);
+
+            matrix.setItemGroup(rows.get(item), groups[target]);
+            double after = Thebeau.getCoordinationScore(matrix, optimalSizeCluster, powcc, true).totalCost;
+            Assertions.assertEquals(after < before, improvement);
+
+            if(generator.nextBoolean()) {  // keep the move
+                engine.move(item, target);
+                Assertions.assertEquals(after - before, delta, errorBefore + engine.getCostError() + Math.ulp(after - before));
+            } else {
+                matrix.setItemGroup(rows.get(item), groups[source]);
+                Assertions.assertEquals(after - before, delta, 2 * errorBefore + Math.ulp(after - before));
+            }
+        }
+    }
+
+
+    /**
+     * Tests that clusters bid in order of their number, so ties go to the lowest numbered cluster even when there are
+     * more than ten clusters
+     */
+    @Test
+    public void bidOrderTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < 12; i++) {
+            matrix.createItem("item" + i, true);
+        }
+        ThebeauCostEngine engine = new ThebeauCostEngine(new DSMSparseSnapshot(matrix), 4.5, 1.0, 1.0, 1.0, true);
+
+        // there are no connections, so every cluster bids zero. Empty clusters 0 and 1 do not bid
+        engine.move(0, 2);
+        engine.move(1, 2);
+        engine.findBidders(5);
+
+        Assertions.assertEquals(2, engine.getHighestBidder());
+        Assertions.assertEquals(3, engine.getSecondHighestBidder());
+    }
+
+
+    /**
+     * Tests that the interactions of a bid are added up in column order instead of the order the connections were
+     * added in. The weights are chosen so that the two orders give different floating point sums
+     */
+    @Test
+    public void bidSumOrderTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 0; i < 4; i++) {
+            matrix.createItem("item" + i, true);
+        }
+        List<DSMItem> rows = new ArrayList<>(matrix.getRows());
+        matrix.modifyConnection(rows.get(0).getUid(), rows.get(1).getAliasUid(), "x", 1e16, new ArrayList<>());
+        matrix.modifyConnection(rows.get(0).getUid(), rows.get(3).getAliasUid(), "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(rows.get(0).getUid(), rows.get(2).getAliasUid(), "x", -1e16, new ArrayList<>());
+        Grouping[] groups = createClusterGroupings(matrix);
+        ThebeauCostEngine engine = new ThebeauCostEngine(new DSMSparseSnapshot(matrix), 4.5, 1.0, 1.0, 1.0, true);
+        for(int i = 2; i < 4; i++) {
+            engine.move(i, 1);
+            matrix.setItemGroup(rows.get(i), groups[1]);
+        }
+
+        // in column order the large weights cancel before 1 is added
+        double expected = 1.0 / 1.5;
+        Assertions.assertEquals(expected, Thebeau.calculateClusterBid(matrix, groups[1], rows.get(0), 4.5, 1.0, 1.0, true));
+        engine.findBidders(0);
+        Assertions.assertEquals(1, engine.getHighestBidder());
+        Assertions.assertEquals(expected, engine.getHighestBid());
+    }
+
+}
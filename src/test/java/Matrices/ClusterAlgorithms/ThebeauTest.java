@@ -0,0 +1,161 @@
+package Matrices.ClusterAlgorithms;
+
+import Matrices.Data.DSMSparseSnapshot;
+import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.SymmetricDSMData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+
+/**
+ * Class for testing the Thebeau clustering algorithm on a small fixture matrix
+ */
+public class ThebeauTest {
+
+    private static final double OPTIMAL_SIZE_CLUSTER = 4.5;
+    private static final double POWDEP = 4.0;
+    private static final double POWBID = 1.0;
+    private static final double POWCC = 1.0;
+    private static final int RAND_BID = 122;
+    private static final int RAND_ACCEPT = 122;
+    private static final int NUM_LEVELS = 1000;
+    private static final long RAND_SEED = 30;
+
+
+    /**
+     * Creates a symmetric matrix with items a0, a1, a2, b0, b1, b2, c0, c1, c2 added in that order. Items with the
+     * same letter are all connected to each other with weight 2, and there are two connections of weight 1 between
+     * blocks: (a2, b0) and (c0, a1)
+     *
+     * @return  the matrix
+     */
+    private static SymmetricDSMData createMatrix() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        String[] names = {"a0", "a1", "a2", "b0", "b1", "b2", "c0", "c1", "c2"};
+        for(String name : names) {
+            matrix.createItem(name, true);
+        }
+
+        List<DSMItem> rows = matrix.getRows();
+        for(int i = 0; i < rows.size(); i++) {
+            for(int j = 0; j < rows.size(); j++) {
+                if(i != j && i / 3 == j / 3) {
+                    matrix.modifyConnection(rows.get(i).getUid(), rows.get(j).getAliasUid(), "x", 2.0, new ArrayList<>());
+                }
+            }
+        }
+        matrix.modifyConnection(rows.get(2).getUid(), rows.get(3).getAliasUid(), "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(rows.get(6).getUid(), rows.get(1).getAliasUid(), "x", 1.0, new ArrayList<>());
+
+        return matrix;
+    }
+
+
+    /**
+     * @param matrix  a clustered matrix
+     * @return        the names of the items of each grouping, sorted by name
+     */
+    private static List<String> getClusterNames(SymmetricDSMData matrix) {
+        Map<String, String> clusters = matrix.getRows().stream().collect(Collectors.groupingBy(
+                item -> item.getGroup1().getName(),
+                Collectors.mapping(item -> item.getName().getValue(), Collectors.joining(","))));
+
+        return clusters.values().stream().sorted().collect(Collectors.toList());
+    }
+
+
+    /**
+     * Tests that a seeded run on the fixture matrix keeps giving the same groupings and coordination score, and that
+     * the clustered matrix starts without any undo history
+     */
+    @Test
+    public void thebeauAlgorithmRegressionTest() {
+        SymmetricDSMData matrix = createMatrix();
+        SymmetricDSMData clustered = Thebeau.thebeauAlgorithm(matrix, OPTIMAL_SIZE_CLUSTER, POWDEP, POWBID, POWCC,
+                RAND_BID, RAND_ACCEPT, new ArrayList<>(), false, NUM_LEVELS, RAND_SEED, false);
+
+        Assertions.assertEquals(List.of("a0,a1,a2,b0,b1,b2", "c0,c1,c2"), getClusterNames(clustered));
+        Assertions.assertEquals(2, clustered.getGroupings().size());
+        Assertions.assertFalse(clustered.canUndo());
+
+        // 13 connections inside a cluster of 6 cost 1.5 each, 6 inside a cluster of 3 cost 1.5 each, and the
+        // connection between clusters costs 9
+        Assertions.assertEquals(37.5, Thebeau.getCoordinationScore(clustered, OPTIMAL_SIZE_CLUSTER, POWCC, false).totalCost);
+    }
+
+
+    /**
+     * Tests that running the algorithm on a snapshot gives the same clusters and cost as the seeded run on the
+     * matrix, and that the reported cost is the coordination score of the clusters
+     */
+    @Test
+    public void thebeauClustersRegressionTest() {
+        SymmetricDSMData matrix = createMatrix();
+        matrix.clearGroupings();
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(matrix);
+
+        Thebeau.ChainResult result = Thebeau.thebeauClusters(snapshot, OPTIMAL_SIZE_CLUSTER, POWDEP, POWBID, POWCC,
+                RAND_BID, RAND_ACCEPT, new boolean[snapshot.getNumRows()], false, NUM_LEVELS, RAND_SEED, null);
+
+        Assertions.assertEquals(RAND_SEED, result.randSeed);
+        Assertions.assertEquals(37.5, result.bestCost);
+        for(int i = 1; i < 6; i++) {
+            Assertions.assertEquals(result.clusters[0], result.clusters[i]);
+        }
+        Assertions.assertEquals(result.clusters[6], result.clusters[7]);
+        Assertions.assertEquals(result.clusters[6], result.clusters[8]);
+        Assertions.assertNotEquals(result.clusters[0], result.clusters[6]);
+    }
+
+
+    /**
+     * Tests that running several chains with the same master seed twice picks the same winning chain with the same
+     * clusters and score, no matter how the chains were scheduled on the threads
+     */
+    @Test
+    public void multiStartDeterminismTest() {
+        SymmetricDSMData matrix = createMatrix();
+        Thebeau.MultiStartResult first = Thebeau.multiStartThebeauAlgorithm(matrix, OPTIMAL_SIZE_CLUSTER, POWDEP, POWBID,
+                POWCC, RAND_BID, RAND_ACCEPT, new ArrayList<>(), false, NUM_LEVELS, 8, RAND_SEED);
+        Thebeau.MultiStartResult second = Thebeau.multiStartThebeauAlgorithm(matrix, OPTIMAL_SIZE_CLUSTER, POWDEP, POWBID,
+                POWCC, RAND_BID, RAND_ACCEPT, new ArrayList<>(), false, NUM_LEVELS, 8, RAND_SEED);
+
+        Assertions.assertEquals(8, first.chains.size());
+        Assertions.assertEquals(first.bestChain, second.bestChain);
+        Assertions.assertEquals(first.coordinationScore.totalCost, second.coordinationScore.totalCost);
+        Assertions.assertEquals(getClusterNames(first.matrix), getClusterNames(second.matrix));
+        for(int i = 0; i < first.chains.size(); i++) {
+            Assertions.assertEquals(first.chains.get(i).randSeed, second.chains.get(i).randSeed);
+            Assertions.assertEquals(first.chains.get(i).bestCost, second.chains.get(i).bestCost);
+            Assertions.assertArrayEquals(first.chains.get(i).clusters, second.chains.get(i).clusters);
+        }
+
+        // the winner is the first chain with the lowest cost, and its cost is the score of the clustered matrix
+        Thebeau.ChainResult best = first.chains.get(first.bestChain);
+        for(int i = 0; i < first.chains.size(); i++) {
+            Assertions.assertTrue(first.chains.get(i).bestCost >= best.bestCost);
+            if(i < first.bestChain) {
+                Assertions.assertTrue(first.chains.get(i).bestCost > best.bestCost);
+            }
+        }
+        Assertions.assertEquals(best.bestCost, first.coordinationScore.totalCost);
+    }
+
+
+    /**
+     * Tests that asking for no chains is rejected
+     */
+    @Test
+    public void multiStartNoChainsTest() {
+        SymmetricDSMData matrix = createMatrix();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Thebeau.multiStartThebeauAlgorithm(matrix,
+                OPTIMAL_SIZE_CLUSTER, POWDEP, POWBID, POWCC, RAND_BID, RAND_ACCEPT, new ArrayList<>(), false, NUM_LEVELS,
+                0, RAND_SEED));
+    }
+
+}
@@ -1,13 +1,22 @@
 package Matrices.Data;
 
+import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMInterfaceType;
 import Matrices.Data.Entities.DSMItem;
+import Matrices.Data.Entities.Grouping;
+import javafx.scene.paint.Color;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 
@@ -70,6 +79,42 @@ public class AbstractDSMDataTest {
     }
 
 
+    /**
+     * Tests that undoing adding an interface also undoes registering it in the interface table, both when the
+     * interface type was not in the table before and when a copy of it was
+     */
+    @Test
+    public void undoAddInterfaceTableTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.createItem("item1", true);
+        matrix.createItem("item2", true);
+        matrix.addInterfaceTypeGrouping("mechanical");
+        DSMInterfaceType interfaceType1 = new DSMInterfaceType("m1", "a");
+        DSMInterfaceType interfaceType2 = new DSMInterfaceType("m2", "b");
+        DSMInterfaceType interfaceType2Copy = new DSMInterfaceType(interfaceType2);
+
+        // the copy is interned by the connection before the matrix owns the interface type
+        matrix.createConnection(matrix.getRows().get(0).getUid(), matrix.getRows().get(1).getAliasUid(), "x", 1.0, new ArrayList<>(List.of(interfaceType2Copy)));
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.addInterface("mechanical", interfaceType1);
+        matrix.addInterface("mechanical", interfaceType2);
+        matrix.setCurrentStateAsCheckpoint();
+
+        DSMConnection conn = matrix.getConnections().get(0);
+        Assertions.assertSame(interfaceType2, conn.getInterfaces().get(0));
+        Assertions.assertNotEquals(-1, matrix.getInterfaceTable().getOrdinal(interfaceType1));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(-1, matrix.getInterfaceTable().getOrdinal(interfaceType1));
+        Assertions.assertSame(interfaceType2Copy, conn.getInterfaces().get(0));
+
+        matrix.redoToCheckpoint();
+        int ordinal = matrix.getInterfaceTable().getOrdinal(interfaceType1);
+        Assertions.assertSame(interfaceType1, matrix.getInterfaceTable().get(ordinal));
+        Assertions.assertSame(interfaceType2, conn.getInterfaces().get(0));
+    }
+
+
     /**
      * Tests removing an interface grouping. Ensures that any interfaces under it are present on undo.
      * Stresses the undo/redo cycle
@@ -250,6 +295,148 @@ public class AbstractDSMDataTest {
     }
 
 
+    /**
+     * Tests deleting connections from the middle, front, and back of the connections list, mixed with deleting an
+     * item, to ensure the list and the lookups stay in sync with each other
+     */
+    @Test
+    public void deleteConnectionsInAnyOrderTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.addItem(new DSMItem(1, null, 1.0, "row1", null, null), true);
+        matrix.addItem(new DSMItem(2, null, 2.0, "row2", null, null), true);
+        for(int i = 0; i < 6; i++) {
+            matrix.addItem(new DSMItem(10 + i, null, i, "col" + i, null, null), false);
+            matrix.modifyConnection(1, 10 + i, "a" + i, 1.0, new ArrayList<>());
+            matrix.modifyConnection(2, 10 + i, "b" + i, 1.0, new ArrayList<>());
+        }
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteConnection(1, 12);
+        matrix.deleteConnection(1, 10);
+        matrix.deleteConnection(2, 15);
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteItem(matrix.getItem(13));
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteConnection(2, 11);
+        matrix.deleteConnection(1, 14);
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+        matrix.undoToCheckpoint();
+        matrix.redoToCheckpoint();
+
+        List<String> names = matrix.getConnections().stream()
+                .map(DSMConnection::getConnectionName)
+                .sorted()
+                .collect(Collectors.toList());
+        Assertions.assertEquals(List.of("a1", "a5", "b0", "b2", "b4"), names);
+        for(DSMConnection conn : new ArrayList<>(matrix.getConnections())) {
+            Assertions.assertSame(conn, matrix.getConnection(conn.getRowUid(), conn.getColUid()));
+            matrix.deleteConnection(conn.getRowUid(), conn.getColUid());
+        }
+        Assertions.assertTrue(matrix.getConnections().isEmpty());
+    }
+
+
+    /**
+     * Tests that deleting connections keeps the rest of the connections list in the order the connections were added,
+     * both before and after the removed slots are dropped from the list
+     */
+    @Test
+    public void deleteConnectionsKeepsOrderTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.addItem(new DSMItem(1, null, 1.0, "row1", null, null), true);
+        for(int i = 0; i < 6; i++) {
+            matrix.addItem(new DSMItem(10 + i, null, i, "col" + i, null, null), false);
+            matrix.modifyConnection(1, 10 + i, "a" + i, 1.0, new ArrayList<>());
+        }
+
+        matrix.deleteConnection(1, 10);
+        matrix.deleteConnection(1, 12);
+        List<String> names = matrix.getConnections().stream().map(DSMConnection::getConnectionName).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("a1", "a3", "a4", "a5"), names);
+
+        matrix.deleteConnection(1, 11);
+        matrix.deleteConnection(1, 14);
+        matrix.deleteConnection(1, 13);  // more than half of the list is removed so it is compacted here
+        matrix.modifyConnection(1, 10, "a0", 1.0, new ArrayList<>());
+        names = matrix.getConnections().stream().map(DSMConnection::getConnectionName).collect(Collectors.toList());
+        Assertions.assertEquals(List.of("a5", "a0"), names);
+        Assertions.assertEquals("a5", matrix.getConnection(1, 15).getConnectionName());
+    }
+
+
+    /**
+     * Tests that connections can be looked up by their row and column uids after deleting connections, transposing
+     * the matrix, and stressing the undo and redo functionality
+     */
+    @Test
+    public void getConnectionTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.addItem(new DSMItem(1, null, 1.0, "row1", null, null), true);
+        matrix.addItem(new DSMItem(2, null, 2.0, "row2", null, null), true);
+        matrix.addItem(new DSMItem(3, null, 1.0, "col1", null, null), false);
+        matrix.modifyConnection(1, 3, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(2, 3, "y", 2.0, new ArrayList<>());
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteConnection(1, 3);
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertNull(matrix.getConnection(1, 3));
+        Assertions.assertEquals("y", matrix.getConnection(2, 3).getConnectionName());
+
+        matrix.transposeMatrix();
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertNull(matrix.getConnection(2, 3));
+        Assertions.assertEquals("y", matrix.getConnection(3, 2).getConnectionName());
+        Assertions.assertEquals(1, matrix.getConnections().size());
+    }
+
+
+    /**
+     * Tests getting the connections of a row and of a column after deleting an item and stressing the undo and
+     * redo functionality
+     */
+    @Test
+    public void getAdjacentConnectionsTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, null, 1.0, "row1", null, null);
+        DSMItem row2 = new DSMItem(2, null, 2.0, "row2", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(row2, true);
+        matrix.addItem(new DSMItem(3, null, 1.0, "col1", null, null), false);
+        matrix.addItem(new DSMItem(4, null, 2.0, "col2", null, null), false);
+        matrix.modifyConnection(1, 3, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(1, 4, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(2, 3, "x", 1.0, new ArrayList<>());
+
+        Assertions.assertEquals(2, matrix.getRowConnections(1).size());
+        Assertions.assertEquals(2, matrix.getColConnections(3).size());
+        Assertions.assertTrue(matrix.getColConnections(42).isEmpty());
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteItem(row1);
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertTrue(matrix.getRowConnections(1).isEmpty());
+        Assertions.assertTrue(matrix.getColConnections(4).isEmpty());
+        Assertions.assertEquals(1, matrix.getColConnections(3).size());
+        Assertions.assertEquals(2, matrix.getColConnections(3).get(0).getRowUid());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(2, matrix.getRowConnections(1).size());
+        Assertions.assertEquals(2, matrix.getColConnections(3).size());
+    }
+
+
     /**
      * tests removing all connections in a matrix
      */
@@ -315,6 +502,373 @@ public class AbstractDSMDataTest {
     }
 
 
+    /**
+     * Tests that changes made in a batch, including changes that make further changes such as deleting an item, are
+     * undone and redone together. Stresses the undo/redo cycle
+     */
+    @Test
+    public void batchTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.addItem(new DSMItem(1, 11, 1.0, "item1", null, null), true);
+        matrix.addItem(new DSMItem(2, 22, 2.0, "item2", null, null), true);
+        matrix.addItem(new DSMItem(3, 33, 3.0, "item3", null, null), true);
+        matrix.addItem(new DSMItem(11, 1, 1.0, "item1", null, null), false);
+        matrix.addItem(new DSMItem(22, 2, 2.0, "item2", null, null), false);
+        matrix.addItem(new DSMItem(33, 3, 3.0, "item3", null, null), false);
+        matrix.setCurrentStateAsCheckpoint();
+
+        matrix.beginBatch(true);
+        matrix.modifyConnection(1, 22, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(3, 11, "x", 1.0, new ArrayList<>());
+        matrix.runBatch(() -> matrix.setTitle("title"), true);  // nested batches become part of the outer batch
+        matrix.deleteItem(matrix.getRowItem(2));
+        matrix.endBatch();
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertEquals(1, matrix.getConnections().size());
+        Assertions.assertEquals(2, matrix.getRows().size());
+        Assertions.assertEquals("title", matrix.getTitle());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(0, matrix.getConnections().size());
+        Assertions.assertEquals(3, matrix.getRows().size());
+        Assertions.assertEquals(matrix.getRowItem(2), matrix.getItemByAlias(22));
+    }
+
+
+    /**
+     * Tests that changes made in a batch that does not record undo history are applied but cannot be undone
+     */
+    @Test
+    public void batchWithoutUndoTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.runBatch(() -> {
+            matrix.addItem(new DSMItem(1, 11, 1.0, "item1", null, null), true);
+            matrix.addItem(new DSMItem(2, 22, 2.0, "item2", null, null), true);
+            matrix.addItem(new DSMItem(11, 1, 1.0, "item1", null, null), false);
+            matrix.addItem(new DSMItem(22, 2, 2.0, "item2", null, null), false);
+            matrix.modifyConnection(1, 22, "x", 1.0, new ArrayList<>());
+        }, false);
+
+        Assertions.assertFalse(matrix.canUndo());
+        Assertions.assertEquals(1, matrix.getConnections().size());
+        Assertions.assertTrue(matrix.getWasModified());
+    }
+
+
+    /**
+     * Tests that changing the interfaces of a connection restores the original interfaces on undo. Stresses the
+     * undo/redo cycle
+     */
+    @Test
+    public void modifyConnectionInterfacesTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.addItem(new DSMItem(1, null, 1.0, "row", null, null), true);
+        matrix.addItem(new DSMItem(2, null, 1.0, "col", null, null), false);
+        DSMInterfaceType interface1 = new DSMInterfaceType("interface1", "1");
+        DSMInterfaceType interface2 = new DSMInterfaceType("interface2", "2");
+        matrix.modifyConnection(1, 2, "x", 1.0, new ArrayList<>(List.of(interface1)));
+        matrix.setCurrentStateAsCheckpoint();
+
+        matrix.modifyConnection(1, 2, "y", 2.0, new ArrayList<>(List.of(interface2)));
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertEquals("y", matrix.getConnection(1, 2).getConnectionName());
+        Assertions.assertIterableEquals(List.of(interface2), matrix.getConnection(1, 2).getInterfaces());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(1.0, matrix.getConnection(1, 2).getWeight());
+        Assertions.assertSame(interface1, matrix.getConnection(1, 2).getInterfaces().get(0));
+    }
+
+
+    /**
+     * Tests that a copy of a matrix does not share any items, connections, or interface types with the original,
+     * and that each interface type is copied once and shared by all the copied connections that use it
+     */
+    @Test
+    public void createCopyTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.createItem("item1", true);
+        matrix.createItem("item2", true);
+        DSMItem row1 = matrix.getRows().get(0);
+        DSMItem row2 = matrix.getRows().get(1);
+        matrix.addInterfaceTypeGrouping("mechanical");
+        DSMInterfaceType inMatrix = new DSMInterfaceType("m1", "a");
+        DSMInterfaceType notInMatrix = new DSMInterfaceType("m2", "b");
+        matrix.addInterface("mechanical", inMatrix);
+        matrix.createConnection(row1.getUid(), row2.getAliasUid(), "x", 1.0, new ArrayList<>(List.of(inMatrix, notInMatrix)));
+        matrix.createConnection(row2.getUid(), row1.getAliasUid(), "y", 2.0, new ArrayList<>(List.of(inMatrix, notInMatrix)));
+        matrix.setCurrentStateAsCheckpoint();
+
+        SymmetricDSMData copy = matrix.createCopy();
+        Assertions.assertFalse(copy.canUndo());
+        Assertions.assertEquals(2, copy.getConnections().size());
+        Assertions.assertNotSame(row1, copy.getRowItem(row1.getUid()));
+        Assertions.assertNotSame(matrix.getConnection(row1.getUid(), row2.getAliasUid()), copy.getConnection(row1.getUid(), row2.getAliasUid()));
+
+        DSMInterfaceType copiedInMatrix = copy.getInterfaceTypes().get("mechanical").get(0);
+        Assertions.assertNotSame(inMatrix, copiedInMatrix);
+        Assertions.assertEquals(inMatrix.getUid(), copiedInMatrix.getUid());
+
+        DSMConnection conn1 = copy.getConnection(row1.getUid(), row2.getAliasUid());
+        DSMConnection conn2 = copy.getConnection(row2.getUid(), row1.getAliasUid());
+        Assertions.assertSame(copy.getInterfaceTable(), conn1.getInterfaceTable());
+        Assertions.assertSame(copiedInMatrix, conn1.getInterfaces().get(0));
+        Assertions.assertSame(copiedInMatrix, conn2.getInterfaces().get(0));
+        Assertions.assertNotSame(notInMatrix, conn1.getInterfaces().get(1));
+        Assertions.assertSame(conn1.getInterfaces().get(1), conn2.getInterfaces().get(1));
+
+        // changes to the original do not reach the copy
+        inMatrix.setName("changed");
+        matrix.setItemName(row1, "renamed");
+        matrix.deleteConnection(row2.getUid(), row1.getAliasUid());
+        Assertions.assertEquals("m1", copiedInMatrix.getName());
+        Assertions.assertEquals("item1", copy.getRowItem(row1.getUid()).getName().getValue());
+        Assertions.assertEquals("y", copy.getConnection(row2.getUid(), row1.getAliasUid()).getConnectionName());
+    }
+
+
+    /**
+     * Tests that change records can be serialized
+     */
+    @Test
+    public void changeRecordsSerializableTest() throws IOException {
+        ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream());
+        out.writeObject(new AbstractDSMData.AddConnection(1, 2, "x", 1.0, new int[]{3, 4}));
+        out.writeObject(new AbstractDSMData.RemoveConnection(1, 2, "x", 1.0, new int[0]));
+        out.writeObject(new AbstractDSMData.SetConnection(1, 2, "x", 1.0, new int[0], "y", 2.0, new int[]{3}));
+        out.writeObject(new AbstractDSMData.MoveItem(1, true, 1.0, 2.0));
+        out.writeObject(new AbstractDSMData.RenameItem(1, false, "a", "b"));
+        out.writeObject(new AbstractDSMData.SetGroup(1, false, null, 5));
+        out.writeObject(new AbstractDSMData.RecolorGrouping(1, false, Color.WHITE, Color.BLACK));
+        out.close();
+    }
+
+
+    /**
+     * Tests that the groupings remembered for change records are forgotten once the changes that refer to them are
+     * evicted from the undo history or cleared
+     */
+    @Test
+    public void recordedReferencesPrunedTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.setUndoHistoryLimits(10, Long.MAX_VALUE);
+        matrix.createItem("item", true);
+        DSMItem item = matrix.getRows().get(0);
+        matrix.setCurrentStateAsCheckpoint();
+
+        for(int i = 0; i < 500; i++) {
+            matrix.setItemGroup(item, new Grouping("group" + i, null));
+            matrix.setCurrentStateAsCheckpoint();
+        }
+        Assertions.assertTrue(matrix.getNumRecordedReferences() < 100);
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals("group498", item.getGroup1().getName());
+
+        matrix.clearStacks();
+        Assertions.assertEquals(0, matrix.getNumRecordedReferences());
+    }
+
+
+    /**
+     * Tests that the undo history forgets the oldest checkpoints once it is over budget
+     */
+    @Test
+    public void undoHistoryLimitTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.setUndoHistoryLimits(1, Long.MAX_VALUE);
+        matrix.setTitle("title1");
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.setTitle("title2");
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertTrue(matrix.getUndoHistorySize() > 0);
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals("title1", matrix.getTitle());
+        Assertions.assertFalse(matrix.canUndo());  // first checkpoint was evicted
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals("title1", matrix.getTitle());
+    }
+
+
+    /**
+     * Tests that change events are delivered at each checkpoint and when undoing and redoing
+     */
+    @Test
+    public void changeEventsTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.addItem(new DSMItem(1, null, 1.0, "row", null, null), true);
+        matrix.addItem(new DSMItem(2, null, 1.0, "col", null, null), false);
+        matrix.setCurrentStateAsCheckpoint();
+
+        List<List<MatrixChangeEvent>> notifications = new ArrayList<>();
+        matrix.addChangeListener(notifications::add);
+
+        matrix.modifyConnection(1, 2, "x", 1.0, new ArrayList<>());
+        matrix.setItemName(matrix.getItem(1), "new name");
+        Assertions.assertTrue(notifications.isEmpty());  // nothing is delivered until the checkpoint
+        matrix.setCurrentStateAsCheckpoint();
+
+        Assertions.assertEquals(1, notifications.size());
+        Assertions.assertIterableEquals(List.of(MatrixChangeEvent.connectionAdded(1, 2), MatrixChangeEvent.itemRenamed(1)), notifications.get(0));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(2, notifications.size());
+        Assertions.assertTrue(notifications.get(1).contains(MatrixChangeEvent.connectionRemoved(1, 2)));
+
+        matrix.redoToCheckpoint();
+        Assertions.assertEquals(3, notifications.size());
+        Assertions.assertTrue(notifications.get(2).contains(MatrixChangeEvent.connectionAdded(1, 2)));
+
+        matrix.setTitle("title");  // changes without a change record report a structure change
+        matrix.setItemName(matrix.getItem(1), "other name");
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertIterableEquals(List.of(MatrixChangeEvent.structureChanged()), notifications.get(3));
+    }
+
+
+    /**
+     * Tests that the events about a connection are merged into the net change
+     */
+    @Test
+    public void changeEventsCoalescedTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.addItem(new DSMItem(1, null, 1.0, "row", null, null), true);
+        matrix.addItem(new DSMItem(2, null, 1.0, "col1", null, null), false);
+        matrix.addItem(new DSMItem(3, null, 2.0, "col2", null, null), false);
+        matrix.modifyConnection(1, 3, "x", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        List<List<MatrixChangeEvent>> notifications = new ArrayList<>();
+        matrix.addChangeListener(notifications::add);
+
+        matrix.modifyConnection(1, 2, "x", 1.0, new ArrayList<>());  // added then removed is no change
+        matrix.deleteConnection(1, 2);
+        matrix.deleteConnection(1, 3);                                // removed then added is a modification
+        matrix.modifyConnection(1, 3, "y", 2.0, new ArrayList<>());
+        matrix.setItemSortIndex(matrix.getItem(2), 5.0);              // repeated item events are reported once
+        matrix.setItemSortIndex(matrix.getItem(2), 6.0);
+        matrix.setCurrentStateAsCheckpoint();
+
+        Assertions.assertEquals(1, notifications.size());
+        Assertions.assertIterableEquals(List.of(MatrixChangeEvent.connectionModified(1, 3), MatrixChangeEvent.itemMoved(2)), notifications.get(0));
+
+        matrix.setCurrentStateAsCheckpoint();  // no changes so no notification
+        Assertions.assertEquals(1, notifications.size());
+    }
+
+
+    /**
+     * Tests that the name of an item is kept as a plain string until its property is used and that the property
+     * follows later renames and undo
+     */
+    @Test
+    public void itemNamePropertyTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        DSMItem row = new DSMItem(1, null, 1.0, "row", null, null);
+        matrix.addItem(row, true);
+        matrix.setItemName(row, "renamed");
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals("renamed", row.getNameValue());
+        Assertions.assertEquals("renamed", new DSMItem(row).getNameValue());
+
+        List<String> observedNames = new ArrayList<>();
+        row.getName().addListener((o, oldValue, newValue) -> observedNames.add(newValue));
+        Assertions.assertEquals("renamed", row.getName().getValue());
+
+        matrix.setItemName(row, "bound");
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals("renamed", row.getNameValue());
+        Assertions.assertIterableEquals(List.of("bound", "renamed"), observedNames);
+    }
+
+
+    /**
+     * Tests that new items get uids counting up from the largest uid in the matrix and that the uids of items and
+     * groupings already in the matrix are never given out
+     */
+    @Test
+    public void uidAllocatorTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.addItem(new DSMItem(10, 12, 1.0, "item1", null, null), true);
+        matrix.addItem(new DSMItem(12, 10, 1.0, "item1", null, null), false);
+        matrix.addGrouping(new Grouping(13, "group", Color.WHITE));
+        matrix.addItem(new DSMItem(15, 14, 1.0, "item2", null, null), true);
+        matrix.addItem(new DSMItem(14, 15, 1.0, "item2", null, null), false);
+        matrix.deleteItem(matrix.getItem(15));  // deleted uids stay reserved so undo can not collide
+        matrix.setCurrentStateAsCheckpoint();
+
+        matrix.createItem("item3", true);
+        matrix.setCurrentStateAsCheckpoint();
+        List<Integer> rowUids = matrix.getRows().stream().map(DSMItem::getUid).toList();
+        List<Integer> colUids = matrix.getCols().stream().map(DSMItem::getUid).toList();
+        Assertions.assertIterableEquals(List.of(10, 16), rowUids);
+        Assertions.assertIterableEquals(List.of(12, 17), colUids);
+
+        UidAllocator allocator = new UidAllocator();
+        allocator.reserve(Integer.MAX_VALUE);  // default grouping uid is not counted from
+        allocator.reserve(1);
+        allocator.reserve(3);
+        Assertions.assertEquals(4, allocator.next());
+
+        UidAllocator wrapped = new UidAllocator();
+        wrapped.reserve(Integer.MAX_VALUE - 1);
+        wrapped.reserve(Integer.MAX_VALUE);
+        wrapped.reserve(Integer.MIN_VALUE);
+        Assertions.assertEquals(Integer.MIN_VALUE + 1, wrapped.next());
+
+        SymmetricDSMData copy = matrix.createCopy();
+        copy.createItem("item4", true);
+        Assertions.assertFalse(List.of(10, 12, 13, 14, 15, 16, 17).contains(copy.getRows().get(2).getUid()));
+    }
+
+
+    /**
+     * Tests that snapshots are reused until the matrix changes and that they do not change with the matrix
+     */
+    @Test
+    public void snapshotTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.addItem(new DSMItem(1, null, 1.0, "row", null, null), true);
+        matrix.addItem(new DSMItem(2, null, 1.0, "col1", null, null), false);
+        matrix.addItem(new DSMItem(3, null, 2.0, "col2", null, null), false);
+        matrix.modifyConnection(1, 3, "x", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertNull(matrix.getLatestSnapshot());
+
+        MatrixSnapshot snapshot = matrix.getSnapshot();
+        Assertions.assertEquals(matrix.getVersion(), snapshot.getVersion());
+        Assertions.assertSame(snapshot, matrix.getSnapshot());  // nothing changed so the snapshot is reused
+        Assertions.assertEquals(1, snapshot.getNumConnections());
+
+        long version = matrix.getVersion();
+        matrix.modifyConnection(1, 3, "y", 2.0, new ArrayList<>());
+        matrix.modifyConnection(1, 2, "z", 3.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertTrue(matrix.getVersion() > version);
+        Assertions.assertSame(snapshot, matrix.getLatestSnapshot());  // stale snapshots are only replaced when asked for
+        Assertions.assertEquals("x", snapshot.getConnectionName(0));
+        Assertions.assertEquals(1.0, snapshot.getWeight(0));
+
+        MatrixSnapshot newSnapshot = matrix.getSnapshot();
+        Assertions.assertNotSame(snapshot, newSnapshot);
+        Assertions.assertEquals(2, newSnapshot.getNumConnections());
+
+        version = matrix.getVersion();
+        matrix.undoToCheckpoint();
+        Assertions.assertTrue(matrix.getVersion() > version);
+        Assertions.assertEquals(1, matrix.getSnapshot().getNumConnections());
+    }
+
+
     /**
      * Tests adding a single row item. Uses an Asymmetric matrix as the implementation class because it does not
      * override this method
@@ -457,6 +1011,112 @@ public class AbstractDSMDataTest {
     }
 
 
+    /**
+     * Tests that the rows are kept sorted by sort index as items are added and moved, and that their positions can
+     * be found
+     */
+    @Test
+    public void itemOrderTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, null, 3.0, "item1", null, null);
+        DSMItem row2 = new DSMItem(2, null, 1.0, "item2", null, null);
+        DSMItem row3 = new DSMItem(3, null, 2.0, "item3", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(row2, true);
+        matrix.addItem(row3, true);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertIterableEquals(List.of(row2, row3, row1), matrix.getRows());
+
+        matrix.setItemSortIndex(row2, 4.0);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertIterableEquals(List.of(row3, row1, row2), matrix.getRows());
+        Assertions.assertEquals(0, matrix.getRowPosition(3));
+        Assertions.assertEquals(2, matrix.getRowPosition(2));
+        Assertions.assertEquals(-1, matrix.getColPosition(2));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertIterableEquals(List.of(row2, row3, row1), matrix.getRows());
+
+        matrix.deleteItem(row3);
+        Assertions.assertIterableEquals(List.of(row2, row1), matrix.getRows());
+        Assertions.assertEquals(1, matrix.getRowPosition(1));
+    }
+
+
+    /**
+     * Tests moving an item whose sort index was changed directly instead of through the matrix. Test to ensure the
+     * item is not added to the rows a second time and that the rows end up sorted
+     */
+    @Test
+    public void moveItemWithStaleSortIndexTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, null, 1.0, "item1", null, null);
+        DSMItem row2 = new DSMItem(2, null, 2.0, "item2", null, null);
+        DSMItem row3 = new DSMItem(3, null, 3.0, "item3", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(row2, true);
+        matrix.addItem(row3, true);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertIterableEquals(List.of(row1, row2, row3), matrix.getRows());
+
+        row1.setSortIndex(2.5);  // bypasses the matrix so row1 is no longer where a binary search looks for it
+        matrix.setItemSortIndex(row1, 4.0);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertIterableEquals(List.of(row2, row3, row1), matrix.getRows());
+        Assertions.assertEquals(2, matrix.getRowPosition(1));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(3, matrix.getRows().size());
+        Assertions.assertIterableEquals(List.of(row2, row1, row3), matrix.getRows());
+    }
+
+
+    /**
+     * Tests that item lookups by uid and alias uid stay correct when items are deleted and when the matrix is
+     * transposed. Stresses the undo and redo functionality
+     */
+    @Test
+    public void itemLookupTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, 11, 1.0, "item1", null, null);
+        DSMItem row2 = new DSMItem(2, 22, 2.0, "item2", null, null);
+        DSMItem col1 = new DSMItem(11, 1, 1.0, "item1", null, null);
+        DSMItem col2 = new DSMItem(22, 2, 2.0, "item2", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(row2, true);
+        matrix.addItem(col1, false);
+        matrix.addItem(col2, false);
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteItem(row2);
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertFalse(matrix.isRow(2));
+        Assertions.assertFalse(matrix.isCol(22));
+        Assertions.assertThrows(NoSuchElementException.class, () -> matrix.getItem(2));
+        Assertions.assertThrows(NoSuchElementException.class, () -> matrix.getItemByAlias(2));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(row2, matrix.getRowItem(2));
+        Assertions.assertEquals(col2, matrix.getColItem(22));
+        Assertions.assertEquals(col2, matrix.getItemByAlias(2));
+
+        matrix.transposeMatrix();
+        matrix.setCurrentStateAsCheckpoint();
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertTrue(matrix.isRow(11));
+        Assertions.assertTrue(matrix.isCol(1));
+        Assertions.assertEquals(col1, matrix.getRowItem(11));
+        Assertions.assertEquals(row1, matrix.getColItem(1));
+        Assertions.assertEquals(col1, matrix.getItemByAlias(1));
+        Assertions.assertThrows(NoSuchElementException.class, () -> matrix.getRowItem(1));
+    }
+
+
     /**
      * Tests the undo and redo functionality for setting the title metadata property
      */
@@ -520,4 +1180,75 @@ public class AbstractDSMDataTest {
         Assertions.assertEquals(newName, matrix.getVersionNumber());
     }
 
+
+    /**
+     * Tests that the matrix statistics are kept up to date when connections are added, modified, and removed, when
+     * items are regrouped and deleted, and when the changes are undone and redone
+     */
+    @Test
+    public void statisticsTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        Grouping a = new Grouping("a", null);
+        Grouping b = new Grouping("b", null);
+        matrix.addGrouping(a);
+        matrix.addGrouping(b);
+        for(int i = 1; i <= 3; i++) {
+            Grouping group = i == 3 ? b : a;
+            matrix.addItem(new DSMItem(i, i * 11, i, "item" + i, group, null), true);
+            matrix.addItem(new DSMItem(i * 11, i, i, "item" + i, group, null), false);
+        }
+        matrix.modifyConnection(1, 22, "x", 2.0, new ArrayList<>());
+        matrix.modifyConnection(1, 33, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(3, 11, "x", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        MatrixStatistics statistics = matrix.getStatistics();
+        Runnable assertInitial = () -> {
+            Assertions.assertEquals(3, statistics.getNumConnections());
+            Assertions.assertEquals(4.0, statistics.getTotalWeight(), 1e-9);
+            Assertions.assertEquals(3.0 / 9.0, statistics.getDensity(), 1e-9);
+            Assertions.assertEquals(2, statistics.getOutDegree(1));
+            Assertions.assertEquals(1, statistics.getInDegree(11));
+            Assertions.assertEquals(0, statistics.getInDegree(1));
+            Assertions.assertEquals(3.0, statistics.getOutWeight(1), 1e-9);
+            Assertions.assertEquals(Map.of(1, 1, 2, 1), statistics.getOutDegreeDistribution());
+            Assertions.assertEquals(Map.of(1.0, 2, 2.0, 1), statistics.getWeightHistogram());
+            Assertions.assertEquals(1, statistics.getInternalConnections(a));
+            Assertions.assertEquals(2, statistics.getExternalConnections(a));
+            Assertions.assertEquals(0, statistics.getInternalConnections(b));
+            Assertions.assertEquals(2, statistics.getExternalConnections(b));
+        };
+        assertInitial.run();
+
+        matrix.setItemGroup(matrix.getItem(3), a);
+        Assertions.assertEquals(3, statistics.getInternalConnections(a));
+        Assertions.assertEquals(0, statistics.getExternalConnections(a));
+        Assertions.assertEquals(0, statistics.getExternalConnections(b));
+
+        matrix.modifyConnection(1, 22, "x", 5.0, new ArrayList<>());
+        Assertions.assertEquals(7.0, statistics.getTotalWeight(), 1e-9);
+        Assertions.assertEquals(6.0, statistics.getOutWeight(1), 1e-9);
+        Assertions.assertEquals(Map.of(1.0, 2, 5.0, 1), statistics.getWeightHistogram());
+
+        matrix.deleteItem(matrix.getItem(2));
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(2, statistics.getNumConnections());
+        Assertions.assertEquals(2.0, statistics.getTotalWeight(), 1e-9);
+        Assertions.assertEquals(2, statistics.getInternalConnections(a));
+        Assertions.assertEquals(Map.of(1, 2), statistics.getOutDegreeDistribution());
+
+        matrix.undoToCheckpoint();
+        assertInitial.run();
+
+        matrix.redoToCheckpoint();
+        Assertions.assertEquals(2, statistics.getNumConnections());
+        Assertions.assertEquals(2, statistics.getInternalConnections(a));
+
+        matrix.undoToCheckpoint();
+        matrix.transposeMatrix();
+        Assertions.assertEquals(2, statistics.getInDegree(1));
+        Assertions.assertEquals(0, statistics.getOutDegree(1));
+        Assertions.assertEquals(1, statistics.getInternalConnections(a));
+    }
+
 }
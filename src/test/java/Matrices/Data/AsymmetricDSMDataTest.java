@@ -1,5 +1,6 @@
 package Matrices.Data;
 
+import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
 import javafx.scene.paint.Color;
@@ -237,6 +238,37 @@ public class AsymmetricDSMDataTest {
     }
 
 
+    /**
+     * Unit test for undoing the regrouping of a row and a column. The row and column default groupings share a uid, so
+     * undoing must restore each item to the default grouping of its own side
+     */
+    @Test
+    public void undoSetItemGroupDefaultsTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.createItem("row", true);
+        matrix.createItem("col", false);
+        DSMItem rowItem = matrix.getRows().get(0);
+        DSMItem colItem = matrix.getCols().get(0);
+        Grouping rowDefault = matrix.getDefaultGroup(true);
+        Grouping colDefault = matrix.getDefaultGroup(false);
+        matrix.setCurrentStateAsCheckpoint();
+
+        matrix.setItemGroup(rowItem, new Grouping("rowGroup", null));
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.setItemGroup(colItem, new Grouping("colGroup", null));
+        matrix.setCurrentStateAsCheckpoint();
+
+        matrix.undoToCheckpoint();
+        matrix.undoToCheckpoint();
+        Assertions.assertSame(rowDefault, rowItem.getGroup1());
+        Assertions.assertSame(colDefault, colItem.getGroup1());
+
+        stressUndoRedo(matrix);
+        Assertions.assertSame(rowDefault, rowItem.getGroup1());
+        Assertions.assertSame(colDefault, colItem.getGroup1());
+    }
+
+
     /**
      * Unit test for creating an item in a dsm. Test to ensure the undo-redo works with creating a new item
      */
@@ -253,4 +285,82 @@ public class AsymmetricDSMDataTest {
         Assertions.assertEquals("item1", matrix.getRows().get(0).getName().getValue());
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Tests transposing a matrix with groupings. Test to ensure the connections are switched, the groupings are
+     * switched, and that undo and redo reuse the same connection objects
+     */
+    @Test
+    public void transposeMatrixTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        Grouping rowGroup = new Grouping("rowGroup", null);
+        matrix.addGrouping(true, rowGroup);
+        matrix.addItem(new DSMItem(1, null, 1.0, "row1", rowGroup, null), true);
+        matrix.addItem(new DSMItem(2, null, 2.0, "row2", rowGroup, null), true);
+        matrix.addItem(new DSMItem(11, null, 1.0, "col1", null, null), false);
+        matrix.modifyConnection(1, 11, "x", 2.0, new ArrayList<>());
+        matrix.modifyConnection(2, 11, "y", 3.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+        DSMConnection original = matrix.getConnection(1, 11);
+
+        matrix.transposeMatrix();
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(1, matrix.getRows().size());
+        Assertions.assertEquals(2, matrix.getCols().size());
+        Assertions.assertNull(matrix.getConnection(1, 11));
+        DSMConnection transposed = matrix.getConnection(11, 1);
+        Assertions.assertEquals("x", transposed.getConnectionName());
+        Assertions.assertEquals(2.0, transposed.getWeight());
+        Assertions.assertEquals("y", matrix.getConnection(11, 2).getConnectionName());
+        Assertions.assertEquals(2, matrix.getColConnections(11).size() + matrix.getRowConnections(11).size());
+        Assertions.assertTrue(matrix.getGroupings(false).contains(rowGroup));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertSame(original, matrix.getConnection(1, 11));
+        Assertions.assertTrue(matrix.getGroupings(true).contains(rowGroup));
+        Assertions.assertEquals(2, matrix.getRows().size());
+
+        matrix.redoToCheckpoint();
+        Assertions.assertSame(transposed, matrix.getConnection(11, 1));
+    }
+
+
+    /**
+     * Tests the grouping statistics of a matrix with only the default groupings. The row and column default groupings
+     * share a uid, so this checks that a connection between them is counted as external to both and that deleting an
+     * item and undoing the deletion keeps the counts right
+     */
+    @Test
+    public void groupingStatisticsTest() {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.createItem("row1", true);
+        matrix.createItem("row2", true);
+        matrix.createItem("col1", false);
+        DSMItem row1 = matrix.getRows().get(0);
+        DSMItem row2 = matrix.getRows().get(1);
+        DSMItem col1 = matrix.getCols().get(0);
+        matrix.modifyConnection(row1.getUid(), col1.getUid(), "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(row2.getUid(), col1.getUid(), "x", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        MatrixStatistics statistics = matrix.getStatistics();
+        Grouping rowGroup = matrix.getDefaultGroup(true);
+        Grouping colGroup = matrix.getDefaultGroup(false);
+        Assertions.assertEquals(rowGroup.getUid(), colGroup.getUid());
+        Assertions.assertEquals(0, statistics.getInternalConnections(rowGroup));
+        Assertions.assertEquals(2, statistics.getExternalConnections(rowGroup));
+        Assertions.assertEquals(0, statistics.getInternalConnections(colGroup));
+        Assertions.assertEquals(2, statistics.getExternalConnections(colGroup));
+
+        matrix.deleteItem(row1);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(1, statistics.getExternalConnections(rowGroup));
+        Assertions.assertEquals(1, statistics.getExternalConnections(colGroup));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(0, statistics.getInternalConnections(rowGroup));
+        Assertions.assertEquals(2, statistics.getExternalConnections(rowGroup));
+        Assertions.assertEquals(2, statistics.getExternalConnections(colGroup));
+    }
+
+}
@@ -0,0 +1,162 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMInterfaceType;
+import Matrices.Data.Entities.DSMItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Class for testing the compressed sparse snapshot of a matrix
+ */
+public class DSMSparseSnapshotTest {
+
+    /**
+     * Creates an asymmetric matrix with rows uids 1, 2, 3 and columns uids 4, 5 with connections
+     * (1, 5) weight 2, (3, 4) weight 3, (1, 4) weight 1, (3, 5) weight 4 added in that order
+     *
+     * @param interfaces  the interfaces to add to the (1, 5) connection
+     * @return            the matrix
+     */
+    private static AsymmetricDSMData createMatrix(ArrayList<DSMInterfaceType> interfaces) {
+        AsymmetricDSMData matrix = new AsymmetricDSMData();
+        matrix.addItem(new DSMItem(1, null, 1.0, "row1", null, null), true);
+        matrix.addItem(new DSMItem(2, null, 2.0, "row2", null, null), true);
+        matrix.addItem(new DSMItem(3, null, 3.0, "row3", null, null), true);
+        matrix.addItem(new DSMItem(4, null, 1.0, "col1", null, null), false);
+        matrix.addItem(new DSMItem(5, null, 2.0, "col2", null, null), false);
+        matrix.modifyConnection(1, 5, "x", 2.0, interfaces);
+        matrix.modifyConnection(3, 4, "x", 3.0, new ArrayList<>());
+        matrix.modifyConnection(1, 4, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(3, 5, "x", 4.0, new ArrayList<>());
+
+        return matrix;
+    }
+
+
+    /**
+     * Tests that the compressed rows contain the connections of each row in the order they were added
+     */
+    @Test
+    public void compressedRowsTest() {
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(createMatrix(new ArrayList<>()));
+
+        Assertions.assertEquals(3, snapshot.getNumRows());
+        Assertions.assertEquals(2, snapshot.getNumCols());
+        Assertions.assertEquals(4, snapshot.getNumEntries());
+
+        int row1 = snapshot.getRowIndex(1);
+        Assertions.assertEquals(2, snapshot.getRowEnd(row1) - snapshot.getRowStart(row1));
+        Assertions.assertEquals(5, snapshot.getColUid(snapshot.getEntryCol(snapshot.getRowStart(row1))));
+        Assertions.assertEquals(2.0, snapshot.getEntryWeight(snapshot.getRowStart(row1)));
+        Assertions.assertEquals(1.0, snapshot.getEntryWeight(snapshot.getRowStart(row1) + 1));
+
+        int row2 = snapshot.getRowIndex(2);
+        Assertions.assertEquals(snapshot.getRowStart(row2), snapshot.getRowEnd(row2));
+        Assertions.assertEquals(-1, snapshot.getRowIndex(4));
+    }
+
+
+    /**
+     * Tests that the entries can be walked in the order the connections were added to the matrix
+     */
+    @Test
+    public void connectionOrderTest() {
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(createMatrix(new ArrayList<>()));
+
+        List<Double> weights = new ArrayList<>();
+        for(int position = 0; position < snapshot.getNumEntries(); position++) {
+            weights.add(snapshot.getEntryWeight(snapshot.getEntryInConnectionOrder(position)));
+        }
+        Assertions.assertEquals(List.of(2.0, 3.0, 1.0, 4.0), weights);
+    }
+
+
+    /**
+     * Tests that the compressed columns refer to the correct entries in order of increasing row index
+     */
+    @Test
+    public void compressedColumnsTest() {
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(createMatrix(new ArrayList<>()));
+
+        int col = snapshot.getColIndex(5);
+        List<Double> weights = new ArrayList<>();
+        List<Integer> rowUids = new ArrayList<>();
+        for(int position = snapshot.getColStart(col); position < snapshot.getColEnd(col); position++) {
+            int entry = snapshot.getColEntry(position);
+            Assertions.assertEquals(col, snapshot.getEntryCol(entry));
+            weights.add(snapshot.getEntryWeight(entry));
+        }
+        for(int row = 0; row < snapshot.getNumRows(); row++) {
+            for(int entry = snapshot.getRowStart(row); entry < snapshot.getRowEnd(row); entry++) {
+                if(snapshot.getEntryCol(entry) == col) {
+                    rowUids.add(snapshot.getRowUid(row));
+                }
+            }
+        }
+
+        Assertions.assertIterableEquals(List.of(2.0, 4.0), weights);
+        Assertions.assertIterableEquals(List.of(1, 3), rowUids);
+    }
+
+
+    /**
+     * Tests that the interfaces of connections are stored as interface sets
+     */
+    @Test
+    public void interfaceSetsTest() {
+        DSMInterfaceType interface1 = new DSMInterfaceType("interface1", "1");
+        DSMInterfaceType interface2 = new DSMInterfaceType("interface2", "2");
+        ArrayList<DSMInterfaceType> interfaces = new ArrayList<>(List.of(interface1, interface2));
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(createMatrix(interfaces));
+
+        Assertions.assertEquals(2, snapshot.getNumInterfaces());
+
+        int entry = snapshot.getRowStart(snapshot.getRowIndex(1));  // the (1, 5) connection
+        int interfaceSet = snapshot.getEntryInterfaceSet(entry);
+        Assertions.assertEquals(2, snapshot.getInterfaceSetSize(interfaceSet));
+        Assertions.assertTrue(snapshot.hasInterface(interfaceSet, snapshot.getInterfaceOrdinal(interface1.getUid())));
+        Assertions.assertTrue(snapshot.hasInterface(interfaceSet, snapshot.getInterfaceOrdinal(interface2.getUid())));
+
+        int otherSet = snapshot.getEntryInterfaceSet(entry + 1);  // the (1, 4) connection
+        Assertions.assertEquals(0, snapshot.getInterfaceSetSize(otherSet));
+        Assertions.assertFalse(snapshot.hasInterface(otherSet, snapshot.getInterfaceOrdinal(interface1.getUid())));
+    }
+
+
+    /**
+     * Tests that changing the matrix after the snapshot was taken does not change the snapshot
+     */
+    @Test
+    public void snapshotIsImmutableTest() {
+        AsymmetricDSMData matrix = createMatrix(new ArrayList<>());
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(matrix);
+
+        matrix.deleteAllConnections();
+        matrix.createItem("row4", true);
+
+        Assertions.assertEquals(3, snapshot.getNumRows());
+        Assertions.assertEquals(4, snapshot.getNumEntries());
+    }
+
+
+    /**
+     * Tests that rows and columns of a symmetric matrix are linked by their aliases
+     */
+    @Test
+    public void symmetricAliasTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.createItem("item1", true);
+        matrix.createItem("item2", true);
+        DSMSparseSnapshot snapshot = new DSMSparseSnapshot(matrix);
+
+        for(int row = 0; row < snapshot.getNumRows(); row++) {
+            int col = snapshot.getRowAlias(row);
+            Assertions.assertEquals(row, snapshot.getColAlias(col));
+            Assertions.assertEquals(matrix.getRowItem(snapshot.getRowUid(row)).getAliasUid(), snapshot.getColUid(col));
+        }
+    }
+}
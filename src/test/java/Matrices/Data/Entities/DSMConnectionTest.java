@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 
 /**
@@ -82,4 +84,58 @@ public class DSMConnectionTest {
         Assertions.assertFalse(conn1.isSameConnectionType(conn2));
     }
 
+
+    /**
+     * Tests that connections sharing an interface table store their interfaces as masks of the same ordinals and
+     * that the interfaces can be filtered by a mask
+     */
+    @Test
+    public void interfaceMaskTest() {
+        DSMInterfaceType interface1 = new DSMInterfaceType("interface1", "1");
+        DSMInterfaceType interface2 = new DSMInterfaceType("interface2", "2");
+        DSMInterfaceType interface3 = new DSMInterfaceType("interface3", "3");
+        InterfaceTypeTable table = new InterfaceTypeTable();
+
+        DSMConnection conn1 = new DSMConnection("conn", 1.0, 1, 2, new ArrayList<>(List.of(interface1, interface3)), table);
+        DSMConnection conn2 = new DSMConnection("conn", 1.0, 3, 4, new ArrayList<>(List.of(interface3)), table);
+        conn2.addInterface(new DSMInterfaceType(interface1));  // matched by uid
+        Assertions.assertEquals(conn1.getInterfaceMask(), conn2.getInterfaceMask());
+        Assertions.assertTrue(conn1.isSameConnectionType(conn2));
+        Assertions.assertSame(interface1, conn2.getInterfaces().get(0));
+
+        BitSet visible = table.maskOf(List.of(interface2, interface3));
+        Assertions.assertTrue(conn1.hasAnyInterface(visible));
+        Assertions.assertEquals(List.of(interface3), conn1.getInterfaces(visible));
+
+        conn1.removeInterface(interface3);
+        Assertions.assertFalse(conn1.hasAnyInterface(visible));
+        Assertions.assertFalse(conn1.isSameConnectionType(conn2));
+
+        DSMConnection copy = new DSMConnection(conn2);  // has its own table so interfaces are compared by uid
+        Assertions.assertNotSame(table, copy.getInterfaceTable());
+        Assertions.assertTrue(copy.isSameConnectionType(conn2));
+    }
+
+
+    /**
+     * Tests visiting the interfaces of a connection, both all of them and only the ones in a mask, in ordinal order
+     */
+    @Test
+    public void forEachInterfaceTest() {
+        DSMInterfaceType interface1 = new DSMInterfaceType("interface1", "1");
+        DSMInterfaceType interface2 = new DSMInterfaceType("interface2", "2");
+        DSMInterfaceType interface3 = new DSMInterfaceType("interface3", "3");
+        InterfaceTypeTable table = new InterfaceTypeTable();
+        table.maskOf(List.of(interface1, interface2, interface3));
+
+        DSMConnection conn = new DSMConnection("conn", 1.0, 1, 2, new ArrayList<>(List.of(interface3, interface1)), table);
+        List<DSMInterfaceType> visited = new ArrayList<>();
+        conn.forEachInterface(visited::add);
+        Assertions.assertEquals(List.of(interface1, interface3), visited);
+
+        visited.clear();
+        conn.forEachInterface(table.maskOf(List.of(interface2, interface3)), visited::add);
+        Assertions.assertEquals(List.of(interface3), visited);
+    }
+
 }
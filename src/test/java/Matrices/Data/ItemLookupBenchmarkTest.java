@@ -0,0 +1,169 @@
+package Matrices.Data;
+
+import Matrices.Data.Entities.DSMItem;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Benchmark for looking up items by uid and alias uid. Compares the indexed lookups of the matrix with the linear
+ * searches over the row and column lists that they replaced. Disabled so that it does not slow down the regular test
+ * run. Remove the annotation or run it on its own to print the timings
+ */
+@Tag("benchmark")
+@Disabled("benchmark, run manually")
+public class ItemLookupBenchmarkTest {
+
+    private static final int[] NUM_ITEMS = {1000, 5000, 10000};
+    private static final int NUM_RUNS = 3;  // the first run warms up the jit and is not reported
+
+
+    /**
+     * Finds an item by uid by searching the rows and then the columns, the same way getItem used to
+     *
+     * @param matrix  the matrix to search
+     * @param uid     the uid of the item
+     * @return        the item
+     */
+    private static DSMItem scanItem(AbstractDSMData matrix, int uid) {
+        for(DSMItem row : matrix.getRows()) {
+            if(row.getUid() == uid) {
+                return row;
+            }
+        }
+        return scanColItem(matrix, uid);
+    }
+
+
+    /**
+     * Finds a column by uid by searching the columns, the same way getColItem used to
+     *
+     * @param matrix  the matrix to search
+     * @param uid     the uid of the column
+     * @return        the column item
+     */
+    private static DSMItem scanColItem(AbstractDSMData matrix, int uid) {
+        for(DSMItem col : matrix.getCols()) {
+            if(col.getUid() == uid) {
+                return col;
+            }
+        }
+        throw new NoSuchElementException();
+    }
+
+
+    /**
+     * Checks if a uid is a row by searching the rows, the same way isRow used to
+     *
+     * @param matrix  the matrix to search
+     * @param uid     the uid of the item
+     * @return        if the item is a row
+     */
+    private static boolean scanIsRow(AbstractDSMData matrix, int uid) {
+        for(DSMItem row : matrix.getRows()) {
+            if(row.getUid() == uid) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Finds an item by alias uid by searching the rows and then the columns, the same way getItemByAlias used to
+     *
+     * @param matrix  the matrix to search
+     * @param uid     the alias uid of the item
+     * @return        the item
+     */
+    private static DSMItem scanItemByAlias(AbstractDSMData matrix, int uid) {
+        for(DSMItem row : matrix.getRows()) {
+            if(row.getAliasUid() == uid) {
+                return row;
+            }
+        }
+        for(DSMItem col : matrix.getCols()) {
+            if(col.getAliasUid() == uid) {
+                return col;
+            }
+        }
+        throw new NoSuchElementException();
+    }
+
+
+    /**
+     * Does one getItem, isRow, getColItem and getItemByAlias for every column of a matrix with the linear searches
+     *
+     * @param matrix  the matrix
+     * @return        a checksum of the results so that the lookups can not be optimized away
+     */
+    private static long lookUpByScanning(AbstractDSMData matrix) {
+        long checksum = 0;
+        for(DSMItem col : matrix.getCols()) {
+            checksum += scanItem(matrix, col.getUid()).getUid();
+            checksum += scanIsRow(matrix, col.getUid()) ? 1 : 0;
+            checksum += scanColItem(matrix, col.getUid()).getUid();
+            checksum += scanItemByAlias(matrix, col.getUid()).getUid();
+        }
+        return checksum;
+    }
+
+
+    /**
+     * Does one getItem, isRow, getColItem and getItemByAlias for every column of a matrix with the indexed lookups
+     *
+     * @param matrix  the matrix
+     * @return        a checksum of the results so that the lookups can not be optimized away
+     */
+    private static long lookUpByIndex(AbstractDSMData matrix) {
+        long checksum = 0;
+        for(DSMItem col : matrix.getCols()) {
+            checksum += matrix.getItem(col.getUid()).getUid();
+            checksum += matrix.isRow(col.getUid()) ? 1 : 0;
+            checksum += matrix.getColItem(col.getUid()).getUid();
+            checksum += matrix.getItemByAlias(col.getUid()).getUid();
+        }
+        return checksum;
+    }
+
+
+    /**
+     * Times the item lookups of symmetric matrices with 1k, 5k and 10k items before and after indexing and prints the
+     * best time of each
+     */
+    @Test
+    public void itemLookupBenchmark() {
+        System.out.println("items   before (ms)   after (ms)");
+        for(int numItems : NUM_ITEMS) {
+            SymmetricDSMData matrix = new SymmetricDSMData();
+            for(int i = 0; i < numItems; i++) {
+                matrix.createItem("item" + i, true);
+            }
+            List<DSMItem> cols = matrix.getCols();
+            Assertions.assertEquals(numItems, cols.size());
+
+            double before = Double.MAX_VALUE;
+            double after = Double.MAX_VALUE;
+            for(int run = 0; run < NUM_RUNS; run++) {
+                long start = System.nanoTime();
+                long scanned = lookUpByScanning(matrix);
+                long middle = System.nanoTime();
+                long indexed = lookUpByIndex(matrix);
+                long end = System.nanoTime();
+                Assertions.assertEquals(scanned, indexed);
+
+                if(run > 0) {
+                    before = Math.min(before, (middle - start) / 1e6);
+                    after = Math.min(after, (end - middle) / 1e6);
+                }
+            }
+            System.out.printf("%-7d %-13.1f %.1f%n", numItems, before, after);
+        }
+    }
+
+}
@@ -362,6 +362,56 @@ public class MultiDomainDSMDataTest {
     }
 
 
+    /**
+     * Tests recoloring the default groupings of two domains. Every domain's default grouping shares the same uid, so
+     * undoing must restore each grouping's own colors rather than the colors of whichever was recorded last
+     */
+    @Test
+    public void undoRecolorDomainDefaultsTest() {
+        MultiDomainDSMData matrix = new MultiDomainDSMData();
+        Grouping domainA = new Grouping("domainA", Color.color(1.0, 1.0, 1.0));
+        Grouping domainB = new Grouping("domainB", Color.color(1.0, 1.0, 1.0));
+        matrix.addDomain(domainA);
+        matrix.addDomain(domainB);
+
+        Grouping defaultA = matrix.getDefaultDomainGroup(domainA);
+        Grouping defaultB = matrix.getDefaultDomainGroup(domainB);
+        Assertions.assertNotSame(defaultA, defaultB);
+        Assertions.assertEquals(defaultA.getUid(), defaultB.getUid());
+
+        defaultA.setColor(Color.color(0.2, 0.2, 0.2));
+        defaultB.setColor(Color.color(0.4, 0.4, 0.4));
+        defaultA.setFontColor(Color.color(0.3, 0.3, 0.3));
+        defaultB.setFontColor(Color.color(0.5, 0.5, 0.5));
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.updateGroupingColor(defaultA, Color.color(1.0, 0.0, 0.0));
+        matrix.updateGroupingFontColor(defaultA, Color.color(0.0, 1.0, 0.0));
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.updateGroupingColor(defaultB, Color.color(0.0, 0.0, 1.0));
+        matrix.updateGroupingFontColor(defaultB, Color.color(1.0, 1.0, 0.0));
+        matrix.setCurrentStateAsCheckpoint();
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(Color.color(1.0, 0.0, 0.0), defaultA.getColor());
+        Assertions.assertEquals(Color.color(0.0, 1.0, 0.0), defaultA.getFontColor());
+        Assertions.assertEquals(Color.color(0.4, 0.4, 0.4), defaultB.getColor());
+        Assertions.assertEquals(Color.color(0.5, 0.5, 0.5), defaultB.getFontColor());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(Color.color(0.2, 0.2, 0.2), defaultA.getColor());
+        Assertions.assertEquals(Color.color(0.3, 0.3, 0.3), defaultA.getFontColor());
+        Assertions.assertEquals(Color.color(0.4, 0.4, 0.4), defaultB.getColor());
+        Assertions.assertEquals(Color.color(0.5, 0.5, 0.5), defaultB.getFontColor());
+
+        matrix.redoToCheckpoint();
+        matrix.redoToCheckpoint();
+        Assertions.assertEquals(Color.color(1.0, 0.0, 0.0), defaultA.getColor());
+        Assertions.assertEquals(Color.color(0.0, 0.0, 1.0), defaultB.getColor());
+        Assertions.assertEquals(Color.color(1.0, 1.0, 0.0), defaultB.getFontColor());
+    }
+
+
     /**
      * Tests setting an item to a domain group already contained in the matrix. Test to ensure the undo-redo works
      */
@@ -427,6 +477,30 @@ public class MultiDomainDSMDataTest {
     }
 
 
+    /**
+     * Tests deleting an item that has no aliased item along with an item that does. Test to ensure the undo-redo
+     * works and that only those items are removed
+     */
+    @Test
+    public void deleteUnaliasedItemTest() {
+        MultiDomainDSMData matrix = new MultiDomainDSMData();
+        matrix.addItem(new DSMItem(1, 11, 1.0, "item1", null, null), true);
+        matrix.addItem(new DSMItem(11, 1, 1.0, "item1", null, null), false);
+        matrix.addItem(new DSMItem(2, 22, 2.0, "item2", null, null), true);
+        matrix.addItem(new DSMItem(22, 2, 2.0, "item2", null, null), false);
+        matrix.addItem(new DSMItem(3, null, 3.0, "item3", null, null), true);
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.deleteItems(List.of(matrix.getItem(3), matrix.getItem(22)));
+
+        stressUndoRedo(matrix);
+
+        Assertions.assertEquals(1, matrix.getRows().size());
+        Assertions.assertEquals(1, matrix.getCols().size());
+        Assertions.assertEquals(1, matrix.getRows().get(0).getUid());
+    }
+
+
     /**
      * Unit test for setting an item's name in the dsm
      */
@@ -703,4 +777,204 @@ public class MultiDomainDSMDataTest {
 
     }
 
+
+    /**
+     * Tests that the connections between two domains are kept up to date when connections are added and removed, when
+     * items are deleted and restored, and when the domain of an item is set
+     */
+    @Test
+    public void domainConnectionsTest() {
+        MultiDomainDSMData matrix = new MultiDomainDSMData();
+        Grouping domain = matrix.getDefaultDomain();
+        Grouping group = matrix.getDefaultDomainGroup(domain);
+        Grouping domain2 = new Grouping("domain2", null);
+        Grouping group2 = new Grouping("group2", null);
+        matrix.addDomain(domain2);
+        matrix.addDomainGrouping(domain2, group2);
+
+        matrix.addItem(new DSMItem(1, 11, 1.0, "item1", group, domain), true);
+        matrix.addItem(new DSMItem(11, 1, 1.0, "item1", group, domain), false);
+        matrix.addItem(new DSMItem(2, 22, 1.0, "item2", group, domain), true);
+        matrix.addItem(new DSMItem(22, 2, 1.0, "item2", group, domain), false);
+        matrix.addItem(new DSMItem(-1, -11, 1.0, "item3", group2, domain2), true);
+        matrix.addItem(new DSMItem(-11, -1, 1.0, "item3", group2, domain2), false);
+
+        matrix.modifyConnection(1, 22, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(1, -11, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(2, -11, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(-1, 11, "x", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        Assertions.assertEquals(1, matrix.getDomainConnections(domain, domain).size());
+        Assertions.assertEquals(2, matrix.getDomainConnections(domain, domain2).size());
+        Assertions.assertEquals(1, matrix.getDomainConnections(domain2, domain).size());
+        Assertions.assertEquals(0, matrix.getDomainConnections(domain2, domain2).size());
+
+        matrix.deleteConnection(1, -11);
+        matrix.deleteItem(matrix.getItem(2));
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(0, matrix.getDomainConnections(domain, domain).size());
+        Assertions.assertEquals(0, matrix.getDomainConnections(domain, domain2).size());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(1, matrix.getDomainConnections(domain, domain).size());
+        Assertions.assertEquals(2, matrix.getDomainConnections(domain, domain2).size());
+
+        matrix.setItemDomain(matrix.getItem(-11), domain);
+        Assertions.assertEquals(0, matrix.getDomainConnections(domain, domain2).size());
+        Assertions.assertEquals(3, matrix.getDomainConnections(domain, domain).size());
+        Assertions.assertEquals(1, matrix.getDomainConnections(domain2, domain).size());
+    }
+
+
+    /**
+     * Tests that the domain and grouping aggregates are kept up to date when connections are added, removed, and
+     * reweighted, when items are regrouped, and when changes are undone
+     */
+    @Test
+    public void domainAggregatesTest() {
+        MultiDomainDSMData matrix = new MultiDomainDSMData();
+        Grouping domain = matrix.getDefaultDomain();
+        Grouping group = matrix.getDefaultDomainGroup(domain);
+        Grouping group1 = new Grouping("group1", null);
+        matrix.addDomainGrouping(domain, group1);
+        Grouping domain2 = new Grouping("domain2", null);
+        matrix.addDomain(domain2);
+        Grouping domain2Group = matrix.getDefaultDomainGroup(domain2);
+
+        matrix.addItem(new DSMItem(1, 11, 1.0, "item1", group, domain), true);
+        matrix.addItem(new DSMItem(11, 1, 1.0, "item1", group, domain), false);
+        matrix.addItem(new DSMItem(2, 22, 2.0, "item2", group, domain), true);
+        matrix.addItem(new DSMItem(22, 2, 2.0, "item2", group, domain), false);
+        matrix.addItem(new DSMItem(3, 33, 1.0, "item3", domain2Group, domain2), true);
+        matrix.addItem(new DSMItem(33, 3, 1.0, "item3", domain2Group, domain2), false);
+
+        matrix.modifyConnection(1, 22, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(1, 33, "x", 2.0, new ArrayList<>());
+        matrix.modifyConnection(2, 33, "x", 3.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        Assertions.assertEquals(1, matrix.getDomainConnectionCount(domain, domain));
+        Assertions.assertEquals(2, matrix.getDomainConnectionCount(domain, domain2));
+        Assertions.assertEquals(5.0, matrix.getDomainWeightSum(domain, domain2));
+        Assertions.assertEquals(0, matrix.getDomainConnectionCount(domain2, domain));
+        Assertions.assertEquals(2, matrix.getGroupingConnectionCount(domain, group, domain2, domain2Group));
+        Assertions.assertEquals(1, matrix.getGroupingConnectionCount(domain, group, domain, group));
+        Assertions.assertEquals(0, matrix.getGroupingConnectionCount(domain2, domain2Group, domain2, domain2Group));  // default groupings share a uid
+
+        matrix.modifyConnection(2, 33, "x", 5.0, new ArrayList<>());
+        matrix.deleteConnection(1, 22);
+        matrix.setItemDomainGroup(matrix.getItem(2), domain, group1);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(7.0, matrix.getDomainWeightSum(domain, domain2));
+        Assertions.assertEquals(0, matrix.getDomainConnectionCount(domain, domain));
+        Assertions.assertEquals(1, matrix.getGroupingConnectionCount(domain, group1, domain2, domain2Group));
+        Assertions.assertEquals(5.0, matrix.getGroupingWeightSum(domain, group1, domain2, domain2Group));
+        Assertions.assertEquals(2.0, matrix.getGroupingWeightSum(domain, group, domain2, domain2Group));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(1, matrix.getDomainConnectionCount(domain, domain));
+        Assertions.assertEquals(5.0, matrix.getDomainWeightSum(domain, domain2));
+        Assertions.assertEquals(0, matrix.getGroupingConnectionCount(domain, group1, domain2, domain2Group));
+        Assertions.assertEquals(5.0, matrix.getGroupingWeightSum(domain, group, domain2, domain2Group));
+    }
+
+
+    /**
+     * Tests applying the changes of a breakout view in place. Asserts that connection, name, and grouping changes are
+     * copied to the matrix and that changes to the structure of the breakout view are not applied
+     */
+    @Test
+    public void applyZoomChangesTest() {
+        MultiDomainDSMData matrix = new MultiDomainDSMData();
+        Grouping domain = matrix.getDefaultDomain();
+        Grouping group = matrix.getDefaultDomainGroup(domain);
+        Grouping group1 = new Grouping("group1", null);
+        matrix.addDomainGrouping(domain, group1);
+
+        matrix.addItem(new DSMItem(1, 11, 1.0, "item1", group, domain), true);
+        matrix.addItem(new DSMItem(11, 1, 1.0, "item1", group, domain), false);
+        matrix.addItem(new DSMItem(2, 22, 2.0, "item2", group, domain), true);
+        matrix.addItem(new DSMItem(22, 2, 2.0, "item2", group, domain), false);
+        matrix.modifyConnectionSymmetric(2, 11, "x", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        SymmetricDSMData breakout = (SymmetricDSMData) matrix.exportZoom(domain, domain);
+        List<MatrixChangeEvent> events = new ArrayList<>();
+        breakout.addChangeListener(events::addAll);
+
+        Grouping breakoutGroup1 = breakout.getGroupings().stream().filter(g -> g.getName().equals("group1")).findFirst().orElseThrow();
+        breakout.modifyConnection(2, 11, "y", 2.0, new ArrayList<>());
+        breakout.deleteConnection(1, 22);
+        breakout.setItemName(breakout.getItem(1), "renamed");
+        breakout.setItemGroup(breakout.getItem(2), breakoutGroup1);
+        breakout.setCurrentStateAsCheckpoint();
+
+        Assertions.assertTrue(matrix.applyZoomChanges(domain, domain, breakout, events));
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals("y", matrix.getConnection(2, 11).getConnectionName());
+        Assertions.assertEquals(2.0, matrix.getConnection(2, 11).getWeight());
+        Assertions.assertNull(matrix.getConnection(1, 22));
+        Assertions.assertEquals("renamed", matrix.getItem(11).getNameValue());
+        Assertions.assertSame(group1, matrix.getItem(2).getGroup1());
+        Assertions.assertSame(group1, matrix.getItem(22).getGroup1());
+
+        matrix.undoToCheckpoint();  // everything was applied as one change
+        Assertions.assertEquals("x", matrix.getConnection(2, 11).getConnectionName());
+        Assertions.assertNotNull(matrix.getConnection(1, 22));
+        Assertions.assertEquals("item1", matrix.getItem(1).getNameValue());
+        Assertions.assertSame(group, matrix.getItem(2).getGroup1());
+
+        events.clear();
+        breakout.addItem(new DSMItem(3, 33, 3.0, "item3", null, null), true);
+        breakout.setCurrentStateAsCheckpoint();
+        Assertions.assertFalse(matrix.applyZoomChanges(domain, domain, breakout, events));
+        Assertions.assertFalse(matrix.isRow(3));
+    }
+
+
+    /**
+     * Tests the grouping statistics of a matrix with two domains. The default groupings of all domains share a uid,
+     * so this checks that a connection between two domains is counted as external to both of their default groupings
+     * and that deleting an item and undoing the deletion keeps the counts right
+     */
+    @Test
+    public void groupingStatisticsTest() {
+        MultiDomainDSMData matrix = new MultiDomainDSMData();
+        Grouping domain1 = new Grouping("domain1", null);
+        Grouping domain2 = new Grouping("domain2", null);
+        matrix.createItem("item1", domain1);
+        matrix.createItem("item2", domain1);
+        matrix.createItem("item3", domain2);
+        DSMItem row1 = matrix.getRows().stream().filter(r -> r.getNameValue().equals("item1")).findFirst().orElseThrow();
+        DSMItem row3 = matrix.getRows().stream().filter(r -> r.getNameValue().equals("item3")).findFirst().orElseThrow();
+        DSMItem col2 = matrix.getCols().stream().filter(c -> c.getNameValue().equals("item2")).findFirst().orElseThrow();
+        DSMItem col3 = matrix.getCols().stream().filter(c -> c.getNameValue().equals("item3")).findFirst().orElseThrow();
+        matrix.modifyConnection(row1.getUid(), col2.getUid(), "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(row1.getUid(), col3.getUid(), "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(row3.getUid(), col2.getUid(), "x", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        MatrixStatistics statistics = matrix.getStatistics();
+        Grouping group1 = matrix.getDefaultDomainGroup(domain1);
+        Grouping group2 = matrix.getDefaultDomainGroup(domain2);
+        Assertions.assertEquals(group1.getUid(), group2.getUid());
+        Assertions.assertEquals(1, statistics.getInternalConnections(group1));
+        Assertions.assertEquals(2, statistics.getExternalConnections(group1));
+        Assertions.assertEquals(0, statistics.getInternalConnections(group2));
+        Assertions.assertEquals(2, statistics.getExternalConnections(group2));
+
+        matrix.deleteItem(row3);
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(1, statistics.getInternalConnections(group1));
+        Assertions.assertEquals(0, statistics.getExternalConnections(group1));
+        Assertions.assertEquals(0, statistics.getExternalConnections(group2));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(1, statistics.getInternalConnections(group1));
+        Assertions.assertEquals(2, statistics.getExternalConnections(group1));
+        Assertions.assertEquals(0, statistics.getInternalConnections(group2));
+        Assertions.assertEquals(2, statistics.getExternalConnections(group2));
+    }
+
 }
@@ -3,13 +3,17 @@ package Matrices.Data;
 import Matrices.Data.Entities.DSMConnection;
 import Matrices.Data.Entities.DSMItem;
 import Matrices.Data.Entities.Grouping;
+import Matrices.Data.Entities.RenderMode;
 import javafx.scene.paint.Color;
+import javafx.util.Pair;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -178,6 +182,26 @@ public class SymmetricDSMDataTest {
     }
 
 
+    /**
+     * Unit test for changing the color of a grouping that does not have a color yet. Asserts that undo puts the
+     * grouping back to having no color
+     */
+    @Test
+    public void updateGroupingColorFromNullTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        Grouping group = new Grouping("group", null);
+        matrix.addGrouping(group);
+
+        matrix.setCurrentStateAsCheckpoint();
+        matrix.updateGroupingColor(group, Color.color(0.0, 0.0, 0.0));
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Color.color(0.0, 0.0, 0.0), group.getColor());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertNull(group.getColor());
+    }
+
+
     /**
      * Unit test for setting an item's group in the dsm to a group that is already in the dsm
      */
@@ -473,4 +497,139 @@ public class SymmetricDSMDataTest {
         Assertions.assertEquals("x", matrix.getSymmetricConnection(1, 33).getConnectionName());
     }
 
+
+    /**
+     * Tests that symmetry errors are found from the alias index and that the index follows the items when they are
+     * transposed and deleted
+     */
+    @Test
+    public void getSymmetryErrorsTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.addItem(new DSMItem(1, 11, 1.0, "item1", null, null), true);
+        matrix.addItem(new DSMItem(2, 22, 1.0, "item2", null, null), true);
+        matrix.addItem(new DSMItem(3, 33, 1.0, "item3", null, null), true);
+        matrix.addItem(new DSMItem(11, 1, 1.0, "item1", null, null), false);
+        matrix.addItem(new DSMItem(22, 2, 1.0, "item2", null, null), false);
+        matrix.addItem(new DSMItem(33, 3, 1.0, "item3", null, null), false);
+
+        matrix.modifyConnection(1, 33, "x", 1.0, new ArrayList<>());
+        matrix.modifyConnection(2, 11, "y", 1.0, new ArrayList<>());
+        matrix.modifyConnection(1, 22, "y", 2.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Set.of(new Pair<>(1, 33), new Pair<>(3, 11), new Pair<>(2, 11), new Pair<>(1, 22)), matrix.getSymmetryErrors());
+
+        matrix.modifyConnection(1, 22, "y", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(Set.of(new Pair<>(1, 33), new Pair<>(3, 11)), matrix.getSymmetryErrors());
+
+        matrix.transposeMatrix();
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(new Pair<>(11, 3), matrix.getSymmetricConnectionUids(33, 1));
+        Assertions.assertEquals(Set.of(new Pair<>(33, 1), new Pair<>(11, 3)), matrix.getSymmetryErrors());
+
+        matrix.deleteItem(matrix.getRowItem(33));
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertNull(matrix.getColByAlias(33));
+        Assertions.assertTrue(matrix.getSymmetryErrors().isEmpty());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(3, matrix.getColByAlias(33).getUid());
+        Assertions.assertEquals(2, matrix.getSymmetryErrors().size());
+    }
+
+
+    /**
+     * Tests that the grid model lays out the items in sort order and that connections to an item's alias can not be
+     * edited
+     */
+    @Test
+    public void gridModelTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        DSMItem row1 = new DSMItem(1, 11, 2.0, "item1", null, null);
+        DSMItem row2 = new DSMItem(2, 22, 1.0, "item2", null, null);
+        matrix.addItem(row1, true);
+        matrix.addItem(row2, true);
+        matrix.addItem(new DSMItem(11, 1, 2.0, "item1", null, null), false);
+        matrix.addItem(new DSMItem(22, 2, 1.0, "item2", null, null), false);
+        matrix.modifyConnection(1, 22, "x", 1.0, new ArrayList<>());
+
+        GridModel model = matrix.getGridModel();
+        Assertions.assertEquals(4, model.getNumRows());
+        Assertions.assertEquals(5, model.getNumCols());
+        Assertions.assertEquals(RenderMode.ITEM_NAME, model.renderModeAt(2, 1));
+        Assertions.assertSame(row2, model.valueAt(2, 1));  // lower sort index comes first
+        Assertions.assertSame(row1, model.getRowItem(3));
+        Assertions.assertNull(model.getRowItem(1));
+
+        Assertions.assertEquals(RenderMode.UNEDITABLE_CONNECTION, model.renderModeAt(2, 3));
+        Assertions.assertEquals(RenderMode.EDITABLE_CONNECTION, model.renderModeAt(3, 3));
+        Assertions.assertEquals("x", ((DSMConnection) model.valueAt(3, 3)).getConnectionName());
+        Assertions.assertNull(model.valueAt(2, 4));
+
+        Assertions.assertEquals(model.getNumRows(), matrix.getGridArray().size());
+    }
+
+
+    /**
+     * Tests deleting several items at once. Test to ensure the aliased items and all connections are removed and that
+     * a single undo brings everything back
+     */
+    @Test
+    public void deleteItemsTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        for(int i = 1; i <= 4; i++) {
+            matrix.addItem(new DSMItem(i, i * 11, i, "item" + i, null, null), true);
+            matrix.addItem(new DSMItem(i * 11, i, i, "item" + i, null, null), false);
+        }
+        matrix.modifyConnection(1, 22, "a", 1.0, new ArrayList<>());
+        matrix.modifyConnection(2, 33, "b", 1.0, new ArrayList<>());
+        matrix.modifyConnection(3, 44, "c", 1.0, new ArrayList<>());
+        matrix.modifyConnection(4, 11, "d", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        DSMItem item11 = matrix.getItem(11);
+        matrix.deleteItems(List.of(matrix.getItem(1), matrix.getItem(33), item11));  // 11 is already deleted with 1
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(2, matrix.getRows().size());
+        Assertions.assertEquals(2, matrix.getCols().size());
+        Assertions.assertFalse(matrix.getRows().stream().anyMatch(row -> row.getUid() == 3));
+        Assertions.assertFalse(matrix.getCols().stream().anyMatch(col -> col.getUid() == 11));
+        Assertions.assertEquals(0, matrix.getConnections().size());
+        Assertions.assertNull(matrix.getConnection(3, 44));
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(4, matrix.getRows().size());
+        Assertions.assertEquals(4, matrix.getCols().size());
+        Assertions.assertEquals(4, matrix.getConnections().size());
+        Assertions.assertEquals("c", matrix.getConnection(3, 44).getConnectionName());
+        Assertions.assertEquals(33, matrix.getColByAlias(3).getUid());
+        Assertions.assertEquals(2, matrix.getRows().indexOf(matrix.getItem(3)));
+    }
+
+
+    /**
+     * Tests deleting an item that has no aliased item, such as a row that was added without its column. Test to
+     * ensure only that item is removed and that undo brings it back
+     */
+    @Test
+    public void deleteUnaliasedItemTest() {
+        SymmetricDSMData matrix = new SymmetricDSMData();
+        matrix.addItem(new DSMItem(1, 11, 1.0, "item1", null, null), true);
+        matrix.addItem(new DSMItem(11, 1, 1.0, "item1", null, null), false);
+        matrix.addItem(new DSMItem(2, null, 2.0, "item2", null, null), true);
+        matrix.modifyConnection(2, 11, "a", 1.0, new ArrayList<>());
+        matrix.setCurrentStateAsCheckpoint();
+
+        matrix.deleteItems(List.of(matrix.getItem(2)));
+        matrix.setCurrentStateAsCheckpoint();
+        Assertions.assertEquals(1, matrix.getRows().size());
+        Assertions.assertEquals(1, matrix.getCols().size());
+        Assertions.assertEquals(0, matrix.getConnections().size());
+
+        matrix.undoToCheckpoint();
+        Assertions.assertEquals(2, matrix.getRows().size());
+        Assertions.assertEquals(1, matrix.getCols().size());
+        Assertions.assertEquals("a", matrix.getConnection(2, 11).getConnectionName());
+    }
+
 }
@@ -0,0 +1,104 @@
+package Matrices.Data;
+
+import Matrices.Data.AbstractDSMData.MatrixChange;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Class for testing the bounded undo history
+ */
+public class UndoHistoryTest {
+
+    /**
+     * Creates a change that does nothing
+     *
+     * @param checkpoint    if the change is a checkpoint
+     * @param sizeEstimate  the size estimate of the change
+     * @return              the change
+     */
+    private static MatrixChange createChange(boolean checkpoint, long sizeEstimate) {
+        return new MatrixChange(() -> {}, () -> {}, checkpoint, sizeEstimate);
+    }
+
+
+    /**
+     * Tests that changes are popped in the reverse order they were pushed, including after the buffer grows
+     */
+    @Test
+    public void pushPopOrderTest() {
+        UndoHistory history = new UndoHistory(Integer.MAX_VALUE, Long.MAX_VALUE, () -> {});
+        List<MatrixChange> pushed = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            MatrixChange change = createChange(false, 1);
+            pushed.add(change);
+            history.push(change);
+        }
+
+        Assertions.assertEquals(100, history.size());
+        Assertions.assertEquals(100, history.getRetainedBytes());
+        for(int i = 99; i >= 0; i--) {
+            Assertions.assertSame(pushed.get(i), history.pop());
+        }
+        Assertions.assertTrue(history.isEmpty());
+        Assertions.assertEquals(0, history.getRetainedBytes());
+    }
+
+
+    /**
+     * Tests that when the entry budget is exceeded whole checkpoint groups are evicted from the bottom
+     */
+    @Test
+    public void evictCheckpointGroupsTest() {
+        UndoHistory history = new UndoHistory(4, Long.MAX_VALUE, () -> {});
+        history.push(createChange(false, 1));
+        history.push(createChange(true, 1));   // first group is 2 changes
+        history.push(createChange(false, 1));
+        history.push(createChange(false, 1));
+        history.push(createChange(true, 1));   // second group is 3 changes
+
+        Assertions.assertEquals(3, history.size());  // first group was evicted as a whole
+        Assertions.assertEquals(3, history.getRetainedBytes());
+        Assertions.assertTrue(history.pop().isCheckpoint());
+    }
+
+
+    /**
+     * Tests that the newest checkpoint group is never evicted even if it is over budget
+     */
+    @Test
+    public void newestGroupKeptTest() {
+        UndoHistory history = new UndoHistory(2, Long.MAX_VALUE, () -> {});
+        history.push(createChange(false, 1));
+        history.push(createChange(false, 1));
+        history.push(createChange(false, 1));  // no checkpoint so there is nothing that can be evicted
+        Assertions.assertEquals(3, history.size());
+
+        history.setTopCheckpoint();
+        history.push(createChange(false, 1));  // now the first group is complete and can be evicted
+        Assertions.assertEquals(1, history.size());
+    }
+
+
+    /**
+     * Tests that the byte budget evicts checkpoint groups
+     */
+    @Test
+    public void byteBudgetTest() {
+        UndoHistory history = new UndoHistory(Integer.MAX_VALUE, 100, () -> {});
+        history.push(createChange(true, 60));
+        history.push(createChange(true, 30));
+        Assertions.assertEquals(2, history.size());
+
+        history.push(createChange(true, 30));
+        Assertions.assertEquals(2, history.size());
+        Assertions.assertEquals(60, history.getRetainedBytes());
+
+        history.setLimits(Integer.MAX_VALUE, 10);
+        Assertions.assertEquals(1, history.size());
+        Assertions.assertEquals(30, history.getRetainedBytes());
+    }
+}